@@ -26,8 +26,15 @@ import org.apache.dolphinscheduler.api.service.LoggerService;
 import org.apache.dolphinscheduler.api.utils.Result;
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.dao.entity.User;
+import org.apache.dolphinscheduler.service.log.LogTailListener;
+import org.apache.dolphinscheduler.service.log.LogTailSubscription;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -39,6 +46,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import io.swagger.annotations.Api;
 import io.swagger.annotations.ApiImplicitParam;
@@ -55,6 +63,11 @@ import springfox.documentation.annotations.ApiIgnore;
 @RequestMapping("/log")
 public class LoggerController extends BaseController {
 
+    /**
+     * max millis of a tail log connection, the client reconnects to go on tailing
+     */
+    private static final long LOG_TAIL_TIMEOUT = 30 * 60 * 1000L;
+
     @Autowired
     private LoggerService loggerService;
 
@@ -101,11 +114,11 @@ public class LoggerController extends BaseController {
     @AccessLogAnnotation(ignoreRequestArgs = "loginUser")
     public ResponseEntity downloadTaskLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
                                           @RequestParam(value = "taskInstanceId") int taskInstanceId) {
-        byte[] logBytes = loggerService.getLogBytes(taskInstanceId);
+        InputStream logStream = loggerService.getLogStream(taskInstanceId);
         return ResponseEntity
             .ok()
             .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + System.currentTimeMillis() + ".log" + "\"")
-            .body(logBytes);
+            .body(new InputStreamResource(logStream));
     }
 
     /**
@@ -157,10 +170,62 @@ public class LoggerController extends BaseController {
     public ResponseEntity downloadTaskLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
                                           @ApiParam(name = "projectCode", value = "PROJECT_CODE", required = true) @PathVariable long projectCode,
                                           @RequestParam(value = "taskInstanceId") int taskInstanceId) {
-        byte[] logBytes = loggerService.getLogBytes(loginUser, projectCode, taskInstanceId);
+        InputStream logStream = loggerService.getLogStream(loginUser, projectCode, taskInstanceId);
         return ResponseEntity
                 .ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + System.currentTimeMillis() + ".log" + "\"")
-                .body(logBytes);
+                .body(new InputStreamResource(logStream));
+    }
+
+    /**
+     * tail log, the log appended to the task log is pushed as server-sent events, one event for the lines of a push
+     *
+     * @param loginUser      login user
+     * @param projectCode    project code
+     * @param taskInstanceId task instance id
+     * @return server-sent event emitter
+     */
+    @ApiOperation(value = "tailLogInSpecifiedProject", notes = "TAIL_TASK_INSTANCE_LOG_IN_SPECIFIED_PROJECT_NOTES")
+    @ApiImplicitParams({
+        @ApiImplicitParam(name = "projectCode", value = "PROJECT_CODE", required = true, type = "Long"),
+        @ApiImplicitParam(name = "taskInstanceId", value = "TASK_ID", required = true, dataType = "Int", example = "100")
+    })
+    @GetMapping(value = "/{projectCode}/tail")
+    @ApiException(QUERY_TASK_INSTANCE_LOG_ERROR)
+    @AccessLogAnnotation(ignoreRequestArgs = "loginUser")
+    public SseEmitter tailLog(@ApiIgnore @RequestAttribute(value = Constants.SESSION_USER) User loginUser,
+                              @ApiParam(name = "projectCode", value = "PROJECT_CODE", required = true) @PathVariable long projectCode,
+                              @RequestParam(value = "taskInstanceId") int taskInstanceId) {
+        SseEmitter emitter = new SseEmitter(LOG_TAIL_TIMEOUT);
+        LogTailSubscription subscription = loggerService.subscribeLog(loginUser, projectCode, taskInstanceId,
+                new LogTailListener() {
+                    @Override
+                    public void onLog(byte[] bytes) {
+                        try {
+                            emitter.send(toEvent(bytes));
+                        } catch (IOException e) {
+                            emitter.completeWithError(e);
+                        }
+                    }
+
+                    @Override
+                    public void onEnd() {
+                        emitter.complete();
+                    }
+                });
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        return emitter;
+    }
+
+    /**
+     * the lines of a push are sent as the data lines of an event, since a data line can not hold a line break
+     */
+    private static SseEmitter.SseEventBuilder toEvent(byte[] bytes) {
+        SseEmitter.SseEventBuilder event = SseEmitter.event();
+        for (String line : new String(bytes, StandardCharsets.UTF_8).split("\\r?\\n|\\r")) {
+            event.data(line);
+        }
+        return event;
     }
 }
@@ -19,7 +19,10 @@ package org.apache.dolphinscheduler.api.service;
 
 import org.apache.dolphinscheduler.api.utils.Result;
 import org.apache.dolphinscheduler.dao.entity.User;
+import org.apache.dolphinscheduler.service.log.LogTailListener;
+import org.apache.dolphinscheduler.service.log.LogTailSubscription;
 
+import java.io.InputStream;
 import java.util.Map;
 
 /**
@@ -46,6 +49,14 @@ public interface LoggerService {
      */
     byte[] getLogBytes(int taskInstId);
 
+    /**
+     * get log stream, the log is read from the worker while the stream is read
+     *
+     * @param taskInstId task instance id
+     * @return log input stream
+     */
+    InputStream getLogStream(int taskInstId);
+
     /**
      * query log
      *
@@ -67,4 +78,25 @@ public interface LoggerService {
      * @return log byte array
      */
     byte[] getLogBytes(User loginUser, long projectCode, int taskInstId);
+
+    /**
+     * get log stream
+     *
+     * @param loginUser   login user
+     * @param projectCode project code
+     * @param taskInstId  task instance id
+     * @return log input stream
+     */
+    InputStream getLogStream(User loginUser, long projectCode, int taskInstId);
+
+    /**
+     * subscribe log, the log appended to the task log is pushed to the listener until the subscription is closed
+     *
+     * @param loginUser   login user
+     * @param projectCode project code
+     * @param taskInstId  task instance id
+     * @param listener    listener of the appended log
+     * @return log subscription
+     */
+    LogTailSubscription subscribeLog(User loginUser, long projectCode, int taskInstId, LogTailListener listener);
 }
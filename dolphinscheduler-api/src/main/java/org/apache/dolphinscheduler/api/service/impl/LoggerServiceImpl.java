@@ -31,10 +31,15 @@ import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskDefinitionMapper;
 import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.service.log.LogClientService;
+import org.apache.dolphinscheduler.service.log.LogTailListener;
+import org.apache.dolphinscheduler.service.log.LogTailSubscription;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 
 import org.apache.commons.lang3.StringUtils;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Map;
 import java.util.Objects;
@@ -125,11 +130,18 @@ public class LoggerServiceImpl extends BaseServiceImpl implements LoggerService
      */
     @Override
     public byte[] getLogBytes(int taskInstId) {
-        TaskInstance taskInstance = processService.findTaskInstanceById(taskInstId);
-        if (taskInstance == null || StringUtils.isBlank(taskInstance.getHost())) {
-            throw new ServiceException("task instance is null or host is null");
-        }
-        return getLogBytes(taskInstance);
+        return getLogBytes(checkTaskInstance(taskInstId));
+    }
+
+    /**
+     * get log stream
+     *
+     * @param taskInstId task instance id
+     * @return log input stream
+     */
+    @Override
+    public InputStream getLogStream(int taskInstId) {
+        return getLogStream(checkTaskInstance(taskInstId));
     }
 
     /**
@@ -178,9 +190,65 @@ public class LoggerServiceImpl extends BaseServiceImpl implements LoggerService
      */
     @Override
     public byte[] getLogBytes(User loginUser, long projectCode, int taskInstId) {
+        return getLogBytes(checkTaskInstance(loginUser, projectCode, taskInstId, DOWNLOAD_LOG));
+    }
+
+    /**
+     * get log stream
+     *
+     * @param loginUser   login user
+     * @param projectCode project code
+     * @param taskInstId  task instance id
+     * @return log input stream
+     */
+    @Override
+    public InputStream getLogStream(User loginUser, long projectCode, int taskInstId) {
+        return getLogStream(checkTaskInstance(loginUser, projectCode, taskInstId, DOWNLOAD_LOG));
+    }
+
+    /**
+     * subscribe log
+     *
+     * @param loginUser   login user
+     * @param projectCode project code
+     * @param taskInstId  task instance id
+     * @param listener    listener of the appended log
+     * @return log subscription
+     */
+    @Override
+    public LogTailSubscription subscribeLog(User loginUser, long projectCode, int taskInstId, LogTailListener listener) {
+        TaskInstance taskInstance = checkTaskInstance(loginUser, projectCode, taskInstId, VIEW_LOG);
+        Host host = Host.of(taskInstance.getHost());
+        return logClient.subscribeLog(host.getIp(), host.getPort(), taskInstance.getLogPath(), listener);
+    }
+
+    /**
+     * check the task instance can be downloaded
+     *
+     * @param taskInstId task instance id
+     * @return task instance
+     */
+    private TaskInstance checkTaskInstance(int taskInstId) {
+        TaskInstance taskInstance = processService.findTaskInstanceById(taskInstId);
+        if (taskInstance == null || StringUtils.isBlank(taskInstance.getHost())) {
+            throw new ServiceException("task instance is null or host is null");
+        }
+        return taskInstance;
+    }
+
+    /**
+     * check the login user has the permission on the log of the task instance in the project
+     *
+     * @param loginUser   login user
+     * @param projectCode project code
+     * @param taskInstId  task instance id
+     * @param permission  permission on the log
+     * @return task instance
+     */
+    private TaskInstance checkTaskInstance(User loginUser, long projectCode, int taskInstId, String permission) {
         Project project = projectMapper.queryByCode(projectCode);
         //check user access for project
-        Map<String, Object> result = projectService.checkProjectAndAuth(loginUser, project, projectCode,DOWNLOAD_LOG);
+        Map<String, Object> result = projectService.checkProjectAndAuth(loginUser, project, projectCode, permission);
         if (result.get(Constants.STATUS) != Status.SUCCESS) {
             throw new ServiceException("user has no permission");
         }
@@ -194,7 +262,7 @@ public class LoggerServiceImpl extends BaseServiceImpl implements LoggerService
         if (taskDefinition != null && projectCode != taskDefinition.getProjectCode()) {
             throw new ServiceException("task instance does not exist in project");
         }
-        return getLogBytes(task);
+        return task;
     }
 
     /**
@@ -241,4 +309,20 @@ public class LoggerServiceImpl extends BaseServiceImpl implements LoggerService
         return Bytes.concat(head,
                 logClient.getLogBytes(host.getIp(), host.getPort(), taskInstance.getLogPath()));
     }
+
+    /**
+     * get log stream, the head is followed by the log streamed from the worker
+     *
+     * @param taskInstance task instance
+     * @return log input stream
+     */
+    private InputStream getLogStream(TaskInstance taskInstance) {
+        Host host = Host.of(taskInstance.getHost());
+        byte[] head = String.format(LOG_HEAD_FORMAT,
+                taskInstance.getLogPath(),
+                host,
+                Constants.SYSTEM_LINE_SEPARATOR).getBytes(StandardCharsets.UTF_8);
+        return new SequenceInputStream(new ByteArrayInputStream(head),
+                logClient.getLogStream(host.getIp(), host.getPort(), taskInstance.getLogPath()));
+    }
 }
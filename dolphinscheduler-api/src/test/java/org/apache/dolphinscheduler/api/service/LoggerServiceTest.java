@@ -18,6 +18,7 @@
 package org.apache.dolphinscheduler.api.service;
 
 import org.apache.dolphinscheduler.api.enums.Status;
+import org.apache.dolphinscheduler.api.exceptions.ServiceException;
 import org.apache.dolphinscheduler.api.service.impl.LoggerServiceImpl;
 import org.apache.dolphinscheduler.api.utils.Result;
 import org.apache.dolphinscheduler.common.Constants;
@@ -28,11 +29,19 @@ import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.entity.User;
 import org.apache.dolphinscheduler.dao.mapper.ProjectMapper;
 import org.apache.dolphinscheduler.dao.mapper.TaskDefinitionMapper;
+import org.apache.dolphinscheduler.service.log.LogTailListener;
+import org.apache.dolphinscheduler.service.log.LogTailSubscription;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 
+import org.apache.commons.io.IOUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.text.MessageFormat;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.After;
 import org.junit.Assert;
@@ -136,6 +145,28 @@ public class LoggerServiceTest {
 
     }
 
+    @Test
+    public void testGetLogStream() throws IOException {
+        TaskInstance taskInstance = new TaskInstance();
+        Mockito.when(processService.findTaskInstanceById(1)).thenReturn(taskInstance);
+
+        //task instance host is null
+        try {
+            loggerService.getLogStream(1);
+            Assert.fail();
+        } catch (ServiceException e) {
+            Assert.assertEquals("task instance is null or host is null", e.getMessage());
+        }
+
+        //the log server is not reachable, only the head is read
+        taskInstance.setHost("127.0.0.1:8080");
+        taskInstance.setLogPath("/temp/log");
+        try (InputStream logStream = loggerService.getLogStream(1)) {
+            String log = IOUtils.toString(logStream, StandardCharsets.UTF_8);
+            Assert.assertTrue(log.startsWith("[LOG-PATH]: /temp/log"));
+        }
+    }
+
     @Test
     public void testQueryLogInSpecifiedProject() {
         long projectCode = 1L;
@@ -190,6 +221,46 @@ public class LoggerServiceTest {
         loggerService.getLogBytes(loginUser, projectCode, 1);
     }
 
+    @Test
+    public void testSubscribeLogInSpecifiedProject() {
+        long projectCode = 1L;
+        Project project = getProject(projectCode);
+        Mockito.when(projectMapper.queryByCode(projectCode)).thenReturn(project);
+
+        User loginUser = new User();
+        loginUser.setId(-1);
+        loginUser.setUserType(UserType.GENERAL_USER);
+        Map<String, Object> result = new HashMap<>();
+        putMsg(result, Status.SUCCESS, projectCode);
+        TaskInstance taskInstance = new TaskInstance();
+        TaskDefinition taskDefinition = new TaskDefinition();
+        taskDefinition.setProjectCode(projectCode);
+        taskDefinition.setCode(1L);
+        taskInstance.setTaskCode(1L);
+        taskInstance.setId(1);
+        taskInstance.setHost("127.0.0.1:8080");
+        taskInstance.setLogPath("/temp/log");
+        Mockito.when(projectService.checkProjectAndAuth(loginUser, project, projectCode, VIEW_LOG)).thenReturn(result);
+        Mockito.when(processService.findTaskInstanceById(1)).thenReturn(taskInstance);
+        Mockito.when(taskDefinitionMapper.queryByCode(taskInstance.getTaskCode())).thenReturn(taskDefinition);
+
+        //the log server is not reachable, the subscription is ended
+        AtomicBoolean ended = new AtomicBoolean(false);
+        LogTailSubscription subscription = loggerService.subscribeLog(loginUser, projectCode, 1, new LogTailListener() {
+            @Override
+            public void onLog(byte[] bytes) {
+                Assert.fail();
+            }
+
+            @Override
+            public void onEnd() {
+                ended.set(true);
+            }
+        });
+        Assert.assertTrue(subscription.isEnded());
+        Assert.assertTrue(ended.get());
+    }
+
     @After
     public void close() {
         this.loggerService.close();
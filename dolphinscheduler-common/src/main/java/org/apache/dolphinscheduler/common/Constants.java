@@ -391,7 +391,7 @@ public final class Constants {
     public static final long CACHE_REFRESH_TIME_MILLIS = 20 * 1_000L;
 
     /**
-     * heartbeat for zk info length
+     * heartbeat for zk info length, the fields appended later are optional
      */
     public static final int HEARTBEAT_FOR_ZOOKEEPER_INFO_LENGTH = 14;
 
@@ -36,12 +36,12 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * analysis of DAG
+ * analysis of DAG, it is mutable and used to edit a dag, see {@link TaskDAG} for the compiled dag of the tasks
  * Node: node
  * NodeInfo：node description information
  * EdgeInfo: edge description information
  */
-public class DAG<Node, NodeInfo, EdgeInfo> {
+public class DAG<Node, NodeInfo, EdgeInfo> implements DAGView<Node, NodeInfo> {
     private static final Logger logger = LoggerFactory.getLogger(DAG.class);
 
     private final ReadWriteLock lock = new ReentrantReadWriteLock();
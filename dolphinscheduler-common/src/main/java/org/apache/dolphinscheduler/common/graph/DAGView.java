@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.graph;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * read operations of a dag
+ * Node: node
+ * NodeInfo：node description information
+ */
+public interface DAGView<Node, NodeInfo> {
+
+    /**
+     * whether this node is contained
+     *
+     * @param node node
+     * @return true if contains
+     */
+    boolean containsNode(Node node);
+
+    /**
+     * get node description
+     *
+     * @param node node
+     * @return node description, null if the node is not contained
+     */
+    NodeInfo getNode(Node node);
+
+    /**
+     * Get the number of nodes
+     *
+     * @return the number of nodes
+     */
+    int getNodesCount();
+
+    /**
+     * get the start node of DAG
+     *
+     * @return the start node of DAG
+     */
+    Collection<Node> getBeginNode();
+
+    /**
+     * get the end node of DAG
+     *
+     * @return the end node of DAG
+     */
+    Collection<Node> getEndNode();
+
+    /**
+     * Gets all previous nodes of the node
+     *
+     * @param node node id to be calculated
+     * @return all previous nodes of the node
+     */
+    Set<Node> getPreviousNodes(Node node);
+
+    /**
+     * Get all subsequent nodes of the node
+     *
+     * @param node node id to be calculated
+     * @return all subsequent nodes of the node
+     */
+    Set<Node> getSubsequentNodes(Node node);
+
+    /**
+     * Gets the degree of entry of the node
+     *
+     * @param node node id
+     * @return the degree of entry of the node
+     */
+    int getIndegree(Node node);
+}
@@ -0,0 +1,389 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.graph;
+
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable dag of the task nodes, it is compiled once and then only read, so no lock is needed.
+ * <p>
+ * The nodes are numbered by int indexes in topological order, the edges are kept in CSR arrays:
+ * the successors of the node i are successors[successorOffsets[i]] to successors[successorOffsets[i + 1] - 1],
+ * and the same for the predecessors. The in-degree and the begin/end nodes are computed when it is built,
+ * the task code of a node is found by a binary search on the sorted codes.
+ * <p>
+ * The nodes are keyed by the string of the task code in the {@link DAGView} methods, as the mutable {@link DAG} is.
+ */
+public final class TaskDAG implements DAGView<String, TaskNode> {
+
+    private static final TaskDAG EMPTY = new TaskDAG(Collections.emptyList(), Collections.emptyList());
+
+    /**
+     * index to task code
+     */
+    private final long[] codes;
+
+    /**
+     * index to the string of the task code
+     */
+    private final String[] codeStrings;
+
+    /**
+     * index to task node
+     */
+    private final TaskNode[] nodes;
+
+    /**
+     * task codes in ascending order and their indexes
+     */
+    private final long[] sortedCodes;
+
+    private final int[] sortedIndexes;
+
+    private final int[] successorOffsets;
+
+    private final int[] successors;
+
+    private final int[] predecessorOffsets;
+
+    private final int[] predecessors;
+
+    private final BitSet beginNodes;
+
+    private final BitSet endNodes;
+
+    private final Set<String> beginNodeCodes;
+
+    private final Set<String> endNodeCodes;
+
+    private TaskDAG(Collection<TaskNode> taskNodes, Collection<TaskNodeRelation> relations) {
+        // the later node of the same code replaces the former one, as DAG.addNode does
+        Map<Long, TaskNode> nodeMap = new LinkedHashMap<>();
+        for (TaskNode taskNode : taskNodes) {
+            nodeMap.put(taskNode.getCode(), taskNode);
+        }
+        int size = nodeMap.size();
+        long[] inputCodes = new long[size];
+        TaskNode[] inputNodes = new TaskNode[size];
+        Map<Long, Integer> inputIndexes = new HashMap<>(size * 2);
+        int i = 0;
+        for (Map.Entry<Long, TaskNode> entry : nodeMap.entrySet()) {
+            inputCodes[i] = entry.getKey();
+            inputNodes[i] = entry.getValue();
+            inputIndexes.put(entry.getKey(), i);
+            i++;
+        }
+
+        // the edges in input indexes, the duplicated edges and the edges of unknown nodes are ignored
+        int[] edgeFrom = new int[relations.size()];
+        int[] edgeTo = new int[relations.size()];
+        int edgeCount = 0;
+        Set<Long> edgeKeys = new HashSet<>(relations.size() * 2);
+        for (TaskNodeRelation relation : relations) {
+            Integer from = inputIndexes.get(parseCode(relation.getStartNode()));
+            Integer to = inputIndexes.get(parseCode(relation.getEndNode()));
+            if (from == null || to == null || from.equals(to)) {
+                continue;
+            }
+            if (edgeKeys.add((long) from * size + to)) {
+                edgeFrom[edgeCount] = from;
+                edgeTo[edgeCount] = to;
+                edgeCount++;
+            }
+        }
+
+        // topological order of the input indexes
+        int[] inputOffsets = buildOffsets(size, edgeFrom, edgeCount);
+        int[] inputSuccessors = buildAdjacency(inputOffsets, edgeFrom, edgeTo, edgeCount);
+        int[] remainIndegrees = new int[size];
+        for (int e = 0; e < edgeCount; e++) {
+            remainIndegrees[edgeTo[e]]++;
+        }
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int n = 0; n < size; n++) {
+            if (remainIndegrees[n] == 0) {
+                queue.add(n);
+            }
+        }
+        int[] order = new int[size];
+        int sorted = 0;
+        while (!queue.isEmpty()) {
+            int n = queue.poll();
+            order[sorted++] = n;
+            for (int s = inputOffsets[n]; s < inputOffsets[n + 1]; s++) {
+                if (--remainIndegrees[inputSuccessors[s]] == 0) {
+                    queue.add(inputSuccessors[s]);
+                }
+            }
+        }
+        if (sorted != size) {
+            throw new IllegalArgumentException("serious error: graph has cycle ! ");
+        }
+
+        // renumber the nodes in topological order
+        int[] newIndexes = new int[size];
+        this.codes = new long[size];
+        this.codeStrings = new String[size];
+        this.nodes = new TaskNode[size];
+        for (int n = 0; n < size; n++) {
+            newIndexes[order[n]] = n;
+            codes[n] = inputCodes[order[n]];
+            codeStrings[n] = Long.toString(codes[n]);
+            nodes[n] = inputNodes[order[n]];
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            edgeFrom[e] = newIndexes[edgeFrom[e]];
+            edgeTo[e] = newIndexes[edgeTo[e]];
+        }
+        this.successorOffsets = buildOffsets(size, edgeFrom, edgeCount);
+        this.successors = buildAdjacency(successorOffsets, edgeFrom, edgeTo, edgeCount);
+        this.predecessorOffsets = buildOffsets(size, edgeTo, edgeCount);
+        this.predecessors = buildAdjacency(predecessorOffsets, edgeTo, edgeFrom, edgeCount);
+
+        Integer[] byCode = new Integer[size];
+        for (int n = 0; n < size; n++) {
+            byCode[n] = n;
+        }
+        Arrays.sort(byCode, (a, b) -> Long.compare(codes[a], codes[b]));
+        this.sortedCodes = new long[size];
+        this.sortedIndexes = new int[size];
+        for (int n = 0; n < size; n++) {
+            sortedIndexes[n] = byCode[n];
+            sortedCodes[n] = codes[byCode[n]];
+        }
+
+        this.beginNodes = new BitSet(size);
+        this.endNodes = new BitSet(size);
+        Set<String> begin = new LinkedHashSet<>();
+        Set<String> end = new LinkedHashSet<>();
+        for (int n = 0; n < size; n++) {
+            if (getIndegree(n) == 0) {
+                beginNodes.set(n);
+                begin.add(codeStrings[n]);
+            }
+            if (getOutdegree(n) == 0) {
+                endNodes.set(n);
+                end.add(codeStrings[n]);
+            }
+        }
+        this.beginNodeCodes = Collections.unmodifiableSet(begin);
+        this.endNodeCodes = Collections.unmodifiableSet(end);
+    }
+
+    /**
+     * build the dag of the task nodes
+     *
+     * @param taskNodes task nodes
+     * @param relations edges between the task nodes, keyed by the string of the task code
+     * @return the dag
+     * @throws IllegalArgumentException if the graph has cycle
+     */
+    public static TaskDAG of(Collection<TaskNode> taskNodes, Collection<TaskNodeRelation> relations) {
+        if (taskNodes.isEmpty()) {
+            return EMPTY;
+        }
+        return new TaskDAG(taskNodes, relations);
+    }
+
+    /**
+     * @return the dag without node
+     */
+    public static TaskDAG empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Get the index of the task code
+     *
+     * @param code task code
+     * @return the index, -1 if the task is not contained
+     */
+    public int indexOf(long code) {
+        int position = Arrays.binarySearch(sortedCodes, code);
+        return position < 0 ? -1 : sortedIndexes[position];
+    }
+
+    /**
+     * Get the index of the node
+     *
+     * @param node string of the task code
+     * @return the index, -1 if the task is not contained
+     */
+    public int indexOf(String node) {
+        Long code = parseCode(node);
+        return code == null ? -1 : indexOf(code);
+    }
+
+    public long getCode(int index) {
+        return codes[index];
+    }
+
+    public TaskNode getTaskNode(int index) {
+        return nodes[index];
+    }
+
+    public int getIndegree(int index) {
+        return predecessorOffsets[index + 1] - predecessorOffsets[index];
+    }
+
+    public int getOutdegree(int index) {
+        return successorOffsets[index + 1] - successorOffsets[index];
+    }
+
+    /**
+     * Get the i-th successor of the node
+     *
+     * @param index index of the node
+     * @param i 0 to the out-degree of the node - 1
+     * @return index of the successor
+     */
+    public int getSuccessor(int index, int i) {
+        return successors[successorOffsets[index] + i];
+    }
+
+    /**
+     * Get the i-th predecessor of the node
+     *
+     * @param index index of the node
+     * @param i 0 to the in-degree of the node - 1
+     * @return index of the predecessor
+     */
+    public int getPredecessor(int index, int i) {
+        return predecessors[predecessorOffsets[index] + i];
+    }
+
+    public boolean isBeginNode(int index) {
+        return beginNodes.get(index);
+    }
+
+    public boolean isEndNode(int index) {
+        return endNodes.get(index);
+    }
+
+    /**
+     * @return the task codes in topological order, which is the order of the indexes
+     */
+    public long[] topologicalSort() {
+        return codes.clone();
+    }
+
+    @Override
+    public boolean containsNode(String node) {
+        return indexOf(node) >= 0;
+    }
+
+    @Override
+    public TaskNode getNode(String node) {
+        int index = indexOf(node);
+        return index < 0 ? null : nodes[index];
+    }
+
+    @Override
+    public int getNodesCount() {
+        return codes.length;
+    }
+
+    /**
+     * @return the number of edges
+     */
+    public int getEdgesCount() {
+        return successors.length;
+    }
+
+    @Override
+    public Set<String> getBeginNode() {
+        return beginNodeCodes;
+    }
+
+    @Override
+    public Set<String> getEndNode() {
+        return endNodeCodes;
+    }
+
+    @Override
+    public Set<String> getPreviousNodes(String node) {
+        return getNeighborNodes(indexOf(node), predecessorOffsets, predecessors);
+    }
+
+    @Override
+    public Set<String> getSubsequentNodes(String node) {
+        return getNeighborNodes(indexOf(node), successorOffsets, successors);
+    }
+
+    @Override
+    public int getIndegree(String node) {
+        int index = indexOf(node);
+        return index < 0 ? 0 : getIndegree(index);
+    }
+
+
+    private Set<String> getNeighborNodes(int index, int[] offsets, int[] neighbors) {
+        if (index < 0 || offsets[index] == offsets[index + 1]) {
+            return Collections.emptySet();
+        }
+        Set<String> neighborNodes = new LinkedHashSet<>();
+        for (int i = offsets[index]; i < offsets[index + 1]; i++) {
+            neighborNodes.add(codeStrings[neighbors[i]]);
+        }
+        return Collections.unmodifiableSet(neighborNodes);
+    }
+
+    private static Long parseCode(String node) {
+        if (node == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(node);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static int[] buildOffsets(int size, int[] edgeKeys, int edgeCount) {
+        int[] offsets = new int[size + 1];
+        for (int e = 0; e < edgeCount; e++) {
+            offsets[edgeKeys[e] + 1]++;
+        }
+        for (int n = 0; n < size; n++) {
+            offsets[n + 1] += offsets[n];
+        }
+        return offsets;
+    }
+
+    private static int[] buildAdjacency(int[] offsets, int[] edgeKeys, int[] edgeValues, int edgeCount) {
+        int[] adjacency = new int[edgeCount];
+        int[] positions = Arrays.copyOf(offsets, offsets.length - 1);
+        for (int e = 0; e < edgeCount; e++) {
+            adjacency[positions[edgeKeys[e]]++] = edgeValues[e];
+        }
+        return adjacency;
+    }
+}
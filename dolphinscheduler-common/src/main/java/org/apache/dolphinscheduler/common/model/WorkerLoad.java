@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.model;
+
+import java.io.Serializable;
+
+/**
+ * worker load, reported by the worker in the heartbeat and with the task events
+ */
+public class WorkerLoad implements Serializable {
+
+    /**
+     * worker address, host:port
+     */
+    private String host;
+
+    /**
+     * tasks running in the exec threads
+     */
+    private int runningTaskCount;
+
+    /**
+     * tasks waiting for an exec thread
+     */
+    private int waitingTaskCount;
+
+    /**
+     * exec thread count
+     */
+    private int execThreadCount;
+
+    /**
+     * tasks finished per second recently
+     */
+    private double taskCompletionRate;
+
+    /**
+     * time of the load on the worker
+     */
+    private long reportTime;
+
+    public WorkerLoad() {
+    }
+
+    public WorkerLoad(String host, int runningTaskCount, int waitingTaskCount, int execThreadCount, double taskCompletionRate, long reportTime) {
+        this.host = host;
+        this.runningTaskCount = runningTaskCount;
+        this.waitingTaskCount = waitingTaskCount;
+        this.execThreadCount = execThreadCount;
+        this.taskCompletionRate = taskCompletionRate;
+        this.reportTime = reportTime;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public int getRunningTaskCount() {
+        return runningTaskCount;
+    }
+
+    public void setRunningTaskCount(int runningTaskCount) {
+        this.runningTaskCount = runningTaskCount;
+    }
+
+    public int getWaitingTaskCount() {
+        return waitingTaskCount;
+    }
+
+    public void setWaitingTaskCount(int waitingTaskCount) {
+        this.waitingTaskCount = waitingTaskCount;
+    }
+
+    public int getExecThreadCount() {
+        return execThreadCount;
+    }
+
+    public void setExecThreadCount(int execThreadCount) {
+        this.execThreadCount = execThreadCount;
+    }
+
+    public double getTaskCompletionRate() {
+        return taskCompletionRate;
+    }
+
+    public void setTaskCompletionRate(double taskCompletionRate) {
+        this.taskCompletionRate = taskCompletionRate;
+    }
+
+    public long getReportTime() {
+        return reportTime;
+    }
+
+    public void setReportTime(long reportTime) {
+        this.reportTime = reportTime;
+    }
+
+    /**
+     * get the free exec threads
+     *
+     * @return free exec thread count
+     */
+    public int freeSlotCount() {
+        return Math.max(execThreadCount - runningTaskCount - waitingTaskCount, 0);
+    }
+
+    @Override
+    public String toString() {
+        return "WorkerLoad{"
+                + "host='" + host + '\''
+                + ", runningTaskCount=" + runningTaskCount
+                + ", waitingTaskCount=" + waitingTaskCount
+                + ", execThreadCount=" + execThreadCount
+                + ", taskCompletionRate=" + taskCompletionRate
+                + ", reportTime=" + reportTime
+                + '}';
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.timer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A passive hierarchical timing wheel, the deadlines are bucketed by tick, and the buckets of the upper level
+ * are cascaded to the lower levels when the wheel is advanced.
+ * <p>
+ * Insert and cancel are O(1), advance is proportional to the elapsed ticks and the expired keys.
+ * The wheel is driven by the caller through {@link #advance(long)}, it never fires a deadline before it is reached,
+ * but may fire it up to one tick late.
+ *
+ * @param <K> the key of the timeout, each key has at most one deadline in the wheel
+ */
+public class HierarchicalTimingWheel<K> {
+
+    /**
+     * the time span of a bucket in the lowest level, in milliseconds
+     */
+    private final long tickMs;
+
+    /**
+     * the bucket count of each level
+     */
+    private final int wheelSize;
+
+    /**
+     * levels of the wheel, the tick of the level i is tickMs * wheelSize^i
+     */
+    private final List<Level<K>> levels = new ArrayList<>();
+
+    /**
+     * key as key, the entry in the wheel as value
+     */
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+
+    /**
+     * the start time of the lowest level tick which has not expired yet
+     */
+    private long currentTime;
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("tickMs must be positive, but is " + tickMs);
+        }
+        if (wheelSize <= 1) {
+            throw new IllegalArgumentException("wheelSize must be bigger than 1, but is " + wheelSize);
+        }
+        this.tickMs = tickMs;
+        this.wheelSize = wheelSize;
+        this.currentTime = startMs - startMs % tickMs;
+        this.levels.add(new Level<>(tickMs, wheelSize));
+    }
+
+    /**
+     * Add the key with the given deadline, the previous deadline of the key will be replaced.
+     */
+    public synchronized void add(K key, long deadlineMs) {
+        Entry<K> entry = entries.get(key);
+        if (entry != null) {
+            entry.unlink();
+        } else {
+            entry = new Entry<>(key);
+            entries.put(key, entry);
+        }
+        entry.deadline = deadlineMs;
+        place(entry);
+    }
+
+    /**
+     * Cancel the deadline of the key.
+     *
+     * @return true if the key is in the wheel
+     */
+    public synchronized boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.unlink();
+        return true;
+    }
+
+    public synchronized boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Advance the wheel to the given time.
+     *
+     * @return the keys whose deadline has been reached, they are removed from the wheel
+     */
+    public synchronized List<K> advance(long nowMs) {
+        List<K> expiredKeys = new ArrayList<>();
+        while (currentTime + tickMs <= nowMs) {
+            if (entries.isEmpty()) {
+                // nothing to expire, jump to the tick of now directly
+                currentTime = nowMs - nowMs % tickMs;
+                break;
+            }
+            Entry<K> entry = levels.get(0).bucket(currentTime).poll();
+            while (entry != null) {
+                entries.remove(entry.key);
+                expiredKeys.add(entry.key);
+                entry = levels.get(0).bucket(currentTime).poll();
+            }
+            currentTime += tickMs;
+            cascade();
+        }
+        return expiredKeys;
+    }
+
+    /**
+     * Move the entries in the upper level buckets which become current into the lower levels.
+     */
+    private void cascade() {
+        for (int i = levels.size() - 1; i > 0; i--) {
+            Level<K> level = levels.get(i);
+            if (currentTime % level.tick != 0) {
+                continue;
+            }
+            Bucket<K> bucket = level.bucket(currentTime);
+            Entry<K> entry = bucket.poll();
+            while (entry != null) {
+                place(entry);
+                entry = bucket.poll();
+            }
+        }
+    }
+
+    private void place(Entry<K> entry) {
+        if (entry.deadline < currentTime + tickMs) {
+            // already expired, will be fired at the next advance
+            levels.get(0).bucket(currentTime).offer(entry);
+            return;
+        }
+        for (int i = 0; ; i++) {
+            if (i == levels.size()) {
+                Level<K> lower = levels.get(i - 1);
+                levels.add(new Level<>(lower.tick * wheelSize, wheelSize));
+            }
+            Level<K> level = levels.get(i);
+            long levelStart = currentTime - currentTime % level.tick;
+            if (entry.deadline < levelStart + level.span) {
+                level.bucket(entry.deadline).offer(entry);
+                return;
+            }
+        }
+    }
+
+    private static final class Level<K> {
+
+        private final long tick;
+
+        private final long span;
+
+        private final Bucket<K>[] buckets;
+
+        @SuppressWarnings("unchecked")
+        Level(long tick, int wheelSize) {
+            this.tick = tick;
+            this.span = tick * wheelSize;
+            this.buckets = new Bucket[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new Bucket<>();
+            }
+        }
+
+        Bucket<K> bucket(long time) {
+            return buckets[(int) ((time / tick) % buckets.length)];
+        }
+    }
+
+    /**
+     * Doubly linked list with a sentinel head, so that an entry can unlink itself in O(1).
+     */
+    private static final class Bucket<K> {
+
+        private final Entry<K> head = new Entry<>(null);
+
+        Bucket() {
+            head.prev = head;
+            head.next = head;
+        }
+
+        void offer(Entry<K> entry) {
+            entry.prev = head.prev;
+            entry.next = head;
+            head.prev.next = entry;
+            head.prev = entry;
+        }
+
+        Entry<K> poll() {
+            Entry<K> first = head.next;
+            if (first == head) {
+                return null;
+            }
+            first.unlink();
+            return first;
+        }
+    }
+
+    private static final class Entry<K> {
+
+        private final K key;
+
+        private long deadline;
+
+        private Entry<K> prev;
+
+        private Entry<K> next;
+
+        Entry(K key) {
+            this.key = key;
+        }
+
+        void unlink() {
+            if (prev == null) {
+                return;
+            }
+            prev.next = next;
+            next.prev = prev;
+            prev = null;
+            next = null;
+        }
+    }
+}
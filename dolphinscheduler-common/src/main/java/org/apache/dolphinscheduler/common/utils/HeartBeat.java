@@ -18,6 +18,7 @@
 package org.apache.dolphinscheduler.common.utils;
 
 import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.model.WorkerLoad;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -40,6 +41,8 @@ public class HeartBeat {
     private int workerHostWeight; // worker host weight
     private int workerWaitingTaskCount; // worker waiting task count
     private int workerExecThreadCount; // worker thread pool thread count
+    private int workerRunningTaskCount; // worker running task count
+    private double workerTaskCompletionRate; // worker tasks finished per second recently
 
     private double diskAvailable;
 
@@ -155,6 +158,43 @@ public class HeartBeat {
         this.workerExecThreadCount = workerExecThreadCount;
     }
 
+    public int getWorkerRunningTaskCount() {
+        return workerRunningTaskCount;
+    }
+
+    public void setWorkerRunningTaskCount(int workerRunningTaskCount) {
+        this.workerRunningTaskCount = workerRunningTaskCount;
+    }
+
+    public double getWorkerTaskCompletionRate() {
+        return workerTaskCompletionRate;
+    }
+
+    public void setWorkerTaskCompletionRate(double workerTaskCompletionRate) {
+        this.workerTaskCompletionRate = workerTaskCompletionRate;
+    }
+
+    /**
+     * update the worker load
+     *
+     * @param workerLoad worker load
+     */
+    public void updateWorkerLoad(WorkerLoad workerLoad) {
+        this.workerRunningTaskCount = workerLoad.getRunningTaskCount();
+        this.workerWaitingTaskCount = workerLoad.getWaitingTaskCount();
+        this.workerTaskCompletionRate = workerLoad.getTaskCompletionRate();
+    }
+
+    /**
+     * get the worker load of the heartbeat
+     *
+     * @param host worker address
+     * @return worker load
+     */
+    public WorkerLoad toWorkerLoad(String host) {
+        return new WorkerLoad(host, workerRunningTaskCount, workerWaitingTaskCount, workerExecThreadCount, workerTaskCompletionRate, reportTime);
+    }
+
     public HeartBeat() {
         this.reportTime = System.currentTimeMillis();
         this.serverStatus = Constants.NORMAL_NODE_STATUS;
@@ -179,14 +219,15 @@ public class HeartBeat {
     }
 
     /**
-     * fill system info
+     * fill system info from the latest sampled system metrics
      */
     private void fillSystemInfo() {
-        this.cpuUsage = OSUtils.cpuUsage();
-        this.loadAverage = OSUtils.loadAverage();
-        this.availablePhysicalMemorySize = OSUtils.availablePhysicalMemorySize();
-        this.memoryUsage = OSUtils.memoryUsage();
-        this.diskAvailable = OSUtils.diskAvailable();
+        SystemMetricsSampler.Snapshot systemMetrics = SystemMetricsSampler.getSnapshot();
+        this.cpuUsage = systemMetrics.getCpuUsage();
+        this.loadAverage = systemMetrics.getLoadAverage();
+        this.availablePhysicalMemorySize = systemMetrics.getAvailablePhysicalMemorySize();
+        this.memoryUsage = systemMetrics.getMemoryUsage();
+        this.diskAvailable = systemMetrics.getDiskAvailable();
         this.processId = OSUtils.getProcessID();
     }
 
@@ -228,7 +269,9 @@ public class HeartBeat {
         builder.append(workerHostWeight).append(Constants.COMMA);
         builder.append(workerExecThreadCount).append(Constants.COMMA);
         builder.append(workerWaitingTaskCount).append(Constants.COMMA);
-        builder.append(diskAvailable);
+        builder.append(diskAvailable).append(Constants.COMMA);
+        builder.append(workerRunningTaskCount).append(Constants.COMMA);
+        builder.append(workerTaskCompletionRate);
 
         return builder.toString();
     }
@@ -238,7 +281,7 @@ public class HeartBeat {
      */
     public static HeartBeat decodeHeartBeat(String heartBeatInfo) {
         String[] parts = heartBeatInfo.split(Constants.COMMA);
-        if (parts.length != Constants.HEARTBEAT_FOR_ZOOKEEPER_INFO_LENGTH) {
+        if (parts.length < Constants.HEARTBEAT_FOR_ZOOKEEPER_INFO_LENGTH) {
             return null;
         }
         HeartBeat heartBeat = new HeartBeat();
@@ -256,6 +299,11 @@ public class HeartBeat {
         heartBeat.workerExecThreadCount = Integer.parseInt(parts[11]);
         heartBeat.workerWaitingTaskCount = Integer.parseInt(parts[12]);
         heartBeat.diskAvailable = Double.parseDouble(parts[13]);
+        // the worker load is appended later, it is absent in the heartbeat of an old server
+        if (parts.length > Constants.HEARTBEAT_FOR_ZOOKEEPER_INFO_LENGTH + 1) {
+            heartBeat.workerRunningTaskCount = Integer.parseInt(parts[14]);
+            heartBeat.workerTaskCompletionRate = Double.parseDouble(parts[15]);
+        }
         return heartBeat;
     }
 }
@@ -17,7 +17,6 @@
 
 package org.apache.dolphinscheduler.common.utils;
 
-import static java.nio.charset.StandardCharsets.UTF_8;
 
 import static com.fasterxml.jackson.databind.DeserializationFeature.ACCEPT_EMPTY_ARRAY_AS_NULL_OBJECT;
 import static com.fasterxml.jackson.databind.DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES;
@@ -152,11 +151,16 @@ public class JSONUtils {
      * @return deserialize type
      */
     public static <T> T parseObject(byte[] src, Class<T> clazz) {
-        if (src == null) {
+        if (src == null || src.length == 0) {
             return null;
         }
-        String json = new String(src, UTF_8);
-        return parseObject(json, clazz);
+
+        try {
+            return objectMapper.readValue(src, clazz);
+        } catch (Exception e) {
+            logger.error("parse object exception!", e);
+        }
+        return null;
     }
 
     /**
@@ -325,14 +329,12 @@ public class JSONUtils {
         if (obj == null) {
             return null;
         }
-        String json = "";
         try {
-            json = toJsonString(obj);
+            return objectMapper.writeValueAsBytes(obj);
         } catch (Exception e) {
             logger.error("json serialize exception.", e);
         }
-
-        return json.getBytes(UTF_8);
+        return new byte[0];
     }
 
     public static ObjectNode parseObject(String text) {
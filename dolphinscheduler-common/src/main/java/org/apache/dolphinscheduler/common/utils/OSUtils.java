@@ -460,17 +460,18 @@ public class OSUtils {
     }
 
     /**
-     * check memory and cpu usage
+     * check memory and cpu usage, the smoothed values of {@link SystemMetricsSampler} are checked
      *
      * @param maxCpuloadAvg maxCpuloadAvg
      * @param reservedMemory reservedMemory
      * @return check memory and cpu usage
      */
     public static Boolean checkResource(double maxCpuloadAvg, double reservedMemory) {
+        SystemMetricsSampler.Snapshot systemMetrics = SystemMetricsSampler.getSnapshot();
         // system load average
-        double loadAverage = loadAverage();
+        double loadAverage = systemMetrics.getLoadAverage();
         // system available physical memory
-        double availablePhysicalMemorySize = availablePhysicalMemorySize();
+        double availablePhysicalMemorySize = systemMetrics.getAvailablePhysicalMemorySize();
         if (loadAverage > maxCpuloadAvg || availablePhysicalMemorySize < reservedMemory) {
             logger.warn("current cpu load average {} is too high or available memory {}G is too low, under max.cpuload.avg={} and reserved.memory={}G",
                     loadAverage, availablePhysicalMemorySize, maxCpuloadAvg, reservedMemory);
@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.utils;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * system metrics sampler, samples the system metrics of the host on a fixed cadence in a background thread,
+ * so the readers get the latest snapshot without calling the os.
+ * The cpu usage, memory and load average are smoothed by an exponentially weighted moving average,
+ * so a short spike does not flip the server status.
+ */
+public class SystemMetricsSampler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SystemMetricsSampler.class);
+
+    /**
+     * millis between two samples
+     */
+    static final long SAMPLE_INTERVAL_MILLIS = 1000L;
+
+    /**
+     * weight of the newest sample, the smoothed value follows a change in about 5 samples
+     */
+    static final double SMOOTHING_FACTOR = 0.3D;
+
+    private static final SystemMetricsSampler INSTANCE = new SystemMetricsSampler(SystemMetricsSampler::sampleOs, SMOOTHING_FACTOR, true);
+
+    private final Supplier<Snapshot> sampler;
+
+    private final double smoothingFactor;
+
+    /**
+     * whether to sample in the background thread, or only when {@link #sample()} is called
+     */
+    private final boolean scheduled;
+
+    private volatile Snapshot snapshot;
+
+    private ScheduledExecutorService scheduler;
+
+    SystemMetricsSampler(Supplier<Snapshot> sampler, double smoothingFactor, boolean scheduled) {
+        this.sampler = sampler;
+        this.smoothingFactor = smoothingFactor;
+        this.scheduled = scheduled;
+    }
+
+    /**
+     * get the latest system metrics of this host, the sampling starts on the first call
+     *
+     * @return system metrics snapshot
+     */
+    public static Snapshot getSnapshot() {
+        return INSTANCE.get();
+    }
+
+    Snapshot get() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            if (snapshot == null) {
+                sample();
+                if (scheduled) {
+                    start();
+                }
+            }
+            return snapshot;
+        }
+    }
+
+    private void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("System-Metrics-Sample-Thread")
+                .build());
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                sample();
+            } catch (Exception e) {
+                logger.error("sample system metrics error", e);
+            }
+        }, SAMPLE_INTERVAL_MILLIS, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * take a sample and smooth it into the snapshot
+     */
+    synchronized void sample() {
+        Snapshot sampled = sampler.get();
+        Snapshot last = snapshot;
+        snapshot = last == null ? sampled : last.smooth(sampled, smoothingFactor);
+    }
+
+    private static Snapshot sampleOs() {
+        return new Snapshot(OSUtils.cpuUsage(), OSUtils.memoryUsage(), OSUtils.loadAverage(),
+                OSUtils.availablePhysicalMemorySize(), OSUtils.diskAvailable());
+    }
+
+    /**
+     * system metrics snapshot, immutable
+     */
+    public static final class Snapshot {
+
+        private final double cpuUsage;
+
+        private final double memoryUsage;
+
+        private final double loadAverage;
+
+        private final double availablePhysicalMemorySize;
+
+        private final double diskAvailable;
+
+        Snapshot(double cpuUsage, double memoryUsage, double loadAverage, double availablePhysicalMemorySize, double diskAvailable) {
+            this.cpuUsage = cpuUsage;
+            this.memoryUsage = memoryUsage;
+            this.loadAverage = loadAverage;
+            this.availablePhysicalMemorySize = availablePhysicalMemorySize;
+            this.diskAvailable = diskAvailable;
+        }
+
+        Snapshot smooth(Snapshot sampled, double smoothingFactor) {
+            return new Snapshot(
+                    smooth(cpuUsage, sampled.cpuUsage, smoothingFactor),
+                    smooth(memoryUsage, sampled.memoryUsage, smoothingFactor),
+                    smooth(loadAverage, sampled.loadAverage, smoothingFactor),
+                    smooth(availablePhysicalMemorySize, sampled.availablePhysicalMemorySize, smoothingFactor),
+                    sampled.diskAvailable);
+        }
+
+        private static double smooth(double last, double sampled, double smoothingFactor) {
+            // the value can not be got from the os, keep the sign of it
+            if (last < 0 || sampled < 0) {
+                return sampled;
+            }
+            return last + smoothingFactor * (sampled - last);
+        }
+
+        /**
+         * @return cpu usage, keep 2 decimal
+         */
+        public double getCpuUsage() {
+            return round(cpuUsage);
+        }
+
+        /**
+         * @return memory usage, keep 2 decimal
+         */
+        public double getMemoryUsage() {
+            return round(memoryUsage);
+        }
+
+        /**
+         * @return load average, keep 2 decimal
+         */
+        public double getLoadAverage() {
+            return round(loadAverage);
+        }
+
+        /**
+         * @return available physical memory size, unit: G, keep 2 decimal
+         */
+        public double getAvailablePhysicalMemorySize() {
+            return round(availablePhysicalMemorySize);
+        }
+
+        /**
+         * @return disk free size, unit: GB
+         */
+        public double getDiskAvailable() {
+            return diskAvailable;
+        }
+
+        private static double round(double value) {
+            return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).doubleValue();
+        }
+    }
+}
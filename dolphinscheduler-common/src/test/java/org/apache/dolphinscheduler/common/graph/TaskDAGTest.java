@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.graph;
+
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TaskDAGTest {
+
+    /**
+     * 1->2, 2->5, 3->5, 4->6, 5->6, 6->7, the nodes are added in reverse order
+     */
+    private TaskDAG makeGraph() {
+        List<TaskNode> nodes = new ArrayList<>();
+        for (long code = 7; code >= 1; code--) {
+            TaskNode taskNode = new TaskNode();
+            taskNode.setCode(code);
+            taskNode.setName("v(" + code + ")");
+            nodes.add(taskNode);
+        }
+        List<TaskNodeRelation> relations = Arrays.asList(
+                new TaskNodeRelation("1", "2"),
+                new TaskNodeRelation("2", "5"),
+                new TaskNodeRelation("3", "5"),
+                new TaskNodeRelation("4", "6"),
+                new TaskNodeRelation("5", "6"),
+                new TaskNodeRelation("6", "7"),
+                // duplicated edge, self loop and unknown node are ignored
+                new TaskNodeRelation("6", "7"),
+                new TaskNodeRelation("7", "7"),
+                new TaskNodeRelation("7", "8"));
+        return TaskDAG.of(nodes, relations);
+    }
+
+    @Test
+    public void testReadAsDag() {
+        TaskDAG dag = makeGraph();
+
+        Assert.assertEquals(7, dag.getNodesCount());
+        Assert.assertEquals(6, dag.getEdgesCount());
+        Assert.assertTrue(dag.containsNode("5"));
+        Assert.assertFalse(dag.containsNode("8"));
+        Assert.assertFalse(dag.containsNode("v(5)"));
+        Assert.assertEquals("v(5)", dag.getNode("5").getName());
+        Assert.assertNull(dag.getNode("8"));
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("1", "3", "4")), dag.getBeginNode());
+        Assert.assertEquals(Collections.singleton("7"), dag.getEndNode());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("2", "3")), dag.getPreviousNodes("5"));
+        Assert.assertEquals(Collections.singleton("6"), dag.getSubsequentNodes("5"));
+        Assert.assertTrue(dag.getSubsequentNodes("7").isEmpty());
+        Assert.assertTrue(dag.getPreviousNodes("8").isEmpty());
+        Assert.assertEquals(2, dag.getIndegree("6"));
+        Assert.assertEquals(0, dag.getIndegree("1"));
+    }
+
+    @Test
+    public void testIndexes() {
+        TaskDAG dag = makeGraph();
+
+        // the indexes are in topological order
+        long[] codes = dag.topologicalSort();
+        for (int index = 0; index < codes.length; index++) {
+            Assert.assertEquals(index, dag.indexOf(codes[index]));
+            Assert.assertEquals(codes[index], dag.getCode(index));
+            Assert.assertEquals(codes[index], dag.getTaskNode(index).getCode());
+            for (int i = 0; i < dag.getOutdegree(index); i++) {
+                Assert.assertTrue(dag.getSuccessor(index, i) > index);
+            }
+            for (int i = 0; i < dag.getIndegree(index); i++) {
+                Assert.assertTrue(dag.getPredecessor(index, i) < index);
+            }
+        }
+        Assert.assertEquals(-1, dag.indexOf(8L));
+
+        int index = dag.indexOf(6L);
+        Assert.assertEquals(2, dag.getIndegree(index));
+        Assert.assertEquals(1, dag.getOutdegree(index));
+        Assert.assertEquals(7L, dag.getCode(dag.getSuccessor(index, 0)));
+        Assert.assertTrue(dag.isBeginNode(dag.indexOf(4L)));
+        Assert.assertFalse(dag.isBeginNode(index));
+        Assert.assertTrue(dag.isEndNode(dag.indexOf(7L)));
+        Assert.assertFalse(dag.isEndNode(index));
+    }
+
+    @Test
+    public void testEmpty() {
+        TaskDAG dag = TaskDAG.of(Collections.emptyList(), Collections.emptyList());
+
+        Assert.assertEquals(0, dag.getNodesCount());
+        Assert.assertTrue(dag.getBeginNode().isEmpty());
+        Assert.assertTrue(dag.getEndNode().isEmpty());
+        Assert.assertFalse(dag.containsNode("1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCycle() {
+        TaskNode node1 = new TaskNode();
+        node1.setCode(1L);
+        TaskNode node2 = new TaskNode();
+        node2.setCode(2L);
+        TaskDAG.of(Arrays.asList(node1, node2),
+                Arrays.asList(new TaskNodeRelation("1", "2"), new TaskNodeRelation("2", "1")));
+    }
+}
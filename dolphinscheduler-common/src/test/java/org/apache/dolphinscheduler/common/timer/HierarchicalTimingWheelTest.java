@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.timer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class HierarchicalTimingWheelTest {
+
+    private HierarchicalTimingWheel<String> timingWheel;
+
+    @Before
+    public void setUp() {
+        timingWheel = new HierarchicalTimingWheel<>(10, 8, 0);
+    }
+
+    @Test
+    public void testExpireInOrder() {
+        timingWheel.add("a", 15);
+        timingWheel.add("b", 95);
+        timingWheel.add("c", 5000);
+        Assert.assertEquals(3, timingWheel.size());
+
+        Assert.assertTrue(timingWheel.advance(14).isEmpty());
+        Assert.assertEquals(Collections.singletonList("a"), timingWheel.advance(20));
+        Assert.assertTrue(timingWheel.advance(94).isEmpty());
+        Assert.assertEquals(Collections.singletonList("b"), timingWheel.advance(100));
+        Assert.assertTrue(timingWheel.advance(4999).isEmpty());
+        Assert.assertEquals(Collections.singletonList("c"), timingWheel.advance(5010));
+        Assert.assertEquals(0, timingWheel.size());
+    }
+
+    @Test
+    public void testCancel() {
+        timingWheel.add("a", 100);
+        Assert.assertTrue(timingWheel.contains("a"));
+        Assert.assertTrue(timingWheel.cancel("a"));
+        Assert.assertFalse(timingWheel.cancel("a"));
+        Assert.assertTrue(timingWheel.advance(1000).isEmpty());
+    }
+
+    @Test
+    public void testReplaceDeadline() {
+        timingWheel.add("a", 100);
+        timingWheel.add("a", 1000);
+        Assert.assertEquals(1, timingWheel.size());
+        Assert.assertTrue(timingWheel.advance(500).isEmpty());
+        Assert.assertEquals(Collections.singletonList("a"), timingWheel.advance(1010));
+    }
+
+    @Test
+    public void testAddExpiredDeadline() {
+        timingWheel.advance(1000);
+        timingWheel.add("a", 10);
+        Assert.assertEquals(Collections.singletonList("a"), timingWheel.advance(1010));
+    }
+
+    @Test
+    public void testAdvanceLargeStep() {
+        timingWheel.add("a", 30);
+        timingWheel.add("b", 700);
+        timingWheel.add("c", 100000);
+        List<String> expiredKeys = timingWheel.advance(200000);
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), expiredKeys);
+    }
+}
@@ -20,6 +20,7 @@ package org.apache.dolphinscheduler.common.utils;
 import static org.junit.Assert.assertEquals;
 
 import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.model.WorkerLoad;
 
 import org.junit.Test;
 
@@ -74,4 +75,17 @@ public class HeartBeatTest {
         assertEquals(65.86, heartBeat.getDiskAvailable(), delta);
     }
 
+    @Test
+    public void testEncodeWorkerLoad() {
+        HeartBeat heartBeat = new HeartBeat(System.currentTimeMillis(), 100, 0, 1, 4);
+        heartBeat.updateWorkerLoad(new WorkerLoad("127.0.0.1:1234", 3, 2, 4, 0.25, System.currentTimeMillis()));
+
+        HeartBeat decoded = HeartBeat.decodeHeartBeat(heartBeat.encodeHeartBeat());
+        WorkerLoad workerLoad = decoded.toWorkerLoad("127.0.0.1:1234");
+        assertEquals(3, workerLoad.getRunningTaskCount());
+        assertEquals(2, workerLoad.getWaitingTaskCount());
+        assertEquals(4, workerLoad.getExecThreadCount());
+        assertEquals(0.25, workerLoad.getTaskCompletionRate(), 0.001);
+    }
+
 }
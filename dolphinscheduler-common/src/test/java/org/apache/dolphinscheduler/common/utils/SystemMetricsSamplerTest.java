@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.common.utils;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SystemMetricsSamplerTest {
+
+    @Test
+    public void testSmoothSpike() {
+        Queue<SystemMetricsSampler.Snapshot> samples = new ArrayDeque<>(Arrays.asList(
+                new SystemMetricsSampler.Snapshot(0.1, 0.5, 1, 8, 100),
+                new SystemMetricsSampler.Snapshot(1, 0.5, 11, 8, 90)));
+        SystemMetricsSampler sampler = new SystemMetricsSampler(samples::poll, 0.3, false);
+
+        SystemMetricsSampler.Snapshot first = sampler.get();
+        Assert.assertEquals(0.1, first.getCpuUsage(), 0.001);
+        Assert.assertEquals(1, first.getLoadAverage(), 0.001);
+
+        sampler.sample();
+        SystemMetricsSampler.Snapshot second = sampler.get();
+        Assert.assertEquals(0.37, second.getCpuUsage(), 0.001);
+        Assert.assertEquals(4, second.getLoadAverage(), 0.001);
+        Assert.assertEquals(8, second.getAvailablePhysicalMemorySize(), 0.001);
+        Assert.assertEquals(90, second.getDiskAvailable(), 0.001);
+        // the earlier snapshot is not changed
+        Assert.assertEquals(0.1, first.getCpuUsage(), 0.001);
+    }
+
+    @Test
+    public void testUnavailableValue() {
+        Queue<SystemMetricsSampler.Snapshot> samples = new ArrayDeque<>(Arrays.asList(
+                new SystemMetricsSampler.Snapshot(0.5, 0.5, 1, 8, 100),
+                new SystemMetricsSampler.Snapshot(OSUtils.NEGATIVE_ONE, 0.5, 1, 8, 100)));
+        SystemMetricsSampler sampler = new SystemMetricsSampler(samples::poll, 0.3, false);
+        sampler.get();
+
+        sampler.sample();
+        Assert.assertEquals(OSUtils.NEGATIVE_ONE, sampler.get().getCpuUsage(), 0.001);
+    }
+}
@@ -138,6 +138,12 @@ public class Command {
     @TableField("process_definition_version")
     private int processDefinitionVersion;
 
+    /**
+     * host of the master which claims the command
+     */
+    @TableField("claim_host")
+    private String claimHost;
+
     public Command() {
         this.taskDependType = TaskDependType.TASK_POST;
         this.failureStrategy = FailureStrategy.CONTINUE;
@@ -325,6 +331,14 @@ public class Command {
         this.processDefinitionVersion = processDefinitionVersion;
     }
 
+    public String getClaimHost() {
+        return claimHost;
+    }
+
+    public void setClaimHost(String claimHost) {
+        this.claimHost = claimHost;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -433,6 +447,7 @@ public class Command {
                 + ", dryRun='" + dryRun + '\''
                 + ", processInstanceId='" + processInstanceId + '\''
                 + ", processDefinitionVersion='" + processDefinitionVersion + '\''
+                + ", claimHost='" + claimHost + '\''
                 + '}';
     }
 
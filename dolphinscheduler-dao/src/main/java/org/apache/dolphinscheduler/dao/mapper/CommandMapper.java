@@ -58,4 +58,52 @@ public interface CommandMapper extends BaseMapper<Command> {
      * @return command list
      */
     List<Command> queryCommandPageBySlot(@Param("limit") int limit, @Param("offset") int offset, @Param("masterCount") int masterCount, @Param("thisMasterSlot") int thisMasterSlot);
+
+    /**
+     * lock the commands which are not claimed, must be called in a transaction
+     * @param limit limit
+     * @param skipLocked skip the rows locked by other masters, the database should support `for update skip locked`
+     * @return command id list
+     */
+    List<Integer> selectUnclaimedCommandIdsForUpdate(@Param("limit") int limit, @Param("skipLocked") boolean skipLocked);
+
+    /**
+     * lock the commands whose claim is expired, must be called in a transaction
+     * @param limit limit
+     * @param expireTime the claim before this time is expired
+     * @param skipLocked skip the rows locked by other masters, the database should support `for update skip locked`
+     * @return command id list
+     */
+    List<Integer> selectExpiredCommandIdsForUpdate(@Param("limit") int limit, @Param("expireTime") Date expireTime, @Param("skipLocked") boolean skipLocked);
+
+    /**
+     * claim the commands by the given host
+     * @param ids command ids
+     * @param claimHost claim host
+     * @param claimTime claim time
+     * @return update count
+     */
+    int claimCommands(@Param("ids") List<Integer> ids, @Param("claimHost") String claimHost, @Param("claimTime") Date claimTime);
+
+    /**
+     * renew the claim of the commands claimed by the given host
+     * @param claimHost claim host
+     * @param claimTime claim time
+     * @return update count
+     */
+    int renewCommandClaim(@Param("claimHost") String claimHost, @Param("claimTime") Date claimTime);
+
+    /**
+     * lock the command if it is still claimed by the given host, must be called in a transaction
+     * @param id command id
+     * @param claimHost claim host
+     * @return command id, null if the command is deleted or claimed by another host
+     */
+    Integer lockClaimedCommand(@Param("id") int id, @Param("claimHost") String claimHost);
+
+    /**
+     * query command page claimed by the given host
+     * @return command list
+     */
+    List<Command> queryCommandPageByClaimHost(@Param("limit") int limit, @Param("claimHost") String claimHost);
 }
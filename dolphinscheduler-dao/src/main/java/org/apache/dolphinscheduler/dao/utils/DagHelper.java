@@ -19,6 +19,8 @@ package org.apache.dolphinscheduler.dao.utils;
 
 import org.apache.dolphinscheduler.common.enums.TaskDependType;
 import org.apache.dolphinscheduler.common.graph.DAG;
+import org.apache.dolphinscheduler.common.graph.DAGView;
+import org.apache.dolphinscheduler.common.graph.TaskDAG;
 import org.apache.dolphinscheduler.common.model.TaskNode;
 import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
 import org.apache.dolphinscheduler.common.process.ProcessDag;
@@ -263,7 +265,7 @@ public class DagHelper {
      * @return can submit
      */
     public static boolean allDependsForbiddenOrEnd(TaskNode taskNode,
-                                                   DAG<String, TaskNode, TaskNodeRelation> dag,
+                                                   DAGView<String, TaskNode> dag,
                                                    Map<String, TaskNode> skipTaskNodeList,
                                                    Map<String, TaskInstance> completeTaskList) {
         List<String> dependList = taskNode.getDepList();
@@ -292,7 +294,7 @@ public class DagHelper {
      */
     public static Set<String> parsePostNodes(String preNodeCode,
                                              Map<String, TaskNode> skipTaskNodeList,
-                                             DAG<String, TaskNode, TaskNodeRelation> dag,
+                                             DAGView<String, TaskNode> dag,
                                              Map<String, TaskInstance> completeTaskList) {
         Set<String> postNodeList = new HashSet<>();
         Collection<String> startVertexes = new ArrayList<>();
@@ -353,7 +355,7 @@ public class DagHelper {
      */
     public static List<String> parseConditionTask(String nodeCode,
                                                   Map<String, TaskNode> skipTaskNodeList,
-                                                  DAG<String, TaskNode, TaskNodeRelation> dag,
+                                                  DAGView<String, TaskNode> dag,
                                                   Map<String, TaskInstance> completeTaskList) {
         List<String> conditionTaskList = new ArrayList<>();
         TaskNode taskNode = dag.getNode(nodeCode);
@@ -395,7 +397,7 @@ public class DagHelper {
      */
     public static List<String> parseSwitchTask(String nodeCode,
                                                Map<String, TaskNode> skipTaskNodeList,
-                                               DAG<String, TaskNode, TaskNodeRelation> dag,
+                                               DAGView<String, TaskNode> dag,
                                                Map<String, TaskInstance> completeTaskList) {
         List<String> conditionTaskList = new ArrayList<>();
         TaskNode taskNode = dag.getNode(nodeCode);
@@ -411,7 +413,7 @@ public class DagHelper {
 
     private static List<String> skipTaskNode4Switch(TaskNode taskNode, Map<String, TaskNode> skipTaskNodeList,
                                                     Map<String, TaskInstance> completeTaskList,
-                                                    DAG<String, TaskNode, TaskNodeRelation> dag) {
+                                                    DAGView<String, TaskNode> dag) {
 
         SwitchParameters switchParameters = completeTaskList.get(Long.toString(taskNode.getCode())).getSwitchDependency();
         int resultConditionLocation = switchParameters.getResultConditionLocation();
@@ -434,7 +436,7 @@ public class DagHelper {
      * set task node and the post nodes skip flag
      */
     private static void setTaskNodeSkip(String skipNodeCode,
-                                        DAG<String, TaskNode, TaskNodeRelation> dag,
+                                        DAGView<String, TaskNode> dag,
                                         Map<String, TaskInstance> completeTaskList,
                                         Map<String, TaskNode> skipTaskNodeList) {
         if (!dag.containsNode(skipNodeCode)) {
@@ -475,6 +477,18 @@ public class DagHelper {
         return dag;
     }
 
+    /**
+     * build the immutable dag graph, which is used by the master to run the process instance
+     *
+     * @param processDag processDag
+     * @return dag
+     */
+    public static TaskDAG buildTaskDag(ProcessDag processDag) {
+        List<TaskNode> nodes = processDag.getNodes() == null ? new ArrayList<>() : processDag.getNodes();
+        List<TaskNodeRelation> edges = processDag.getEdges() == null ? new ArrayList<>() : processDag.getEdges();
+        return TaskDAG.of(nodes, edges);
+    }
+
     /**
      * get process dag
      *
@@ -539,7 +553,7 @@ public class DagHelper {
      * is there have conditions after the parent node
      */
     public static boolean haveConditionsAfterNode(String parentNodeCode,
-                                                  DAG<String, TaskNode, TaskNodeRelation> dag
+                                                  DAGView<String, TaskNode> dag
     ) {
         return haveSubAfterNode(parentNodeCode, dag, TaskConstants.TASK_TYPE_CONDITIONS);
     }
@@ -565,7 +579,7 @@ public class DagHelper {
      * is there have blocking node after the parent node
      */
     public static boolean haveBlockingAfterNode(String parentNodeCode,
-                                                DAG<String,TaskNode,TaskNodeRelation> dag) {
+                                                DAGView<String, TaskNode> dag) {
         return haveSubAfterNode(parentNodeCode, dag, TaskConstants.TASK_TYPE_BLOCKING);
     }
 
@@ -573,7 +587,7 @@ public class DagHelper {
      * is there have all node after the parent node
      */
     public static boolean haveAllNodeAfterNode(String parentNodeCode,
-                                               DAG<String,TaskNode,TaskNodeRelation> dag) {
+                                               DAGView<String, TaskNode> dag) {
         return haveSubAfterNode(parentNodeCode, dag, null);
     }
 
@@ -581,7 +595,7 @@ public class DagHelper {
      * Whether there is a specified type of child node after the parent node
      */
     public static boolean haveSubAfterNode(String parentNodeCode,
-                                           DAG<String,TaskNode,TaskNodeRelation> dag, String filterNodeType) {
+                                           DAGView<String, TaskNode> dag, String filterNodeType) {
         Set<String> subsequentNodes = dag.getSubsequentNodes(parentNodeCode);
         if (CollectionUtils.isEmpty(subsequentNodes)) {
             return false;
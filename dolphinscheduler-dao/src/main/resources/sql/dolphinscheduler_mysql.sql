@@ -343,8 +343,12 @@ CREATE TABLE `t_ds_command` (
   `worker_group`              varchar(64)  COMMENT 'worker group',
   `environment_code`          bigint(20) DEFAULT '-1' COMMENT 'environment code',
   `dry_run`                   tinyint(4) DEFAULT '0' COMMENT 'dry run flag：0 normal, 1 dry run',
+  `claim_host`                varchar(255) DEFAULT NULL COMMENT 'host of the master which claims the command',
+  `claim_time`                datetime DEFAULT NULL COMMENT 'claim time, the claim expires after the lease timeout',
   PRIMARY KEY (`id`),
-  KEY `priority_id_index` (`process_instance_priority`,`id`) USING BTREE
+  KEY `priority_id_index` (`process_instance_priority`,`id`) USING BTREE,
+  KEY `claim_host_index` (`claim_host`,`process_instance_priority`,`id`) USING BTREE,
+  KEY `claim_time_index` (`claim_time`) USING BTREE
 ) ENGINE=InnoDB AUTO_INCREMENT=1 DEFAULT CHARSET=utf8;
 
 -- ----------------------------
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+-- uc_dolphin_T_t_ds_command_A_claim_host
+drop PROCEDURE if EXISTS uc_dolphin_T_t_ds_command_A_claim_host;
+delimiter d//
+CREATE PROCEDURE uc_dolphin_T_t_ds_command_A_claim_host()
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM information_schema.COLUMNS
+        WHERE TABLE_NAME='t_ds_command'
+        AND TABLE_SCHEMA=(SELECT DATABASE())
+        AND COLUMN_NAME='claim_host')
+    THEN
+ALTER TABLE `t_ds_command` ADD COLUMN `claim_host` varchar(255) DEFAULT NULL COMMENT 'host of the master which claims the command';
+ALTER TABLE `t_ds_command` ADD COLUMN `claim_time` datetime DEFAULT NULL COMMENT 'claim time, the claim expires after the lease timeout';
+ALTER TABLE `t_ds_command` ADD INDEX `claim_host_index` (`claim_host`,`process_instance_priority`,`id`) USING BTREE;
+ALTER TABLE `t_ds_command` ADD INDEX `claim_time_index` (`claim_time`) USING BTREE;
+END IF;
+END;
+
+d//
+
+delimiter ;
+CALL uc_dolphin_T_t_ds_command_A_claim_host;
+DROP PROCEDURE uc_dolphin_T_t_ds_command_A_claim_host;
@@ -19,6 +19,7 @@ package org.apache.dolphinscheduler.dao.mapper;
 
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
@@ -181,6 +182,40 @@ public class CommandMapperTest extends BaseDaoTest {
         toTestQueryCommandPageBySlot(masterCount,thisMasterSlot);
     }
 
+    /**
+     * test claim commands
+     */
+    @Test
+    public void testClaimCommands() {
+        Command command = createCommand();
+        Date now = new Date();
+
+        List<Integer> commandIds = commandMapper.selectUnclaimedCommandIdsForUpdate(100, false);
+        assertThat(commandIds.contains(command.getId()), is(true));
+
+        commandMapper.claimCommands(commandIds, "127.0.0.1:5678", now);
+        List<Command> claimedCommands = commandMapper.queryCommandPageByClaimHost(100, "127.0.0.1:5678");
+        assertThat(claimedCommands.stream().anyMatch(o -> o.getId() == command.getId()), is(true));
+        assertEquals("127.0.0.1:5678", claimedCommands.get(0).getClaimHost());
+        assertThat(commandMapper.selectUnclaimedCommandIdsForUpdate(100, false).contains(command.getId()), is(false));
+        assertEquals(Integer.valueOf(command.getId()), commandMapper.lockClaimedCommand(command.getId(), "127.0.0.1:5678"));
+        assertNull(commandMapper.lockClaimedCommand(command.getId(), "127.0.0.1:5679"));
+
+        // the claim is not expired
+        commandIds = commandMapper.selectExpiredCommandIdsForUpdate(100, now, false);
+        assertThat(commandIds.contains(command.getId()), is(false));
+
+        // the claim is expired
+        Date expireTime = new Date(now.getTime() + 1000);
+        commandIds = commandMapper.selectExpiredCommandIdsForUpdate(100, expireTime, false);
+        assertThat(commandIds.contains(command.getId()), is(true));
+
+        // the claim is renewed
+        commandMapper.renewCommandClaim("127.0.0.1:5678", new Date(now.getTime() + 2000));
+        commandIds = commandMapper.selectExpiredCommandIdsForUpdate(100, expireTime, false);
+        assertThat(commandIds.contains(command.getId()), is(false));
+    }
+
     private boolean toTestQueryCommandPageBySlot(int masterCount, int thisMasterSlot) {
         Command command = createCommand();
         int id = command.getId();
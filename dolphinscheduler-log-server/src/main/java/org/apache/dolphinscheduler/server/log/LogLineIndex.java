@@ -0,0 +1,234 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * sparse line offset index of a log file, the byte offset of every {@link #LINES_PER_CHECKPOINT} lines is kept,
+ * so a page of the log is read from the nearest checkpoint instead of the beginning of the file.
+ * The index is extended with the bytes appended since the last access, and the lines are split
+ * as BufferedReader does, by '\n', '\r' or "\r\n".
+ */
+public class LogLineIndex {
+
+    static final int LINES_PER_CHECKPOINT = 1024;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path path;
+
+    private long[] checkpoints = new long[16];
+
+    private int checkpointCount;
+
+    /**
+     * the bytes of the file which have been indexed
+     */
+    private long indexedLength;
+
+    /**
+     * the terminated lines in the indexed bytes
+     */
+    private long lines;
+
+    /**
+     * whether the next byte starts a line
+     */
+    private boolean lineStart;
+
+    /**
+     * whether the last byte is '\r', so a following '\n' is a part of the same line terminator
+     */
+    private boolean lastCarriageReturn;
+
+    public LogLineIndex(Path path) {
+        this.path = path;
+        reset();
+    }
+
+    /**
+     * read lines of the log
+     *
+     * @param skipLine skip line
+     * @param limit read lines limit
+     * @return lines
+     * @throws IOException if the log can not be read
+     */
+    public synchronized List<String> readLines(int skipLine, int limit) throws IOException {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            update(channel);
+            int checkpoint = (int) Math.min(skipLine / LINES_PER_CHECKPOINT, checkpointCount - 1);
+            long skip = skipLine - (long) checkpoint * LINES_PER_CHECKPOINT;
+            channel.position(checkpoints[checkpoint]);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            for (long i = 0; i < skip; i++) {
+                if (reader.readLine() == null) {
+                    return Collections.emptyList();
+                }
+            }
+            List<String> result = new ArrayList<>(Math.min(limit, LINES_PER_CHECKPOINT));
+            String line;
+            while (result.size() < limit && (line = reader.readLine()) != null) {
+                result.add(line);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * read the last lines of the log, the file is read backwards from the end, so it is not indexed
+     *
+     * @param path log path
+     * @param limit read lines limit
+     * @return last lines
+     * @throws IOException if the log can not be read
+     */
+    public static List<String> tailLines(Path path, int limit) throws IOException {
+        if (limit <= 0) {
+            return Collections.emptyList();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long start = findTailStart(channel, size, limit);
+            channel.position(start);
+            BufferedReader reader = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            // a lone '\r' is not counted backwards, so there may be more lines than the limit
+            Deque<String> result = new ArrayDeque<>(limit);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (result.size() == limit) {
+                    result.removeFirst();
+                }
+                result.add(line);
+            }
+            return new ArrayList<>(result);
+        }
+    }
+
+    /**
+     * find the offset of the line which has limit '\n' terminated lines after it,
+     * the terminator at the end of the file ends the last line and is not counted
+     */
+    private static long findTailStart(FileChannel channel, long size, int limit) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(8 * 1024);
+        long position = size;
+        int newLines = 0;
+        while (position > 0) {
+            int length = (int) Math.min(buffer.capacity(), position);
+            position -= length;
+            buffer.clear();
+            buffer.limit(length);
+            readFully(channel, buffer, position);
+            for (int i = length - 1; i >= 0; i--) {
+                if (buffer.get(i) == '\n' && position + i != size - 1 && ++newLines == limit) {
+                    return position + i + 1;
+                }
+            }
+        }
+        return 0;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, offset);
+            if (read < 0) {
+                throw new IOException("unexpected end of file at " + offset);
+            }
+            offset += read;
+        }
+    }
+
+    /**
+     * index the bytes appended since the last access, the index is rebuilt if the file is truncated
+     */
+    private void update(FileChannel channel) throws IOException {
+        long size = channel.size();
+        if (size < indexedLength) {
+            reset();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        while (indexedLength < size) {
+            buffer.clear();
+            int read = channel.read(buffer, indexedLength);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                index(buffer.get(i), indexedLength + i);
+            }
+            indexedLength += read;
+        }
+    }
+
+    private void index(byte b, long position) {
+        if (lineStart && !(lastCarriageReturn && b == '\n')) {
+            lineStart = false;
+            if (lines % LINES_PER_CHECKPOINT == 0 && lines / LINES_PER_CHECKPOINT == checkpointCount) {
+                addCheckpoint(position);
+            }
+        }
+        if (b == '\n') {
+            if (!lastCarriageReturn) {
+                lines++;
+            }
+            lineStart = true;
+            lastCarriageReturn = false;
+        } else if (b == '\r') {
+            lines++;
+            lineStart = true;
+            lastCarriageReturn = true;
+        } else {
+            lastCarriageReturn = false;
+        }
+    }
+
+    private void addCheckpoint(long position) {
+        if (checkpointCount == checkpoints.length) {
+            checkpoints = Arrays.copyOf(checkpoints, checkpointCount * 2);
+        }
+        checkpoints[checkpointCount++] = position;
+    }
+
+    private void reset() {
+        checkpoints[0] = 0;
+        checkpointCount = 1;
+        indexedLength = 0;
+        lines = 0;
+        lineStart = true;
+        lastCarriageReturn = false;
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.Channel;
+
+/**
+ * log tailer, pushes the bytes appended to the subscribed logs.
+ * A log is read once per round from the offset of the last round, whatever the number of its subscribers,
+ * and the new bytes are pushed to all of them, so a subscriber costs the appended bytes rather than the file size.
+ */
+public class LogTailer {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogTailer.class);
+
+    /**
+     * max bytes of a push, the rest is pushed in the next round
+     */
+    static final int MAX_PUSH_SIZE = 64 * 1024;
+
+    private static final byte[] END = new byte[0];
+
+    /**
+     * millis between two rounds
+     */
+    private final long interval;
+
+    private final Map<String, TailedFile> tailedFiles = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    public LogTailer(long interval) {
+        this.interval = interval;
+    }
+
+    /**
+     * subscribe the log, the bytes appended after now are pushed with the opaque
+     *
+     * @param path log path
+     * @param channel channel of the subscriber
+     * @param opaque opaque of the subscribe request
+     */
+    public synchronized void subscribe(String path, Channel channel, long opaque) {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("Log-Tail-Thread"));
+            scheduler.scheduleWithFixedDelay(this::tail, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        Subscriber subscriber = new Subscriber(channel, opaque);
+        tailedFiles.computeIfAbsent(path, TailedFile::new).subscribers.add(subscriber);
+        channel.closeFuture().addListener(future -> unsubscribe(path, opaque));
+        logger.info("subscribe log {}, subscription: {}", path, opaque);
+    }
+
+    /**
+     * unsubscribe the log, the log is not read any more when it has no subscriber
+     *
+     * @param path log path
+     * @param opaque opaque of the subscribe request
+     */
+    public synchronized void unsubscribe(String path, long opaque) {
+        TailedFile tailedFile = tailedFiles.get(path);
+        if (tailedFile == null) {
+            return;
+        }
+        if (tailedFile.subscribers.removeIf(subscriber -> subscriber.opaque == opaque)) {
+            logger.info("unsubscribe log {}, subscription: {}", path, opaque);
+        }
+        if (tailedFile.subscribers.isEmpty()) {
+            tailedFiles.remove(path);
+            tailedFile.close();
+        }
+    }
+
+    /**
+     * push the bytes appended since the last round to the subscribers
+     */
+    synchronized void tail() {
+        for (TailedFile tailedFile : tailedFiles.values()) {
+            try {
+                byte[] bytes = tailedFile.readAppended();
+                if (bytes.length > 0) {
+                    push(tailedFile, bytes);
+                }
+            } catch (IOException e) {
+                logger.error("tail log {} error", tailedFile.path, e);
+            }
+        }
+    }
+
+    private void push(TailedFile tailedFile, byte[] bytes) {
+        for (Subscriber subscriber : tailedFile.subscribers) {
+            if (!subscriber.channel.isWritable()) {
+                // the subscriber can not keep up, end its subscription rather than buffering the log for it
+                logger.warn("subscriber of log {} is too slow, end the subscription: {}", tailedFile.path, subscriber.opaque);
+                subscriber.push(END);
+                unsubscribe(tailedFile.path, subscriber.opaque);
+                continue;
+            }
+            subscriber.push(bytes);
+        }
+    }
+
+    /**
+     * end all the subscriptions and stop tailing
+     */
+    public synchronized void close() {
+        for (TailedFile tailedFile : tailedFiles.values()) {
+            for (Subscriber subscriber : tailedFile.subscribers) {
+                subscriber.push(END);
+            }
+            tailedFile.close();
+        }
+        tailedFiles.clear();
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    int getTailedFileCount() {
+        return tailedFiles.size();
+    }
+
+    private static final class Subscriber {
+
+        private final Channel channel;
+
+        private final long opaque;
+
+        Subscriber(Channel channel, long opaque) {
+            this.channel = channel;
+            this.opaque = opaque;
+        }
+
+        void push(byte[] bytes) {
+            Command command = new Command(opaque);
+            command.setType(CommandType.TAIL_LOG_PUSH);
+            command.setBody(bytes);
+            channel.writeAndFlush(command);
+        }
+    }
+
+    /**
+     * the tailed log and the offset pushed to its subscribers
+     */
+    private static final class TailedFile {
+
+        private final String path;
+
+        private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+        private final ByteBuffer buffer = ByteBuffer.allocate(MAX_PUSH_SIZE);
+
+        private FileChannel fileChannel;
+
+        private long offset;
+
+        /**
+         * file size seen by the last round, a partial last line is pushed once the size stops growing
+         */
+        private long lastSize;
+
+        TailedFile(String path) {
+            this.path = path;
+            Path file = Paths.get(path);
+            try {
+                this.offset = Files.isRegularFile(file) ? Files.size(file) : 0L;
+            } catch (IOException e) {
+                this.offset = 0L;
+            }
+            this.lastSize = offset;
+        }
+
+        /**
+         * read the bytes appended since the last round, up to the last complete line
+         *
+         * @return appended bytes, empty if nothing to push
+         */
+        byte[] readAppended() throws IOException {
+            if (fileChannel == null) {
+                Path file = Paths.get(path);
+                if (!Files.isRegularFile(file)) {
+                    return END;
+                }
+                fileChannel = FileChannel.open(file, StandardOpenOption.READ);
+            }
+            long size = fileChannel.size();
+            if (size < offset) {
+                // the log is truncated, go on from its end
+                offset = size;
+            }
+            boolean growing = size != lastSize;
+            lastSize = size;
+            if (size == offset) {
+                return END;
+            }
+            buffer.clear();
+            int length = fileChannel.read(buffer, offset);
+            if (length <= 0) {
+                return END;
+            }
+            byte[] bytes = buffer.array();
+            int end = length;
+            if (growing || length == MAX_PUSH_SIZE) {
+                // keep the partial last line until it is completed or read whole, so a push never splits a line
+                while (end > 0 && bytes[end - 1] != '\n') {
+                    end--;
+                }
+                if (end == 0 && length == MAX_PUSH_SIZE) {
+                    // a line longer than a push can only be pushed in pieces
+                    end = length;
+                }
+            }
+            offset += end;
+            return end == 0 ? END : Arrays.copyOf(bytes, end);
+        }
+
+        void close() {
+            if (fileChannel != null) {
+                try {
+                    fileChannel.close();
+                } catch (IOException e) {
+                    logger.warn("close log {} error", path, e);
+                }
+                fileChannel = null;
+            }
+        }
+    }
+}
@@ -19,14 +19,19 @@ package org.apache.dolphinscheduler.server.log;
 
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.common.utils.LoggerUtils;
+import org.apache.dolphinscheduler.remote.codec.ChunkedFileWriter;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.command.log.GetLogBytesRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.GetLogBytesResponseCommand;
+import org.apache.dolphinscheduler.remote.command.log.GetLogStreamCancelRequestCommand;
+import org.apache.dolphinscheduler.remote.command.log.GetLogStreamRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.RemoveTaskLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.RemoveTaskLogResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.RollViewLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.RollViewLogResponseCommand;
+import org.apache.dolphinscheduler.remote.command.log.TailLogSubscribeRequestCommand;
+import org.apache.dolphinscheduler.remote.command.log.TailLogUnsubscribeRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.ViewLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.ViewLogResponseCommand;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
@@ -40,14 +45,15 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+
+import javax.annotation.PreDestroy;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -65,8 +71,39 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
 
     private final Logger logger = LoggerFactory.getLogger(LoggerRequestProcessor.class);
 
+    /**
+     * max bytes of a log stream chunk
+     */
+    private static final int LOG_CHUNK_SIZE = 256 * 1024;
+
+    /**
+     * max logs whose line index is cached
+     */
+    private static final int LINE_INDEX_CACHE_SIZE = 128;
+
+    /**
+     * millis between two rounds of pushing the appended logs to the subscribers
+     */
+    private static final long LOG_TAIL_INTERVAL = 500L;
+
     private final ExecutorService executor;
 
+    /**
+     * pushes the appended logs to the subscribers, a log is read once for all of its subscribers
+     */
+    private final LogTailer logTailer = new LogTailer(LOG_TAIL_INTERVAL);
+
+    /**
+     * line indexes of the recently viewed logs, the least recently viewed one is evicted
+     */
+    private final Map<String, LogLineIndex> lineIndexes = Collections.synchronizedMap(
+            new LinkedHashMap<String, LogLineIndex>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, LogLineIndex> eldest) {
+                    return size() > LINE_INDEX_CACHE_SIZE;
+                }
+            });
+
     public LoggerRequestProcessor() {
         this.executor = Executors.newFixedThreadPool(Constants.CPUS * 2 + 1,
                 new NamedThreadFactory("Log-Request-Process-Thread"));
@@ -90,6 +127,21 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
                 GetLogBytesResponseCommand getLogResponse = new GetLogBytesResponseCommand(bytes);
                 channel.writeAndFlush(getLogResponse.convert2Command(command.getOpaque()));
                 break;
+            case GET_LOG_STREAM_REQUEST:
+                GetLogStreamRequestCommand getLogStreamRequest = JSONUtils.parseObject(
+                        command.getBody(), GetLogStreamRequestCommand.class);
+                String streamPath = getLogStreamRequest.getPath();
+                if (!checkPathSecurity(streamPath)) {
+                    throw new IllegalArgumentException("Illegal path: " + streamPath);
+                }
+                ChunkedFileWriter.write(channel, CommandType.GET_LOG_STREAM_CHUNK, command.getOpaque(),
+                        new File(streamPath), LOG_CHUNK_SIZE);
+                break;
+            case GET_LOG_STREAM_CANCEL_REQUEST:
+                GetLogStreamCancelRequestCommand cancelRequest = JSONUtils.parseObject(
+                        command.getBody(), GetLogStreamCancelRequestCommand.class);
+                ChunkedFileWriter.cancel(channel, cancelRequest.getStreamId());
+                break;
             case VIEW_WHOLE_LOG_REQUEST:
                 ViewLogRequestCommand viewLogRequest = JSONUtils.parseObject(
                         command.getBody(), ViewLogRequestCommand.class);
@@ -110,8 +162,9 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
                     throw new IllegalArgumentException("Illegal path: " + rollViewLogPath);
                 }
 
-                List<String> lines = readPartFileContent(rollViewLogPath,
-                        rollViewLogRequest.getSkipLineNum(), rollViewLogRequest.getLimit());
+                List<String> lines = rollViewLogRequest.isTail()
+                        ? readTailFileContent(rollViewLogPath, rollViewLogRequest.getLimit())
+                        : readPartFileContent(rollViewLogPath, rollViewLogRequest.getSkipLineNum(), rollViewLogRequest.getLimit());
                 StringBuilder builder = new StringBuilder();
                 for (String line : lines) {
                     builder.append(line).append("\r\n");
@@ -119,6 +172,20 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
                 RollViewLogResponseCommand rollViewLogRequestResponse = new RollViewLogResponseCommand(builder.toString());
                 channel.writeAndFlush(rollViewLogRequestResponse.convert2Command(command.getOpaque()));
                 break;
+            case TAIL_LOG_SUBSCRIBE_REQUEST:
+                TailLogSubscribeRequestCommand subscribeRequest = JSONUtils.parseObject(
+                        command.getBody(), TailLogSubscribeRequestCommand.class);
+                String subscribePath = subscribeRequest.getPath();
+                if (!checkPathSecurity(subscribePath)) {
+                    throw new IllegalArgumentException("Illegal path: " + subscribePath);
+                }
+                logTailer.subscribe(subscribePath, channel, command.getOpaque());
+                break;
+            case TAIL_LOG_UNSUBSCRIBE_REQUEST:
+                TailLogUnsubscribeRequestCommand unsubscribeRequest = JSONUtils.parseObject(
+                        command.getBody(), TailLogUnsubscribeRequestCommand.class);
+                logTailer.unsubscribe(unsubscribeRequest.getPath(), unsubscribeRequest.getSubscriptionId());
+                break;
             case REMOVE_TAK_LOG_REQUEST:
                 RemoveTaskLogRequestCommand removeTaskLogRequest = JSONUtils.parseObject(
                         command.getBody(), RemoveTaskLogRequestCommand.class);
@@ -127,6 +194,7 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
                 if (!checkPathSecurity(taskLogPath)) {
                     throw new IllegalArgumentException("Illegal path: " + taskLogPath);
                 }
+                lineIndexes.remove(taskLogPath);
                 File taskLogFile = new File(taskLogPath);
                 boolean status = true;
                 try {
@@ -167,6 +235,14 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
         return this.executor;
     }
 
+    /**
+     * end the tail log subscriptions and release the tailed logs
+     */
+    @PreDestroy
+    public void close() {
+        logTailer.close();
+    }
+
     /**
      * get files content bytes for download file
      *
@@ -189,7 +265,8 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
     }
 
     /**
-     * read part file content，can skip any line and read some lines
+     * read part file content，can skip any line and read some lines,
+     * the page is read from the nearest checkpoint of the line index of the file
      *
      * @param filePath file path
      * @param skipLine skip line
@@ -201,8 +278,30 @@ public class LoggerRequestProcessor implements NettyRequestProcessor {
                                              int limit) {
         File file = new File(filePath);
         if (file.exists() && file.isFile()) {
-            try (Stream<String> stream = Files.lines(Paths.get(filePath))) {
-                return stream.skip(skipLine).limit(limit).collect(Collectors.toList());
+            try {
+                return lineIndexes.computeIfAbsent(filePath, path -> new LogLineIndex(Paths.get(path)))
+                        .readLines(skipLine, limit);
+            } catch (IOException e) {
+                logger.error("read file error", e);
+            }
+        } else {
+            logger.info("file path: {} not exists", filePath);
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * read the last lines of the file
+     *
+     * @param filePath file path
+     * @param limit read lines limit
+     * @return the last lines
+     */
+    private List<String> readTailFileContent(String filePath, int limit) {
+        File file = new File(filePath);
+        if (file.exists() && file.isFile()) {
+            try {
+                return LogLineIndex.tailLines(Paths.get(filePath), limit);
             } catch (IOException e) {
                 logger.error("read file error", e);
             }
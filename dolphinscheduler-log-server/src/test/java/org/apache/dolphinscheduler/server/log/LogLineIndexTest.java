@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LogLineIndexTest {
+
+    private Path logPath;
+
+    private StringBuilder content;
+
+    @Before
+    public void before() throws IOException {
+        logPath = Files.createTempFile("log-line-index", ".log");
+        content = new StringBuilder();
+    }
+
+    @After
+    public void after() throws IOException {
+        Files.deleteIfExists(logPath);
+    }
+
+    @Test
+    public void testReadLines() throws IOException {
+        append(0, 5000);
+        LogLineIndex lineIndex = new LogLineIndex(logPath);
+        assertPage(lineIndex, 0, 10);
+        assertPage(lineIndex, 1023, 3);
+        assertPage(lineIndex, 1024, 1000);
+        assertPage(lineIndex, 4090, 100);
+        Assert.assertTrue(lineIndex.readLines(6000, 10).isEmpty());
+
+        // the appended lines are indexed on the next read
+        append(5000, 3000);
+        assertPage(lineIndex, 4999, 2000);
+        assertPage(lineIndex, 7990, 100);
+
+        // the truncated file is indexed again
+        content.setLength(0);
+        Files.write(logPath, new byte[0]);
+        append(0, 2000);
+        assertPage(lineIndex, 1500, 600);
+    }
+
+    @Test
+    public void testTailLines() throws IOException {
+        Assert.assertTrue(LogLineIndex.tailLines(logPath, 10).isEmpty());
+        append(0, 3000);
+        Assert.assertEquals(expectedTail(10), LogLineIndex.tailLines(logPath, 10));
+        Assert.assertEquals(expectedTail(5000), LogLineIndex.tailLines(logPath, 5000));
+
+        // the last line without terminator
+        Files.write(logPath, "partial".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        content.append("partial");
+        Assert.assertEquals(expectedTail(3), LogLineIndex.tailLines(logPath, 3));
+        Assert.assertEquals("partial", LogLineIndex.tailLines(logPath, 1).get(0));
+    }
+
+    private void assertPage(LogLineIndex lineIndex, int skipLine, int limit) throws IOException {
+        Assert.assertEquals(expectedLines(skipLine, limit), lineIndex.readLines(skipLine, limit));
+    }
+
+    /**
+     * append lines with all kinds of terminators and empty lines
+     */
+    private void append(int from, int count) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (int i = from; i < from + count; i++) {
+            String line = i % 7 == 0 ? "" : "[INFO] line " + i;
+            String terminator = i % 3 == 0 ? "\r\n" : (i % 5 == 0 ? "\r" : "\n");
+            lines.append(line).append(terminator);
+        }
+        content.append(lines);
+        Files.write(logPath, lines.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+    private List<String> expectedTail(int limit) throws IOException {
+        List<String> lines = expectedLines(0, Integer.MAX_VALUE);
+        return lines.subList(Math.max(0, lines.size() - limit), lines.size());
+    }
+
+    private List<String> expectedLines(int skipLine, int limit) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new StringReader(content.toString()))) {
+            return new ArrayList<>(reader.lines().skip(skipLine).limit(limit).collect(Collectors.toList()));
+        }
+    }
+}
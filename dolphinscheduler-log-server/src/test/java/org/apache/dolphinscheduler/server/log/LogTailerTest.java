@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.log;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+
+public class LogTailerTest {
+
+    private LogTailer logTailer;
+
+    private File file;
+
+    @Before
+    public void before() throws IOException {
+        // the rounds are run by the test
+        logTailer = new LogTailer(Long.MAX_VALUE);
+        file = File.createTempFile("log-tailer", ".log");
+        file.deleteOnExit();
+        append("written before the subscription\n");
+    }
+
+    @After
+    public void after() {
+        logTailer.close();
+    }
+
+    @Test
+    public void testPushAppendedLines() throws IOException {
+        EmbeddedChannel first = new EmbeddedChannel();
+        EmbeddedChannel second = new EmbeddedChannel();
+        logTailer.subscribe(file.getPath(), first, 1L);
+        logTailer.subscribe(file.getPath(), second, 2L);
+        Assert.assertEquals(1, logTailer.getTailedFileCount());
+
+        logTailer.tail();
+        Assert.assertNull(first.readOutbound());
+
+        // the partial line is kept until it is completed
+        append("line 1\nline 2\nline");
+        logTailer.tail();
+        assertPush(first, 1L, "line 1\nline 2\n");
+        assertPush(second, 2L, "line 1\nline 2\n");
+
+        append(" 3\n");
+        logTailer.tail();
+        assertPush(first, 1L, "line 3\n");
+        assertPush(second, 2L, "line 3\n");
+
+        logTailer.unsubscribe(file.getPath(), 2L);
+        append("line 4");
+        logTailer.tail();
+        Assert.assertNull(first.readOutbound());
+        // the partial line is pushed once the log stops growing
+        logTailer.tail();
+        assertPush(first, 1L, "line 4");
+        Assert.assertNull(second.readOutbound());
+
+        // the log is not tailed when the channel of its last subscriber is closed
+        first.close();
+        Assert.assertEquals(0, logTailer.getTailedFileCount());
+    }
+
+    @Test
+    public void testPushAtLineBoundary() throws IOException {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        logTailer.subscribe(file.getPath(), channel, 1L);
+
+        // more lines than a push can hold, appended at once
+        StringBuilder lines = new StringBuilder();
+        while (lines.length() <= LogTailer.MAX_PUSH_SIZE) {
+            lines.append(String.format("line %08d\n", lines.length()));
+        }
+        append(lines.toString());
+        logTailer.tail();
+        Command first = channel.readOutbound();
+        logTailer.tail();
+        Command second = channel.readOutbound();
+
+        String pushed = new String(first.getBody(), StandardCharsets.UTF_8);
+        Assert.assertTrue(first.getBody().length <= LogTailer.MAX_PUSH_SIZE);
+        Assert.assertTrue(pushed.endsWith("\n"));
+        Assert.assertEquals(lines.toString(), pushed + new String(second.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCloseEndsSubscriptions() {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        logTailer.subscribe(file.getPath(), channel, 1L);
+        logTailer.close();
+
+        Command end = channel.readOutbound();
+        Assert.assertEquals(CommandType.TAIL_LOG_PUSH, end.getType());
+        Assert.assertEquals(0, end.getBody().length);
+        Assert.assertEquals(0, logTailer.getTailedFileCount());
+    }
+
+    private void append(String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+
+    private void assertPush(EmbeddedChannel channel, long opaque, String content) {
+        Command push = channel.readOutbound();
+        Assert.assertEquals(CommandType.TAIL_LOG_PUSH, push.getType());
+        Assert.assertEquals(opaque, push.getOpaque());
+        Assert.assertEquals(content, new String(push.getBody(), StandardCharsets.UTF_8));
+        Assert.assertNull(channel.readOutbound());
+    }
+}
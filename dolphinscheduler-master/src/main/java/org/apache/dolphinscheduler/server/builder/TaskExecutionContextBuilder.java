@@ -95,6 +95,7 @@ public class TaskExecutionContextBuilder {
         taskExecutionContext.setCmdTypeIfComplement(processInstance.getCmdTypeIfComplement().getCode());
         taskExecutionContext.setTenantCode(processInstance.getTenantCode());
         taskExecutionContext.setQueue(processInstance.getQueue());
+        taskExecutionContext.setWorkflowInstanceHost(processInstance.getHost());
         return this;
     }
 
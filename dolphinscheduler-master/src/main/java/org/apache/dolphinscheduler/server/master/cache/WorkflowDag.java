@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.cache;
+
+import org.apache.dolphinscheduler.common.enums.TaskDependType;
+import org.apache.dolphinscheduler.common.graph.TaskDAG;
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.common.process.ProcessDag;
+import org.apache.dolphinscheduler.dao.utils.DagHelper;
+
+import org.apache.commons.collections.CollectionUtils;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The compiled graph of a process definition version, it is shared by the process instances of the version,
+ * so neither the task nodes nor the dag should be changed.
+ */
+public final class WorkflowDag {
+
+    private final long processDefinitionCode;
+
+    private final int processDefinitionVersion;
+
+    private final List<TaskNode> taskNodes;
+
+    private final Set<Long> taskCodes;
+
+    /**
+     * the dag of all the task nodes, null if there is no task node
+     */
+    private final TaskDAG fullDag;
+
+    public WorkflowDag(long processDefinitionCode, int processDefinitionVersion, List<TaskNode> taskNodes) throws Exception {
+        this.processDefinitionCode = processDefinitionCode;
+        this.processDefinitionVersion = processDefinitionVersion;
+        this.taskNodes = Collections.unmodifiableList(taskNodes);
+        this.taskCodes = taskNodes.stream().map(TaskNode::getCode).collect(Collectors.toSet());
+        this.fullDag = buildDag(this.taskNodes, Collections.emptyList(), Collections.emptyList(), TaskDependType.TASK_POST);
+    }
+
+    public long getProcessDefinitionCode() {
+        return processDefinitionCode;
+    }
+
+    public int getProcessDefinitionVersion() {
+        return processDefinitionVersion;
+    }
+
+    public List<TaskNode> getTaskNodes() {
+        return taskNodes;
+    }
+
+    public boolean containsTask(long taskCode) {
+        return taskCodes.contains(taskCode);
+    }
+
+    /**
+     * Get the dag of a process instance, the shared full dag is returned if the instance runs all the tasks,
+     * otherwise a dag of the tasks to run is built from the cached task nodes.
+     *
+     * @param startNodeList start nodes of the instance
+     * @param recoveryNodeCodeList recovery nodes of the instance
+     * @param taskDependType task depend type of the instance
+     * @return the dag, null if no task to run
+     */
+    public TaskDAG getDag(List<String> startNodeList,
+                          List<String> recoveryNodeCodeList,
+                          TaskDependType taskDependType) throws Exception {
+        if (taskDependType == TaskDependType.TASK_POST
+                && CollectionUtils.isEmpty(startNodeList) && CollectionUtils.isEmpty(recoveryNodeCodeList)) {
+            return fullDag;
+        }
+        return buildDag(taskNodes, startNodeList, recoveryNodeCodeList, taskDependType);
+    }
+
+    private static TaskDAG buildDag(List<TaskNode> taskNodes,
+                                    List<String> startNodeList,
+                                    List<String> recoveryNodeCodeList,
+                                    TaskDependType taskDependType) throws Exception {
+        ProcessDag processDag = DagHelper.generateFlowDag(taskNodes, startNodeList, recoveryNodeCodeList, taskDependType);
+        if (processDag == null) {
+            return null;
+        }
+        return DagHelper.buildTaskDag(processDag);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.cache;
+
+import org.apache.dolphinscheduler.common.enums.CacheType;
+
+/**
+ * cache of the compiled graph of the process definition versions
+ */
+public interface WorkflowDagCacheManager {
+
+    /**
+     * get the compiled graph of the process definition version, it is compiled and cached if absent
+     *
+     * @param processDefinitionCode processDefinitionCode
+     * @param processDefinitionVersion processDefinitionVersion
+     * @return the compiled graph
+     */
+    WorkflowDag getWorkflowDag(long processDefinitionCode, int processDefinitionVersion) throws Exception;
+
+    /**
+     * remove the graphs affected by the expired cache
+     *
+     * @param cacheType type of the expired cache
+     * @param cacheKey key of the expired cache
+     */
+    void expire(CacheType cacheType, String cacheKey);
+}
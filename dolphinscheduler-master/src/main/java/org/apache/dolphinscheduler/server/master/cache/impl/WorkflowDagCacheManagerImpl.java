@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.cache.impl;
+
+import org.apache.dolphinscheduler.common.enums.CacheType;
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.dao.entity.ProcessTaskRelation;
+import org.apache.dolphinscheduler.dao.entity.TaskDefinitionLog;
+import org.apache.dolphinscheduler.server.master.cache.WorkflowDag;
+import org.apache.dolphinscheduler.server.master.cache.WorkflowDagCacheManager;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.server.master.metrics.ProcessInstanceMetrics;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+import javax.annotation.PostConstruct;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * cache of the compiled graph of the process definition versions, weighted by the task node count.
+ * A process definition version is never changed, the graphs are removed when the definitions are deleted.
+ */
+@Component
+public class WorkflowDagCacheManagerImpl implements WorkflowDagCacheManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(WorkflowDagCacheManagerImpl.class);
+
+    @Autowired
+    private ProcessService processService;
+
+    @Autowired
+    private MasterConfig masterConfig;
+
+    /**
+     * key is processDefinitionCode_processDefinitionVersion, null if the cache is disabled
+     */
+    private Cache<String, WorkflowDag> workflowDagCache;
+
+    @PostConstruct
+    public void init() {
+        if (masterConfig.getWorkflowDagCacheMaxTaskNodes() > 0) {
+            workflowDagCache = Caffeine.newBuilder()
+                    .maximumWeight(masterConfig.getWorkflowDagCacheMaxTaskNodes())
+                    .weigher((String key, WorkflowDag workflowDag) -> workflowDag.getTaskNodes().size() + 1)
+                    .build();
+        }
+    }
+
+    @Override
+    public WorkflowDag getWorkflowDag(long processDefinitionCode, int processDefinitionVersion) throws Exception {
+        if (workflowDagCache == null) {
+            return compile(processDefinitionCode, processDefinitionVersion);
+        }
+        String key = processDefinitionCode + "_" + processDefinitionVersion;
+        WorkflowDag workflowDag = workflowDagCache.getIfPresent(key);
+        if (workflowDag != null) {
+            ProcessInstanceMetrics.incWorkflowDagCacheHit();
+            return workflowDag;
+        }
+        ProcessInstanceMetrics.incWorkflowDagCacheMiss();
+        // compile outside the cache loader, so the exception is thrown to the caller as it is
+        workflowDag = compile(processDefinitionCode, processDefinitionVersion);
+        if (workflowDag.getTaskNodes().isEmpty()) {
+            return workflowDag;
+        }
+        WorkflowDag cached = workflowDagCache.asMap().putIfAbsent(key, workflowDag);
+        return cached == null ? workflowDag : cached;
+    }
+
+    @Override
+    public void expire(CacheType cacheType, String cacheKey) {
+        if (workflowDagCache == null || StringUtils.isEmpty(cacheKey)) {
+            return;
+        }
+        // the cache keys are the parameters joined by '_', see CacheKeyGenerator
+        String[] params = cacheKey.split("_");
+        try {
+            switch (cacheType) {
+                case PROCESS_DEFINITION:
+                    // key: processDefinitionCode
+                    long processDefinitionCode = Long.parseLong(params[0]);
+                    invalidateIf(workflowDag -> workflowDag.getProcessDefinitionCode() == processDefinitionCode);
+                    break;
+                case PROCESS_TASK_RELATION:
+                    // key: projectCode_processDefinitionCode
+                    long relationProcessDefinitionCode = Long.parseLong(params[params.length - 1]);
+                    invalidateIf(workflowDag -> workflowDag.getProcessDefinitionCode() == relationProcessDefinitionCode);
+                    break;
+                case TASK_DEFINITION:
+                    // key: taskDefinitionCode_taskDefinitionVersion
+                    long taskCode = Long.parseLong(params[0]);
+                    invalidateIf(workflowDag -> workflowDag.containsTask(taskCode));
+                    break;
+                default:
+                    break;
+            }
+        } catch (NumberFormatException e) {
+            logger.warn("unknown cache key: {} of {}, clear all the workflow dags", cacheKey, cacheType);
+            workflowDagCache.invalidateAll();
+        }
+    }
+
+    private void invalidateIf(Predicate<WorkflowDag> predicate) {
+        workflowDagCache.asMap().values().removeIf(predicate);
+    }
+
+    private WorkflowDag compile(long processDefinitionCode, int processDefinitionVersion) throws Exception {
+        List<ProcessTaskRelation> processTaskRelations = processService.findRelationByCode(processDefinitionCode, processDefinitionVersion);
+        List<TaskDefinitionLog> taskDefinitionLogs = processService.getTaskDefineLogListByRelation(processTaskRelations);
+        List<TaskNode> taskNodeList = processService.transformTask(processTaskRelations, taskDefinitionLogs);
+        return new WorkflowDag(processDefinitionCode, processDefinitionVersion, taskNodeList);
+    }
+}
@@ -37,6 +37,19 @@ public class MasterConfig {
      * The max batch size used to fetch command from database.
      */
     private int fetchCommandNum;
+    /**
+     * The strategy used to fetch command from database.
+     */
+    private CommandFetchStrategy commandFetchStrategy = CommandFetchStrategy.ID_SLOT;
+    /**
+     * The lease timeout of the claimed command, the unit is second. Only used by {@link CommandFetchStrategy#CLAIM}.
+     */
+    private int commandClaimLeaseTimeout = 300;
+    /**
+     * Whether to use `select ... for update skip locked` to claim commands, the database should support it,
+     * e.g. MySQL 8.0+ and PostgreSQL 9.5+. Only used by {@link CommandFetchStrategy#CLAIM}.
+     */
+    private boolean commandClaimSkipLocked;
     /**
      * The thread number used to prepare processInstance. This number shouldn't bigger than fetchCommandNum.
      */
@@ -75,6 +88,10 @@ public class MasterConfig {
     private double reservedMemory;
     private int failoverInterval;
     private boolean killYarnJobWhenTaskFailover;
+    /**
+     * The max task node count of the cached workflow dags, 0 to disable the cache.
+     */
+    private int workflowDagCacheMaxTaskNodes = 100000;
 
     public int getListenPort() {
         return listenPort;
@@ -92,6 +109,30 @@ public class MasterConfig {
         this.fetchCommandNum = fetchCommandNum;
     }
 
+    public CommandFetchStrategy getCommandFetchStrategy() {
+        return commandFetchStrategy;
+    }
+
+    public void setCommandFetchStrategy(CommandFetchStrategy commandFetchStrategy) {
+        this.commandFetchStrategy = commandFetchStrategy;
+    }
+
+    public int getCommandClaimLeaseTimeout() {
+        return commandClaimLeaseTimeout;
+    }
+
+    public void setCommandClaimLeaseTimeout(int commandClaimLeaseTimeout) {
+        this.commandClaimLeaseTimeout = commandClaimLeaseTimeout;
+    }
+
+    public boolean isCommandClaimSkipLocked() {
+        return commandClaimSkipLocked;
+    }
+
+    public void setCommandClaimSkipLocked(boolean commandClaimSkipLocked) {
+        this.commandClaimSkipLocked = commandClaimSkipLocked;
+    }
+
     public int getPreExecThreads() {
         return preExecThreads;
     }
@@ -187,4 +228,12 @@ public class MasterConfig {
     public void setKillYarnJobWhenTaskFailover(boolean killYarnJobWhenTaskFailover) {
         this.killYarnJobWhenTaskFailover = killYarnJobWhenTaskFailover;
     }
+
+    public int getWorkflowDagCacheMaxTaskNodes() {
+        return workflowDagCacheMaxTaskNodes;
+    }
+
+    public void setWorkflowDagCacheMaxTaskNodes(int workflowDagCacheMaxTaskNodes) {
+        this.workflowDagCacheMaxTaskNodes = workflowDagCacheMaxTaskNodes;
+    }
 }
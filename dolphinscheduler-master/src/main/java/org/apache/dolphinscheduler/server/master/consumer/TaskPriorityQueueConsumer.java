@@ -25,6 +25,7 @@ import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.TaskExecuteRequestCommand;
+import org.apache.dolphinscheduler.remote.future.SendCallback;
 import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.dispatch.ExecutorDispatcher;
@@ -34,19 +35,19 @@ import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteExce
 import org.apache.dolphinscheduler.server.master.metrics.TaskMetrics;
 import org.apache.dolphinscheduler.server.master.processor.queue.TaskEvent;
 import org.apache.dolphinscheduler.server.master.processor.queue.TaskEventService;
+import org.apache.dolphinscheduler.server.master.registry.ServerNodeManager;
+import org.apache.dolphinscheduler.server.master.registry.ServerTopology;
 import org.apache.dolphinscheduler.service.exceptions.TaskPriorityQueueException;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.apache.dolphinscheduler.service.queue.TaskPriority;
-import org.apache.dolphinscheduler.service.queue.TaskPriorityQueue;
-import org.apache.dolphinscheduler.spi.utils.JSONUtils;
+import org.apache.dolphinscheduler.service.queue.TaskPriorityQueueImpl;
 
 import org.apache.commons.collections.CollectionUtils;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
 import java.util.Objects;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
@@ -72,7 +73,7 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
      * taskUpdateQueue
      */
     @Autowired
-    private TaskPriorityQueue<TaskPriority> taskPriorityQueue;
+    private TaskPriorityQueueImpl taskPriorityQueue;
 
     /**
      * processService
@@ -104,11 +105,24 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
     @Autowired
     private TaskEventService taskEventService;
 
+    @Autowired
+    private ServerNodeManager serverNodeManager;
+
     /**
      * consumer thread pool
      */
     private ThreadPoolExecutor consumerThreadPoolExecutor;
 
+    /**
+     * limit the tasks taken from the task queue but not dispatched yet, so the priority of the queue is kept
+     */
+    private Semaphore dispatchPermits;
+
+    /**
+     * the tasks failed to dispatch, they are put back to the task queue after the delay
+     */
+    private final DelayQueue<DispatchRetry> dispatchRetryQueue = new DelayQueue<>();
+
     protected TaskPriorityQueueConsumer() {
         super("TaskPriorityQueueConsumeThread");
     }
@@ -116,27 +130,36 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
     @PostConstruct
     public void init() {
         this.consumerThreadPoolExecutor = (ThreadPoolExecutor) ThreadUtils.newDaemonFixedThreadExecutor("TaskUpdateQueueConsumerThread", masterConfig.getDispatchTaskNumber());
+        this.dispatchPermits = new Semaphore(masterConfig.getDispatchTaskNumber());
+        serverNodeManager.addWorkerInfoChangeListener((topology, changedWorkerGroups) -> unparkWorkerGroups(topology));
         super.start();
     }
 
     @Override
     public void run() {
-        int fetchTaskNum = masterConfig.getDispatchTaskNumber();
         while (Stopper.isRunning()) {
             try {
-                List<TaskPriority> failedDispatchTasks = this.batchDispatch(fetchTaskNum);
-
-                if (CollectionUtils.isNotEmpty(failedDispatchTasks)) {
-                    TaskMetrics.incTaskDispatchFailed(failedDispatchTasks.size());
-                    for (TaskPriority dispatchFailedTask : failedDispatchTasks) {
-                        taskPriorityQueue.put(dispatchFailedTask);
-                    }
-                    // If there are tasks in a cycle that cannot find the worker group,
-                    // sleep for 1 second
-                    if (taskPriorityQueue.size() <= failedDispatchTasks.size()) {
-                        TimeUnit.MILLISECONDS.sleep(Constants.SLEEP_TIME_MILLIS);
-                    }
+                requeueRetryTasks();
+                // wake up earlier to requeue the failed tasks in time
+                long pollTimeout = dispatchRetryQueue.isEmpty() ? Constants.SLEEP_TIME_MILLIS : Constants.SLEEP_TIME_MILLIS_SHORT;
+                TaskPriority taskPriority = taskPriorityQueue.poll(pollTimeout, TimeUnit.MILLISECONDS);
+                if (Objects.isNull(taskPriority)) {
+                    continue;
                 }
+                dispatchPermits.acquire();
+                consumerThreadPoolExecutor.execute(() -> {
+                    try {
+                        if (!this.dispatchTask(taskPriority)) {
+                            retryDispatch(taskPriority);
+                        }
+                    } finally {
+                        dispatchPermits.release();
+                    }
+                });
+            } catch (InterruptedException e) {
+                logger.warn("dispatcher task thread is interrupted");
+                Thread.currentThread().interrupt();
+                break;
             } catch (Exception e) {
                 TaskMetrics.incTaskDispatchError();
                 logger.error("dispatcher task error", e);
@@ -145,45 +168,46 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
     }
 
     /**
-     * batch dispatch with thread pool
+     * put the tasks whose retry delay is reached back to the task queue
      */
-    public List<TaskPriority> batchDispatch(int fetchTaskNum) throws TaskPriorityQueueException, InterruptedException {
-        List<TaskPriority> failedDispatchTasks = Collections.synchronizedList(new ArrayList<>());
-        CountDownLatch latch = new CountDownLatch(fetchTaskNum);
+    private void requeueRetryTasks() throws TaskPriorityQueueException {
+        DispatchRetry dispatchRetry = dispatchRetryQueue.poll();
+        while (dispatchRetry != null) {
+            taskPriorityQueue.put(dispatchRetry.getTaskPriority());
+            dispatchRetry = dispatchRetryQueue.poll();
+        }
+    }
 
-        for (int i = 0; i < fetchTaskNum; i++) {
-            TaskPriority taskPriority = taskPriorityQueue.poll(Constants.SLEEP_TIME_MILLIS, TimeUnit.MILLISECONDS);
-            if (Objects.isNull(taskPriority)) {
-                latch.countDown();
-                continue;
+    /**
+     * resume dispatching the tasks of the parked worker groups which have workers now
+     */
+    private void unparkWorkerGroups(ServerTopology topology) {
+        for (String workerGroup : taskPriorityQueue.getParkedGroups()) {
+            if (CollectionUtils.isNotEmpty(topology.getWorkerGroupNodes(workerGroup))) {
+                logger.info("worker group {} has workers now, resume dispatching its tasks", workerGroup);
+                taskPriorityQueue.unpark(workerGroup);
             }
-
-            consumerThreadPoolExecutor.submit(() -> {
-                try {
-                    boolean dispatchResult = this.dispatchTask(taskPriority);
-                    if (!dispatchResult) {
-                        failedDispatchTasks.add(taskPriority);
-                    }
-                } finally {
-                    // make sure the latch countDown
-                    latch.countDown();
-                }
-            });
         }
+    }
 
-        latch.await();
-
-        return failedDispatchTasks;
+    /**
+     * retry the failed task later, so that the task which can not find a worker does not block the others
+     */
+    private void retryDispatch(TaskPriority taskPriority) {
+        TaskMetrics.incTaskDispatchFailed(1);
+        dispatchRetryQueue.offer(new DispatchRetry(taskPriority, Constants.SLEEP_TIME_MILLIS));
     }
 
     /**
-     * Dispatch task to worker.
+     * Dispatch task to worker, the command is sent asynchronously and the dispatch event is added when it is sent.
      *
      * @param taskPriority taskPriority
-     * @return dispatch result, return true if dispatch success, return false if dispatch failed.
+     * @return dispatch result, return true if the command is sent or there is no need to dispatch,
+     * return false if dispatch failed.
      */
     protected boolean dispatchTask(TaskPriority taskPriority) {
         TaskMetrics.incTaskDispatch();
+        long dispatchStartTime = System.nanoTime();
         boolean result = false;
         try {
             TaskExecutionContext context = taskPriority.getTaskExecutionContext();
@@ -195,13 +219,28 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
                     return true;
                 }
             }
-            result = dispatcher.dispatch(executionContext);
+            result = dispatcher.dispatchAsync(executionContext, new SendCallback() {
+                @Override
+                public void onSuccess() {
+                    TaskMetrics.recordTaskDispatchLatency(System.nanoTime() - dispatchStartTime);
+                    logger.info("Master success dispatch task to worker, taskInstanceId: {}", taskPriority.getTaskId());
+                    addDispatchEvent(context, executionContext);
+                }
+
+                @Override
+                public void onFailure(Throwable cause) {
+                    logger.info("Master failed to dispatch task to worker, taskInstanceId: {}", taskPriority.getTaskId());
+                    retryDispatch(taskPriority);
+                }
+            });
 
-            if (result) {
-                logger.info("Master success dispatch task to worker, taskInstanceId: {}", taskPriority.getTaskId());
-                addDispatchEvent(context, executionContext);
-            } else {
+            if (!result) {
                 logger.info("Master failed to dispatch task to worker, taskInstanceId: {}", taskPriority.getTaskId());
+                if (CollectionUtils.isEmpty(serverNodeManager.getWorkerGroupNodes(taskPriority.getGroupName()))) {
+                    // there is no worker in the group, stop polling its tasks until a worker is registered
+                    logger.warn("worker group {} has no worker, park its tasks", taskPriority.getGroupName());
+                    taskPriorityQueue.park(taskPriority.getGroupName());
+                }
             }
         } catch (RuntimeException | ExecuteException e) {
             logger.error("Master dispatch task to worker error: ", e);
@@ -218,9 +257,7 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
     }
 
     private Command toCommand(TaskExecutionContext taskExecutionContext) {
-        TaskExecuteRequestCommand requestCommand = new TaskExecuteRequestCommand();
-        requestCommand.setTaskExecutionContext(JSONUtils.toJsonString(taskExecutionContext));
-        return requestCommand.convert2Command();
+        return new TaskExecuteRequestCommand(taskExecutionContext).convert2Command();
     }
 
     /**
@@ -246,4 +283,33 @@ public class TaskPriorityQueueConsumer extends BaseDaemonThread {
         }
         return false;
     }
+
+    /**
+     * task waiting for the next dispatch
+     */
+    private static final class DispatchRetry implements Delayed {
+
+        private final TaskPriority taskPriority;
+
+        private final long retryTime;
+
+        DispatchRetry(TaskPriority taskPriority, long delayMillis) {
+            this.taskPriority = taskPriority;
+            this.retryTime = System.currentTimeMillis() + delayMillis;
+        }
+
+        TaskPriority getTaskPriority() {
+            return taskPriority;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(retryTime - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(getDelay(TimeUnit.MILLISECONDS), o.getDelay(TimeUnit.MILLISECONDS));
+        }
+    }
 }
@@ -17,6 +17,7 @@
 
 package org.apache.dolphinscheduler.server.master.dispatch;
 
+import org.apache.dolphinscheduler.remote.future.SendCallback;
 import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
@@ -98,6 +99,38 @@ public class ExecutorDispatcher implements InitializingBean {
         }
     }
 
+    /**
+     * task dispatch asynchronously, the command is sent to the selected host, and to the other hosts of the group if it fails
+     *
+     * @param context context
+     * @param sendCallback callback of the send result
+     * @return false if there is no suitable host, otherwise the result is notified by the callback
+     * @throws ExecuteException if error throws ExecuteException
+     */
+    public boolean dispatchAsync(final ExecutionContext context, final SendCallback sendCallback) throws ExecuteException {
+        // get executor manager
+        ExecutorManager<Boolean> executorManager = this.executorManagers.get(context.getExecutorType());
+        if (executorManager == null) {
+            throw new ExecuteException("no ExecutorManager for type : " + context.getExecutorType());
+        }
+
+        // host select
+        Host host = hostManager.select(context);
+        if (StringUtils.isEmpty(host.getAddress())) {
+            logger.warn("fail to execute : {} due to no suitable worker, current task needs worker group {} to execute",
+                context.getCommand(), context.getWorkerGroup());
+            return false;
+        }
+        context.setHost(host);
+        executorManager.beforeExecute(context);
+        try {
+            executorManager.executeAsync(context, sendCallback);
+            return true;
+        } finally {
+            executorManager.afterExecute(context);
+        }
+    }
+
     /**
      * register init
      * @throws Exception if error throws Exception
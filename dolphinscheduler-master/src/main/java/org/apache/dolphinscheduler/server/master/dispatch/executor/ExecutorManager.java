@@ -17,6 +17,7 @@
 
 package org.apache.dolphinscheduler.server.master.dispatch.executor;
 
+import org.apache.dolphinscheduler.remote.future.SendCallback;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
 
@@ -48,6 +49,14 @@ public interface ExecutorManager<T> {
      */
     void executeDirectly(ExecutionContext context) throws ExecuteException;
 
+    /**
+     * execute task asynchronously, the other nodes are tried if the host fails, the result is notified by the callback
+     * @param context context, its host is set to the node the command is sent to
+     * @param sendCallback sendCallback, it fails after all the nodes failed
+     * @throws ExecuteException if the command can not be sent
+     */
+    void executeAsync(ExecutionContext context, SendCallback sendCallback) throws ExecuteException;
+
     /**
      *  after execute
      * @param context context
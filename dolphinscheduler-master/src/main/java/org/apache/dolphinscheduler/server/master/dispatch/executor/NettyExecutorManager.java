@@ -23,10 +23,13 @@ import org.apache.dolphinscheduler.remote.NettyRemotingClient;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
+import org.apache.dolphinscheduler.remote.future.SendCallback;
 import org.apache.dolphinscheduler.remote.utils.Host;
 import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
 import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
 import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
+import org.apache.dolphinscheduler.server.master.processor.TaskEventBatchProcessor;
 import org.apache.dolphinscheduler.server.master.processor.TaskExecuteResponseProcessor;
 import org.apache.dolphinscheduler.server.master.processor.TaskExecuteRunningProcessor;
 import org.apache.dolphinscheduler.server.master.processor.TaskKillResponseProcessor;
@@ -73,6 +76,9 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean> {
     @Autowired
     private TaskRecallProcessor taskRecallProcessor;
 
+    @Autowired
+    private TaskEventBatchProcessor taskEventBatchProcessor;
+
     /**
      * netty remote client
      */
@@ -92,6 +98,7 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean> {
         this.nettyRemotingClient.registerProcessor(CommandType.TASK_EXECUTE_RUNNING, taskExecuteRunningProcessor);
         this.nettyRemotingClient.registerProcessor(CommandType.TASK_KILL_RESPONSE, taskKillResponseProcessor);
         this.nettyRemotingClient.registerProcessor(CommandType.TASK_RECALL, taskRecallProcessor);
+        this.nettyRemotingClient.registerProcessor(CommandType.TASK_EVENT_BATCH, taskEventBatchProcessor);
     }
 
     /**
@@ -144,6 +151,43 @@ public class NettyExecutorManager extends AbstractExecutorManager<Boolean> {
         doExecute(host, context.getCommand());
     }
 
+    @Override
+    public void executeAsync(ExecutionContext context, SendCallback sendCallback) throws ExecuteException {
+        // the other nodes are tried like execute, the failed host may be selected again until its heartbeat expires
+        executeAsync(context, getAllNodes(context), new HashSet<>(), context.getHost(), sendCallback);
+    }
+
+    private void executeAsync(ExecutionContext context, Set<String> allNodes, Set<String> failNodeSet,
+                              Host host, SendCallback sendCallback) {
+        Command command = context.getCommand();
+        context.setHost(host);
+        SendCallback failoverCallback = new SendCallback() {
+            @Override
+            public void onSuccess() {
+                sendCallback.onSuccess();
+            }
+
+            @Override
+            public void onFailure(Throwable cause) {
+                failNodeSet.add(host.getAddress());
+                Collection<String> remained = CollectionUtils.subtract(allNodes, failNodeSet);
+                if (CollectionUtils.isEmpty(remained)) {
+                    sendCallback.onFailure(cause);
+                    return;
+                }
+                Host nextHost = Host.of(remained.iterator().next());
+                logger.error("retry execute command : {} host : {}", command, nextHost);
+                executeAsync(context, allNodes, failNodeSet, nextHost, sendCallback);
+            }
+        };
+        try {
+            nettyRemotingClient.sendAsync(host, command, failoverCallback);
+        } catch (RemotingException ex) {
+            logger.error(String.format("send command : %s to %s error", command, host), ex);
+            failoverCallback.onFailure(ex);
+        }
+    }
+
     /**
      * execute logic
      *
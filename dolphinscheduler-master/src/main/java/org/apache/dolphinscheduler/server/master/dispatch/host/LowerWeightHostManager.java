@@ -24,25 +24,25 @@ import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionConte
 import org.apache.dolphinscheduler.server.master.dispatch.host.assign.HostWeight;
 import org.apache.dolphinscheduler.server.master.dispatch.host.assign.HostWorker;
 import org.apache.dolphinscheduler.server.master.dispatch.host.assign.LowerWeightRoundRobin;
+import org.apache.dolphinscheduler.server.master.registry.ServerTopology;
 import org.apache.dolphinscheduler.server.master.registry.WorkerInfoChangeListener;
 import org.apache.dolphinscheduler.spi.utils.StringUtils;
 
 import org.apache.commons.collections.CollectionUtils;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 import javax.annotation.PostConstruct;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 
 /**
  * lower weight host manager
@@ -57,20 +57,19 @@ public class LowerWeightHostManager extends CommonHostManager {
     private LowerWeightRoundRobin selector;
 
     /**
-     * worker host weights
+     * worker host weights, key is worker group, it is replaced rather than changed, so it is read without lock
      */
-    private ConcurrentHashMap<String, Set<HostWeight>> workerHostWeightsMap;
+    private volatile Map<String, Set<HostWeight>> workerHostWeightsMap = Collections.emptyMap();
 
     /**
-     * worker group host lock
+     * live worker load, merged from the heartbeats and the task events
      */
-    private Lock lock;
+    @Autowired
+    private WorkerLoadManager workerLoadManager;
 
     @PostConstruct
     public void init() {
         this.selector = new LowerWeightRoundRobin();
-        this.workerHostWeightsMap = new ConcurrentHashMap<>();
-        this.lock = new ReentrantLock();
         serverNodeManager.addWorkerInfoChangeListener(new WorkerWeightListener());
     }
 
@@ -84,7 +83,15 @@ public class LowerWeightHostManager extends CommonHostManager {
     public Host select(ExecutionContext context) {
         Set<HostWeight> workerHostWeights = getWorkerHostWeights(context.getWorkerGroup());
         if (CollectionUtils.isNotEmpty(workerHostWeights)) {
-            return selector.select(workerHostWeights).getHost();
+            // the host weights are shared by the concurrent selections, so the predictions are kept apart
+            Map<HostWeight, Double> predictedWaitTimes = new HashMap<>(workerHostWeights.size() * 2);
+            for (HostWeight hostWeight : workerHostWeights) {
+                predictedWaitTimes.put(hostWeight, workerLoadManager.predictQueueWaitTime(hostWeight.getHost().getAddress()));
+            }
+            Host host = selector.select(workerHostWeights, predictedWaitTimes).getHost();
+            // counted until the next load of the worker, so the tasks are not piled onto it between the reports
+            workerLoadManager.dispatched(host.getAddress());
+            return host;
         }
         return new Host();
     }
@@ -97,35 +104,41 @@ public class LowerWeightHostManager extends CommonHostManager {
 
     private class WorkerWeightListener implements WorkerInfoChangeListener {
         @Override
-        public void notify(Map<String, Set<String>> workerGroups, Map<String, String> workerNodeInfo) {
-            syncWorkerResources(workerGroups, workerNodeInfo);
+        public void notify(ServerTopology topology, Set<String> changedWorkerGroups) {
+            syncWorkerResources(topology, changedWorkerGroups);
         }
     }
 
     /**
-     * Sync worker resource.
+     * Sync worker resource, only the host weights of the changed worker groups are rebuilt.
      *
-     * @param workerGroupNodes  worker group nodes, key is worker group, value is worker group nodes.
-     * @param workerNodeInfoMap worker node info map, key is worker node, value is worker info.
+     * @param topology            the current topology
+     * @param changedWorkerGroups the changed worker groups
      */
-    private void syncWorkerResources(final Map<String, Set<String>> workerGroupNodes,
-                                     final Map<String, String> workerNodeInfoMap) {
+    private void syncWorkerResources(final ServerTopology topology, final Set<String> changedWorkerGroups) {
         try {
-            Map<String, Set<HostWeight>> workerHostWeights = new HashMap<>();
-            for (Map.Entry<String, Set<String>> entry : workerGroupNodes.entrySet()) {
-                String workerGroup = entry.getKey();
-                Set<String> nodes = entry.getValue();
-                Set<HostWeight> hostWeights = new HashSet<>(nodes.size());
-                for (String node : nodes) {
-                    String heartbeat = workerNodeInfoMap.getOrDefault(node, null);
-                    Optional<HostWeight> hostWeightOpt = getHostWeight(node, workerGroup, heartbeat);
-                    hostWeightOpt.ifPresent(hostWeights::add);
+            workerLoadManager.retain(topology.getWorkerNodeInfo().keySet());
+            if (changedWorkerGroups.isEmpty()) {
+                return;
+            }
+            Map<String, Set<HostWeight>> workerHostWeights = new HashMap<>(workerHostWeightsMap);
+            for (String workerGroup : changedWorkerGroups) {
+                Set<String> nodes = topology.getWorkerGroupNodes(workerGroup);
+                Set<HostWeight> hostWeights = new HashSet<>();
+                if (nodes != null) {
+                    for (String node : nodes) {
+                        String heartbeat = topology.getWorkerNodeInfo(node);
+                        Optional<HostWeight> hostWeightOpt = getHostWeight(node, workerGroup, heartbeat);
+                        hostWeightOpt.ifPresent(hostWeights::add);
+                    }
                 }
-                if (!hostWeights.isEmpty()) {
-                    workerHostWeights.put(workerGroup, hostWeights);
+                if (hostWeights.isEmpty()) {
+                    workerHostWeights.remove(workerGroup);
+                } else {
+                    workerHostWeights.put(workerGroup, Collections.unmodifiableSet(hostWeights));
                 }
             }
-            syncWorkerHostWeight(workerHostWeights);
+            workerHostWeightsMap = Collections.unmodifiableMap(workerHostWeights);
         } catch (Throwable ex) {
             logger.error("Sync worker resource error", ex);
         }
@@ -150,6 +163,7 @@ public class LowerWeightHostManager extends CommonHostManager {
                     addr, heartBeat.getWorkerWaitingTaskCount(), heartBeat.getWorkerExecThreadCount());
             return Optional.empty();
         }
+        workerLoadManager.update(heartBeat.toWorkerLoad(addr));
         return Optional.of(
                 new HostWeight(HostWorker.of(addr, heartBeat.getWorkerHostWeight(), workerGroup),
                         heartBeat.getCpuUsage(), heartBeat.getMemoryUsage(), heartBeat.getLoadAverage(),
@@ -157,23 +171,8 @@ public class LowerWeightHostManager extends CommonHostManager {
     }
 
 
-    private void syncWorkerHostWeight(Map<String, Set<HostWeight>> workerHostWeights) {
-        lock.lock();
-        try {
-            workerHostWeightsMap.clear();
-            workerHostWeightsMap.putAll(workerHostWeights);
-        } finally {
-            lock.unlock();
-        }
-    }
-
     private Set<HostWeight> getWorkerHostWeights(String workerGroup) {
-        lock.lock();
-        try {
-            return workerHostWeightsMap.get(workerGroup);
-        } finally {
-            lock.unlock();
-        }
+        return workerHostWeightsMap.get(workerGroup);
     }
 
 }
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.dispatch.host;
+
+import org.apache.dolphinscheduler.common.model.WorkerLoad;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * worker load manager, keeps the latest load of the workers, reported by the heartbeats and the task events,
+ * and the tasks dispatched to the workers since, so the queue wait of a new task can be predicted between the reports
+ */
+@Component
+public class WorkerLoadManager {
+
+    /**
+     * tasks finished per second assumed for a worker which has not finished any task recently
+     */
+    static final double MIN_TASK_COMPLETION_RATE = 1.0D / 60;
+
+    private final ConcurrentHashMap<String, WorkerLoadState> workerLoads = new ConcurrentHashMap<>();
+
+    /**
+     * update the load of the worker, the older one is ignored
+     *
+     * @param workerLoad worker load
+     */
+    public void update(WorkerLoad workerLoad) {
+        workerLoads.compute(workerLoad.getHost(), (host, current) -> {
+            if (current != null && current.workerLoad.getReportTime() >= workerLoad.getReportTime()) {
+                return current;
+            }
+            return new WorkerLoadState(workerLoad);
+        });
+    }
+
+    /**
+     * count a task dispatched to the worker, it is counted until the next load of the worker
+     *
+     * @param host worker address
+     */
+    public void dispatched(String host) {
+        WorkerLoadState state = workerLoads.get(host);
+        if (state != null) {
+            state.dispatchedTaskCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * forget the workers not in the hosts
+     *
+     * @param hosts alive worker addresses
+     */
+    public void retain(Collection<String> hosts) {
+        workerLoads.keySet().retainAll(hosts);
+    }
+
+    /**
+     * predict the time a task dispatched to the worker now waits for an exec thread
+     *
+     * @param host worker address
+     * @return predicted wait, unit: seconds, 0 if a thread is free or the load is unknown
+     */
+    public double predictQueueWaitTime(String host) {
+        WorkerLoadState state = workerLoads.get(host);
+        if (state == null) {
+            return 0D;
+        }
+        WorkerLoad workerLoad = state.workerLoad;
+        // the tasks to finish before a thread is free for the new task
+        int aheadTaskCount = workerLoad.getRunningTaskCount() + workerLoad.getWaitingTaskCount()
+                + state.dispatchedTaskCount.get() - workerLoad.getExecThreadCount() + 1;
+        if (aheadTaskCount <= 0) {
+            return 0D;
+        }
+        return aheadTaskCount / Math.max(workerLoad.getTaskCompletionRate(), MIN_TASK_COMPLETION_RATE);
+    }
+
+    private static final class WorkerLoadState {
+
+        private final WorkerLoad workerLoad;
+
+        private final AtomicInteger dispatchedTaskCount = new AtomicInteger();
+
+        WorkerLoadState(WorkerLoad workerLoad) {
+            this.workerLoad = workerLoad;
+        }
+    }
+}
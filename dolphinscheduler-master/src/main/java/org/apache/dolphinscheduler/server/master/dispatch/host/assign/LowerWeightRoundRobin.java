@@ -17,12 +17,11 @@
 
 package org.apache.dolphinscheduler.server.master.dispatch.host.assign;
 
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
-
-import com.google.common.collect.Lists;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
 
 /**
  * lower weight round robin
@@ -37,10 +36,28 @@ public class LowerWeightRoundRobin extends AbstractSelector<HostWeight> {
      */
     @Override
     public HostWeight doSelect(Collection<HostWeight> sources) {
+        return doSelect(sources, HostWeight::getWaitingTaskCount);
+    }
+
+    /**
+     * select by the predicted wait of a new task on each host, the waiting task count is used if not predicted
+     *
+     * @param sources sources
+     * @param predictedWaitTimes predicted wait of each host, computed for this selection only
+     * @return HostWeight
+     */
+    public HostWeight select(Collection<HostWeight> sources, Map<HostWeight, Double> predictedWaitTimes) {
+        if (sources.size() <= 1) {
+            return select(sources);
+        }
+        return doSelect(sources, hostWeight -> predictedWaitTimes.getOrDefault(hostWeight, (double) hostWeight.getWaitingTaskCount()));
+    }
+
+    private HostWeight doSelect(Collection<HostWeight> sources, ToDoubleFunction<HostWeight> waitTimeFunction) {
         double totalWeight = 0;
         double lowWeight = 0;
         HostWeight lowerNode = null;
-        List<HostWeight> weights = canAssignTaskHost(sources);
+        List<HostWeight> weights = canAssignTaskHost(sources, waitTimeFunction);
         for (HostWeight hostWeight : weights) {
             totalWeight += hostWeight.getWeight();
             hostWeight.setCurrentWeight(hostWeight.getCurrentWeight() + hostWeight.getWeight());
@@ -53,17 +70,21 @@ public class LowerWeightRoundRobin extends AbstractSelector<HostWeight> {
         return lowerNode;
     }
 
-    private List<HostWeight> canAssignTaskHost(Collection<HostWeight> sources) {
-        List<HostWeight> zeroWaitingTask = sources.stream().filter(h -> h.getWaitingTaskCount() == 0).collect(Collectors.toList());
-        if (!zeroWaitingTask.isEmpty()) {
-            return zeroWaitingTask;
-        }
-        HostWeight hostWeight = sources.stream().min(Comparator.comparing(HostWeight::getWaitingTaskCount)).get();
-        List<HostWeight> waitingTask = Lists.newArrayList(hostWeight);
-        List<HostWeight> equalWaitingTask = sources.stream().filter(h -> !h.getHost().equals(hostWeight.getHost()) && h.getWaitingTaskCount() == hostWeight.getWaitingTaskCount())
-            .collect(Collectors.toList());
-        if (!equalWaitingTask.isEmpty()) {
-            waitingTask.addAll(equalWaitingTask);
+    /**
+     * the hosts a new task does not wait on, or the hosts it waits the least on
+     */
+    private List<HostWeight> canAssignTaskHost(Collection<HostWeight> sources, ToDoubleFunction<HostWeight> waitTimeFunction) {
+        List<HostWeight> waitingTask = new ArrayList<>();
+        double minWaitTime = Double.MAX_VALUE;
+        for (HostWeight hostWeight : sources) {
+            double waitTime = Math.max(waitTimeFunction.applyAsDouble(hostWeight), 0D);
+            if (waitTime < minWaitTime) {
+                minWaitTime = waitTime;
+                waitingTask.clear();
+            }
+            if (waitTime == minWaitTime) {
+                waitingTask.add(hostWeight);
+            }
         }
         return waitingTask;
     }
@@ -17,8 +17,13 @@
 
 package org.apache.dolphinscheduler.server.master.metrics;
 
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 public final class MasterServerMetrics {
 
@@ -42,6 +47,38 @@ public final class MasterServerMetrics {
                     .description("Master server consume command count")
                     .register(Metrics.globalRegistry);
 
+    /**
+     * Used to measure the times the master stops fetching commands because the workflow execute threads are busy.
+     */
+    private static final Counter MASTER_BACKPRESSURE_COUNTER =
+            Counter.builder("ds.master.backpressure.count")
+                    .description("Master server stop fetching command count caused by busy workflow execute threads")
+                    .register(Metrics.globalRegistry);
+
+    private static final Timer COMMAND_WAIT_TIMER =
+            Timer.builder("ds.master.command.wait.time")
+                    .description("Time between a command being fetched and being handled")
+                    .publishPercentileHistogram()
+                    .register(Metrics.globalRegistry);
+
+    private static final Timer COMMAND_HANDLE_TIMER =
+            Timer.builder("ds.master.command.handle.time")
+                    .description("Time of converting a command to process instance")
+                    .publishPercentileHistogram()
+                    .register(Metrics.globalRegistry);
+
+    private static final Timer WORKFLOW_START_TIMER =
+            Timer.builder("ds.master.workflow.start.time")
+                    .description("Time of submitting a created process instance to the workflow execute threads")
+                    .publishPercentileHistogram()
+                    .register(Metrics.globalRegistry);
+
+    public static synchronized void registerCommandInFlightGauge(Supplier<Number> function) {
+        Gauge.builder("ds.master.command.inflight", function)
+                .description("The current count of commands fetched but not handled yet")
+                .register(Metrics.globalRegistry);
+    }
+
     public static void incMasterOverload() {
         MASTER_OVERLOAD_COUNTER.increment();
     }
@@ -50,4 +87,20 @@ public final class MasterServerMetrics {
         MASTER_CONSUME_COMMAND_COUNTER.increment(commandCount);
     }
 
+    public static void incMasterBackpressure() {
+        MASTER_BACKPRESSURE_COUNTER.increment();
+    }
+
+    public static void recordCommandWaitTime(long nanos) {
+        COMMAND_WAIT_TIMER.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static void recordCommandHandleTime(long nanos) {
+        COMMAND_HANDLE_TIMER.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static void recordWorkflowStartTime(long nanos) {
+        WORKFLOW_START_TIMER.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
 }
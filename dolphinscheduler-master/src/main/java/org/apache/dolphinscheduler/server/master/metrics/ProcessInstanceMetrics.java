@@ -17,11 +17,13 @@
 
 package org.apache.dolphinscheduler.server.master.metrics;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 public final class ProcessInstanceMetrics {
 
@@ -64,6 +66,40 @@ public final class ProcessInstanceMetrics {
                     .description("Process instance failover total count")
                     .register(Metrics.globalRegistry);
 
+    private static final Counter WORKFLOW_DAG_CACHE_HIT_COUNTER =
+            Counter.builder("ds.workflow.dag.cache.hit.count")
+                    .description("Workflow dag cache hit total count")
+                    .register(Metrics.globalRegistry);
+
+    private static final Counter WORKFLOW_DAG_CACHE_MISS_COUNTER =
+            Counter.builder("ds.workflow.dag.cache.miss.count")
+                    .description("Workflow dag cache miss total count")
+                    .register(Metrics.globalRegistry);
+
+    private static final Timer WORKFLOW_EVENT_LATENCY_TIMER =
+            Timer.builder("ds.workflow.event.latency")
+                    .description("Time between a workflow receiving state events and the events being dispatched")
+                    .publishPercentileHistogram()
+                    .register(Metrics.globalRegistry);
+
+    public static synchronized void registerWorkflowEventQueueSizeGauge(Supplier<Number> function) {
+        Gauge.builder("ds.workflow.event.queue.size", function)
+                .description("The current count of workflows waiting for their state events to be handled")
+                .register(Metrics.globalRegistry);
+    }
+
+    public static void recordWorkflowEventLatency(long nanos) {
+        WORKFLOW_EVENT_LATENCY_TIMER.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static void incWorkflowDagCacheHit() {
+        WORKFLOW_DAG_CACHE_HIT_COUNTER.increment();
+    }
+
+    public static void incWorkflowDagCacheMiss() {
+        WORKFLOW_DAG_CACHE_MISS_COUNTER.increment();
+    }
+
     public static synchronized void registerProcessInstanceRunningGauge(Supplier<Number> function) {
         Gauge.builder("ds.workflow.instance.running", function)
                 .description("The current running process instance count")
@@ -17,11 +17,14 @@
 
 package org.apache.dolphinscheduler.server.master.metrics;
 
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 
 public final class TaskMetrics {
@@ -84,6 +87,24 @@ public final class TaskMetrics {
                     .description("Task dispatch error")
                     .register(Metrics.globalRegistry);
 
+    private static final Timer TASK_DISPATCH_LATENCY_TIMER =
+            Timer.builder("ds.task.dispatch.latency")
+                    .description("Time between a task being taken from the task queue and being sent to worker")
+                    .publishPercentileHistogram()
+                    .register(Metrics.globalRegistry);
+
+    private static final DistributionSummary TASK_EVENT_BATCH_SIZE =
+            DistributionSummary.builder("ds.task.event.batch.size")
+                    .description("Task instances persisted in one task event batch")
+                    .publishPercentileHistogram()
+                    .register(Metrics.globalRegistry);
+
+    private static final Timer TASK_EVENT_COMMIT_TIMER =
+            Timer.builder("ds.task.event.commit.time")
+                    .description("Time of committing a task event batch to the database")
+                    .publishPercentileHistogram()
+                    .register(Metrics.globalRegistry);
+
     public static void incTaskSubmit() {
         TASK_SUBMIT_COUNTER.increment();
     }
@@ -134,4 +155,13 @@ public final class TaskMetrics {
         TASK_DISPATCH_COUNTER.increment();
     }
 
+    public static void recordTaskDispatchLatency(long nanos) {
+        TASK_DISPATCH_LATENCY_TIMER.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public static void recordTaskEventBatch(int batchSize, long commitNanos) {
+        TASK_EVENT_BATCH_SIZE.record(batchSize);
+        TASK_EVENT_COMMIT_TIMER.record(commitNanos, TimeUnit.NANOSECONDS);
+    }
+
 }
@@ -23,6 +23,7 @@ import org.apache.dolphinscheduler.remote.command.CacheExpireCommand;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
+import org.apache.dolphinscheduler.server.master.cache.WorkflowDagCacheManager;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,6 +47,9 @@ public class CacheProcessor implements NettyRequestProcessor {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private WorkflowDagCacheManager workflowDagCacheManager;
+
     @Override
     public void process(Channel channel, Command command) {
         Preconditions.checkArgument(CommandType.CACHE_EXPIRE == command.getType(), String.format("invalid command type: %s", command.getType()));
@@ -69,5 +73,6 @@ public class CacheProcessor implements NettyRequestProcessor {
             cache.evict(cacheExpireCommand.getCacheKey());
             logger.info("cache evict, type:{}, key:{}", cacheType.getCacheName(), cacheExpireCommand.getCacheKey());
         }
+        workflowDagCacheManager.expire(cacheType, cacheExpireCommand.getCacheKey());
     }
 }
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.processor;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskEventBatchCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRunningCommand;
+import org.apache.dolphinscheduler.remote.command.TaskRecallCommand;
+import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
+import org.apache.dolphinscheduler.server.master.dispatch.host.WorkerLoadManager;
+import org.apache.dolphinscheduler.server.master.processor.queue.TaskEvent;
+import org.apache.dolphinscheduler.server.master.processor.queue.TaskEventService;
+
+import org.apache.commons.collections.CollectionUtils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.google.common.base.Preconditions;
+
+import io.netty.channel.Channel;
+
+/**
+ * task event batch processor, the events in the batch are handled and acked as they are received alone
+ */
+@Component
+public class TaskEventBatchProcessor implements NettyRequestProcessor {
+
+    private final Logger logger = LoggerFactory.getLogger(TaskEventBatchProcessor.class);
+
+    @Autowired
+    private TaskEventService taskEventService;
+
+    @Autowired
+    private WorkerLoadManager workerLoadManager;
+
+    @Override
+    public void process(Channel channel, Command command) {
+        Preconditions.checkArgument(CommandType.TASK_EVENT_BATCH == command.getType(), String.format("invalid command type : %s", command.getType()));
+
+        TaskEventBatchCommand taskEventBatchCommand = command.getBody(TaskEventBatchCommand.class);
+        if (taskEventBatchCommand == null) {
+            logger.error("task event batch command is null");
+            return;
+        }
+        logger.info("received command : {}", taskEventBatchCommand);
+
+        // the worker load is newer than the one of the last heartbeat
+        if (taskEventBatchCommand.getWorkerLoad() != null) {
+            workerLoadManager.update(taskEventBatchCommand.getWorkerLoad());
+        }
+
+        // the running events go first, the result of a task is never reported before it is running
+        if (CollectionUtils.isNotEmpty(taskEventBatchCommand.getRunningCommands())) {
+            for (TaskExecuteRunningCommand runningCommand : taskEventBatchCommand.getRunningCommands()) {
+                taskEventService.addEvent(TaskEvent.newRunningEvent(runningCommand, channel));
+            }
+        }
+        if (CollectionUtils.isNotEmpty(taskEventBatchCommand.getResponseCommands())) {
+            for (TaskExecuteResponseCommand responseCommand : taskEventBatchCommand.getResponseCommands()) {
+                taskEventService.addEvent(TaskEvent.newResultEvent(responseCommand, channel));
+            }
+        }
+        if (CollectionUtils.isNotEmpty(taskEventBatchCommand.getRecallCommands())) {
+            for (TaskRecallCommand recallCommand : taskEventBatchCommand.getRecallCommands()) {
+                taskEventService.addEvent(TaskEvent.newRecallEvent(recallCommand, channel));
+            }
+        }
+    }
+}
@@ -24,6 +24,8 @@ import org.apache.dolphinscheduler.remote.command.TaskExecuteRunningCommand;
 import org.apache.dolphinscheduler.remote.command.TaskRecallCommand;
 import org.apache.dolphinscheduler.remote.utils.ChannelUtils;
 
+import org.apache.commons.lang3.StringUtils;
+
 import java.util.Date;
 
 import io.netty.channel.Channel;
@@ -115,7 +117,7 @@ public class TaskEvent {
         event.setExecutePath(command.getExecutePath());
         event.setLogPath(command.getLogPath());
         event.setChannel(channel);
-        event.setWorkerAddress(ChannelUtils.toAddress(channel).getAddress());
+        event.setWorkerAddress(getWorkerAddress(command.getHost(), channel));
         event.setEvent(Event.RUNNING);
         return event;
     }
@@ -133,7 +135,7 @@ public class TaskEvent {
         event.setAppIds(command.getAppIds());
         event.setVarPool(command.getVarPool());
         event.setChannel(channel);
-        event.setWorkerAddress(ChannelUtils.toAddress(channel).getAddress());
+        event.setWorkerAddress(getWorkerAddress(command.getHost(), channel));
         event.setEvent(Event.RESULT);
         return event;
     }
@@ -146,4 +148,11 @@ public class TaskEvent {
         event.setEvent(Event.WORKER_REJECT);
         return event;
     }
+
+    /**
+     * the host in the command is the listen address of the worker, the channel may be connected from the worker
+     */
+    private static String getWorkerAddress(String host, Channel channel) {
+        return StringUtils.isNotEmpty(host) ? host : ChannelUtils.toAddress(channel).getAddress();
+    }
 }
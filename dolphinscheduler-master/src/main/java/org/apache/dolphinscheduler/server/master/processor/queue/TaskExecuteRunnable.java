@@ -26,11 +26,18 @@ import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseAckCommand;
 import org.apache.dolphinscheduler.remote.command.TaskExecuteRunningAckCommand;
 import org.apache.dolphinscheduler.remote.command.TaskRecallAckCommand;
 import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
+import org.apache.dolphinscheduler.server.master.metrics.TaskMetrics;
 import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteRunnable;
 import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteThreadPool;
 import org.apache.dolphinscheduler.server.utils.DataQualityResultOperator;
 import org.apache.dolphinscheduler.service.process.ProcessService;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentLinkedQueue;
 
@@ -46,6 +53,11 @@ public class TaskExecuteRunnable implements Runnable {
 
     private static final Logger logger = LoggerFactory.getLogger(TaskExecuteRunnable.class);
 
+    /**
+     * max events persisted in one batch
+     */
+    private static final int MAX_BATCH_SIZE = 100;
+
     private final int processInstanceId;
 
     private final ConcurrentLinkedQueue<TaskEvent> events = new ConcurrentLinkedQueue<>();
@@ -70,14 +82,12 @@ public class TaskExecuteRunnable implements Runnable {
     @Override
     public void run() {
         while (!this.events.isEmpty()) {
-            TaskEvent event = this.events.peek();
-            try {
-                persist(event);
-            } catch (Exception e) {
-                logger.error("persist error, event:{}, error: {}", event, e);
-            } finally {
-                this.events.remove(event);
+            List<TaskEvent> batch = new ArrayList<>();
+            TaskEvent event;
+            while (batch.size() < MAX_BATCH_SIZE && (event = this.events.poll()) != null) {
+                batch.add(event);
             }
+            persist(batch);
         }
     }
 
@@ -107,147 +117,213 @@ public class TaskExecuteRunnable implements Runnable {
     }
 
     /**
-     * persist task event
+     * persist the task events, the task instances changed by them are written in one batch,
+     * the workers are acked and the workflow is notified only after the batch is committed
      *
-     * @param taskEvent taskEvent
+     * @param taskEvents taskEvents
      */
-    private void persist(TaskEvent taskEvent) {
-        Event event = taskEvent.getEvent();
-        int taskInstanceId = taskEvent.getTaskInstanceId();
-        int processInstanceId = taskEvent.getProcessInstanceId();
+    private void persist(List<TaskEvent> taskEvents) {
+        // the task instances loaded in this batch, so that the events of a task change the same instance
+        Map<Integer, Optional<TaskInstance>> taskInstances = new HashMap<>();
+        Map<Integer, TaskInstance> changedTaskInstances = new LinkedHashMap<>();
+        List<TaskEvent> handledEvents = new ArrayList<>(taskEvents.size());
+        for (TaskEvent taskEvent : taskEvents) {
+            try {
+                Optional<TaskInstance> taskInstance = taskInstances.computeIfAbsent(taskEvent.getTaskInstanceId(), this::findTaskInstance);
+                if (handle(taskEvent, taskInstance)) {
+                    changedTaskInstances.put(taskEvent.getTaskInstanceId(), taskInstance.get());
+                }
+                handledEvents.add(taskEvent);
+            } catch (Exception e) {
+                logger.error("persist error, event:{}, error: {}", taskEvent, e);
+                ack(taskEvent, ExecutionStatus.FAILURE);
+            }
+        }
+
+        boolean committed = commit(changedTaskInstances.values());
+        for (TaskEvent taskEvent : handledEvents) {
+            if (!committed) {
+                // the worker will report the event again
+                ack(taskEvent, ExecutionStatus.FAILURE);
+                continue;
+            }
+            if (taskEvent.getEvent() == Event.WORKER_REJECT
+                    && !resubmit(taskEvent, taskInstances.get(taskEvent.getTaskInstanceId()).get())) {
+                ack(taskEvent, ExecutionStatus.FAILURE);
+                continue;
+            }
+            // if taskInstance is null (maybe deleted) or finish, retry will be meaningless, so ack success too
+            ack(taskEvent, ExecutionStatus.SUCCESS);
+            if (taskEvent.getEvent() == Event.DISPATCH) {
+                // dispatch event do not need to submit state event
+                continue;
+            }
+            StateEvent stateEvent = new StateEvent();
+            stateEvent.setProcessInstanceId(taskEvent.getProcessInstanceId());
+            stateEvent.setTaskInstanceId(taskEvent.getTaskInstanceId());
+            stateEvent.setExecutionStatus(taskEvent.getState());
+            stateEvent.setType(StateEventType.TASK_STATE_CHANGE);
+            workflowExecuteThreadPool.submitStateEvent(stateEvent);
+        }
+    }
 
-        Optional<TaskInstance> taskInstance;
+    private Optional<TaskInstance> findTaskInstance(int taskInstanceId) {
         WorkflowExecuteRunnable workflowExecuteRunnable = this.processInstanceExecCacheManager.getByProcessInstanceId(processInstanceId);
         if (workflowExecuteRunnable != null && workflowExecuteRunnable.checkTaskInstanceById(taskInstanceId)) {
-            taskInstance = workflowExecuteRunnable.getTaskInstance(taskInstanceId);
-        } else {
-            taskInstance = Optional.ofNullable(processService.findTaskInstanceById(taskInstanceId));
+            return workflowExecuteRunnable.getTaskInstance(taskInstanceId);
         }
+        return Optional.ofNullable(processService.findTaskInstanceById(taskInstanceId));
+    }
 
+    /**
+     * apply the task event to the task instance
+     *
+     * @param taskEvent taskEvent
+     * @param taskInstance taskInstance
+     * @return true if the task instance is changed and need to be saved
+     */
+    private boolean handle(TaskEvent taskEvent, Optional<TaskInstance> taskInstance) throws Exception {
+        Event event = taskEvent.getEvent();
         switch (event) {
             case DISPATCH:
-                handleDispatchEvent(taskEvent, taskInstance);
-                // dispatch event do not need to submit state event
-                return;
+                return handleDispatchEvent(taskEvent, taskInstance);
             case DELAY:
             case RUNNING:
-                handleRunningEvent(taskEvent, taskInstance);
+                return handleRunningEvent(taskEvent, taskInstance);
+            case RESULT:
+                return handleResultEvent(taskEvent, taskInstance);
+            case WORKER_REJECT:
+                // the task is resubmitted after the batch is committed
+                taskInstance.orElseThrow(() -> new RuntimeException("taskInstance is null"));
+                return false;
+            default:
+                throw new IllegalArgumentException("invalid event type : " + event);
+        }
+    }
+
+    /**
+     * commit the changed task instances
+     *
+     * @return true if committed
+     */
+    private boolean commit(Collection<TaskInstance> taskInstances) {
+        if (taskInstances.isEmpty()) {
+            return true;
+        }
+        long startTime = System.nanoTime();
+        try {
+            processService.batchUpdateTaskInstance(new ArrayList<>(taskInstances));
+            TaskMetrics.recordTaskEventBatch(taskInstances.size(), System.nanoTime() - startTime);
+            return true;
+        } catch (Exception e) {
+            logger.error("commit task instances error, process instance id:{}, task instance size:{}", processInstanceId, taskInstances.size(), e);
+            return false;
+        }
+    }
+
+    /**
+     * ack the worker which reported the event
+     */
+    private void ack(TaskEvent taskEvent, ExecutionStatus status) {
+        Channel channel = taskEvent.getChannel();
+        if (channel == null) {
+            return;
+        }
+        int taskInstanceId = status == ExecutionStatus.SUCCESS ? taskEvent.getTaskInstanceId() : -1;
+        switch (taskEvent.getEvent()) {
+            case DELAY:
+            case RUNNING:
+                channel.writeAndFlush(new TaskExecuteRunningAckCommand(status.getCode(), taskInstanceId).convert2Command());
                 break;
             case RESULT:
-                handleResultEvent(taskEvent, taskInstance);
+                channel.writeAndFlush(new TaskExecuteResponseAckCommand(status.getCode(), taskInstanceId).convert2Command());
                 break;
             case WORKER_REJECT:
-                handleWorkerRejectEvent(taskEvent.getChannel(), taskInstance, workflowExecuteRunnable);
+                channel.writeAndFlush(new TaskRecallAckCommand(status.getCode(), taskEvent.getTaskInstanceId()).convert2Command());
                 break;
             default:
-                throw new IllegalArgumentException("invalid event type : " + event);
+                break;
         }
-
-        StateEvent stateEvent = new StateEvent();
-        stateEvent.setProcessInstanceId(taskEvent.getProcessInstanceId());
-        stateEvent.setTaskInstanceId(taskEvent.getTaskInstanceId());
-        stateEvent.setExecutionStatus(taskEvent.getState());
-        stateEvent.setType(StateEventType.TASK_STATE_CHANGE);
-        workflowExecuteThreadPool.submitStateEvent(stateEvent);
     }
 
     /**
      * handle dispatch event
      */
-    private void handleDispatchEvent(TaskEvent taskEvent, Optional<TaskInstance> taskInstanceOptional) {
+    private boolean handleDispatchEvent(TaskEvent taskEvent, Optional<TaskInstance> taskInstanceOptional) {
         if (!taskInstanceOptional.isPresent()) {
             logger.error("taskInstance is null");
-            return;
+            return false;
         }
         TaskInstance taskInstance = taskInstanceOptional.get();
         if (taskInstance.getState() != ExecutionStatus.SUBMITTED_SUCCESS) {
-            return;
+            return false;
         }
         taskInstance.setState(ExecutionStatus.DISPATCH);
         taskInstance.setHost(taskEvent.getWorkerAddress());
-        processService.saveTaskInstance(taskInstance);
+        return true;
     }
 
     /**
      * handle running event
      */
-    private void handleRunningEvent(TaskEvent taskEvent, Optional<TaskInstance> taskInstanceOptional) {
-        Channel channel = taskEvent.getChannel();
-        try {
-            if (taskInstanceOptional.isPresent()) {
-                TaskInstance taskInstance = taskInstanceOptional.get();
-                if (taskInstance.getState().typeIsFinished()) {
-                    logger.warn("task is finish, running event is meaningless, taskInstanceId:{}, state:{}", taskInstance.getId(), taskInstance.getState());
-                } else {
-                    taskInstance.setState(taskEvent.getState());
-                    taskInstance.setStartTime(taskEvent.getStartTime());
-                    taskInstance.setHost(taskEvent.getWorkerAddress());
-                    taskInstance.setLogPath(taskEvent.getLogPath());
-                    taskInstance.setExecutePath(taskEvent.getExecutePath());
-                    taskInstance.setPid(taskEvent.getProcessId());
-                    taskInstance.setAppLink(taskEvent.getAppIds());
-                    processService.saveTaskInstance(taskInstance);
-                }
-            }
-            // if taskInstance is null (maybe deleted) or finish. retry will be meaningless . so ack success
-            TaskExecuteRunningAckCommand taskExecuteRunningAckCommand = new TaskExecuteRunningAckCommand(ExecutionStatus.SUCCESS.getCode(), taskEvent.getTaskInstanceId());
-            channel.writeAndFlush(taskExecuteRunningAckCommand.convert2Command());
-        } catch (Exception e) {
-            logger.error("handle worker ack master error", e);
-            TaskExecuteRunningAckCommand taskExecuteRunningAckCommand = new TaskExecuteRunningAckCommand(ExecutionStatus.FAILURE.getCode(), -1);
-            channel.writeAndFlush(taskExecuteRunningAckCommand.convert2Command());
+    private boolean handleRunningEvent(TaskEvent taskEvent, Optional<TaskInstance> taskInstanceOptional) {
+        if (!taskInstanceOptional.isPresent()) {
+            return false;
         }
+        TaskInstance taskInstance = taskInstanceOptional.get();
+        if (taskInstance.getState().typeIsFinished()) {
+            logger.warn("task is finish, running event is meaningless, taskInstanceId:{}, state:{}", taskInstance.getId(), taskInstance.getState());
+            return false;
+        }
+        taskInstance.setState(taskEvent.getState());
+        taskInstance.setStartTime(taskEvent.getStartTime());
+        taskInstance.setHost(taskEvent.getWorkerAddress());
+        taskInstance.setLogPath(taskEvent.getLogPath());
+        taskInstance.setExecutePath(taskEvent.getExecutePath());
+        taskInstance.setPid(taskEvent.getProcessId());
+        taskInstance.setAppLink(taskEvent.getAppIds());
+        return true;
     }
 
     /**
      * handle result event
      */
-    private void handleResultEvent(TaskEvent taskEvent, Optional<TaskInstance> taskInstanceOptional) {
-        Channel channel = taskEvent.getChannel();
-        try {
-            if (taskInstanceOptional.isPresent()) {
-                TaskInstance taskInstance = taskInstanceOptional.get();
-                dataQualityResultOperator.operateDqExecuteResult(taskEvent, taskInstance);
-
-                taskInstance.setStartTime(taskEvent.getStartTime());
-                taskInstance.setHost(taskEvent.getWorkerAddress());
-                taskInstance.setLogPath(taskEvent.getLogPath());
-                taskInstance.setExecutePath(taskEvent.getExecutePath());
-                taskInstance.setPid(taskEvent.getProcessId());
-                taskInstance.setAppLink(taskEvent.getAppIds());
-                taskInstance.setState(taskEvent.getState());
-                taskInstance.setEndTime(taskEvent.getEndTime());
-                taskInstance.setVarPool(taskEvent.getVarPool());
-                processService.changeOutParam(taskInstance);
-                processService.saveTaskInstance(taskInstance);
-            }
-            // if taskInstance is null (maybe deleted) . retry will be meaningless . so response success
-            TaskExecuteResponseAckCommand taskExecuteResponseAckCommand = new TaskExecuteResponseAckCommand(ExecutionStatus.SUCCESS.getCode(), taskEvent.getTaskInstanceId());
-            channel.writeAndFlush(taskExecuteResponseAckCommand.convert2Command());
-        } catch (Exception e) {
-            logger.error("handle worker response master error", e);
-            TaskExecuteResponseAckCommand taskExecuteResponseAckCommand = new TaskExecuteResponseAckCommand(ExecutionStatus.FAILURE.getCode(), -1);
-            channel.writeAndFlush(taskExecuteResponseAckCommand.convert2Command());
+    private boolean handleResultEvent(TaskEvent taskEvent, Optional<TaskInstance> taskInstanceOptional) {
+        if (!taskInstanceOptional.isPresent()) {
+            return false;
         }
+        TaskInstance taskInstance = taskInstanceOptional.get();
+        dataQualityResultOperator.operateDqExecuteResult(taskEvent, taskInstance);
+
+        taskInstance.setStartTime(taskEvent.getStartTime());
+        taskInstance.setHost(taskEvent.getWorkerAddress());
+        taskInstance.setLogPath(taskEvent.getLogPath());
+        taskInstance.setExecutePath(taskEvent.getExecutePath());
+        taskInstance.setPid(taskEvent.getProcessId());
+        taskInstance.setAppLink(taskEvent.getAppIds());
+        taskInstance.setState(taskEvent.getState());
+        taskInstance.setEndTime(taskEvent.getEndTime());
+        taskInstance.setVarPool(taskEvent.getVarPool());
+        processService.changeOutParam(taskInstance);
+        return true;
     }
 
     /**
-     * handle result event
+     * resubmit the task rejected by the worker
+     *
+     * @return true if resubmitted
      */
-    private void handleWorkerRejectEvent(Channel channel, Optional<TaskInstance> taskInstanceOptional, WorkflowExecuteRunnable executeThread) {
-        TaskInstance taskInstance = taskInstanceOptional.orElseThrow(() -> new RuntimeException("taskInstance is null"));
+    private boolean resubmit(TaskEvent taskEvent, TaskInstance taskInstance) {
+        WorkflowExecuteRunnable executeThread = this.processInstanceExecCacheManager.getByProcessInstanceId(processInstanceId);
+        if (executeThread == null) {
+            return true;
+        }
         try {
-            if (executeThread != null) {
-                executeThread.resubmit(taskInstance.getTaskCode());
-            }
-            if (channel != null) {
-                TaskRecallAckCommand taskRecallAckCommand = new TaskRecallAckCommand(ExecutionStatus.SUCCESS.getCode(), taskInstance.getId());
-                channel.writeAndFlush(taskRecallAckCommand.convert2Command());
-            }
+            executeThread.resubmit(taskInstance.getTaskCode());
+            return true;
         } catch (Exception e) {
-            logger.error("handle worker reject error", e);
-            TaskRecallAckCommand taskRecallAckCommand = new TaskRecallAckCommand(ExecutionStatus.FAILURE.getCode(), taskInstance.getId());
-            channel.writeAndFlush(taskRecallAckCommand.convert2Command());
+            logger.error("resubmit error, event:{}", taskEvent, e);
+            return false;
         }
     }
 }
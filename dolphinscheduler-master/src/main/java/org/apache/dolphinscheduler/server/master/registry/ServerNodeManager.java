@@ -40,18 +40,15 @@ import org.apache.commons.lang3.StringUtils;
 
 import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
 
 import javax.annotation.PreDestroy;
 
@@ -70,34 +67,9 @@ public class ServerNodeManager implements InitializingBean {
     private final Logger logger = LoggerFactory.getLogger(ServerNodeManager.class);
 
     /**
-     * master lock
+     * the current topology, it is replaced by a new snapshot on change, the updates are serialized by the monitor of this
      */
-    private final Lock masterLock = new ReentrantLock();
-
-    /**
-     * worker group lock
-     */
-    private final Lock workerGroupLock = new ReentrantLock();
-
-    /**
-     * worker node info lock
-     */
-    private final Lock workerNodeInfoLock = new ReentrantLock();
-
-    /**
-     * worker group nodes
-     */
-    private final ConcurrentHashMap<String, Set<String>> workerGroupNodes = new ConcurrentHashMap<>();
-
-    /**
-     * master nodes
-     */
-    private final Set<String> masterNodes = new HashSet<>();
-
-    /**
-     * worker node info
-     */
-    private final Map<String, String> workerNodeInfo = new HashMap<>();
+    private volatile ServerTopology topology = ServerTopology.EMPTY;
 
     /**
      * executor service
@@ -186,9 +158,16 @@ public class ServerNodeManager implements InitializingBean {
          * worker group nodes from zookeeper
          */
         Collection<String> workerGroups = registryClient.getWorkerGroupDirectly();
+        Map<String, Collection<String>> workerGroupNodes = new HashMap<>();
         for (String workerGroup : workerGroups) {
-            syncWorkerGroupNodes(workerGroup, registryClient.getWorkerGroupNodesDirectly(workerGroup));
+            workerGroupNodes.put(workerGroup, registryClient.getWorkerGroupNodesDirectly(workerGroup));
         }
+        updateTopology(snapshot -> {
+            for (Map.Entry<String, Collection<String>> entry : workerGroupNodes.entrySet()) {
+                snapshot = snapshot.withWorkerGroupNodes(entry.getKey(), entry.getValue());
+            }
+            return snapshot;
+        });
     }
 
     /**
@@ -201,9 +180,9 @@ public class ServerNodeManager implements InitializingBean {
             try {
                 // sync worker node info
                 Map<String, String> newWorkerNodeInfo = registryClient.getServerMaps(NodeType.WORKER, true);
-                syncAllWorkerNodeInfo(newWorkerNodeInfo);
 
                 // sync worker group nodes from database
+                Map<String, Set<String>> dbWorkerGroupNodes = new HashMap<>();
                 List<WorkerGroup> workerGroupList = workerGroupMapper.queryAllWorkerGroup();
                 if (CollectionUtils.isNotEmpty(workerGroupList)) {
                     for (WorkerGroup wg : workerGroupList) {
@@ -216,11 +195,17 @@ public class ServerNodeManager implements InitializingBean {
                             }
                         }
                         if (!nodes.isEmpty()) {
-                            syncWorkerGroupNodes(workerGroup, nodes);
+                            dbWorkerGroupNodes.put(workerGroup, nodes);
                         }
                     }
                 }
-                notifyWorkerInfoChangeListeners();
+                updateTopology(snapshot -> {
+                    snapshot = snapshot.withWorkerNodeInfo(newWorkerNodeInfo);
+                    for (Map.Entry<String, Set<String>> entry : dbWorkerGroupNodes.entrySet()) {
+                        snapshot = snapshot.withWorkerGroupNodes(entry.getKey(), entry.getValue());
+                    }
+                    return snapshot;
+                });
             } catch (Exception e) {
                 logger.error("WorkerNodeInfoAndGroupDbSyncTask error:", e);
             }
@@ -244,23 +229,20 @@ public class ServerNodeManager implements InitializingBean {
                         String group = parseGroup(path);
                         Collection<String> currentNodes = registryClient.getWorkerGroupNodesDirectly(group);
                         logger.info("currentNodes : {}", currentNodes);
-                        syncWorkerGroupNodes(group, currentNodes);
+                        updateTopology(snapshot -> snapshot.withWorkerGroupNodes(group, currentNodes));
                     } else if (type == Type.REMOVE) {
                         logger.info("worker group node : {} down.", path);
                         String group = parseGroup(path);
                         Collection<String> currentNodes = registryClient.getWorkerGroupNodesDirectly(group);
-                        syncWorkerGroupNodes(group, currentNodes);
+                        updateTopology(snapshot -> snapshot.withWorkerGroupNodes(group, currentNodes));
                         alertDao.sendServerStoppedAlert(1, path, "WORKER");
                     } else if (type == Type.UPDATE) {
                         logger.debug("worker group node : {} update, data: {}", path, data);
                         String group = parseGroup(path);
                         Collection<String> currentNodes = registryClient.getWorkerGroupNodesDirectly(group);
-                        syncWorkerGroupNodes(group, currentNodes);
-
                         String node = parseNode(path);
-                        syncSingleWorkerNodeInfo(node, data);
+                        updateTopology(snapshot -> snapshot.withWorkerGroupNodes(group, currentNodes).withWorkerNodeInfo(node, data));
                     }
-                    notifyWorkerInfoChangeListeners();
                 } catch (IllegalArgumentException ex) {
                     logger.warn(ex.getMessage());
                 } catch (Exception ex) {
@@ -313,7 +295,6 @@ public class ServerNodeManager implements InitializingBean {
     private void updateMasterNodes() {
         MASTER_SLOT = 0;
         MASTER_SIZE = 0;
-        this.masterNodes.clear();
         String nodeLock = Constants.REGISTRY_DOLPHINSCHEDULER_LOCK_MASTERS;
         try {
             registryClient.getLock(nodeLock);
@@ -328,18 +309,22 @@ public class ServerNodeManager implements InitializingBean {
 
     }
 
+    /**
+     * get the current topology, it is immutable
+     *
+     * @return current topology
+     */
+    public ServerTopology getTopology() {
+        return topology;
+    }
+
     /**
      * get master nodes
      *
      * @return master nodes
      */
     public Set<String> getMasterNodes() {
-        masterLock.lock();
-        try {
-            return Collections.unmodifiableSet(masterNodes);
-        } finally {
-            masterLock.unlock();
-        }
+        return topology.getMasterNodes();
     }
 
     /**
@@ -347,46 +332,39 @@ public class ServerNodeManager implements InitializingBean {
      *
      * @param nodes master nodes
      */
-    private void syncMasterNodes(Collection<String> nodes, List<Server> masterNodes) {
-        masterLock.lock();
-        try {
-            String addr = NetUtils.getAddr(NetUtils.getHost(), masterConfig.getListenPort());
-            this.masterNodes.addAll(nodes);
-            this.masterPriorityQueue.clear();
-            this.masterPriorityQueue.putList(masterNodes);
-            int index = masterPriorityQueue.getIndex(addr);
-            if (index >= 0) {
-                MASTER_SIZE = nodes.size();
-                MASTER_SLOT = index;
-            } else {
-                logger.warn("current addr:{} is not in active master list", addr);
-            }
-            logger.info("update master nodes, master size: {}, slot: {}, addr: {}", MASTER_SIZE, MASTER_SLOT, addr);
-        } finally {
-            masterLock.unlock();
+    private synchronized void syncMasterNodes(Collection<String> nodes, List<Server> masterNodes) {
+        String addr = NetUtils.getAddr(NetUtils.getHost(), masterConfig.getListenPort());
+        this.topology = topology.withMasterNodes(nodes);
+        this.masterPriorityQueue.clear();
+        this.masterPriorityQueue.putList(masterNodes);
+        int index = masterPriorityQueue.getIndex(addr);
+        if (index >= 0) {
+            MASTER_SIZE = nodes.size();
+            MASTER_SLOT = index;
+        } else {
+            logger.warn("current addr:{} is not in active master list", addr);
         }
+        logger.info("update master nodes, master size: {}, slot: {}, addr: {}", MASTER_SIZE, MASTER_SLOT, addr);
     }
 
     /**
-     * sync worker group nodes
+     * Replace the topology with the updated one, and notify the listeners with the changed worker groups.
+     * The listeners are notified in the order of the updates.
      *
-     * @param workerGroup worker group
-     * @param nodes worker nodes
+     * @param update create the new topology from the current one
      */
-    private void syncWorkerGroupNodes(String workerGroup, Collection<String> nodes) {
-        workerGroupLock.lock();
-        try {
-            Set<String> workerNodes = workerGroupNodes.getOrDefault(workerGroup, new HashSet<>());
-            workerNodes.clear();
-            workerNodes.addAll(nodes);
-            workerGroupNodes.put(workerGroup, workerNodes);
-        } finally {
-            workerGroupLock.unlock();
+    private synchronized void updateTopology(UnaryOperator<ServerTopology> update) {
+        ServerTopology previous = topology;
+        ServerTopology current = update.apply(previous);
+        this.topology = current;
+        Set<String> changedWorkerGroups = current.getChangedWorkerGroups(previous);
+        for (WorkerInfoChangeListener listener : workerInfoChangeListeners) {
+            listener.notify(current, changedWorkerGroups);
         }
     }
 
     public Map<String, Set<String>> getWorkerGroupNodes() {
-        return Collections.unmodifiableMap(workerGroupNodes);
+        return topology.getWorkerGroupNodes();
     }
 
     /**
@@ -396,19 +374,10 @@ public class ServerNodeManager implements InitializingBean {
      * @return worker nodes
      */
     public Set<String> getWorkerGroupNodes(String workerGroup) {
-        workerGroupLock.lock();
-        try {
-            if (StringUtils.isEmpty(workerGroup)) {
-                workerGroup = Constants.DEFAULT_WORKER_GROUP;
-            }
-            Set<String> nodes = workerGroupNodes.get(workerGroup);
-            if (CollectionUtils.isNotEmpty(nodes)) {
-                return Collections.unmodifiableSet(nodes);
-            }
-            return nodes;
-        } finally {
-            workerGroupLock.unlock();
+        if (StringUtils.isEmpty(workerGroup)) {
+            workerGroup = Constants.DEFAULT_WORKER_GROUP;
         }
+        return topology.getWorkerGroupNodes(workerGroup);
     }
 
     /**
@@ -417,7 +386,7 @@ public class ServerNodeManager implements InitializingBean {
      * @return worker node info
      */
     public Map<String, String> getWorkerNodeInfo() {
-        return Collections.unmodifiableMap(workerNodeInfo);
+        return topology.getWorkerNodeInfo();
     }
 
     /**
@@ -427,39 +396,7 @@ public class ServerNodeManager implements InitializingBean {
      * @return worker node info
      */
     public String getWorkerNodeInfo(String workerNode) {
-        workerNodeInfoLock.lock();
-        try {
-            return workerNodeInfo.getOrDefault(workerNode, null);
-        } finally {
-            workerNodeInfoLock.unlock();
-        }
-    }
-
-    /**
-     * sync worker node info
-     *
-     * @param newWorkerNodeInfo new worker node info
-     */
-    private void syncAllWorkerNodeInfo(Map<String, String> newWorkerNodeInfo) {
-        workerNodeInfoLock.lock();
-        try {
-            workerNodeInfo.clear();
-            workerNodeInfo.putAll(newWorkerNodeInfo);
-        } finally {
-            workerNodeInfoLock.unlock();
-        }
-    }
-
-    /**
-     * sync single worker node info
-     */
-    private void syncSingleWorkerNodeInfo(String node, String info) {
-        workerNodeInfoLock.lock();
-        try {
-            workerNodeInfo.put(node, info);
-        } finally {
-            workerNodeInfoLock.unlock();
-        }
+        return topology.getWorkerNodeInfo(workerNode);
     }
 
     /**
@@ -471,14 +408,6 @@ public class ServerNodeManager implements InitializingBean {
         workerInfoChangeListeners.add(listener);
     }
 
-    private void notifyWorkerInfoChangeListeners() {
-        Map<String, Set<String>> workerGroupNodes = getWorkerGroupNodes();
-        Map<String, String> workerNodeInfo = getWorkerNodeInfo();
-        for (WorkerInfoChangeListener listener : workerInfoChangeListeners) {
-            listener.notify(workerGroupNodes, workerNodeInfo);
-        }
-    }
-
     /**
      * destroy
      */
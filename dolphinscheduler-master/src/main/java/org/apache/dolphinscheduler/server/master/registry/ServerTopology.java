@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.registry;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the master nodes, the worker group nodes and the worker node info.
+ * A change creates a new snapshot with the next version, so the readers use a snapshot without lock or copy.
+ */
+public final class ServerTopology {
+
+    public static final ServerTopology EMPTY = new ServerTopology(0L, Collections.emptySet(), Collections.emptyMap(), Collections.emptyMap());
+
+    private final long version;
+
+    private final Set<String> masterNodes;
+
+    /**
+     * key is worker group, value is worker address
+     */
+    private final Map<String, Set<String>> workerGroupNodes;
+
+    /**
+     * key is worker address, value is worker heartbeat
+     */
+    private final Map<String, String> workerNodeInfo;
+
+    private ServerTopology(long version, Set<String> masterNodes, Map<String, Set<String>> workerGroupNodes, Map<String, String> workerNodeInfo) {
+        this.version = version;
+        this.masterNodes = masterNodes;
+        this.workerGroupNodes = workerGroupNodes;
+        this.workerNodeInfo = workerNodeInfo;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public Set<String> getMasterNodes() {
+        return masterNodes;
+    }
+
+    public Map<String, Set<String>> getWorkerGroupNodes() {
+        return workerGroupNodes;
+    }
+
+    /**
+     * @return worker nodes of the group, null if the group has no node
+     */
+    public Set<String> getWorkerGroupNodes(String workerGroup) {
+        return workerGroupNodes.get(workerGroup);
+    }
+
+    public Map<String, String> getWorkerNodeInfo() {
+        return workerNodeInfo;
+    }
+
+    public String getWorkerNodeInfo(String workerNode) {
+        return workerNodeInfo.get(workerNode);
+    }
+
+    public ServerTopology withMasterNodes(Collection<String> nodes) {
+        return new ServerTopology(version + 1, Collections.unmodifiableSet(new HashSet<>(nodes)), workerGroupNodes, workerNodeInfo);
+    }
+
+    public ServerTopology withWorkerGroupNodes(String workerGroup, Collection<String> nodes) {
+        Map<String, Set<String>> newWorkerGroupNodes = new HashMap<>(workerGroupNodes);
+        newWorkerGroupNodes.put(workerGroup, Collections.unmodifiableSet(new HashSet<>(nodes)));
+        return new ServerTopology(version + 1, masterNodes, Collections.unmodifiableMap(newWorkerGroupNodes), workerNodeInfo);
+    }
+
+    public ServerTopology withWorkerNodeInfo(Map<String, String> newWorkerNodeInfo) {
+        return new ServerTopology(version + 1, masterNodes, workerGroupNodes, Collections.unmodifiableMap(new HashMap<>(newWorkerNodeInfo)));
+    }
+
+    public ServerTopology withWorkerNodeInfo(String workerNode, String info) {
+        Map<String, String> newWorkerNodeInfo = new HashMap<>(workerNodeInfo);
+        newWorkerNodeInfo.put(workerNode, info);
+        return new ServerTopology(version + 1, masterNodes, workerGroupNodes, Collections.unmodifiableMap(newWorkerNodeInfo));
+    }
+
+    /**
+     * Find the worker groups changed since the previous topology, a group is changed if its nodes are changed,
+     * or the info of one of its nodes is changed.
+     *
+     * @param previous previous topology
+     * @return changed worker groups, including the groups removed
+     */
+    public Set<String> getChangedWorkerGroups(ServerTopology previous) {
+        Set<String> changedWorkerGroups = new HashSet<>();
+        for (String workerGroup : previous.workerGroupNodes.keySet()) {
+            if (!workerGroupNodes.containsKey(workerGroup)) {
+                changedWorkerGroups.add(workerGroup);
+            }
+        }
+        for (Map.Entry<String, Set<String>> entry : workerGroupNodes.entrySet()) {
+            Set<String> nodes = entry.getValue();
+            if (!nodes.equals(previous.workerGroupNodes.get(entry.getKey()))) {
+                changedWorkerGroups.add(entry.getKey());
+                continue;
+            }
+            if (workerNodeInfo == previous.workerNodeInfo) {
+                continue;
+            }
+            for (String node : nodes) {
+                if (!Objects.equals(workerNodeInfo.get(node), previous.workerNodeInfo.get(node))) {
+                    changedWorkerGroups.add(entry.getKey());
+                    break;
+                }
+            }
+        }
+        return changedWorkerGroups;
+    }
+}
@@ -17,7 +17,6 @@
 
 package org.apache.dolphinscheduler.server.master.registry;
 
-import java.util.Map;
 import java.util.Set;
 
 /**
@@ -28,9 +27,10 @@ public interface WorkerInfoChangeListener {
     /**
      * Used to notify the change of worker info.
      *
-     * @param workerGroups   worker groups map, key is worker group name, value is worker address.
-     * @param workerNodeInfo worker node info map, key is worker address, value is worker info.
+     * @param topology            the current topology
+     * @param changedWorkerGroups the worker groups whose nodes or node info are changed since the last notification,
+     *                            it may be empty when the periodical sync finds nothing changed.
      */
-    void notify(Map<String, Set<String>> workerGroups, Map<String, String> workerNodeInfo);
+    void notify(ServerTopology topology, Set<String> changedWorkerGroups);
 
 }
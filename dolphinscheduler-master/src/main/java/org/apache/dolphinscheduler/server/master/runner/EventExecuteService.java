@@ -20,7 +20,6 @@ package org.apache.dolphinscheduler.server.master.runner;
 import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.common.thread.BaseDaemonThread;
 import org.apache.dolphinscheduler.common.thread.Stopper;
-import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
 
 import java.util.concurrent.TimeUnit;
 
@@ -34,8 +33,11 @@ public class EventExecuteService extends BaseDaemonThread {
 
     private static final Logger logger = LoggerFactory.getLogger(EventExecuteService.class);
 
+    /**
+     * workflows which have pending state events
+     */
     @Autowired
-    private ProcessInstanceExecCacheManager processInstanceExecCacheManager;
+    private WorkflowEventQueue workflowEventQueue;
 
     /**
      * workflow exec service
@@ -58,16 +60,24 @@ public class EventExecuteService extends BaseDaemonThread {
         while (Stopper.isRunning()) {
             try {
                 eventHandler();
-                TimeUnit.MILLISECONDS.sleep(Constants.SLEEP_TIME_MILLIS_SHORT);
+            } catch (InterruptedException e) {
+                logger.warn("Event service thread is interrupted, will exit this loop", e);
+                Thread.currentThread().interrupt();
+                break;
             } catch (Exception e) {
                 logger.error("Event service thread error", e);
             }
         }
     }
 
-    private void eventHandler() {
-        for (WorkflowExecuteRunnable workflowExecuteThread : this.processInstanceExecCacheManager.getAll()) {
-            workflowExecuteThreadPool.executeEvent(workflowExecuteThread);
+    /**
+     * Only the workflows which have been signalled with new state events are dispatched.
+     */
+    private void eventHandler() throws InterruptedException {
+        WorkflowExecuteRunnable workflowExecuteThread = workflowEventQueue.poll(Constants.SLEEP_TIME_MILLIS, TimeUnit.MILLISECONDS);
+        if (workflowExecuteThread == null) {
+            return;
         }
+        workflowExecuteThreadPool.executeEvent(workflowExecuteThread);
     }
 }
@@ -29,6 +29,8 @@ import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.remote.NettyRemotingClient;
 import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
 import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
+import org.apache.dolphinscheduler.server.master.cache.WorkflowDagCacheManager;
+import org.apache.dolphinscheduler.server.master.config.CommandFetchStrategy;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
 import org.apache.dolphinscheduler.server.master.metrics.MasterServerMetrics;
@@ -39,9 +41,11 @@ import org.apache.dolphinscheduler.service.process.ProcessService;
 import org.apache.commons.collections4.CollectionUtils;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Date;
 import java.util.List;
-import java.util.concurrent.CountDownLatch;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 
 import org.slf4j.Logger;
@@ -103,6 +107,26 @@ public class MasterSchedulerService extends BaseDaemonThread {
     @Autowired
     private StateWheelExecuteThread stateWheelExecuteThread;
 
+    @Autowired
+    private WorkflowDagCacheManager workflowDagCacheManager;
+
+    /**
+     * the ids of the commands which are handled by the prepare threads
+     */
+    private final Set<Integer> inFlightCommandIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * limit the commands in flight
+     */
+    private Semaphore inFlightCommandPermits;
+
+    /**
+     * the count of the handled commands, it is signalled when a command in flight is handled
+     */
+    private long handledCommandCount;
+
+    private final Object handledCommandLock = new Object();
+
     protected MasterSchedulerService() {
         super("MasterCommandLoopThread");
     }
@@ -112,6 +136,8 @@ public class MasterSchedulerService extends BaseDaemonThread {
      */
     public void init() {
         this.masterPrepareExecService = (ThreadPoolExecutor) ThreadUtils.newDaemonFixedThreadExecutor("Master-Pre-Exec-Thread", masterConfig.getPreExecThreads());
+        this.inFlightCommandPermits = new Semaphore(Math.max(masterConfig.getFetchCommandNum(), 1));
+        MasterServerMetrics.registerCommandInFlightGauge(inFlightCommandIds::size);
         NettyClientConfig clientConfig = new NettyClientConfig();
         this.nettyRemotingClient = new NettyRemotingClient(clientConfig);
     }
@@ -151,8 +177,17 @@ public class MasterSchedulerService extends BaseDaemonThread {
     /**
      * 1. get command by slot
      * 2. donot handle command if slot is empty
+     * 3. hand the commands to the prepare threads, and keep fetching while the earlier commands are still handled,
+     * the commands in flight are bounded by fetchCommandNum
      */
     private void scheduleProcess() throws Exception {
+        if (workflowExecuteThreadPool.isSaturated()) {
+            // the workflows can not be executed in time, stop creating new workflows
+            MasterServerMetrics.incMasterBackpressure();
+            Thread.sleep(Constants.SLEEP_TIME_MILLIS_SHORT);
+            return;
+        }
+        long handledCountBeforeFind = getHandledCommandCount();
         List<Command> commands = findCommands();
         if (CollectionUtils.isEmpty(commands)) {
             //indicate that no command ,sleep for 1s
@@ -160,78 +195,129 @@ public class MasterSchedulerService extends BaseDaemonThread {
             return;
         }
 
-        List<ProcessInstance> processInstances = command2ProcessInstance(commands);
-        if (CollectionUtils.isEmpty(processInstances)) {
+        int submitCount = 0;
+        for (Command command : commands) {
+            // the command is deleted after handled, so it may be fetched again while it is still handled
+            if (inFlightCommandIds.contains(command.getId())) {
+                continue;
+            }
+            inFlightCommandPermits.acquire();
+            // check again, the in flight commands may change while waiting for the permit
+            if (!inFlightCommandIds.add(command.getId())) {
+                inFlightCommandPermits.release();
+                continue;
+            }
+            long fetchTime = System.nanoTime();
+            masterPrepareExecService.execute(() -> {
+                try {
+                    handleCommand(command, fetchTime);
+                } finally {
+                    inFlightCommandIds.remove(command.getId());
+                    inFlightCommandPermits.release();
+                    signalCommandHandled();
+                }
+            });
+            submitCount++;
+        }
+        if (submitCount == 0) {
+            // all the commands are still handled, query again when one of them is handled instead of spinning
+            waitCommandHandled(handledCountBeforeFind, Constants.SLEEP_TIME_MILLIS);
             return;
         }
-        MasterServerMetrics.incMasterConsumeCommand(commands.size());
-
-        for (ProcessInstance processInstance : processInstances) {
+        MasterServerMetrics.incMasterConsumeCommand(submitCount);
+    }
 
-            WorkflowExecuteRunnable workflowExecuteRunnable = new WorkflowExecuteRunnable(
-                    processInstance
-                    , processService
-                    , nettyExecutorManager
-                    , processAlertManager
-                    , masterConfig
-                    , stateWheelExecuteThread);
+    private long getHandledCommandCount() {
+        synchronized (handledCommandLock) {
+            return handledCommandCount;
+        }
+    }
 
-            this.processInstanceExecCacheManager.cache(processInstance.getId(), workflowExecuteRunnable);
-            if (processInstance.getTimeout() > 0) {
-                stateWheelExecuteThread.addProcess4TimeoutCheck(processInstance);
-            }
-            workflowExecuteThreadPool.startWorkflow(workflowExecuteRunnable);
+    private void signalCommandHandled() {
+        synchronized (handledCommandLock) {
+            handledCommandCount++;
+            handledCommandLock.notifyAll();
         }
     }
 
-    private List<ProcessInstance> command2ProcessInstance(List<Command> commands) {
-        List<ProcessInstance> processInstances = Collections.synchronizedList(new ArrayList<>(commands.size()));
-        CountDownLatch latch = new CountDownLatch(commands.size());
-        for (final Command command : commands) {
-            masterPrepareExecService.execute(() -> {
-                try {
-                    // slot check again
-                    SlotCheckState slotCheckState = slotCheck(command);
-                    if (slotCheckState.equals(SlotCheckState.CHANGE) || slotCheckState.equals(SlotCheckState.INJECT)) {
-                        logger.info("handle command {} skip, slot check state: {}", command.getId(), slotCheckState);
-                        return;
-                    }
-                    ProcessInstance processInstance = processService.handleCommand(logger,
-                            getLocalAddress(),
-                            command);
-                    if (processInstance != null) {
-                        processInstances.add(processInstance);
-                        logger.info("handle command {} end, create process instance {}", command.getId(), processInstance.getId());
-                    }
-                } catch (Exception e) {
-                    logger.error("handle command {} error ", command.getId(), e);
-                    processService.moveToErrorCommand(command, e.toString());
-                } finally {
-                    latch.countDown();
-                }
-            });
+    /**
+     * wait until a command is handled after the given count was read, or the timeout elapses
+     */
+    private void waitCommandHandled(long handledCount, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (handledCommandLock) {
+            long remaining = timeoutMillis;
+            while (handledCommandCount == handledCount && remaining > 0) {
+                handledCommandLock.wait(remaining);
+                remaining = deadline - System.currentTimeMillis();
+            }
         }
+    }
 
+    /**
+     * convert the command to process instance, and start the workflow
+     */
+    private void handleCommand(Command command, long fetchTime) {
+        ProcessInstance processInstance;
+        long handleStartTime = System.nanoTime();
+        MasterServerMetrics.recordCommandWaitTime(handleStartTime - fetchTime);
         try {
-            // make sure to finish handling command each time before next scan
-            latch.await();
-        } catch (InterruptedException e) {
-            logger.error("countDownLatch await error ", e);
+            // slot check again, the claimed commands are checked again in the transaction which handles them
+            SlotCheckState slotCheckState = masterConfig.getCommandFetchStrategy() == CommandFetchStrategy.CLAIM
+                    ? SlotCheckState.PASS : slotCheck(command);
+            if (slotCheckState.equals(SlotCheckState.CHANGE) || slotCheckState.equals(SlotCheckState.INJECT)) {
+                logger.info("handle command {} skip, slot check state: {}", command.getId(), slotCheckState);
+                return;
+            }
+            processInstance = processService.handleCommand(logger,
+                    getLocalAddress(),
+                    command);
+            if (processInstance == null) {
+                return;
+            }
+            logger.info("handle command {} end, create process instance {}", command.getId(), processInstance.getId());
+        } catch (Exception e) {
+            logger.error("handle command {} error ", command.getId(), e);
+            processService.moveToErrorCommand(command, e.toString());
+            return;
+        } finally {
+            MasterServerMetrics.recordCommandHandleTime(System.nanoTime() - handleStartTime);
         }
 
-        return processInstances;
+        long startWorkflowTime = System.nanoTime();
+        WorkflowExecuteRunnable workflowExecuteRunnable = new WorkflowExecuteRunnable(
+                processInstance
+                , processService
+                , nettyExecutorManager
+                , processAlertManager
+                , masterConfig
+                , stateWheelExecuteThread
+                , workflowDagCacheManager);
+
+        this.processInstanceExecCacheManager.cache(processInstance.getId(), workflowExecuteRunnable);
+        if (processInstance.getTimeout() > 0) {
+            stateWheelExecuteThread.addProcess4TimeoutCheck(processInstance);
+        }
+        workflowExecuteThreadPool.startWorkflow(workflowExecuteRunnable);
+        MasterServerMetrics.recordWorkflowStartTime(System.nanoTime() - startWorkflowTime);
     }
 
     private List<Command> findCommands() {
         int pageNumber = 0;
-        int pageSize = masterConfig.getFetchCommandNum();
+        // the commands in flight are not deleted yet, fetch more to get the new ones
+        int pageSize = masterConfig.getFetchCommandNum() + inFlightCommandIds.size();
         List<Command> result = new ArrayList<>();
-        if (Stopper.isRunning()) {
-            int thisMasterSlot = ServerNodeManager.getSlot();
-            int masterCount = ServerNodeManager.getMasterSize();
-            if (masterCount > 0) {
-                result = processService.findCommandPageBySlot(pageSize, pageNumber, masterCount, thisMasterSlot);
-            }
+        if (!Stopper.isRunning()) {
+            return result;
+        }
+        if (masterConfig.getCommandFetchStrategy() == CommandFetchStrategy.CLAIM) {
+            Date expireTime = new Date(System.currentTimeMillis() - masterConfig.getCommandClaimLeaseTimeout() * Constants.SLEEP_TIME_MILLIS);
+            return processService.claimCommandPage(pageSize, getLocalAddress(), expireTime, masterConfig.isCommandClaimSkipLocked());
+        }
+        int thisMasterSlot = ServerNodeManager.getSlot();
+        int masterCount = ServerNodeManager.getMasterSize();
+        if (masterCount > 0) {
+            result = processService.findCommandPageBySlot(pageSize, pageNumber, masterCount, thisMasterSlot);
         }
         return result;
     }
@@ -23,11 +23,12 @@ import org.apache.dolphinscheduler.common.enums.StateEventType;
 import org.apache.dolphinscheduler.common.enums.TimeoutFlag;
 import org.apache.dolphinscheduler.common.thread.BaseDaemonThread;
 import org.apache.dolphinscheduler.common.thread.Stopper;
-import org.apache.dolphinscheduler.common.utils.DateUtils;
+import org.apache.dolphinscheduler.common.timer.HierarchicalTimingWheel;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.TaskDefinition;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
 import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.runner.task.TaskInstanceKey;
@@ -35,8 +36,14 @@ import org.apache.dolphinscheduler.server.master.runner.task.TaskInstanceKey;
 import org.apache.commons.lang3.ThreadUtils;
 
 import java.time.Duration;
+import java.util.Date;
+import java.util.HashSet;
 import java.util.Optional;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,9 +53,10 @@ import org.springframework.stereotype.Component;
 /**
  * Check thread
  * 1. timeout task check
- * 2. dependent task state check
- * 3. retry task check
- * 4. timeout process check
+ * 2. retry task check
+ * 3. timeout process check
+ * The deadlines of the above checks are kept in timing wheels, so each check only costs the expired entries.
+ * The dependent/sub_process task state check is executed in another scheduled thread every stateWheelInterval.
  */
 @Component
 public class StateWheelExecuteThread extends BaseDaemonThread {
@@ -56,24 +64,44 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
     private static final Logger logger = LoggerFactory.getLogger(StateWheelExecuteThread.class);
 
     /**
-     * process timeout check list
+     * the tick of the timing wheels, the deadlines may be fired up to one tick late
      */
-    private ConcurrentLinkedQueue<Integer> processInstanceTimeoutCheckList = new ConcurrentLinkedQueue<>();
+    private static final long WHEEL_TICK_MILLIS = Constants.SLEEP_TIME_MILLIS;
 
     /**
-     * task time out check list
+     * the bucket count of each level of the timing wheels
      */
-    private ConcurrentLinkedQueue<TaskInstanceKey> taskInstanceTimeoutCheckList = new ConcurrentLinkedQueue<>();
+    private static final int WHEEL_SIZE = 64;
 
     /**
-     * task retry check list
+     * process timeout check wheel, processInstanceId as key
      */
-    private ConcurrentLinkedQueue<TaskInstanceKey> taskInstanceRetryCheckList = new ConcurrentLinkedQueue<>();
+    private final HierarchicalTimingWheel<Integer> processInstanceTimeoutWheel =
+            new HierarchicalTimingWheel<>(WHEEL_TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
 
     /**
-     * task state check list
+     * task time out check wheel
      */
-    private ConcurrentLinkedQueue<TaskInstanceKey> taskInstanceStateCheckList = new ConcurrentLinkedQueue<>();
+    private final HierarchicalTimingWheel<TaskInstanceKey> taskInstanceTimeoutWheel =
+            new HierarchicalTimingWheel<>(WHEEL_TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+
+    /**
+     * task retry check wheel
+     */
+    private final HierarchicalTimingWheel<TaskInstanceKey> taskInstanceRetryWheel =
+            new HierarchicalTimingWheel<>(WHEEL_TICK_MILLIS, WHEEL_SIZE, System.currentTimeMillis());
+
+    /**
+     * the tasks waiting to retry, used to stop the process instance which is ready to stop
+     */
+    private final Set<TaskInstanceKey> taskInstanceRetryCheckSet = ConcurrentHashMap.newKeySet();
+
+    /**
+     * task state check set
+     */
+    private final Set<TaskInstanceKey> taskInstanceStateCheckSet = ConcurrentHashMap.newKeySet();
+
+    private ScheduledExecutorService stateCheckExecutor;
 
     @Autowired
     private MasterConfig masterConfig;
@@ -88,57 +116,71 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
         super("StateWheelExecuteThread");
     }
 
+    @Override
+    public synchronized void start() {
+        long checkInterval = masterConfig.getStateWheelInterval() * Constants.SLEEP_TIME_MILLIS;
+        this.stateCheckExecutor = Executors.newSingleThreadScheduledExecutor(new NamedThreadFactory("StateCheckExecutor"));
+        this.stateCheckExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                checkTask4State();
+                checkProcess4Stop();
+            } catch (Exception e) {
+                logger.error("state check thread check error:", e);
+            }
+        }, checkInterval, checkInterval, TimeUnit.MILLISECONDS);
+        super.start();
+    }
+
     @Override
     public void run() {
-        Duration checkInterval = Duration.ofMillis(masterConfig.getStateWheelInterval() * Constants.SLEEP_TIME_MILLIS);
+        Duration tickInterval = Duration.ofMillis(WHEEL_TICK_MILLIS);
         while (Stopper.isRunning()) {
             try {
-                checkTask4Timeout();
-                checkTask4Retry();
-                checkTask4State();
-                checkProcess4Timeout();
+                long now = System.currentTimeMillis();
+                checkTask4Timeout(now);
+                checkTask4Retry(now);
+                checkProcess4Timeout(now);
             } catch (Exception e) {
                 logger.error("state wheel thread check error:", e);
             }
             try {
-                ThreadUtils.sleep(checkInterval);
+                ThreadUtils.sleep(tickInterval);
             } catch (InterruptedException e) {
                 logger.error("state wheel thread sleep error", e);
             }
         }
+        if (stateCheckExecutor != null) {
+            stateCheckExecutor.shutdownNow();
+        }
     }
 
     public void addProcess4TimeoutCheck(ProcessInstance processInstance) {
-        processInstanceTimeoutCheckList.add(processInstance.getId());
+        processInstanceTimeoutWheel.add(processInstance.getId(),
+                deadline(processInstance.getStartTime(), processInstance.getTimeout()));
     }
 
     public void removeProcess4TimeoutCheck(ProcessInstance processInstance) {
-        processInstanceTimeoutCheckList.remove(processInstance.getId());
+        processInstanceTimeoutWheel.cancel(processInstance.getId());
     }
 
-    private void checkProcess4Timeout() {
-        if (processInstanceTimeoutCheckList.isEmpty()) {
-            return;
-        }
-        for (Integer processInstanceId : processInstanceTimeoutCheckList) {
-            if (processInstanceId == null) {
-                continue;
-            }
+    private void checkProcess4Timeout(long now) {
+        for (Integer processInstanceId : processInstanceTimeoutWheel.advance(now)) {
             WorkflowExecuteRunnable workflowExecuteThread = processInstanceExecCacheManager.getByProcessInstanceId(processInstanceId);
             if (workflowExecuteThread == null) {
                 logger.warn("can not find workflowExecuteThread, this check event will remove, processInstanceId:{}", processInstanceId);
-                processInstanceTimeoutCheckList.remove(processInstanceId);
                 continue;
             }
             ProcessInstance processInstance = workflowExecuteThread.getProcessInstance();
             if (processInstance == null) {
                 continue;
             }
-            long timeRemain = DateUtils.getRemainTime(processInstance.getStartTime(), (long) processInstance.getTimeout() * Constants.SEC_2_MINUTES_TIME_UNIT);
-            if (timeRemain < 0) {
-                addProcessTimeoutEvent(processInstance);
-                processInstanceTimeoutCheckList.remove(processInstance.getId());
+            long deadline = deadline(processInstance.getStartTime(), processInstance.getTimeout());
+            if (deadline > now) {
+                // the start time has been changed, e.g. the process instance is recovered
+                processInstanceTimeoutWheel.add(processInstanceId, deadline);
+                continue;
             }
+            addProcessTimeoutEvent(processInstance);
         }
     }
 
@@ -148,7 +190,7 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
             logger.error("taskInstanceKey is null");
             return;
         }
-        if (taskInstanceTimeoutCheckList.contains(taskInstanceKey)) {
+        if (taskInstanceTimeoutWheel.contains(taskInstanceKey)) {
             return;
         }
         TaskDefinition taskDefinition = taskInstance.getTaskDefine();
@@ -157,10 +199,7 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
             return;
         }
         if (TimeoutFlag.OPEN == taskDefinition.getTimeoutFlag()) {
-            taskInstanceTimeoutCheckList.add(taskInstanceKey);
-        }
-        if (taskInstance.isDependTask() || taskInstance.isSubProcess()) {
-            taskInstanceTimeoutCheckList.add(taskInstanceKey);
+            taskInstanceTimeoutWheel.add(taskInstanceKey, deadline(taskInstance.getStartTime(), taskDefinition.getTimeout()));
         }
     }
 
@@ -170,7 +209,7 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
             logger.error("taskInstanceKey is null");
             return;
         }
-        taskInstanceTimeoutCheckList.remove(taskInstanceKey);
+        taskInstanceTimeoutWheel.cancel(taskInstanceKey);
     }
 
     public void addTask4RetryCheck(ProcessInstance processInstance, TaskInstance taskInstance) {
@@ -179,7 +218,7 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
             logger.error("taskInstanceKey is null");
             return;
         }
-        if (taskInstanceRetryCheckList.contains(taskInstanceKey)) {
+        if (taskInstanceRetryWheel.contains(taskInstanceKey)) {
             return;
         }
         TaskDefinition taskDefinition = taskInstance.getTaskDefine();
@@ -188,7 +227,8 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
             return;
         }
         logger.debug("addTask4RetryCheck, taskCode:{}, processInstanceId:{}", taskInstance.getTaskCode(), taskInstance.getProcessInstanceId());
-        taskInstanceRetryCheckList.add(taskInstanceKey);
+        taskInstanceRetryCheckSet.add(taskInstanceKey);
+        taskInstanceRetryWheel.add(taskInstanceKey, deadline(taskInstance.getEndTime(), taskInstance.getRetryInterval()));
     }
 
     public void removeTask4RetryCheck(ProcessInstance processInstance, TaskInstance taskInstance) {
@@ -197,7 +237,8 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
             logger.error("taskInstanceKey is null");
             return;
         }
-        taskInstanceRetryCheckList.remove(taskInstanceKey);
+        taskInstanceRetryCheckSet.remove(taskInstanceKey);
+        taskInstanceRetryWheel.cancel(taskInstanceKey);
     }
 
     public void addTask4StateCheck(ProcessInstance processInstance, TaskInstance taskInstance) {
@@ -206,11 +247,8 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
             logger.error("taskInstanceKey is null");
             return;
         }
-        if (taskInstanceStateCheckList.contains(taskInstanceKey)) {
-            return;
-        }
         if (taskInstance.isDependTask() || taskInstance.isSubProcess()) {
-            taskInstanceStateCheckList.add(taskInstanceKey);
+            taskInstanceStateCheckSet.add(taskInstanceKey);
         }
     }
 
@@ -220,14 +258,11 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
             logger.error("taskInstanceKey is null");
             return;
         }
-        taskInstanceStateCheckList.remove(taskInstanceKey);
+        taskInstanceStateCheckSet.remove(taskInstanceKey);
     }
 
-    private void checkTask4Timeout() {
-        if (taskInstanceTimeoutCheckList.isEmpty()) {
-            return;
-        }
-        for (TaskInstanceKey taskInstanceKey : taskInstanceTimeoutCheckList) {
+    private void checkTask4Timeout(long now) {
+        for (TaskInstanceKey taskInstanceKey : taskInstanceTimeoutWheel.advance(now)) {
             int processInstanceId = taskInstanceKey.getProcessInstanceId();
             long taskCode = taskInstanceKey.getTaskCode();
 
@@ -235,33 +270,34 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
             if (workflowExecuteThread == null) {
                 logger.warn("can not find workflowExecuteThread, this check event will remove, processInstanceId:{}, taskCode:{}",
                         processInstanceId, taskCode);
-                taskInstanceTimeoutCheckList.remove(taskInstanceKey);
                 continue;
             }
             Optional<TaskInstance> taskInstanceOptional = workflowExecuteThread.getActiveTaskInstanceByTaskCode(taskCode);
             if (!taskInstanceOptional.isPresent()) {
                 logger.warn("can not find taskInstance from workflowExecuteThread, this check event will remove, processInstanceId:{}, taskCode:{}",
                         processInstanceId, taskCode);
-                taskInstanceTimeoutCheckList.remove(taskInstanceKey);
                 continue;
             }
             TaskInstance taskInstance = taskInstanceOptional.get();
-            if (TimeoutFlag.OPEN == taskInstance.getTaskDefine().getTimeoutFlag()) {
-                long timeRemain = DateUtils.getRemainTime(taskInstance.getStartTime(), (long) taskInstance.getTaskDefine().getTimeout() * Constants.SEC_2_MINUTES_TIME_UNIT);
-                if (timeRemain < 0) {
-                    addTaskTimeoutEvent(taskInstance);
-                    taskInstanceTimeoutCheckList.remove(taskInstanceKey);
-                }
+            if (TimeoutFlag.OPEN != taskInstance.getTaskDefine().getTimeoutFlag()) {
+                continue;
             }
+            if (taskInstance.getStartTime() == null) {
+                // the task has not been started, check it later
+                taskInstanceTimeoutWheel.add(taskInstanceKey, now + masterConfig.getStateWheelInterval() * Constants.SLEEP_TIME_MILLIS);
+                continue;
+            }
+            long deadline = deadline(taskInstance.getStartTime(), taskInstance.getTaskDefine().getTimeout());
+            if (deadline > now) {
+                taskInstanceTimeoutWheel.add(taskInstanceKey, deadline);
+                continue;
+            }
+            addTaskTimeoutEvent(taskInstance);
         }
     }
 
-    private void checkTask4Retry() {
-        if (taskInstanceRetryCheckList.isEmpty()) {
-            return;
-        }
-
-        for (TaskInstanceKey taskInstanceKey : taskInstanceRetryCheckList) {
+    private void checkTask4Retry(long now) {
+        for (TaskInstanceKey taskInstanceKey : taskInstanceRetryWheel.advance(now)) {
             int processInstanceId = taskInstanceKey.getProcessInstanceId();
             long taskCode = taskInstanceKey.getTaskCode();
 
@@ -270,44 +306,68 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
             if (workflowExecuteThread == null) {
                 logger.warn("can not find workflowExecuteThread, this check event will remove, processInstanceId:{}, taskCode:{}",
                         processInstanceId, taskCode);
-                taskInstanceRetryCheckList.remove(taskInstanceKey);
+                taskInstanceRetryCheckSet.remove(taskInstanceKey);
                 continue;
             }
 
             Optional<TaskInstance> taskInstanceOptional = workflowExecuteThread.getRetryTaskInstanceByTaskCode(taskCode);
-            ProcessInstance processInstance = workflowExecuteThread.getProcessInstance();
-
-            if (processInstance.getState() == ExecutionStatus.READY_STOP) {
-                addProcessStopEvent(processInstance);
-                taskInstanceRetryCheckList.remove(taskInstanceKey);
-                break;
-            }
-
             if (!taskInstanceOptional.isPresent()) {
                 logger.warn("can not find taskInstance from workflowExecuteThread, this check event will remove, processInstanceId:{}, taskCode:{}",
                         processInstanceId, taskCode);
-                taskInstanceRetryCheckList.remove(taskInstanceKey);
+                taskInstanceRetryCheckSet.remove(taskInstanceKey);
                 continue;
             }
 
             TaskInstance taskInstance = taskInstanceOptional.get();
-            if (taskInstance.retryTaskIntervalOverTime()) {
-                // reset taskInstance endTime and state
-                // todo relative funtion: TaskInstance.retryTaskIntervalOverTime, WorkflowExecuteThread.cloneRetryTaskInstance
-                taskInstance.setEndTime(null);
-                taskInstance.setState(ExecutionStatus.SUBMITTED_SUCCESS);
-
-                addTaskRetryEvent(taskInstance);
-                taskInstanceRetryCheckList.remove(taskInstanceKey);
+            if (!taskInstance.retryTaskIntervalOverTime()) {
+                // the retry interval is compared in seconds, check it again at the next tick
+                taskInstanceRetryWheel.add(taskInstanceKey, now + WHEEL_TICK_MILLIS);
+                continue;
             }
+            // reset taskInstance endTime and state
+            // todo relative funtion: TaskInstance.retryTaskIntervalOverTime, WorkflowExecuteThread.cloneRetryTaskInstance
+            taskInstance.setEndTime(null);
+            taskInstance.setState(ExecutionStatus.SUBMITTED_SUCCESS);
+
+            addTaskRetryEvent(taskInstance);
+            taskInstanceRetryCheckSet.remove(taskInstanceKey);
         }
     }
 
-    private void checkTask4State() {
-        if (taskInstanceStateCheckList.isEmpty()) {
+    /**
+     * The tasks waiting to retry will not be dispatched, so the process instance which is ready to stop
+     * need to be stopped here.
+     */
+    private void checkProcess4Stop() {
+        if (taskInstanceRetryCheckSet.isEmpty()) {
             return;
         }
-        for (TaskInstanceKey taskInstanceKey : taskInstanceStateCheckList) {
+        Set<Integer> processInstanceIds = new HashSet<>();
+        for (TaskInstanceKey taskInstanceKey : taskInstanceRetryCheckSet) {
+            processInstanceIds.add(taskInstanceKey.getProcessInstanceId());
+        }
+        for (Integer processInstanceId : processInstanceIds) {
+            WorkflowExecuteRunnable workflowExecuteThread = processInstanceExecCacheManager.getByProcessInstanceId(processInstanceId);
+            if (workflowExecuteThread == null) {
+                continue;
+            }
+            ProcessInstance processInstance = workflowExecuteThread.getProcessInstance();
+            if (processInstance.getState() != ExecutionStatus.READY_STOP) {
+                continue;
+            }
+            addProcessStopEvent(processInstance);
+            taskInstanceRetryCheckSet.removeIf(taskInstanceKey -> {
+                if (taskInstanceKey.getProcessInstanceId() != processInstanceId) {
+                    return false;
+                }
+                taskInstanceRetryWheel.cancel(taskInstanceKey);
+                return true;
+            });
+        }
+    }
+
+    private void checkTask4State() {
+        for (TaskInstanceKey taskInstanceKey : taskInstanceStateCheckSet) {
             int processInstanceId = taskInstanceKey.getProcessInstanceId();
             long taskCode = taskInstanceKey.getTaskCode();
 
@@ -315,14 +375,14 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
             if (workflowExecuteThread == null) {
                 logger.warn("can not find workflowExecuteThread, this check event will remove, processInstanceId:{}, taskCode:{}",
                         processInstanceId, taskCode);
-                taskInstanceStateCheckList.remove(taskInstanceKey);
+                taskInstanceStateCheckSet.remove(taskInstanceKey);
                 continue;
             }
             Optional<TaskInstance> taskInstanceOptional = workflowExecuteThread.getActiveTaskInstanceByTaskCode(taskCode);
             if (!taskInstanceOptional.isPresent()) {
                 logger.warn("can not find taskInstance from workflowExecuteThread, this check event will remove, processInstanceId:{}, taskCode:{}",
                         processInstanceId, taskCode);
-                taskInstanceStateCheckList.remove(taskInstanceKey);
+                taskInstanceStateCheckSet.remove(taskInstanceKey);
                 continue;
             }
             TaskInstance taskInstance = taskInstanceOptional.get();
@@ -333,6 +393,16 @@ public class StateWheelExecuteThread extends BaseDaemonThread {
         }
     }
 
+    /**
+     * @param baseTime the base time, the current time is used if it is null
+     * @param timeoutMinutes timeout in minutes
+     * @return the deadline in milliseconds
+     */
+    private long deadline(Date baseTime, long timeoutMinutes) {
+        long baseMillis = baseTime == null ? System.currentTimeMillis() : baseTime.getTime();
+        return baseMillis + timeoutMinutes * Constants.SEC_2_MINUTES_TIME_UNIT * Constants.SLEEP_TIME_MILLIS;
+    }
+
     private void addTaskStateChangeEvent(TaskInstance taskInstance) {
         StateEvent stateEvent = new StateEvent();
         stateEvent.setType(StateEventType.TASK_STATE_CHANGE);
@@ -0,0 +1,322 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner;
+
+import org.apache.dolphinscheduler.common.graph.TaskDAG;
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.plugin.task.api.model.SwitchResultVo;
+import org.apache.dolphinscheduler.plugin.task.api.parameters.ConditionsParameters;
+import org.apache.dolphinscheduler.plugin.task.api.parameters.SwitchParameters;
+
+import org.apache.commons.collections.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.LongConsumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Dependency state of the tasks of a process instance, it keeps counters per task node so that
+ * a finished task only updates its successors instead of checking all the depends of them against all the complete tasks.
+ * <p>
+ * A depend task is resolved when it is complete, forbidden or skipped, a task is ready to submit when all its depend
+ * tasks in the dag are resolved, and it is skipped when all its depend tasks are skipped, the same as
+ * {@link org.apache.dolphinscheduler.dao.utils.DagHelper#parsePostNodes}.
+ * The branch of a conditions or switch task is parsed once when the task is complete, and the tasks of the other
+ * branches are skipped.
+ * <p>
+ * It is not thread safe, it is only used by the thread handling the events of the process instance.
+ */
+public class TaskDependencyTracker {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskDependencyTracker.class);
+
+    private final TaskDAG dag;
+
+    /**
+     * the depend tasks in the dag which are not resolved yet
+     */
+    private final int[] unresolvedDepends;
+
+    /**
+     * the depend tasks which are not skipped yet, the depend tasks out of the dag are never skipped
+     */
+    private final int[] unskippedDepends;
+
+    private final BitSet resolved;
+
+    private final BitSet complete;
+
+    private final BitSet skipped;
+
+    /**
+     * the complete task instances of the conditions and switch tasks, index as key
+     */
+    private final Map<Integer, TaskInstance> branchTaskInstances = new HashMap<>();
+
+    /**
+     * the parsed branch of the conditions and switch tasks, index as key
+     */
+    private final Map<Integer, List<String>> branches = new HashMap<>();
+
+    /**
+     * called with the code of the task whose depend tasks are complete or skipped
+     */
+    private final LongConsumer dependChangeListener;
+
+    public TaskDependencyTracker(TaskDAG dag) {
+        this(dag, taskCode -> {
+        });
+    }
+
+    public TaskDependencyTracker(TaskDAG dag, LongConsumer dependChangeListener) {
+        this.dag = dag;
+        this.dependChangeListener = dependChangeListener;
+        int size = dag.getNodesCount();
+        this.unresolvedDepends = new int[size];
+        this.unskippedDepends = new int[size];
+        this.resolved = new BitSet(size);
+        this.complete = new BitSet(size);
+        this.skipped = new BitSet(size);
+        for (int index = 0; index < size; index++) {
+            List<String> dependList = dag.getTaskNode(index).getDepList();
+            unresolvedDepends[index] = dag.getIndegree(index);
+            unskippedDepends[index] = dependList == null ? 0 : new HashSet<>(dependList).size();
+        }
+        for (int index = 0; index < size; index++) {
+            if (dag.getTaskNode(index).isForbidden()) {
+                resolve(index);
+            }
+        }
+    }
+
+    /**
+     * the task is complete, whatever its state is
+     *
+     * @param taskInstance complete task instance
+     */
+    public void complete(TaskInstance taskInstance) {
+        int index = dag.indexOf(taskInstance.getTaskCode());
+        if (index < 0) {
+            return;
+        }
+        complete.set(index);
+        TaskNode taskNode = dag.getTaskNode(index);
+        if ((taskNode.isConditionsTask() || taskNode.isSwitchTask())
+                && branchTaskInstances.put(index, taskInstance) != taskInstance) {
+            // parse the branch of the new task instance again
+            branches.remove(index);
+        }
+        resolve(index);
+        notifyDependChanged(index);
+    }
+
+    public boolean isComplete(String taskCode) {
+        int index = dag.indexOf(taskCode);
+        return index >= 0 && complete.get(index);
+    }
+
+    public boolean isSkipped(String taskCode) {
+        int index = dag.indexOf(taskCode);
+        return index >= 0 && skipped.get(index);
+    }
+
+    /**
+     * Get the tasks to submit after the task, it is {@link org.apache.dolphinscheduler.dao.utils.DagHelper#parsePostNodes}
+     * on the counters: the successors or the branch of the task are checked, the skipped ones are marked,
+     * and the forbidden or complete ones are passed through.
+     *
+     * @param preNodeCode the finished task, null to get the tasks to start the process instance
+     * @return codes of the tasks to submit
+     */
+    public Set<String> parsePostNodes(String preNodeCode) {
+        Set<String> postNodes = new LinkedHashSet<>();
+        if (preNodeCode == null) {
+            for (String beginNode : dag.getBeginNode()) {
+                parsePostNode(dag.indexOf(beginNode), postNodes);
+            }
+            return postNodes;
+        }
+        int preIndex = dag.indexOf(preNodeCode);
+        if (preIndex < 0) {
+            logger.error("taskNode {} is null, please check dag", preNodeCode);
+            return postNodes;
+        }
+        parseSuccessors(preIndex, postNodes);
+        return postNodes;
+    }
+
+    private void parseSuccessors(int preIndex, Set<String> postNodes) {
+        TaskNode preNode = dag.getTaskNode(preIndex);
+        if (preNode.isConditionsTask() || preNode.isSwitchTask()) {
+            for (String branchNode : getBranch(preIndex)) {
+                int index = dag.indexOf(branchNode);
+                if (index < 0) {
+                    logger.error("taskNode {} is null, please check dag", branchNode);
+                    continue;
+                }
+                parsePostNode(index, postNodes);
+            }
+            return;
+        }
+        for (int i = 0; i < dag.getOutdegree(preIndex); i++) {
+            parsePostNode(dag.getSuccessor(preIndex, i), postNodes);
+        }
+    }
+
+    private void parsePostNode(int index, Set<String> postNodes) {
+        if (unskippedDepends[index] == 0 && !isDependListEmpty(index)) {
+            skip(index);
+            return;
+        }
+        if (unresolvedDepends[index] > 0) {
+            return;
+        }
+        if (dag.getTaskNode(index).isForbidden() || complete.get(index)) {
+            parseSuccessors(index, postNodes);
+            return;
+        }
+        postNodes.add(Long.toString(dag.getCode(index)));
+    }
+
+    /**
+     * Get the branch to run after the complete conditions or switch task, the tasks of the other branches are skipped
+     *
+     * @param taskCode code of the conditions or switch task
+     * @return codes of the tasks of the branch, empty if the task is not complete
+     */
+    public List<String> getBranch(String taskCode) {
+        int index = dag.indexOf(taskCode);
+        return index < 0 ? Collections.emptyList() : getBranch(index);
+    }
+
+    private List<String> getBranch(int index) {
+        TaskInstance taskInstance = branchTaskInstances.get(index);
+        if (taskInstance == null) {
+            return Collections.emptyList();
+        }
+        List<String> branch = branches.get(index);
+        if (branch == null) {
+            TaskNode taskNode = dag.getTaskNode(index);
+            branch = taskNode.isConditionsTask() ? parseConditionBranch(taskNode, taskInstance) : parseSwitchBranch(taskInstance);
+            branches.put(index, branch);
+        }
+        return branch;
+    }
+
+    private List<String> parseConditionBranch(TaskNode taskNode, TaskInstance taskInstance) {
+        ConditionsParameters conditionsParameters =
+                JSONUtils.parseObject(taskNode.getConditionResult(), ConditionsParameters.class);
+        List<String> branch;
+        List<String> skipNodeList;
+        if (taskInstance.getState().typeIsSuccess()) {
+            branch = conditionsParameters.getSuccessNode();
+            skipNodeList = conditionsParameters.getFailedNode();
+        } else if (taskInstance.getState().typeIsFailure()) {
+            branch = conditionsParameters.getFailedNode();
+            skipNodeList = conditionsParameters.getSuccessNode();
+        } else {
+            branch = Collections.singletonList(Long.toString(taskNode.getCode()));
+            skipNodeList = null;
+        }
+        // the node lists maybe null if no next task
+        if (skipNodeList != null) {
+            skipNodeList.forEach(this::skip);
+        }
+        return branch == null ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(branch));
+    }
+
+    private List<String> parseSwitchBranch(TaskInstance taskInstance) {
+        SwitchParameters switchParameters = taskInstance.getSwitchDependency();
+        int resultConditionLocation = switchParameters.getResultConditionLocation();
+        List<SwitchResultVo> conditionResultVoList = switchParameters.getDependTaskList();
+        for (int i = 0; i < conditionResultVoList.size(); i++) {
+            List<String> nextNode = conditionResultVoList.get(i).getNextNode();
+            if (i != resultConditionLocation && CollectionUtils.isNotEmpty(nextNode)) {
+                skip(nextNode.get(0));
+            }
+        }
+        List<String> branch = conditionResultVoList.get(resultConditionLocation).getNextNode();
+        return CollectionUtils.isEmpty(branch) ? Collections.emptyList() : Collections.unmodifiableList(new ArrayList<>(branch));
+    }
+
+    private void skip(String taskCode) {
+        int index = dag.indexOf(taskCode);
+        if (index >= 0) {
+            skip(index);
+        }
+    }
+
+    /**
+     * skip the task, and the successors whose depend tasks are all skipped
+     */
+    private void skip(int index) {
+        if (skipped.get(index)) {
+            return;
+        }
+        skipped.set(index);
+        resolve(index);
+        notifyDependChanged(index);
+        for (int i = 0; i < dag.getOutdegree(index); i++) {
+            int successor = dag.getSuccessor(index, i);
+            if (--unskippedDepends[successor] == 0) {
+                skip(successor);
+            }
+        }
+    }
+
+    private void resolve(int index) {
+        if (resolved.get(index)) {
+            return;
+        }
+        resolved.set(index);
+        for (int i = 0; i < dag.getOutdegree(index); i++) {
+            unresolvedDepends[dag.getSuccessor(index, i)]--;
+        }
+    }
+
+    /**
+     * notify the successors of the task, the successors of a forbidden one are notified instead of it,
+     * as a forbidden task is passed through when checking the depend tasks
+     */
+    private void notifyDependChanged(int index) {
+        for (int i = 0; i < dag.getOutdegree(index); i++) {
+            int successor = dag.getSuccessor(index, i);
+            if (dag.getTaskNode(successor).isForbidden()) {
+                notifyDependChanged(successor);
+            } else {
+                dependChangeListener.accept(dag.getCode(successor));
+            }
+        }
+    }
+
+    private boolean isDependListEmpty(int index) {
+        return CollectionUtils.isEmpty(dag.getTaskNode(index).getDepList());
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.plugin.task.api.enums.Direct;
+import org.apache.dolphinscheduler.plugin.task.api.model.Property;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The parsed var pool of a task or process instance, property name as key.
+ * <p>
+ * It is immutable and shared by the tasks reading it, the json of the var pool is parsed once
+ * and it is serialized only when it is set back to an instance to be persisted or dispatched.
+ * The properties must not be changed.
+ */
+public final class VarPool {
+
+    public static final VarPool EMPTY = new VarPool(Collections.emptyMap(), null);
+
+    private final Map<String, Property> properties;
+
+    /**
+     * the json parsed from, or serialized to
+     */
+    private String json;
+
+    /**
+     * the var pool with all the properties as IN, which is passed to the post tasks
+     */
+    private VarPool input;
+
+    private VarPool(Map<String, Property> properties, String json) {
+        this.properties = properties;
+        this.json = json;
+    }
+
+    /**
+     * parse the var pool, a property of the same name keeps its first value unless the value is empty
+     *
+     * @param json var pool json
+     * @return var pool
+     */
+    public static VarPool parse(String json) {
+        if (StringUtils.isEmpty(json)) {
+            return EMPTY;
+        }
+        Map<String, Property> properties = new LinkedHashMap<>();
+        for (Property property : JSONUtils.toList(json, Property.class)) {
+            Property exist = properties.get(property.getProp());
+            if (exist == null || (StringUtils.isEmpty(exist.getValue()) && StringUtils.isNotEmpty(property.getValue()))) {
+                properties.put(property.getProp(), property);
+            }
+        }
+        if (properties.isEmpty()) {
+            return EMPTY;
+        }
+        return new VarPool(Collections.unmodifiableMap(properties), json);
+    }
+
+    /**
+     * @param properties properties with distinct names
+     * @return var pool
+     */
+    public static VarPool of(Collection<Property> properties) {
+        if (properties.isEmpty()) {
+            return EMPTY;
+        }
+        Map<String, Property> propertyMap = new LinkedHashMap<>();
+        for (Property property : properties) {
+            propertyMap.put(property.getProp(), property);
+        }
+        return new VarPool(Collections.unmodifiableMap(propertyMap), null);
+    }
+
+    public boolean isEmpty() {
+        return properties.isEmpty();
+    }
+
+    public Map<String, Property> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @param json var pool json
+     * @return true if the var pool is parsed from or serialized to the json
+     */
+    public boolean isParsedFrom(String json) {
+        if (StringUtils.isEmpty(json)) {
+            return isEmpty();
+        }
+        return json == this.json || json.equals(this.json);
+    }
+
+    /**
+     * merge the other var pool, the properties of the other one replace the ones of the same name,
+     * one of them is returned as it is if the other one is empty
+     *
+     * @param other other var pool
+     * @return the merged var pool
+     */
+    public VarPool merge(VarPool other) {
+        if (other.isEmpty() || other == this) {
+            return this;
+        }
+        if (isEmpty()) {
+            return other;
+        }
+        Map<String, Property> merged = new LinkedHashMap<>(properties);
+        merged.putAll(other.properties);
+        return new VarPool(Collections.unmodifiableMap(merged), null);
+    }
+
+    /**
+     * @return the var pool with all the properties as IN, the properties are copied once
+     */
+    public VarPool asInput() {
+        if (input == null) {
+            boolean allInput = properties.values().stream().allMatch(property -> property.getDirect() == Direct.IN);
+            if (allInput) {
+                input = this;
+            } else {
+                Map<String, Property> inputProperties = new LinkedHashMap<>();
+                for (Property property : properties.values()) {
+                    inputProperties.put(property.getProp(),
+                            new Property(property.getProp(), Direct.IN, property.getType(), property.getValue()));
+                }
+                input = new VarPool(Collections.unmodifiableMap(inputProperties), null);
+            }
+        }
+        return input;
+    }
+
+    /**
+     * @return the json of the var pool, it is serialized once
+     */
+    public String toJson() {
+        if (isEmpty()) {
+            return null;
+        }
+        if (json == null) {
+            json = JSONUtils.toJsonString(properties.values());
+        }
+        return json;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        return Objects.equals(properties, ((VarPool) o).properties);
+    }
+
+    @Override
+    public int hashCode() {
+        return properties.hashCode();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner;
+
+import org.apache.dolphinscheduler.server.master.metrics.ProcessInstanceMetrics;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Master-wide run queue of the workflows which have pending state events.
+ * A workflow is enqueued at most once until it is taken by {@link EventExecuteService},
+ * so the cost of dispatching events is proportional to the events instead of the live workflows.
+ */
+@Component
+public class WorkflowEventQueue {
+
+    /**
+     * workflows which have pending state events
+     */
+    private final BlockingQueue<WorkflowExecuteRunnable> readyQueue = new LinkedBlockingQueue<>();
+
+    /**
+     * processInstanceId as key, the nano time when the workflow is signalled as value
+     */
+    private final ConcurrentHashMap<Integer, Long> signalTimeMap = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    private void init() {
+        ProcessInstanceMetrics.registerWorkflowEventQueueSizeGauge(readyQueue::size);
+    }
+
+    /**
+     * Signal that the given workflow has pending state events, the workflow will only be enqueued once
+     * until it is taken from the queue.
+     */
+    public void signal(WorkflowExecuteRunnable workflowExecuteRunnable) {
+        int processInstanceId = workflowExecuteRunnable.getProcessInstance().getId();
+        if (signalTimeMap.putIfAbsent(processInstanceId, System.nanoTime()) == null) {
+            readyQueue.offer(workflowExecuteRunnable);
+        }
+    }
+
+    /**
+     * Take the next workflow which has pending state events, waiting up to the given timeout.
+     *
+     * @return the workflow, or null if the timeout elapsed
+     */
+    public WorkflowExecuteRunnable poll(long timeout, TimeUnit unit) throws InterruptedException {
+        WorkflowExecuteRunnable workflowExecuteRunnable = readyQueue.poll(timeout, unit);
+        if (workflowExecuteRunnable == null) {
+            return null;
+        }
+        Long signalTime = signalTimeMap.remove(workflowExecuteRunnable.getProcessInstance().getId());
+        if (signalTime != null) {
+            ProcessInstanceMetrics.recordWorkflowEventLatency(System.nanoTime() - signalTime);
+        }
+        return workflowExecuteRunnable;
+    }
+
+    public int size() {
+        return readyQueue.size();
+    }
+}
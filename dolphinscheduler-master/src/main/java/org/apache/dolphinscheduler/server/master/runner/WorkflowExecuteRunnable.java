@@ -37,13 +37,10 @@ import org.apache.dolphinscheduler.common.enums.Flag;
 import org.apache.dolphinscheduler.common.enums.Priority;
 import org.apache.dolphinscheduler.common.enums.StateEvent;
 import org.apache.dolphinscheduler.common.enums.StateEventType;
-import org.apache.dolphinscheduler.common.enums.TaskDependType;
 import org.apache.dolphinscheduler.common.enums.TaskGroupQueueStatus;
 import org.apache.dolphinscheduler.common.enums.TimeoutFlag;
-import org.apache.dolphinscheduler.common.graph.DAG;
+import org.apache.dolphinscheduler.common.graph.TaskDAG;
 import org.apache.dolphinscheduler.common.model.TaskNode;
-import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
-import org.apache.dolphinscheduler.common.process.ProcessDag;
 import org.apache.dolphinscheduler.common.utils.DateUtils;
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.common.utils.NetUtils;
@@ -52,21 +49,20 @@ import org.apache.dolphinscheduler.dao.entity.Command;
 import org.apache.dolphinscheduler.dao.entity.Environment;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
-import org.apache.dolphinscheduler.dao.entity.ProcessTaskRelation;
 import org.apache.dolphinscheduler.dao.entity.ProjectUser;
 import org.apache.dolphinscheduler.dao.entity.Schedule;
-import org.apache.dolphinscheduler.dao.entity.TaskDefinitionLog;
 import org.apache.dolphinscheduler.dao.entity.TaskGroupQueue;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.dao.utils.DagHelper;
 import org.apache.dolphinscheduler.plugin.task.api.enums.DependResult;
-import org.apache.dolphinscheduler.plugin.task.api.enums.Direct;
 import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
 import org.apache.dolphinscheduler.plugin.task.api.enums.TaskTimeoutStrategy;
 import org.apache.dolphinscheduler.plugin.task.api.model.Property;
 import org.apache.dolphinscheduler.plugin.task.api.parameters.BlockingParameters;
 import org.apache.dolphinscheduler.remote.command.HostUpdateCommand;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.cache.WorkflowDag;
+import org.apache.dolphinscheduler.server.master.cache.WorkflowDagCacheManager;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.dispatch.executor.NettyExecutorManager;
 import org.apache.dolphinscheduler.server.master.metrics.ProcessInstanceMetrics;
@@ -88,8 +84,9 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -134,6 +131,11 @@ public class WorkflowExecuteRunnable implements Runnable {
      */
     private final NettyExecutorManager nettyExecutorManager;
 
+    /**
+     * compiled workflow dag cache
+     */
+    private final WorkflowDagCacheManager workflowDagCacheManager;
+
     /**
      * process instance
      */
@@ -147,7 +149,7 @@ public class WorkflowExecuteRunnable implements Runnable {
     /**
      * the object of DAG
      */
-    private DAG<String, TaskNode, TaskNodeRelation> dag;
+    private TaskDAG dag;
 
     /**
      * key of workflow
@@ -204,9 +206,19 @@ public class WorkflowExecuteRunnable implements Runnable {
     private final Map<Long, TaskNode> forbiddenTaskMap = new ConcurrentHashMap<>();
 
     /**
-     * skip task map, code as key
+     * dependency state of the tasks in the dag
+     */
+    private TaskDependencyTracker dependencyTracker;
+
+    /**
+     * parsed var pool of the task instances, taskInstanceId as key
      */
-    private final Map<String, TaskNode> skipTaskNodeMap = new ConcurrentHashMap<>();
+    private final Map<Integer, VarPool> taskVarPoolMap = new ConcurrentHashMap<>();
+
+    /**
+     * parsed var pool of the process instance
+     */
+    private VarPool processVarPool = VarPool.EMPTY;
 
     /**
      * complement date list
@@ -223,6 +235,12 @@ public class WorkflowExecuteRunnable implements Runnable {
      */
     private final PeerTaskInstancePriorityQueue readyToSubmitTaskQueue = new PeerTaskInstancePriorityQueue();
 
+    /**
+     * the task codes in the ready to submit task queue which are added or whose depend tasks are changed
+     * since they were checked, only they are checked when submitting the standby tasks
+     */
+    private final Set<Long> changedStandByTaskCodes = new LinkedHashSet<>();
+
     /**
      * wait to retry taskInstance map, taskCode as key, taskInstance as value
      * before retry, the taskInstance id is 0
@@ -247,8 +265,10 @@ public class WorkflowExecuteRunnable implements Runnable {
             , NettyExecutorManager nettyExecutorManager
             , ProcessAlertManager processAlertManager
             , MasterConfig masterConfig
-            , StateWheelExecuteThread stateWheelExecuteThread) {
+            , StateWheelExecuteThread stateWheelExecuteThread
+            , WorkflowDagCacheManager workflowDagCacheManager) {
         this.processService = processService;
+        this.workflowDagCacheManager = workflowDagCacheManager;
         this.processInstance = processInstance;
         this.masterConfig = masterConfig;
         this.nettyExecutorManager = nettyExecutorManager;
@@ -460,8 +480,9 @@ public class WorkflowExecuteRunnable implements Runnable {
         stateWheelExecuteThread.removeTask4StateCheck(processInstance, taskInstance);
 
         if (taskInstance.getState().typeIsSuccess()) {
-            completeTaskMap.put(taskInstance.getTaskCode(), taskInstance.getId());
+            addCompleteTask(taskInstance);
             processInstance.setVarPool(taskInstance.getVarPool());
+            processVarPool = getVarPool(taskInstance);
             processService.saveProcessInstance(processInstance);
             if (!processInstance.isBlocked()) {
                 submitPostNode(Long.toString(taskInstance.getTaskCode()));
@@ -470,7 +491,7 @@ public class WorkflowExecuteRunnable implements Runnable {
             // retry task
             retryTaskInstance(taskInstance);
         } else if (taskInstance.getState().typeIsFailure()) {
-            completeTaskMap.put(taskInstance.getTaskCode(), taskInstance.getId());
+            addCompleteTask(taskInstance);
             // There are child nodes and the failure policy is: CONTINUE
             if (DagHelper.haveAllNodeAfterNode(Long.toString(taskInstance.getTaskCode()), dag)
                     && processInstance.getFailureStrategy() == FailureStrategy.CONTINUE) {
@@ -482,7 +503,7 @@ public class WorkflowExecuteRunnable implements Runnable {
                 }
             }
         } else if (taskInstance.getState().typeIsFinished()) {
-            completeTaskMap.put(taskInstance.getTaskCode(), taskInstance.getId());
+            addCompleteTask(taskInstance);
         }
 
         this.updateProcessInstanceState();
@@ -890,28 +911,22 @@ public class WorkflowExecuteRunnable implements Runnable {
 
         List<TaskInstance> recoverNodeList = getStartTaskInstanceList(processInstance.getCommandParam());
 
-        List<ProcessTaskRelation> processTaskRelations = processService.findRelationByCode(processDefinition.getCode(), processDefinition.getVersion());
-        List<TaskDefinitionLog> taskDefinitionLogs = processService.getTaskDefineLogListByRelation(processTaskRelations);
-        List<TaskNode> taskNodeList = processService.transformTask(processTaskRelations, taskDefinitionLogs);
+        WorkflowDag workflowDag = workflowDagCacheManager.getWorkflowDag(processDefinition.getCode(), processDefinition.getVersion());
         forbiddenTaskMap.clear();
 
-        taskNodeList.forEach(taskNode -> {
+        workflowDag.getTaskNodes().forEach(taskNode -> {
             if (taskNode.isForbidden()) {
                 forbiddenTaskMap.put(taskNode.getCode(), taskNode);
             }
         });
 
-        // generate process to get DAG info
+        // the dag of the tasks to run, it is shared with the instances of the same version if all the tasks are run
         List<String> recoveryNodeCodeList = getRecoveryNodeCodeList(recoverNodeList);
         List<String> startNodeNameList = parseStartNodeName(processInstance.getCommandParam());
-        ProcessDag processDag = generateFlowDag(taskNodeList,
-                startNodeNameList, recoveryNodeCodeList, processInstance.getTaskDependType());
-        if (processDag == null) {
+        dag = workflowDag.getDag(startNodeNameList, recoveryNodeCodeList, processInstance.getTaskDependType());
+        if (dag == null) {
             logger.error("processDag is null");
-            return;
         }
-        // generate process dag
-        dag = DagHelper.buildDagGraph(processDag);
     }
 
     /**
@@ -924,6 +939,7 @@ public class WorkflowExecuteRunnable implements Runnable {
         dependFailedTaskMap.clear();
         completeTaskMap.clear();
         errorTaskMap.clear();
+        dependencyTracker = new TaskDependencyTracker(dag == null ? TaskDAG.empty() : dag, this::standByTaskDependChanged);
 
         if (!isNewProcessInstance()) {
             List<TaskInstance> validTaskInstanceList = processService.findValidTaskListByProcessId(processInstance.getId());
@@ -943,7 +959,7 @@ public class WorkflowExecuteRunnable implements Runnable {
                 taskInstanceMap.put(task.getId(), task);
 
                 if (task.isTaskComplete()) {
-                    completeTaskMap.put(task.getTaskCode(), task.getId());
+                    addCompleteTask(task);
                     continue;
                 }
                 if (task.isConditionsTask() || DagHelper.haveConditionsAfterNode(Long.toString(task.getTaskCode()), dag)) {
@@ -1248,9 +1264,11 @@ public class WorkflowExecuteRunnable implements Runnable {
     }
 
     public void getPreVarPool(TaskInstance taskInstance, Set<String> preTask) {
-        Map<String, Property> allProperty = new HashMap<>();
+        Map<String, Property> allProperty = new LinkedHashMap<>();
         Map<String, TaskInstance> allTaskInstance = new HashMap<>();
         if (CollectionUtils.isNotEmpty(preTask)) {
+            VarPool onlyPreVarPool = VarPool.EMPTY;
+            int preVarPoolCount = 0;
             for (String preTaskCode : preTask) {
                 Integer taskId = completeTaskMap.get(Long.parseLong(preTaskCode));
                 if (taskId == null) {
@@ -1260,16 +1278,21 @@ public class WorkflowExecuteRunnable implements Runnable {
                 if (preTaskInstance == null) {
                     continue;
                 }
-                String preVarPool = preTaskInstance.getVarPool();
-                if (StringUtils.isNotEmpty(preVarPool)) {
-                    List<Property> properties = JSONUtils.toList(preVarPool, Property.class);
-                    for (Property info : properties) {
-                        setVarPoolValue(allProperty, allTaskInstance, preTaskInstance, info);
-                    }
+                VarPool preVarPool = getVarPool(preTaskInstance).asInput();
+                if (preVarPool.isEmpty()) {
+                    continue;
+                }
+                onlyPreVarPool = preVarPool;
+                preVarPoolCount++;
+                for (Property info : preVarPool.getProperties().values()) {
+                    setVarPoolValue(allProperty, allTaskInstance, preTaskInstance, info);
                 }
             }
-            if (allProperty.size() > 0) {
-                taskInstance.setVarPool(JSONUtils.toJsonString(allProperty.values()));
+            if (preVarPoolCount == 1) {
+                // the var pool of the only previous task is passed as it is, it is serialized once for all its post tasks
+                taskInstance.setVarPool(onlyPreVarPool.toJson());
+            } else if (allProperty.size() > 0) {
+                taskInstance.setVarPool(VarPool.of(allProperty.values()).toJson());
             }
         } else {
             if (StringUtils.isNotEmpty(processInstance.getVarPool())) {
@@ -1278,9 +1301,30 @@ public class WorkflowExecuteRunnable implements Runnable {
         }
     }
 
+    /**
+     * get the parsed var pool of the task instance, the var pool is parsed again only if it is changed
+     */
+    private VarPool getVarPool(TaskInstance taskInstance) {
+        String varPool = taskInstance.getVarPool();
+        VarPool parsedVarPool = taskVarPoolMap.get(taskInstance.getId());
+        if (parsedVarPool == null || !parsedVarPool.isParsedFrom(varPool)) {
+            parsedVarPool = VarPool.parse(varPool);
+            taskVarPoolMap.put(taskInstance.getId(), parsedVarPool);
+        }
+        return parsedVarPool;
+    }
+
+    /**
+     * get the parsed var pool of the process instance, the var pool is parsed again only if it is changed
+     */
+    private VarPool getProcessVarPool() {
+        if (!processVarPool.isParsedFrom(processInstance.getVarPool())) {
+            processVarPool = VarPool.parse(processInstance.getVarPool());
+        }
+        return processVarPool;
+    }
+
     private void setVarPoolValue(Map<String, Property> allProperty, Map<String, TaskInstance> allTaskInstance, TaskInstance preTaskInstance, Property thisProperty) {
-        //for this taskInstance all the param in this part is IN.
-        thisProperty.setDirect(Direct.IN);
         //get the pre taskInstance Property's name
         String proName = thisProperty.getProp();
         //if the Previous nodes have the Property of same name
@@ -1310,15 +1354,11 @@ public class WorkflowExecuteRunnable implements Runnable {
     }
 
     /**
-     * get complete task instance map, taskCode as key
+     * put the task to the complete task map and update the depend counters of its post tasks
      */
-    private Map<String, TaskInstance> getCompleteTaskInstanceMap() {
-        Map<String, TaskInstance> completeTaskInstanceMap = new HashMap<>();
-        for (Integer taskInstanceId : completeTaskMap.values()) {
-            TaskInstance taskInstance = taskInstanceMap.get(taskInstanceId);
-            completeTaskInstanceMap.put(Long.toString(taskInstance.getTaskCode()), taskInstance);
-        }
-        return completeTaskInstanceMap;
+    private void addCompleteTask(TaskInstance taskInstance) {
+        completeTaskMap.put(taskInstance.getTaskCode(), taskInstance.getId());
+        dependencyTracker.complete(taskInstance);
     }
 
     /**
@@ -1333,7 +1373,7 @@ public class WorkflowExecuteRunnable implements Runnable {
     }
 
     private void submitPostNode(String parentNodeCode) {
-        Set<String> submitTaskNodeList = DagHelper.parsePostNodes(parentNodeCode, skipTaskNodeMap, dag, getCompleteTaskInstanceMap());
+        Set<String> submitTaskNodeList = dependencyTracker.parsePostNodes(parentNodeCode);
         List<TaskInstance> taskInstances = new ArrayList<>();
         for (String taskNode : submitTaskNodeList) {
             TaskNode taskNodeObject = dag.getNode(taskNode);
@@ -1348,17 +1388,11 @@ public class WorkflowExecuteRunnable implements Runnable {
         //the end node of the branch of the dag
         if (StringUtils.isNotEmpty(parentNodeCode) && dag.getEndNode().contains(parentNodeCode)) {
             TaskInstance endTaskInstance = taskInstanceMap.get(completeTaskMap.get(NumberUtils.toLong(parentNodeCode)));
-            String taskInstanceVarPool = endTaskInstance.getVarPool();
-            if (StringUtils.isNotEmpty(taskInstanceVarPool)) {
-                Set<Property> taskProperties = new HashSet<>(JSONUtils.toList(taskInstanceVarPool, Property.class));
-                String processInstanceVarPool = processInstance.getVarPool();
-                if (StringUtils.isNotEmpty(processInstanceVarPool)) {
-                    Set<Property> properties = new HashSet<>(JSONUtils.toList(processInstanceVarPool, Property.class));
-                    properties.addAll(taskProperties);
-                    processInstance.setVarPool(JSONUtils.toJsonString(properties));
-                } else {
-                    processInstance.setVarPool(JSONUtils.toJsonString(taskProperties));
-                }
+            VarPool taskVarPool = getVarPool(endTaskInstance);
+            if (!taskVarPool.isEmpty()) {
+                // the properties of the end task replace the ones of the same name
+                processVarPool = getProcessVarPool().merge(taskVarPool);
+                processInstance.setVarPool(processVarPool.toJson());
             }
         }
 
@@ -1401,7 +1435,7 @@ public class WorkflowExecuteRunnable implements Runnable {
         List<String> indirectDepCodeList = new ArrayList<>();
         setIndirectDepList(taskCode, indirectDepCodeList);
         for (String depsNode : indirectDepCodeList) {
-            if (dag.containsNode(depsNode) && !skipTaskNodeMap.containsKey(depsNode)) {
+            if (dag.containsNode(depsNode) && !dependencyTracker.isSkipped(depsNode)) {
                 // dependencies must be fully completed
                 Long despNodeTaskCode = Long.parseLong(depsNode);
                 if (!completeTaskMap.containsKey(despNodeTaskCode)) {
@@ -1427,7 +1461,7 @@ public class WorkflowExecuteRunnable implements Runnable {
                 }
             }
         }
-        logger.info("taskCode: {} completeDependTaskList: {}", taskCode, Arrays.toString(completeTaskMap.keySet().toArray()));
+        logger.info("taskCode: {} completeDependTaskList: {}", taskCode, indirectDepCodeList);
         return DependResult.SUCCESS;
     }
 
@@ -1456,7 +1490,7 @@ public class WorkflowExecuteRunnable implements Runnable {
     private boolean dependTaskSuccess(String dependNodeName, String nextNodeName) {
         if (dag.getNode(dependNodeName).isConditionsTask()) {
             //condition task need check the branch to run
-            List<String> nextTaskList = DagHelper.parseConditionTask(dependNodeName, skipTaskNodeMap, dag, getCompleteTaskInstanceMap());
+            List<String> nextTaskList = dependencyTracker.getBranch(dependNodeName);
             if (!nextTaskList.contains(nextNodeName)) {
                 return false;
             }
@@ -1760,6 +1794,7 @@ public class WorkflowExecuteRunnable implements Runnable {
                     taskInstance.getName(), taskInstance.getId(), taskInstance.getTaskCode());
             TaskMetrics.incTaskSubmit();
             readyToSubmitTaskQueue.put(taskInstance);
+            changedStandByTaskCodes.add(taskInstance.getTaskCode());
         } catch (Exception e) {
             logger.error("add task instance to readyToSubmitTaskQueue, taskName:{}, task id:{}", taskInstance.getName(), taskInstance.getId(), e);
         }
@@ -1773,6 +1808,7 @@ public class WorkflowExecuteRunnable implements Runnable {
     private void removeTaskFromStandbyList(TaskInstance taskInstance) {
         try {
             readyToSubmitTaskQueue.remove(taskInstance);
+            changedStandByTaskCodes.remove(taskInstance.getTaskCode());
         } catch (Exception e) {
             logger.error("remove task instance from readyToSubmitTaskQueue error, task id:{}, Name: {}",
                     taskInstance.getId(),
@@ -1780,6 +1816,17 @@ public class WorkflowExecuteRunnable implements Runnable {
         }
     }
 
+    /**
+     * the depend tasks of the task are changed, check the task again if it is in the standby list
+     *
+     * @param taskCode task code
+     */
+    private void standByTaskDependChanged(long taskCode) {
+        if (readyToSubmitTaskQueue.contains(taskCode)) {
+            changedStandByTaskCodes.add(taskCode);
+        }
+    }
+
     /**
      * has retry task in standby
      *
@@ -1803,6 +1850,7 @@ public class WorkflowExecuteRunnable implements Runnable {
 
         if (readyToSubmitTaskQueue.size() > 0) {
             readyToSubmitTaskQueue.clear();
+            changedStandByTaskCodes.clear();
         }
 
         for (long taskCode : activeTaskProcessorMaps.keySet()) {
@@ -1836,10 +1884,19 @@ public class WorkflowExecuteRunnable implements Runnable {
      */
     private void submitStandByTask() {
         try {
-            int length = readyToSubmitTaskQueue.size();
-            for (int i = 0; i < length; i++) {
-                TaskInstance task = readyToSubmitTaskQueue.peek();
-                if (task == null) {
+            // the waiting tasks whose depend tasks are not changed are not checked again
+            List<TaskInstance> changedTasks = new ArrayList<>(changedStandByTaskCodes.size());
+            for (Long taskCode : changedStandByTaskCodes) {
+                TaskInstance task = readyToSubmitTaskQueue.get(taskCode);
+                if (task != null) {
+                    changedTasks.add(task);
+                }
+            }
+            changedStandByTaskCodes.clear();
+            changedTasks.sort(readyToSubmitTaskQueue.comparator());
+            for (TaskInstance task : changedTasks) {
+                if (readyToSubmitTaskQueue.get(task.getTaskCode()) != task) {
+                    // removed or replaced when submitting the post tasks of a former one
                     continue;
                 }
                 // stop tasks which is retrying if forced success happens
@@ -1849,7 +1906,7 @@ public class WorkflowExecuteRunnable implements Runnable {
                         task.setState(retryTask.getState());
                         logger.info("task: {} has been forced success, put it into complete task list and stop retrying", task.getName());
                         removeTaskFromStandbyList(task);
-                        completeTaskMap.put(task.getTaskCode(), task.getId());
+                        addCompleteTask(task);
                         taskInstanceMap.put(task.getId(), task);
                         submitPostNode(Long.toString(task.getTaskCode()));
                         continue;
@@ -1868,7 +1925,7 @@ public class WorkflowExecuteRunnable implements Runnable {
                         this.taskFailedSubmit = true;
                         // Remove and add to complete map and error map
                         removeTaskFromStandbyList(task);
-                        completeTaskMap.put(task.getTaskCode(), task.getId());
+                        addCompleteTask(task);
                         errorTaskMap.put(task.getTaskCode(), task.getId());
                         logger.error("Task submitted failed, processInstanceId: {}, taskInstanceId: {}", task.getProcessInstanceId(), task.getId());
                     } else {
@@ -1964,23 +2021,6 @@ public class WorkflowExecuteRunnable implements Runnable {
         return recoveryNodeCodeList;
     }
 
-    /**
-     * generate flow dag
-     *
-     * @param totalTaskNodeList    total task node list
-     * @param startNodeNameList    start node name list
-     * @param recoveryNodeCodeList recovery node code list
-     * @param depNodeType          depend node type
-     * @return ProcessDag           process dag
-     * @throws Exception exception
-     */
-    public ProcessDag generateFlowDag(List<TaskNode> totalTaskNodeList,
-                                      List<String> startNodeNameList,
-                                      List<String> recoveryNodeCodeList,
-                                      TaskDependType depNodeType) throws Exception {
-        return DagHelper.generateFlowDag(totalTaskNodeList, startNodeNameList, recoveryNodeCodeList, depNodeType);
-    }
-
     /**
      * check task queue
      */
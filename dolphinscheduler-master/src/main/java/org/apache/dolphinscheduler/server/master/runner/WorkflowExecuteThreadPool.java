@@ -70,6 +70,9 @@ public class WorkflowExecuteThreadPool extends ThreadPoolTaskExecutor {
     @Autowired
     private StateWheelExecuteThread stateWheelExecuteThread;
 
+    @Autowired
+    private WorkflowEventQueue workflowEventQueue;
+
     /**
      * multi-thread filter, avoid handling workflow at the same time
      */
@@ -92,7 +95,20 @@ public class WorkflowExecuteThreadPool extends ThreadPoolTaskExecutor {
             logger.warn("workflowExecuteThread is null, stateEvent:{}", stateEvent);
             return;
         }
-        workflowExecuteThread.addStateEvent(stateEvent);
+        if (workflowExecuteThread.addStateEvent(stateEvent)) {
+            workflowEventQueue.signal(workflowExecuteThread);
+        }
+    }
+
+    /**
+     * Whether the workflows waiting for an execute thread are more than the execute threads,
+     * the master should stop creating new workflows until they are drained.
+     */
+    public boolean isSaturated() {
+        if (getThreadPoolExecutor() == null) {
+            return false;
+        }
+        return getThreadPoolExecutor().getQueue().size() >= masterConfig.getExecThreads();
     }
 
     /**
@@ -100,7 +116,10 @@ public class WorkflowExecuteThreadPool extends ThreadPoolTaskExecutor {
      */
     public void startWorkflow(WorkflowExecuteRunnable workflowExecuteThread) {
         ProcessInstanceMetrics.incProcessInstanceSubmit();
-        submit(workflowExecuteThread);
+        ListenableFuture<?> future = submitListenable(workflowExecuteThread);
+        // the events received before the workflow started are ignored by executeEvent, so signal them again
+        future.addCallback(result -> signalIfHasEvent(workflowExecuteThread),
+            ex -> signalIfHasEvent(workflowExecuteThread));
     }
 
     /**
@@ -122,6 +141,7 @@ public class WorkflowExecuteThreadPool extends ThreadPoolTaskExecutor {
             public void onFailure(Throwable ex) {
                 logger.error("handle events {} failed", processInstanceId, ex);
                 multiThreadFilterMap.remove(workflowExecuteThread.getKey());
+                signalIfHasEvent(workflowExecuteThread);
             }
 
             @Override
@@ -138,11 +158,23 @@ public class WorkflowExecuteThreadPool extends ThreadPoolTaskExecutor {
                 } finally {
                     // make sure the process has been removed from multiThreadFilterMap
                     multiThreadFilterMap.remove(workflowExecuteThread.getKey());
+                    signalIfHasEvent(workflowExecuteThread);
                 }
             }
         });
     }
 
+    /**
+     * The events added while the workflow is handled by another thread are not dispatched,
+     * so the workflow need to be signalled again once the handling is finished.
+     */
+    private void signalIfHasEvent(WorkflowExecuteRunnable workflowExecuteThread) {
+        if (workflowExecuteThread.eventSize() > 0
+                && processInstanceExecCacheManager.contains(workflowExecuteThread.getProcessInstance().getId())) {
+            workflowEventQueue.signal(workflowExecuteThread);
+        }
+    }
+
     /**
      * notify process change
      */
@@ -25,21 +25,28 @@ import static org.powermock.api.mockito.PowerMockito.mock;
 
 import org.apache.dolphinscheduler.common.enums.CommandType;
 import org.apache.dolphinscheduler.common.enums.Flag;
+import org.apache.dolphinscheduler.common.enums.Priority;
 import org.apache.dolphinscheduler.common.enums.ProcessExecutionTypeEnum;
-import org.apache.dolphinscheduler.common.graph.DAG;
+import org.apache.dolphinscheduler.common.graph.TaskDAG;
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
 import org.apache.dolphinscheduler.common.utils.DateUtils;
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
 import org.apache.dolphinscheduler.dao.entity.Schedule;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.plugin.task.api.enums.DependResult;
+import org.apache.dolphinscheduler.plugin.task.api.enums.Direct;
 import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.plugin.task.api.model.Property;
 import org.apache.dolphinscheduler.server.master.config.MasterConfig;
 import org.apache.dolphinscheduler.server.master.runner.StateWheelExecuteThread;
 import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteRunnable;
 import org.apache.dolphinscheduler.server.master.runner.task.TaskProcessorFactory;
 import org.apache.dolphinscheduler.service.bean.SpringApplicationContext;
 import org.apache.dolphinscheduler.service.process.ProcessService;
+import org.apache.dolphinscheduler.service.queue.PeerTaskInstancePriorityQueue;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
@@ -49,9 +56,11 @@ import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -63,6 +72,7 @@ import org.mockito.Mockito;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PrepareForTest;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
 import org.springframework.context.ApplicationContext;
 
 /**
@@ -113,11 +123,11 @@ public class WorkflowExecuteTaskTest {
         Mockito.when(processInstance.getProcessDefinition()).thenReturn(processDefinition);
 
         stateWheelExecuteThread = mock(StateWheelExecuteThread.class);
-        workflowExecuteThread = PowerMockito.spy(new WorkflowExecuteRunnable(processInstance, processService, null, null, config, stateWheelExecuteThread));
+        workflowExecuteThread = PowerMockito.spy(new WorkflowExecuteRunnable(processInstance, processService, null, null, config, stateWheelExecuteThread, null));
         // prepareProcess init dag
         Field dag = WorkflowExecuteRunnable.class.getDeclaredField("dag");
         dag.setAccessible(true);
-        dag.set(workflowExecuteThread, new DAG());
+        dag.set(workflowExecuteThread, TaskDAG.empty());
         PowerMockito.doNothing().when(workflowExecuteThread, "endProcess");
     }
 
@@ -225,6 +235,44 @@ public class WorkflowExecuteTaskTest {
         }
     }
 
+    @Test
+    public void testGetPreVarPoolWithEmptyPreVarPool() throws Exception {
+        TaskInstance taskInstance1 = new TaskInstance();
+        taskInstance1.setId(1);
+        taskInstance1.setTaskCode(1);
+        taskInstance1.setVarPool("[{\"direct\":\"OUT\",\"prop\":\"test1\",\"type\":\"VARCHAR\",\"value\":\"1\"}]");
+        taskInstance1.setEndTime(new Date());
+
+        TaskInstance taskInstance2 = new TaskInstance();
+        taskInstance2.setId(2);
+        taskInstance2.setTaskCode(2);
+        taskInstance2.setEndTime(new Date());
+
+        Map<Integer, TaskInstance> taskInstanceMap = new ConcurrentHashMap<>();
+        taskInstanceMap.put(taskInstance1.getId(), taskInstance1);
+        taskInstanceMap.put(taskInstance2.getId(), taskInstance2);
+        Map<Long, Integer> completeTaskList = new ConcurrentHashMap<>();
+        completeTaskList.put(taskInstance1.getTaskCode(), taskInstance1.getId());
+        completeTaskList.put(taskInstance2.getTaskCode(), taskInstance2.getId());
+
+        Field completeTaskMapField = WorkflowExecuteRunnable.class.getDeclaredField("completeTaskMap");
+        completeTaskMapField.setAccessible(true);
+        completeTaskMapField.set(workflowExecuteThread, completeTaskList);
+        Field taskInstanceMapField = WorkflowExecuteRunnable.class.getDeclaredField("taskInstanceMap");
+        taskInstanceMapField.setAccessible(true);
+        taskInstanceMapField.set(workflowExecuteThread, taskInstanceMap);
+
+        // the previous task without var pool is visited before or after the one with var pool
+        for (List<String> preTaskOrder : Arrays.asList(Arrays.asList("1", "2"), Arrays.asList("2", "1"))) {
+            TaskInstance taskInstance = new TaskInstance();
+            workflowExecuteThread.getPreVarPool(taskInstance, new LinkedHashSet<>(preTaskOrder));
+            List<Property> properties = JSONUtils.toList(taskInstance.getVarPool(), Property.class);
+            Assert.assertEquals(1, properties.size());
+            Assert.assertEquals("test1", properties.get(0).getProp());
+            Assert.assertEquals(Direct.IN, properties.get(0).getDirect());
+        }
+    }
+
     @Test
     public void testCheckSerialProcess() {
         try {
@@ -255,6 +303,65 @@ public class WorkflowExecuteTaskTest {
         }
     }
 
+    @Test
+    public void testSubmitStandByTaskBehindBlockedTask() throws Exception {
+        // 1 -> 3, 2 -> 4, the task 3 of the highest priority waits for 1 while 2 is complete
+        List<TaskNode> taskNodes = Arrays.asList(newTaskNode(1L), newTaskNode(2L), newTaskNode(3L, "1"), newTaskNode(4L, "2"));
+        List<TaskNodeRelation> relations = Arrays.asList(new TaskNodeRelation("1", "3"), new TaskNodeRelation("2", "4"));
+        Whitebox.setInternalState(workflowExecuteThread, "dag", TaskDAG.of(taskNodes, relations));
+        Mockito.when(processInstance.getRecovery()).thenReturn(Flag.NO);
+        Whitebox.invokeMethod(workflowExecuteThread, "initTaskQueue");
+
+        TaskInstance taskInstance2 = newTaskInstance(2L, Priority.MEDIUM);
+        taskInstance2.setState(ExecutionStatus.SUCCESS);
+        taskInstance2.setEndTime(new Date());
+        TaskInstance taskInstance3 = newTaskInstance(3L, Priority.HIGHEST);
+        TaskInstance taskInstance4 = newTaskInstance(4L, Priority.LOW);
+        PowerMockito.doReturn(Optional.of(taskInstance4)).when(workflowExecuteThread, "submitTaskExec", taskInstance4);
+
+        Whitebox.invokeMethod(workflowExecuteThread, "addTaskToStandByList", taskInstance3);
+        Whitebox.invokeMethod(workflowExecuteThread, "addTaskToStandByList", taskInstance4);
+        Whitebox.invokeMethod(workflowExecuteThread, "submitStandByTask");
+        PowerMockito.verifyPrivate(workflowExecuteThread).invoke("getDependResultForTask", taskInstance3);
+        PowerMockito.verifyPrivate(workflowExecuteThread).invoke("getDependResultForTask", taskInstance4);
+        PowerMockito.verifyPrivate(workflowExecuteThread, Mockito.never()).invoke("submitTaskExec", Mockito.any(TaskInstance.class));
+
+        Map<Integer, TaskInstance> taskInstanceMap = Whitebox.getInternalState(workflowExecuteThread, "taskInstanceMap");
+        taskInstanceMap.put(taskInstance2.getId(), taskInstance2);
+        Whitebox.invokeMethod(workflowExecuteThread, "addCompleteTask", taskInstance2);
+        Whitebox.invokeMethod(workflowExecuteThread, "submitStandByTask");
+
+        // the task 4 is submitted while the blocked head of the queue is not checked again
+        PowerMockito.verifyPrivate(workflowExecuteThread).invoke("submitTaskExec", taskInstance4);
+        PowerMockito.verifyPrivate(workflowExecuteThread, Mockito.times(2)).invoke("getDependResultForTask", taskInstance4);
+        PowerMockito.verifyPrivate(workflowExecuteThread).invoke("getDependResultForTask", taskInstance3);
+        Assert.assertEquals(DependResult.WAITING, Whitebox.invokeMethod(workflowExecuteThread, "getDependResultForTask", taskInstance3));
+        PeerTaskInstancePriorityQueue readyToSubmitTaskQueue = Whitebox.getInternalState(workflowExecuteThread, "readyToSubmitTaskQueue");
+        Assert.assertTrue(readyToSubmitTaskQueue.contains(3L));
+        Assert.assertFalse(readyToSubmitTaskQueue.contains(4L));
+    }
+
+    private TaskNode newTaskNode(long code, String... depends) {
+        TaskNode taskNode = new TaskNode();
+        taskNode.setCode(code);
+        taskNode.setName("task" + code);
+        taskNode.setType("SHELL");
+        if (depends.length > 0) {
+            taskNode.setDepList(Arrays.asList(depends));
+        }
+        return taskNode;
+    }
+
+    private TaskInstance newTaskInstance(long code, Priority priority) {
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setId((int) code);
+        taskInstance.setTaskCode(code);
+        taskInstance.setName("task" + code);
+        taskInstance.setTaskInstancePriority(priority);
+        taskInstance.setState(ExecutionStatus.SUBMITTED_SUCCESS);
+        return taskInstance;
+    }
+
     private List<Schedule> zeroSchedulerList() {
         return Collections.emptyList();
     }
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.cache.impl;
+
+import org.apache.dolphinscheduler.common.enums.CacheType;
+import org.apache.dolphinscheduler.common.enums.TaskDependType;
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.server.master.cache.WorkflowDag;
+import org.apache.dolphinscheduler.server.master.config.MasterConfig;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WorkflowDagCacheManagerImplTest {
+
+    @InjectMocks
+    private WorkflowDagCacheManagerImpl workflowDagCacheManager;
+
+    @Mock
+    private ProcessService processService;
+
+    @Mock
+    private MasterConfig masterConfig;
+
+    @Before
+    public void before() {
+        Mockito.when(masterConfig.getWorkflowDagCacheMaxTaskNodes()).thenReturn(100);
+        Mockito.when(processService.transformTask(Mockito.any(), Mockito.any()))
+                .thenAnswer(invocation -> Arrays.asList(taskNode(1L, "[]"), taskNode(2L, "[\"1\"]")));
+        workflowDagCacheManager.init();
+    }
+
+    @Test
+    public void testGetWorkflowDag() throws Exception {
+        WorkflowDag workflowDag = workflowDagCacheManager.getWorkflowDag(10L, 1);
+        Assert.assertSame(workflowDag, workflowDagCacheManager.getWorkflowDag(10L, 1));
+        Mockito.verify(processService, Mockito.times(1)).transformTask(Mockito.any(), Mockito.any());
+
+        // the full dag is shared, the dag of the start nodes is built for the instance
+        Assert.assertSame(workflowDag.getDag(Collections.emptyList(), Collections.emptyList(), TaskDependType.TASK_POST),
+                workflowDag.getDag(null, null, TaskDependType.TASK_POST));
+        Assert.assertEquals(2, workflowDag.getDag(null, null, TaskDependType.TASK_POST).getNodesCount());
+        Assert.assertEquals(1, workflowDag.getDag(Collections.singletonList("2"), null, TaskDependType.TASK_POST).getNodesCount());
+    }
+
+    @Test
+    public void testExpire() throws Exception {
+        WorkflowDag workflowDag = workflowDagCacheManager.getWorkflowDag(10L, 1);
+        workflowDagCacheManager.expire(CacheType.TASK_DEFINITION, "3_1");
+        Assert.assertSame(workflowDag, workflowDagCacheManager.getWorkflowDag(10L, 1));
+
+        workflowDagCacheManager.expire(CacheType.TASK_DEFINITION, "2_1");
+        Assert.assertNotSame(workflowDag, workflowDagCacheManager.getWorkflowDag(10L, 1));
+
+        workflowDag = workflowDagCacheManager.getWorkflowDag(10L, 1);
+        workflowDagCacheManager.expire(CacheType.PROCESS_TASK_RELATION, "100_10");
+        Assert.assertNotSame(workflowDag, workflowDagCacheManager.getWorkflowDag(10L, 1));
+    }
+
+    private TaskNode taskNode(long code, String preTasks) {
+        TaskNode taskNode = new TaskNode();
+        taskNode.setCode(code);
+        taskNode.setName("task" + code);
+        taskNode.setPreTasks(preTasks);
+        return taskNode;
+    }
+}
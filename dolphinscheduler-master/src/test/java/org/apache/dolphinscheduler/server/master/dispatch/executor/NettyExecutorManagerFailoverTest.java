@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.dispatch.executor;
+
+import org.apache.dolphinscheduler.remote.NettyRemotingClient;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
+import org.apache.dolphinscheduler.remote.future.SendCallback;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.master.dispatch.context.ExecutionContext;
+import org.apache.dolphinscheduler.server.master.dispatch.enums.ExecutorType;
+import org.apache.dolphinscheduler.server.master.dispatch.exceptions.ExecuteException;
+import org.apache.dolphinscheduler.server.master.registry.ServerNodeManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.powermock.reflect.Whitebox;
+
+/**
+ * failover of the async execute of the netty executor manager
+ */
+public class NettyExecutorManagerFailoverTest {
+
+    private NettyExecutorManager nettyExecutorManager;
+
+    private NettyRemotingClient nettyRemotingClient;
+
+    private final List<String> sentHosts = new ArrayList<>();
+
+    @Before
+    public void before() throws RemotingException {
+        nettyExecutorManager = new NettyExecutorManager();
+        nettyRemotingClient = Mockito.mock(NettyRemotingClient.class);
+        Whitebox.setInternalState(nettyExecutorManager, "nettyRemotingClient", nettyRemotingClient);
+        ServerNodeManager serverNodeManager = Mockito.mock(ServerNodeManager.class);
+        Mockito.when(serverNodeManager.getWorkerGroupNodes("default"))
+                .thenReturn(new HashSet<>(Arrays.asList("127.0.0.1:1234", "127.0.0.2:1234")));
+        Whitebox.setInternalState(nettyExecutorManager, "serverNodeManager", serverNodeManager);
+    }
+
+    @Test
+    public void testExecuteAsyncFailover() throws ExecuteException, RemotingException {
+        // the selected worker is dead, the other worker of the group takes the task
+        Mockito.doAnswer(invocation -> {
+            Host host = invocation.getArgument(0);
+            sentHosts.add(host.getAddress());
+            SendCallback callback = invocation.getArgument(2);
+            if ("127.0.0.1:1234".equals(host.getAddress())) {
+                callback.onFailure(new RemotingException("connection refused"));
+            } else {
+                callback.onSuccess();
+            }
+            return null;
+        }).when(nettyRemotingClient).sendAsync(ArgumentMatchers.any(Host.class), ArgumentMatchers.any(Command.class),
+                ArgumentMatchers.any(SendCallback.class));
+
+        ExecutionContext context = createContext("127.0.0.1:1234");
+        AtomicBoolean success = new AtomicBoolean();
+        nettyExecutorManager.executeAsync(context, new SendCallback() {
+            @Override
+            public void onSuccess() {
+                success.set(true);
+            }
+
+            @Override
+            public void onFailure(Throwable cause) {
+                Assert.fail("the other worker is alive");
+            }
+        });
+        Assert.assertTrue(success.get());
+        Assert.assertEquals(Arrays.asList("127.0.0.1:1234", "127.0.0.2:1234"), sentHosts);
+        Assert.assertEquals("127.0.0.2:1234", context.getHost().getAddress());
+    }
+
+    @Test
+    public void testExecuteAsyncAllFailed() throws ExecuteException, RemotingException {
+        Mockito.doAnswer(invocation -> {
+            Host host = invocation.getArgument(0);
+            sentHosts.add(host.getAddress());
+            throw new RemotingException("connect to " + host + " fail");
+        }).when(nettyRemotingClient).sendAsync(ArgumentMatchers.any(Host.class), ArgumentMatchers.any(Command.class),
+                ArgumentMatchers.any(SendCallback.class));
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        nettyExecutorManager.executeAsync(createContext("127.0.0.2:1234"), new SendCallback() {
+            @Override
+            public void onSuccess() {
+                Assert.fail("all the workers are dead");
+            }
+
+            @Override
+            public void onFailure(Throwable cause) {
+                failure.set(cause);
+            }
+        });
+        Assert.assertNotNull(failure.get());
+        Assert.assertEquals(Arrays.asList("127.0.0.2:1234", "127.0.0.1:1234"), sentHosts);
+    }
+
+    private ExecutionContext createContext(String host) {
+        Command command = new Command();
+        command.setType(CommandType.TASK_EXECUTE_REQUEST);
+        ExecutionContext context = new ExecutionContext(command, ExecutorType.WORKER, "default");
+        context.setHost(Host.of(host));
+        return context;
+    }
+}
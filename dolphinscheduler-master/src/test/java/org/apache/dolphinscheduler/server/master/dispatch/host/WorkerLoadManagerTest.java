@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.dispatch.host;
+
+import org.apache.dolphinscheduler.common.model.WorkerLoad;
+
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class WorkerLoadManagerTest {
+
+    private static final String HOST = "192.168.1.1:1234";
+
+    @Test
+    public void testPredictQueueWaitTime() {
+        WorkerLoadManager workerLoadManager = new WorkerLoadManager();
+        Assert.assertEquals(0, workerLoadManager.predictQueueWaitTime(HOST), 0.001);
+
+        workerLoadManager.update(new WorkerLoad(HOST, 1, 0, 2, 0.5, 1000L));
+        Assert.assertEquals(0, workerLoadManager.predictQueueWaitTime(HOST), 0.001);
+
+        // the dispatched tasks are counted until the next load
+        workerLoadManager.dispatched(HOST);
+        Assert.assertEquals(2, workerLoadManager.predictQueueWaitTime(HOST), 0.001);
+        workerLoadManager.dispatched(HOST);
+        Assert.assertEquals(4, workerLoadManager.predictQueueWaitTime(HOST), 0.001);
+
+        workerLoadManager.update(new WorkerLoad(HOST, 2, 0, 2, 0, 2000L));
+        Assert.assertEquals(1 / WorkerLoadManager.MIN_TASK_COMPLETION_RATE, workerLoadManager.predictQueueWaitTime(HOST), 0.001);
+    }
+
+    @Test
+    public void testIgnoreOlderLoad() {
+        WorkerLoadManager workerLoadManager = new WorkerLoadManager();
+        workerLoadManager.update(new WorkerLoad(HOST, 0, 0, 1, 1, 2000L));
+        workerLoadManager.update(new WorkerLoad(HOST, 1, 5, 1, 1, 1000L));
+        Assert.assertEquals(0, workerLoadManager.predictQueueWaitTime(HOST), 0.001);
+
+        workerLoadManager.retain(Collections.emptySet());
+        workerLoadManager.dispatched(HOST);
+        Assert.assertEquals(0, workerLoadManager.predictQueueWaitTime(HOST), 0.001);
+    }
+}
@@ -19,6 +19,9 @@ package org.apache.dolphinscheduler.server.master.dispatch.host.assign;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -72,4 +75,22 @@ public class LowerWeightRoundRobinTest {
         result = roundRobin.select(sources);
         Assert.assertEquals("192.158.2.1", result.getHost().getIp());
     }
+
+    @Test
+    public void testSelectByPredictedWaitTime() {
+        List<HostWeight> sources = new ArrayList<>();
+        sources.add(new HostWeight(HostWorker.of("192.158.2.1:11", 100, "default"), 0.06, 0.44, 3.84, 0, System.currentTimeMillis() - 60 * 8 * 1000));
+        sources.add(new HostWeight(HostWorker.of("192.158.2.2:22", 100, "default"), 0.06, 0.56, 3.24, 0, System.currentTimeMillis() - 60 * 5 * 1000));
+
+        // the first host has the lower weight, but a new task is predicted to wait on it
+        Map<HostWeight, Double> predictedWaitTimes = new HashMap<>();
+        predictedWaitTimes.put(sources.get(0), 5D);
+        predictedWaitTimes.put(sources.get(1), 0D);
+
+        LowerWeightRoundRobin roundRobin = new LowerWeightRoundRobin();
+        Assert.assertEquals("192.158.2.2", roundRobin.select(sources, predictedWaitTimes).getHost().getIp());
+        Assert.assertEquals("192.158.2.2", roundRobin.select(sources, predictedWaitTimes).getHost().getIp());
+        // the prediction is not kept by the hosts
+        Assert.assertEquals("192.158.2.1", roundRobin.select(sources).getHost().getIp());
+    }
 }
@@ -21,6 +21,7 @@ import org.apache.dolphinscheduler.common.enums.CacheType;
 import org.apache.dolphinscheduler.dao.entity.Tenant;
 import org.apache.dolphinscheduler.remote.command.CacheExpireCommand;
 import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.server.master.cache.WorkflowDagCacheManager;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -51,6 +52,9 @@ public class CacheProcessorTest {
     @Mock
     private Cache cache;
 
+    @Mock
+    private WorkflowDagCacheManager workflowDagCacheManager;
+
     @Before
     public void before() {
         Mockito.when(cacheManager.getCache(CacheType.TENANT.getCacheName())).thenReturn(cache);
@@ -64,5 +68,6 @@ public class CacheProcessorTest {
         Command command = cacheExpireCommand.convert2Command();
 
         cacheProcessor.process(channel, command);
+        Mockito.verify(workflowDagCacheManager).expire(CacheType.TENANT, "1");
     }
 }
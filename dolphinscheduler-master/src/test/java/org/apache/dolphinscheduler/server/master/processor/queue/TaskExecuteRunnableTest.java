@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.processor.queue;
+
+import org.apache.dolphinscheduler.common.enums.StateEvent;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseAckCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRunningCommand;
+import org.apache.dolphinscheduler.remote.command.TaskRecallCommand;
+import org.apache.dolphinscheduler.server.master.cache.ProcessInstanceExecCacheManager;
+import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteRunnable;
+import org.apache.dolphinscheduler.server.master.runner.WorkflowExecuteThreadPool;
+import org.apache.dolphinscheduler.server.utils.DataQualityResultOperator;
+import org.apache.dolphinscheduler.service.process.ProcessService;
+
+import java.net.InetSocketAddress;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import io.netty.channel.Channel;
+
+@RunWith(MockitoJUnitRunner.class)
+public class TaskExecuteRunnableTest {
+
+    @Mock
+    private ProcessService processService;
+
+    @Mock
+    private WorkflowExecuteThreadPool workflowExecuteThreadPool;
+
+    @Mock
+    private ProcessInstanceExecCacheManager processInstanceExecCacheManager;
+
+    @Mock
+    private DataQualityResultOperator dataQualityResultOperator;
+
+    @Mock
+    private Channel channel;
+
+    private TaskExecuteRunnable taskExecuteRunnable;
+
+    private TaskInstance taskInstance;
+
+    @Before
+    public void before() {
+        Mockito.when(channel.remoteAddress()).thenReturn(InetSocketAddress.createUnresolved("127.0.0.1", 1234));
+        taskInstance = new TaskInstance();
+        taskInstance.setId(22);
+        taskInstance.setState(ExecutionStatus.DISPATCH);
+        Mockito.when(processService.findTaskInstanceById(22)).thenReturn(taskInstance);
+
+        taskExecuteRunnable = new TaskExecuteRunnable(1, processService, workflowExecuteThreadPool,
+                processInstanceExecCacheManager, dataQualityResultOperator);
+        taskExecuteRunnable.addEvent(newRunningEvent());
+        taskExecuteRunnable.addEvent(newResultEvent());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testPersistInOneBatch() {
+        taskExecuteRunnable.run();
+
+        Assert.assertTrue(taskExecuteRunnable.isEmpty());
+        Mockito.verify(processService, Mockito.times(1)).findTaskInstanceById(22);
+        ArgumentCaptor<List<TaskInstance>> captor = ArgumentCaptor.forClass(List.class);
+        Mockito.verify(processService).batchUpdateTaskInstance(captor.capture());
+        Assert.assertEquals(Collections.singletonList(taskInstance), captor.getValue());
+        Assert.assertEquals(ExecutionStatus.SUCCESS, taskInstance.getState());
+        Mockito.verify(channel, Mockito.times(2)).writeAndFlush(Mockito.any(Command.class));
+        Mockito.verify(workflowExecuteThreadPool, Mockito.times(2)).submitStateEvent(Mockito.any(StateEvent.class));
+    }
+
+    @Test
+    public void testCommitFailure() {
+        Mockito.doThrow(new RuntimeException("commit error")).when(processService).batchUpdateTaskInstance(Mockito.anyList());
+
+        taskExecuteRunnable.run();
+
+        ArgumentCaptor<Command> captor = ArgumentCaptor.forClass(Command.class);
+        Mockito.verify(channel, Mockito.times(2)).writeAndFlush(captor.capture());
+        TaskExecuteResponseAckCommand ackCommand = captor.getValue().getBody(TaskExecuteResponseAckCommand.class);
+        Assert.assertEquals(ExecutionStatus.FAILURE.getCode(), ackCommand.getStatus());
+        Mockito.verify(workflowExecuteThreadPool, Mockito.never()).submitStateEvent(Mockito.any(StateEvent.class));
+    }
+
+    @Test
+    public void testResubmitAfterCommit() throws Exception {
+        WorkflowExecuteRunnable workflowExecuteRunnable = Mockito.mock(WorkflowExecuteRunnable.class);
+        Mockito.when(processInstanceExecCacheManager.getByProcessInstanceId(1)).thenReturn(workflowExecuteRunnable);
+        Mockito.doThrow(new RuntimeException("commit error"))
+                .doNothing()
+                .when(processService).batchUpdateTaskInstance(Mockito.anyList());
+
+        // the rejected task is not resubmitted when the batch is not committed
+        taskExecuteRunnable.addEvent(newRecallEvent());
+        taskExecuteRunnable.run();
+        Mockito.verify(workflowExecuteRunnable, Mockito.never()).resubmit(Mockito.anyLong());
+
+        taskExecuteRunnable.addEvent(newRunningEvent());
+        taskExecuteRunnable.addEvent(newRecallEvent());
+        taskExecuteRunnable.run();
+        Mockito.verify(workflowExecuteRunnable, Mockito.times(1)).resubmit(taskInstance.getTaskCode());
+    }
+
+    private TaskEvent newRecallEvent() {
+        TaskRecallCommand taskRecallCommand = new TaskRecallCommand();
+        taskRecallCommand.setProcessInstanceId(1);
+        taskRecallCommand.setTaskInstanceId(22);
+        return TaskEvent.newRecallEvent(taskRecallCommand, channel);
+    }
+
+    private TaskEvent newRunningEvent() {
+        TaskExecuteRunningCommand taskExecuteRunningCommand = new TaskExecuteRunningCommand();
+        taskExecuteRunningCommand.setProcessInstanceId(1);
+        taskExecuteRunningCommand.setTaskInstanceId(22);
+        taskExecuteRunningCommand.setStatus(ExecutionStatus.RUNNING_EXECUTION.getCode());
+        taskExecuteRunningCommand.setStartTime(new Date());
+        return TaskEvent.newRunningEvent(taskExecuteRunningCommand, channel);
+    }
+
+    private TaskEvent newResultEvent() {
+        TaskExecuteResponseCommand taskExecuteResponseCommand = new TaskExecuteResponseCommand();
+        taskExecuteResponseCommand.setProcessInstanceId(1);
+        taskExecuteResponseCommand.setTaskInstanceId(22);
+        taskExecuteResponseCommand.setStatus(ExecutionStatus.SUCCESS.getCode());
+        taskExecuteResponseCommand.setEndTime(new Date());
+        return TaskEvent.newResultEvent(taskExecuteResponseCommand, channel);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.registry;
+
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+
+public class ServerTopologyTest {
+
+    @Test
+    public void testSnapshotIsNotChanged() {
+        ServerTopology topology = ServerTopology.EMPTY.withWorkerGroupNodes("default", Sets.newHashSet("127.0.0.1:1234"));
+        ServerTopology newTopology = topology.withWorkerGroupNodes("default", Sets.newHashSet("127.0.0.1:1234", "127.0.0.2:1234"));
+
+        Assert.assertEquals(topology.getVersion() + 1, newTopology.getVersion());
+        Assert.assertEquals(1, topology.getWorkerGroupNodes("default").size());
+        Assert.assertEquals(2, newTopology.getWorkerGroupNodes("default").size());
+        Assert.assertNull(ServerTopology.EMPTY.getWorkerGroupNodes("default"));
+    }
+
+    @Test
+    public void testGetChangedWorkerGroups() {
+        ServerTopology topology = ServerTopology.EMPTY
+                .withWorkerGroupNodes("default", Sets.newHashSet("127.0.0.1:1234"))
+                .withWorkerGroupNodes("other", Sets.newHashSet("127.0.0.2:1234"))
+                .withWorkerNodeInfo(ImmutableMap.of("127.0.0.1:1234", "heartbeat1", "127.0.0.2:1234", "heartbeat2"));
+        Assert.assertEquals(Sets.newHashSet("default", "other"), topology.getChangedWorkerGroups(ServerTopology.EMPTY));
+
+        // the same nodes and info
+        ServerTopology synced = topology.withWorkerGroupNodes("default", Sets.newHashSet("127.0.0.1:1234"));
+        Assert.assertEquals(Collections.emptySet(), synced.getChangedWorkerGroups(topology));
+
+        // the info of a node is changed
+        ServerTopology updated = topology.withWorkerNodeInfo("127.0.0.2:1234", "heartbeat3");
+        Assert.assertEquals(Sets.newHashSet("other"), updated.getChangedWorkerGroups(topology));
+
+        // the nodes of a group are changed
+        ServerTopology removed = topology.withWorkerGroupNodes("default", Collections.emptySet());
+        Assert.assertEquals(Sets.newHashSet("default"), removed.getChangedWorkerGroups(topology));
+    }
+}
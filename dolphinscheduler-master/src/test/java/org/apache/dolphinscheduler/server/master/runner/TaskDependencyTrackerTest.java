@@ -0,0 +1,180 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner;
+
+import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.graph.TaskDAG;
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.dao.entity.TaskInstance;
+import org.apache.dolphinscheduler.plugin.task.api.TaskConstants;
+import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
+import org.apache.dolphinscheduler.plugin.task.api.model.SwitchResultVo;
+import org.apache.dolphinscheduler.plugin.task.api.parameters.ConditionsParameters;
+import org.apache.dolphinscheduler.plugin.task.api.parameters.SwitchParameters;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TaskDependencyTrackerTest {
+
+    @Test
+    public void testParsePostNodes() {
+        // 1 -> 3, 2 -> 3, 3 -> 4(forbidden), 4 -> 5
+        List<TaskNode> taskNodes = Arrays.asList(
+                newTaskNode(1L), newTaskNode(2L), newTaskNode(3L, "1", "2"), newTaskNode(4L, "3"), newTaskNode(5L, "4"));
+        taskNodes.get(3).setRunFlag(Constants.FLOWNODE_RUN_FLAG_FORBIDDEN);
+        TaskDependencyTracker tracker = new TaskDependencyTracker(buildDag(taskNodes));
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("1", "2")), tracker.parsePostNodes(null));
+
+        tracker.complete(newTaskInstance(1L, ExecutionStatus.SUCCESS));
+        Assert.assertTrue(tracker.parsePostNodes("1").isEmpty());
+
+        tracker.complete(newTaskInstance(2L, ExecutionStatus.SUCCESS));
+        Assert.assertEquals(Collections.singleton("3"), tracker.parsePostNodes("2"));
+
+        // the forbidden task is passed through
+        tracker.complete(newTaskInstance(3L, ExecutionStatus.SUCCESS));
+        Assert.assertEquals(Collections.singleton("5"), tracker.parsePostNodes("3"));
+        Assert.assertTrue(tracker.isComplete("3"));
+        Assert.assertFalse(tracker.isComplete("5"));
+    }
+
+    @Test
+    public void testConditionBranch() {
+        // 1(conditions) -> 2 on success, 1 -> 3 on failure, 3 -> 4, 2 -> 5, 3 -> 5
+        TaskNode conditionNode = newTaskNode(1L);
+        conditionNode.setType(TaskConstants.TASK_TYPE_CONDITIONS);
+        ConditionsParameters conditionsParameters = new ConditionsParameters();
+        conditionsParameters.setSuccessNode(Collections.singletonList("2"));
+        conditionsParameters.setFailedNode(Collections.singletonList("3"));
+        conditionNode.setConditionResult(JSONUtils.toJsonString(conditionsParameters));
+        List<TaskNode> taskNodes = Arrays.asList(
+                conditionNode, newTaskNode(2L, "1"), newTaskNode(3L, "1"), newTaskNode(4L, "3"), newTaskNode(5L, "2", "3"));
+        TaskDependencyTracker tracker = new TaskDependencyTracker(buildDag(taskNodes));
+
+        Assert.assertEquals(Collections.singleton("1"), tracker.parsePostNodes(null));
+        Assert.assertTrue(tracker.getBranch("1").isEmpty());
+
+        tracker.complete(newTaskInstance(1L, ExecutionStatus.SUCCESS));
+        Assert.assertEquals(Collections.singleton("2"), tracker.parsePostNodes("1"));
+        Assert.assertEquals(Collections.singletonList("2"), tracker.getBranch("1"));
+        // the failed branch and the tasks depending only on it are skipped
+        Assert.assertTrue(tracker.isSkipped("3"));
+        Assert.assertTrue(tracker.isSkipped("4"));
+        Assert.assertFalse(tracker.isSkipped("5"));
+
+        tracker.complete(newTaskInstance(2L, ExecutionStatus.SUCCESS));
+        Assert.assertEquals(Collections.singleton("5"), tracker.parsePostNodes("2"));
+    }
+
+    @Test
+    public void testSwitchBranch() {
+        // 1(switch) -> 2, 3 or 4, 2 -> 5, 3 -> 6, 4 -> 6, 4 -> 7
+        TaskNode switchNode = newTaskNode(1L);
+        switchNode.setType(TaskConstants.TASK_TYPE_SWITCH);
+        List<TaskNode> taskNodes = Arrays.asList(switchNode, newTaskNode(2L, "1"), newTaskNode(3L, "1"), newTaskNode(4L, "1"),
+                newTaskNode(5L, "2"), newTaskNode(6L, "3", "4"), newTaskNode(7L, "4"));
+        TaskDependencyTracker tracker = new TaskDependencyTracker(buildDag(taskNodes));
+
+        List<SwitchResultVo> dependTaskList = new ArrayList<>();
+        for (String nextNode : Arrays.asList("2", "3", "4")) {
+            SwitchResultVo switchResultVo = new SwitchResultVo();
+            switchResultVo.setNextNode(nextNode);
+            dependTaskList.add(switchResultVo);
+        }
+        SwitchParameters switchParameters = new SwitchParameters();
+        switchParameters.setDependTaskList(dependTaskList);
+        switchParameters.setResultConditionLocation(1);
+        TaskInstance switchTaskInstance = newTaskInstance(1L, ExecutionStatus.SUCCESS);
+        switchTaskInstance.setTaskType(TaskConstants.TASK_TYPE_SWITCH);
+        switchTaskInstance.setTaskParams("{}");
+        switchTaskInstance.setSwitchDependency(switchParameters);
+
+        Assert.assertEquals(Collections.singleton("1"), tracker.parsePostNodes(null));
+        tracker.complete(switchTaskInstance);
+        Assert.assertEquals(Collections.singleton("3"), tracker.parsePostNodes("1"));
+        Assert.assertEquals(Collections.singletonList("3"), tracker.getBranch("1"));
+        // the other branches and the tasks depending only on them are skipped
+        Assert.assertTrue(tracker.isSkipped("2"));
+        Assert.assertTrue(tracker.isSkipped("4"));
+        Assert.assertTrue(tracker.isSkipped("5"));
+        Assert.assertTrue(tracker.isSkipped("7"));
+        Assert.assertFalse(tracker.isSkipped("3"));
+        Assert.assertFalse(tracker.isSkipped("6"));
+        // the switch parameters are not changed by parsing the branch
+        Assert.assertEquals(3, switchTaskInstance.getSwitchDependency().getDependTaskList().size());
+
+        tracker.complete(newTaskInstance(3L, ExecutionStatus.SUCCESS));
+        Assert.assertEquals(Collections.singleton("6"), tracker.parsePostNodes("3"));
+    }
+
+    @Test
+    public void testDependChangeListener() {
+        // 1 -> 2(forbidden) -> 3, 1 -> 4
+        List<TaskNode> taskNodes = Arrays.asList(
+                newTaskNode(1L), newTaskNode(2L, "1"), newTaskNode(3L, "2"), newTaskNode(4L, "1"));
+        taskNodes.get(1).setRunFlag(Constants.FLOWNODE_RUN_FLAG_FORBIDDEN);
+        Set<Long> changedTaskCodes = new HashSet<>();
+        TaskDependencyTracker tracker = new TaskDependencyTracker(buildDag(taskNodes), changedTaskCodes::add);
+
+        tracker.complete(newTaskInstance(1L, ExecutionStatus.SUCCESS));
+        // the successor of the forbidden task is notified
+        Assert.assertEquals(new HashSet<>(Arrays.asList(3L, 4L)), changedTaskCodes);
+    }
+
+    private TaskDAG buildDag(List<TaskNode> taskNodes) {
+        List<TaskNodeRelation> relations = new ArrayList<>();
+        for (TaskNode taskNode : taskNodes) {
+            if (taskNode.getDepList() != null) {
+                for (String depend : taskNode.getDepList()) {
+                    relations.add(new TaskNodeRelation(depend, Long.toString(taskNode.getCode())));
+                }
+            }
+        }
+        return TaskDAG.of(taskNodes, relations);
+    }
+
+    private TaskNode newTaskNode(long code, String... depends) {
+        TaskNode taskNode = new TaskNode();
+        taskNode.setCode(code);
+        taskNode.setName("task" + code);
+        taskNode.setType("SHELL");
+        if (depends.length > 0) {
+            taskNode.setDepList(Arrays.asList(depends));
+        }
+        return taskNode;
+    }
+
+    private TaskInstance newTaskInstance(long code, ExecutionStatus state) {
+        TaskInstance taskInstance = new TaskInstance();
+        taskInstance.setId((int) code);
+        taskInstance.setTaskCode(code);
+        taskInstance.setState(state);
+        return taskInstance;
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.plugin.task.api.enums.Direct;
+import org.apache.dolphinscheduler.plugin.task.api.model.Property;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class VarPoolTest {
+
+    @Test
+    public void testParse() {
+        Assert.assertSame(VarPool.EMPTY, VarPool.parse(null));
+        Assert.assertSame(VarPool.EMPTY, VarPool.parse("[]"));
+
+        String json = "[{\"direct\":\"OUT\",\"prop\":\"a\",\"type\":\"VARCHAR\",\"value\":\"\"},"
+                + "{\"direct\":\"OUT\",\"prop\":\"a\",\"type\":\"VARCHAR\",\"value\":\"1\"},"
+                + "{\"direct\":\"OUT\",\"prop\":\"a\",\"type\":\"VARCHAR\",\"value\":\"2\"},"
+                + "{\"direct\":\"OUT\",\"prop\":\"b\",\"type\":\"VARCHAR\",\"value\":\"3\"}]";
+        VarPool varPool = VarPool.parse(json);
+        Assert.assertEquals(2, varPool.getProperties().size());
+        Assert.assertEquals("1", varPool.getProperties().get("a").getValue());
+        Assert.assertTrue(varPool.isParsedFrom(json));
+        // the parsed json is not serialized again
+        Assert.assertSame(json, varPool.toJson());
+    }
+
+    @Test
+    public void testMerge() {
+        VarPool varPool1 = VarPool.parse("[{\"direct\":\"OUT\",\"prop\":\"a\",\"type\":\"VARCHAR\",\"value\":\"1\"},"
+                + "{\"direct\":\"OUT\",\"prop\":\"b\",\"type\":\"VARCHAR\",\"value\":\"1\"}]");
+        VarPool varPool2 = VarPool.parse("[{\"direct\":\"OUT\",\"prop\":\"b\",\"type\":\"VARCHAR\",\"value\":\"2\"}]");
+
+        Assert.assertSame(varPool1, varPool1.merge(VarPool.EMPTY));
+        Assert.assertSame(varPool1, VarPool.EMPTY.merge(varPool1));
+
+        VarPool merged = varPool1.merge(varPool2);
+        Assert.assertEquals("1", merged.getProperties().get("a").getValue());
+        Assert.assertEquals("2", merged.getProperties().get("b").getValue());
+        Assert.assertEquals("1", varPool1.getProperties().get("b").getValue());
+
+        String json = merged.toJson();
+        Assert.assertTrue(merged.isParsedFrom(json));
+        Assert.assertEquals(merged, VarPool.parse(json));
+    }
+
+    @Test
+    public void testAsInput() {
+        VarPool varPool = VarPool.parse("[{\"direct\":\"OUT\",\"prop\":\"a\",\"type\":\"VARCHAR\",\"value\":\"1\"}]");
+        VarPool input = varPool.asInput();
+
+        Assert.assertSame(input, varPool.asInput());
+        Assert.assertSame(input, input.asInput());
+        Assert.assertEquals(Direct.IN, input.getProperties().get("a").getDirect());
+        Assert.assertEquals(Direct.OUT, varPool.getProperties().get("a").getDirect());
+
+        List<Property> properties = JSONUtils.toList(input.toJson(), Property.class);
+        Assert.assertEquals(1, properties.size());
+        Assert.assertEquals(Direct.IN, properties.get(0).getDirect());
+    }
+}
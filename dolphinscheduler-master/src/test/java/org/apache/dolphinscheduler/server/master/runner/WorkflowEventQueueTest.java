@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.master.runner;
+
+import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+@RunWith(MockitoJUnitRunner.class)
+public class WorkflowEventQueueTest {
+
+    private WorkflowEventQueue workflowEventQueue;
+
+    @Mock
+    private WorkflowExecuteRunnable workflowExecuteThread;
+
+    @Before
+    public void before() {
+        ProcessInstance processInstance = new ProcessInstance();
+        processInstance.setId(1);
+        Mockito.when(workflowExecuteThread.getProcessInstance()).thenReturn(processInstance);
+        workflowEventQueue = new WorkflowEventQueue();
+    }
+
+    @Test
+    public void testSignalOnce() throws InterruptedException {
+        workflowEventQueue.signal(workflowExecuteThread);
+        workflowEventQueue.signal(workflowExecuteThread);
+        Assert.assertEquals(1, workflowEventQueue.size());
+
+        Assert.assertSame(workflowExecuteThread, workflowEventQueue.poll(1, TimeUnit.MILLISECONDS));
+        Assert.assertNull(workflowEventQueue.poll(1, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testSignalAfterPoll() throws InterruptedException {
+        workflowEventQueue.signal(workflowExecuteThread);
+        workflowEventQueue.poll(1, TimeUnit.MILLISECONDS);
+
+        workflowEventQueue.signal(workflowExecuteThread);
+        Assert.assertEquals(1, workflowEventQueue.size());
+    }
+}
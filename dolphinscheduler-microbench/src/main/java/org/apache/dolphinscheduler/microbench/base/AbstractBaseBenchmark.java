@@ -26,6 +26,7 @@ import org.openjdk.jmh.annotations.Measurement;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.results.format.ResultFormatType;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
@@ -71,6 +72,11 @@ public abstract class AbstractBaseBenchmark {
             optBuilder.forks(getForks());
         }
 
+        if (Boolean.getBoolean("gcProfiler")) {
+            // report the allocation rate
+            optBuilder.addProfiler(GCProfiler.class);
+        }
+
         String output = getReportDir();
         if (output != null) {
             boolean writeFileStatus;
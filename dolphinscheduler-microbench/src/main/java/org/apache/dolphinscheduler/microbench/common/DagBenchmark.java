@@ -0,0 +1,173 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.common;
+
+import org.apache.dolphinscheduler.common.graph.DAG;
+import org.apache.dolphinscheduler.common.graph.TaskDAG;
+import org.apache.dolphinscheduler.common.model.TaskNode;
+import org.apache.dolphinscheduler.common.model.TaskNodeRelation;
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compare the mutable DAG with the immutable TaskDAG on the reads done by WorkflowExecuteRunnable
+ * when a task is finished: the begin/end node check and the previous nodes of the task.
+ */
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 4, time = 1)
+@State(Scope.Benchmark)
+public class DagBenchmark extends AbstractBaseBenchmark {
+
+    /**
+     * max predecessors of a node
+     */
+    private static final int MAX_PREDECESSORS = 3;
+
+    @Param({"1000", "10000"})
+    private int nodeCount;
+
+    private List<TaskNode> taskNodes;
+
+    private List<TaskNodeRelation> relations;
+
+    private DAG<String, TaskNode, TaskNodeRelation> dag;
+
+    private TaskDAG taskDag;
+
+    private String[] nodeCodes;
+
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(nodeCount);
+        taskNodes = new ArrayList<>(nodeCount);
+        relations = new ArrayList<>();
+        nodeCodes = new String[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            TaskNode taskNode = new TaskNode();
+            taskNode.setCode(1_000_000_000L + i);
+            taskNodes.add(taskNode);
+            nodeCodes[i] = Long.toString(taskNode.getCode());
+            // a random layered graph, every node depends on some of the former ones
+            if (i > 0 && random.nextInt(10) > 0) {
+                int predecessors = 1 + random.nextInt(MAX_PREDECESSORS);
+                for (int p = 0; p < predecessors; p++) {
+                    relations.add(new TaskNodeRelation(nodeCodes[random.nextInt(i)], nodeCodes[i]));
+                }
+            }
+        }
+        dag = buildDag();
+        taskDag = TaskDAG.of(taskNodes, relations);
+        next = 0;
+    }
+
+    private DAG<String, TaskNode, TaskNodeRelation> buildDag() {
+        DAG<String, TaskNode, TaskNodeRelation> graph = new DAG<>();
+        for (TaskNode taskNode : taskNodes) {
+            graph.addNode(Long.toString(taskNode.getCode()), taskNode);
+        }
+        for (TaskNodeRelation relation : relations) {
+            graph.addEdge(relation.getStartNode(), relation.getEndNode());
+        }
+        return graph;
+    }
+
+    private String nextNode() {
+        String node = nodeCodes[next];
+        next = (next + 1) % nodeCount;
+        return node;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public DAG<String, TaskNode, TaskNodeRelation> dagBuild() {
+        return buildDag();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public TaskDAG taskDagBuild() {
+        return TaskDAG.of(taskNodes, relations);
+    }
+
+    /**
+     * isTaskDepsComplete and submitPostNode check the begin and end nodes for each finished task
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean dagBeginEndNode() {
+        String node = nextNode();
+        return dag.getBeginNode().contains(node) || dag.getEndNode().contains(node);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean taskDagBeginEndNode() {
+        String node = nextNode();
+        return taskDag.getBeginNode().contains(node) || taskDag.getEndNode().contains(node);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int dagPreviousNodes() {
+        return dag.getPreviousNodes(nextNode()).size();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public int taskDagPreviousNodes() {
+        return taskDag.getPreviousNodes(nextNode()).size();
+    }
+
+    /**
+     * walk the predecessors by the int indexes, without building the set of codes
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long taskDagPredecessorIndexes() {
+        int index = taskDag.indexOf(Long.parseLong(nextNode()));
+        long sum = 0;
+        for (int i = 0; i < taskDag.getIndegree(index); i++) {
+            sum += taskDag.getCode(taskDag.getPredecessor(index, i));
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.common;
+
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.remote.codec.NettyDecoder;
+import org.apache.dolphinscheduler.remote.codec.NettyEncoder;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+/**
+ * Encode and decode throughput of the remoting codec, run with -DgcProfiler=true to get the allocation rate.
+ * The decode benchmark delivers the frame in 64KB reads, as the large log frames arrive from the network.
+ */
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 4, time = 1)
+@State(Scope.Benchmark)
+public class RemotingCodecBenchmark extends AbstractBaseBenchmark {
+
+    private static final int READ_SIZE = 64 * 1024;
+
+    @Param({"256", "65536", "4194304"})
+    private int bodySize;
+
+    private Command command;
+
+    private ByteBuf frame;
+
+    private EmbeddedChannel encodeChannel;
+
+    private EmbeddedChannel decodeChannel;
+
+    @Setup
+    public void setUp() {
+        command = new Command();
+        command.setType(CommandType.GET_LOG_BYTES_RESPONSE);
+        byte[] body = new byte[bodySize];
+        Arrays.fill(body, (byte) 'a');
+        command.setBody(body);
+
+        encodeChannel = new EmbeddedChannel(new NettyEncoder());
+        decodeChannel = new EmbeddedChannel(new NettyDecoder());
+        encodeChannel.writeOutbound(command);
+        frame = encodeChannel.readOutbound();
+    }
+
+    @TearDown
+    public void tearDown() {
+        frame.release();
+        encodeChannel.finishAndReleaseAll();
+        decodeChannel.finishAndReleaseAll();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public int encode() {
+        encodeChannel.writeOutbound(command);
+        ByteBuf encoded = encodeChannel.readOutbound();
+        int length = encoded.readableBytes();
+        encoded.release();
+        return length;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public Command decode() {
+        ByteBuf input = frame.duplicate();
+        while (input.isReadable()) {
+            decodeChannel.writeInbound(input.readRetainedSlice(Math.min(READ_SIZE, input.readableBytes())));
+        }
+        return decodeChannel.readInbound();
+    }
+}
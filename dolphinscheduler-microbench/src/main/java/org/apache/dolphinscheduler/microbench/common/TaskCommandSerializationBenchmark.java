@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.common;
+
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.plugin.task.api.enums.DataType;
+import org.apache.dolphinscheduler.plugin.task.api.enums.Direct;
+import org.apache.dolphinscheduler.plugin.task.api.model.Property;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRequestCommand;
+import org.apache.dolphinscheduler.remote.utils.ProtostuffSerializer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Serialization of the task execute request with a large var pool and a large resource map.
+ * The json path is the double encoded context string inside the command json, as it was sent before.
+ */
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 4, time = 1)
+@State(Scope.Benchmark)
+public class TaskCommandSerializationBenchmark extends AbstractBaseBenchmark {
+
+    private static final int PROPERTY_SIZE = 100;
+
+    private static final int RESOURCE_SIZE = 200;
+
+    private TaskExecutionContext taskExecutionContext;
+
+    private byte[] jsonBody;
+
+    private byte[] protostuffBody;
+
+    @Setup
+    public void setUp() {
+        taskExecutionContext = createTaskExecutionContext();
+        jsonBody = serializeJson();
+        protostuffBody = serializeProtostuff();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public byte[] serializeJson() {
+        TaskExecuteRequestCommand requestCommand = new TaskExecuteRequestCommand(JSONUtils.toJsonString(taskExecutionContext));
+        return JSONUtils.toJsonByteArray(requestCommand);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public TaskExecutionContext deserializeJson() {
+        TaskExecuteRequestCommand requestCommand = JSONUtils.parseObject(jsonBody, TaskExecuteRequestCommand.class);
+        return requestCommand.getExecutionContext();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public byte[] serializeProtostuff() {
+        return ProtostuffSerializer.serialize(new TaskExecuteRequestCommand(taskExecutionContext));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public TaskExecutionContext deserializeProtostuff() {
+        return ProtostuffSerializer.deserialize(protostuffBody, TaskExecuteRequestCommand.class).getExecutionContext();
+    }
+
+    private TaskExecutionContext createTaskExecutionContext() {
+        TaskExecutionContext context = new TaskExecutionContext();
+        context.setTaskInstanceId(1);
+        context.setTaskName("shell");
+        context.setTaskType("SHELL");
+        context.setProcessInstanceId(1);
+        context.setProcessDefineCode(1L);
+        context.setProjectCode(1L);
+        context.setFirstSubmitTime(new Date());
+        context.setStartTime(new Date());
+        context.setTenantCode("tenant");
+        context.setQueue("default");
+        context.setWorkerGroup("default");
+        context.setExecutePath("/tmp/dolphinscheduler/exec/process/1/1/1/1");
+        context.setTaskParams("{\"rawScript\":\"echo ${value_0}\",\"localParams\":[],\"resourceList\":[]}");
+
+        List<Property> varPool = new ArrayList<>();
+        Map<String, String> definedParams = new HashMap<>();
+        Map<String, Property> paramsMap = new HashMap<>();
+        for (int i = 0; i < PROPERTY_SIZE; i++) {
+            Property property = new Property("value_" + i, Direct.OUT, DataType.VARCHAR, "value of the upstream task " + i);
+            varPool.add(property);
+            definedParams.put(property.getProp(), property.getValue());
+            paramsMap.put(property.getProp(), property);
+        }
+        context.setVarPool(JSONUtils.toJsonString(varPool));
+        context.setDefinedParams(definedParams);
+        context.setParamsMap(paramsMap);
+
+        Map<String, String> resources = new HashMap<>();
+        for (int i = 0; i < RESOURCE_SIZE; i++) {
+            resources.put("/resources/scripts/script_" + i + ".sh", "tenant");
+        }
+        context.setResources(resources);
+        return context;
+    }
+}
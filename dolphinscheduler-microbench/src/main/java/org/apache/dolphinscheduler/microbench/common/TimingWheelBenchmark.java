@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.microbench.common;
+
+import org.apache.dolphinscheduler.common.timer.HierarchicalTimingWheel;
+import org.apache.dolphinscheduler.microbench.base.AbstractBaseBenchmark;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Compare the timeout check list of ConcurrentLinkedQueue which was used by StateWheelExecuteThread
+ * with the hierarchical timing wheel.
+ */
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 4, time = 1)
+@State(Scope.Benchmark)
+public class TimingWheelBenchmark extends AbstractBaseBenchmark {
+
+    private static final long TICK_MILLIS = 1000L;
+
+    private static final long TIMEOUT_MILLIS = 60 * 60 * 1000L;
+
+    @Param({"1000", "10000", "100000"})
+    private int checkSize;
+
+    private ConcurrentLinkedQueue<Long> checkQueue;
+
+    private HierarchicalTimingWheel<Long> timingWheel;
+
+    private long nextKey;
+
+    private long now;
+
+    @Setup
+    public void setUp() {
+        checkQueue = new ConcurrentLinkedQueue<>();
+        timingWheel = new HierarchicalTimingWheel<>(TICK_MILLIS, 64, 0);
+        for (long key = 0; key < checkSize; key++) {
+            checkQueue.add(key);
+            timingWheel.add(key, TIMEOUT_MILLIS + key);
+        }
+        nextKey = checkSize;
+        now = 0;
+    }
+
+    /**
+     * add a new check and remove the oldest one, as StateWheelExecuteThread does for each task
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean queueAddAndRemove() {
+        long key = nextKey++;
+        if (!checkQueue.contains(key)) {
+            checkQueue.add(key);
+        }
+        return checkQueue.remove(key - checkSize);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public boolean wheelAddAndCancel() {
+        long key = nextKey++;
+        if (!timingWheel.contains(key)) {
+            timingWheel.add(key, TIMEOUT_MILLIS + key);
+        }
+        return timingWheel.cancel(key - checkSize);
+    }
+
+    /**
+     * one check pass when nothing is expired, the queue has to walk all the entries
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void queueCheckPass(Blackhole blackhole) {
+        for (Long key : checkQueue) {
+            blackhole.consume(key + TIMEOUT_MILLIS < now);
+        }
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void wheelCheckPass(Blackhole blackhole) {
+        blackhole.consume(timingWheel.advance(now));
+    }
+}
@@ -33,7 +33,9 @@ import java.sql.Statement;
 import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -70,29 +72,49 @@ public class MysqlOperator implements AutoCloseable {
     }
 
     public List<MysqlRegistryData> queryAllMysqlRegistryData() throws SQLException {
-        String sql = "select id, `key`, data, type, create_time, last_update_time from t_ds_mysql_registry_data";
+        String sql = "select id, `key`, data, type, create_time, last_update_time, last_modify_time from t_ds_mysql_registry_data";
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(sql);
              ResultSet resultSet = preparedStatement.executeQuery()) {
             List<MysqlRegistryData> result = new ArrayList<>(resultSet.getFetchSize());
             while (resultSet.next()) {
-                MysqlRegistryData mysqlRegistryData = MysqlRegistryData.builder()
-                        .id(resultSet.getLong("id"))
-                        .key(resultSet.getString("key"))
-                        .data(resultSet.getString("data"))
-                        .type(resultSet.getInt("type"))
-                        .createTime(resultSet.getTimestamp("create_time"))
-                        .lastUpdateTime(resultSet.getTimestamp("last_update_time"))
-                        .build();
-                result.add(mysqlRegistryData);
+                result.add(toMysqlRegistryData(resultSet));
             }
             return result;
         }
     }
 
+    /**
+     * Query the data whose value is modified since the given time, the term refresh doesn't change the modify time,
+     * so only the added and the changed data is returned.
+     */
+    public List<MysqlRegistryData> queryMysqlRegistryDataModifiedSince(Timestamp since) throws SQLException {
+        String sql = "select id, `key`, data, type, create_time, last_update_time, last_modify_time from t_ds_mysql_registry_data where last_modify_time >= ?";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            preparedStatement.setTimestamp(1, since);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                List<MysqlRegistryData> result = new ArrayList<>();
+                while (resultSet.next()) {
+                    result.add(toMysqlRegistryData(resultSet));
+                }
+                return result;
+            }
+        }
+    }
+
+    public long countMysqlRegistryData() throws SQLException {
+        String sql = "select count(*) from t_ds_mysql_registry_data";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
+            return resultSet.next() ? resultSet.getLong(1) : 0L;
+        }
+    }
+
     public long insertOrUpdateEphemeralData(String key, String value) throws SQLException {
-        String sql = "INSERT INTO t_ds_mysql_registry_data (`key`, data, type, create_time, last_update_time) VALUES (?, ?, ?, current_timestamp, current_timestamp)" +
-                "ON DUPLICATE KEY UPDATE data=?, last_update_time=current_timestamp";
+        String sql = "INSERT INTO t_ds_mysql_registry_data (`key`, data, type, create_time, last_update_time, last_modify_time) VALUES (?, ?, ?, current_timestamp, current_timestamp, current_timestamp(3)) " +
+                "ON DUPLICATE KEY UPDATE last_modify_time=IF(data <=> ?, last_modify_time, current_timestamp(3)), data=?, last_update_time=current_timestamp";
         // put a ephemeralData
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -100,6 +122,7 @@ public class MysqlOperator implements AutoCloseable {
             preparedStatement.setString(2, value);
             preparedStatement.setInt(3, DataType.EPHEMERAL.getTypeValue());
             preparedStatement.setString(4, value);
+            preparedStatement.setString(5, value);
             int insertCount = preparedStatement.executeUpdate();
             ResultSet generatedKeys = preparedStatement.getGeneratedKeys();
             if (insertCount < 1 || !generatedKeys.next()) {
@@ -109,9 +132,32 @@ public class MysqlOperator implements AutoCloseable {
         }
     }
 
+    /**
+     * Insert or update the ephemeral data in one statement, used to flush the heartbeats.
+     */
+    public void batchInsertOrUpdateEphemeralData(Map<String, String> ephemeralData) throws SQLException {
+        if (ephemeralData.isEmpty()) {
+            return;
+        }
+        String sql = "INSERT INTO t_ds_mysql_registry_data (`key`, data, type, create_time, last_update_time, last_modify_time) VALUES "
+                + String.join(",", Collections.nCopies(ephemeralData.size(), "(?, ?, ?, current_timestamp, current_timestamp, current_timestamp(3))"))
+                + " ON DUPLICATE KEY UPDATE last_modify_time=IF(data <=> VALUES(data), last_modify_time, current_timestamp(3)), "
+                + "data=VALUES(data), last_update_time=current_timestamp";
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
+            int index = 1;
+            for (Map.Entry<String, String> entry : ephemeralData.entrySet()) {
+                preparedStatement.setString(index++, entry.getKey());
+                preparedStatement.setString(index++, entry.getValue());
+                preparedStatement.setInt(index++, DataType.EPHEMERAL.getTypeValue());
+            }
+            preparedStatement.executeUpdate();
+        }
+    }
+
     public long insertOrUpdatePersistentData(String key, String value) throws SQLException {
-        String sql = "INSERT INTO t_ds_mysql_registry_data (`key`, data, type, create_time, last_update_time) VALUES (?, ?, ?, current_timestamp, current_timestamp)" +
-                "ON DUPLICATE KEY UPDATE data=?, last_update_time=current_timestamp";
+        String sql = "INSERT INTO t_ds_mysql_registry_data (`key`, data, type, create_time, last_update_time, last_modify_time) VALUES (?, ?, ?, current_timestamp, current_timestamp, current_timestamp(3)) " +
+                "ON DUPLICATE KEY UPDATE last_modify_time=IF(data <=> ?, last_modify_time, current_timestamp(3)), data=?, last_update_time=current_timestamp";
         // put a persistent Data
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
@@ -119,6 +165,7 @@ public class MysqlOperator implements AutoCloseable {
             preparedStatement.setString(2, value);
             preparedStatement.setInt(3, DataType.PERSISTENT.getTypeValue());
             preparedStatement.setString(4, value);
+            preparedStatement.setString(5, value);
             int insertCount = preparedStatement.executeUpdate();
             ResultSet generatedKeys = preparedStatement.getGeneratedKeys();
             if (insertCount < 1 || !generatedKeys.next()) {
@@ -188,7 +235,7 @@ public class MysqlOperator implements AutoCloseable {
     }
 
     public MysqlRegistryData getData(String key) throws SQLException {
-        String sql = "SELECT id, `key`, data, type, create_time, last_update_time FROM t_ds_mysql_registry_data WHERE `key` = ?";
+        String sql = "SELECT id, `key`, data, type, create_time, last_update_time, last_modify_time FROM t_ds_mysql_registry_data WHERE `key` = ?";
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, key);
@@ -196,14 +243,7 @@ public class MysqlOperator implements AutoCloseable {
                 if (!resultSet.next()) {
                     return null;
                 }
-                return MysqlRegistryData.builder()
-                        .id(resultSet.getLong("id"))
-                        .key(resultSet.getString("key"))
-                        .data(resultSet.getString("data"))
-                        .type(resultSet.getInt("type"))
-                        .createTime(resultSet.getTimestamp("create_time"))
-                        .lastUpdateTime(resultSet.getTimestamp("last_update_time"))
-                        .build();
+                return toMysqlRegistryData(resultSet);
             }
         }
     }
@@ -295,12 +335,16 @@ public class MysqlOperator implements AutoCloseable {
         }
     }
 
-    public boolean updateEphemeralDataTerm(Collection<Long> ephemeralDateIds) throws SQLException {
-        String sql = "update t_ds_mysql_registry_data set `last_update_time` = current_timestamp() where `id` IN (?)";
+    public boolean updateEphemeralDataTerm(Collection<String> ephemeralDataKeys) throws SQLException {
+        String sql = "update t_ds_mysql_registry_data set `last_update_time` = current_timestamp() where type = ? and `key` IN ("
+                + String.join(",", Collections.nCopies(ephemeralDataKeys.size(), "?")) + ")";
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
-            Array idArray = connection.createArrayOf("bigint", ephemeralDateIds.toArray());
-            preparedStatement.setArray(1, idArray);
+            int index = 1;
+            preparedStatement.setInt(index++, DataType.EPHEMERAL.getTypeValue());
+            for (String ephemeralDataKey : ephemeralDataKeys) {
+                preparedStatement.setString(index++, ephemeralDataKey);
+            }
             return preparedStatement.executeUpdate() > 0;
         }
     }
@@ -315,6 +359,18 @@ public class MysqlOperator implements AutoCloseable {
         }
     }
 
+    private MysqlRegistryData toMysqlRegistryData(ResultSet resultSet) throws SQLException {
+        return MysqlRegistryData.builder()
+                .id(resultSet.getLong("id"))
+                .key(resultSet.getString("key"))
+                .data(resultSet.getString("data"))
+                .type(resultSet.getInt("type"))
+                .createTime(resultSet.getTimestamp("create_time"))
+                .lastUpdateTime(resultSet.getTimestamp("last_update_time"))
+                .lastModifyTime(resultSet.getTimestamp("last_modify_time"))
+                .build();
+    }
+
     @Override
     public void close() throws Exception {
         if (!dataSource.isClosed()) {
@@ -113,7 +113,7 @@ public class MysqlRegistry implements Registry {
     @Override
     public void delete(String key) {
         try {
-            mysqlOperator.deleteEphemeralData(key);
+            ephemeralDateManager.deleteEphemeralData(key);
             mysqlOperator.deletePersistentData(key);
         } catch (Exception e) {
             throw new RegistryException(String.format("Delete key: %s error", key), e);
@@ -36,5 +36,6 @@ public class MysqlRegistryData {
     private int type;
     private Date createTime;
     private Date lastUpdateTime;
+    private Date lastModifyTime;
 
 }
@@ -27,9 +27,11 @@ import org.apache.dolphinscheduler.registry.api.ConnectionState;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -49,7 +51,11 @@ public class EphemeralDateManager implements AutoCloseable {
     private final MysqlOperator mysqlOperator;
     private final MysqlRegistryProperties registryProperties;
     private final List<ConnectionListener> connectionListeners = Collections.synchronizedList(new ArrayList<>());
-    private final Set<Long> ephemeralDateIds = Collections.synchronizedSet(new HashSet<>());
+    private final Set<String> ephemeralDateKeys = ConcurrentHashMap.newKeySet();
+    /**
+     * the latest value of the ephemeral data which is put again, they are upserted in one batch with the term refresh
+     */
+    private final Map<String, String> pendingEphemeralDates = new HashMap<>();
     private final ScheduledExecutorService scheduledExecutorService;
 
     public EphemeralDateManager(MysqlRegistryProperties registryProperties, MysqlOperator mysqlOperator) {
@@ -62,7 +68,7 @@ public class EphemeralDateManager implements AutoCloseable {
 
     public void start() {
         this.scheduledExecutorService.scheduleWithFixedDelay(
-                new EphemeralDateTermRefreshTask(mysqlOperator, connectionListeners, ephemeralDateIds),
+                new EphemeralDateTermRefreshTask(mysqlOperator, connectionListeners, ephemeralDateKeys, pendingEphemeralDates),
                 registryProperties.getTermRefreshInterval().toMillis(),
                 registryProperties.getTermRefreshInterval().toMillis(),
                 TimeUnit.MILLISECONDS);
@@ -72,35 +78,58 @@ public class EphemeralDateManager implements AutoCloseable {
         connectionListeners.add(connectionListener);
     }
 
-    public long insertOrUpdateEphemeralData(String key, String value) throws SQLException {
-        long ephemeralId = mysqlOperator.insertOrUpdateEphemeralData(key, value);
-        ephemeralDateIds.add(ephemeralId);
-        return ephemeralId;
+    /**
+     * The first put of the key is written at once, so that it can be read after put, the refreshes of a put key,
+     * e.g. heartbeats, are written in batch in the next term refresh.
+     */
+    public void insertOrUpdateEphemeralData(String key, String value) throws SQLException {
+        synchronized (pendingEphemeralDates) {
+            if (ephemeralDateKeys.contains(key)) {
+                pendingEphemeralDates.put(key, value);
+                return;
+            }
+        }
+        mysqlOperator.insertOrUpdateEphemeralData(key, value);
+        ephemeralDateKeys.add(key);
+    }
+
+    public void deleteEphemeralData(String key) throws SQLException {
+        synchronized (pendingEphemeralDates) {
+            ephemeralDateKeys.remove(key);
+            pendingEphemeralDates.remove(key);
+        }
+        mysqlOperator.deleteEphemeralData(key);
     }
 
     @Override
     public void close() throws SQLException {
-        ephemeralDateIds.clear();
         connectionListeners.clear();
         scheduledExecutorService.shutdownNow();
-        for (Long ephemeralDateId : ephemeralDateIds) {
-            mysqlOperator.deleteEphemeralData(ephemeralDateId);
+        synchronized (pendingEphemeralDates) {
+            pendingEphemeralDates.clear();
         }
+        for (String ephemeralDateKey : ephemeralDateKeys) {
+            mysqlOperator.deleteEphemeralData(ephemeralDateKey);
+        }
+        ephemeralDateKeys.clear();
     }
 
     // Use this task to refresh ephemeral term and check the connect state.
     static class EphemeralDateTermRefreshTask implements Runnable {
         private final List<ConnectionListener> connectionListeners;
-        private final Set<Long> ephemeralDateIds;
+        private final Set<String> ephemeralDateKeys;
+        private final Map<String, String> pendingEphemeralDates;
         private final MysqlOperator mysqlOperator;
         private ConnectionState connectionState;
 
         private EphemeralDateTermRefreshTask(MysqlOperator mysqlOperator,
                                              List<ConnectionListener> connectionListeners,
-                                             Set<Long> ephemeralDateIds) {
+                                             Set<String> ephemeralDateKeys,
+                                             Map<String, String> pendingEphemeralDates) {
             this.mysqlOperator = checkNotNull(mysqlOperator);
             this.connectionListeners = checkNotNull(connectionListeners);
-            this.ephemeralDateIds = checkNotNull(ephemeralDateIds);
+            this.ephemeralDateKeys = checkNotNull(ephemeralDateKeys);
+            this.pendingEphemeralDates = checkNotNull(pendingEphemeralDates);
         }
 
         @Override
@@ -135,7 +164,7 @@ public class EphemeralDateManager implements AutoCloseable {
 
         private ConnectionState getConnectionState() {
             try {
-                if (ephemeralDateIds.isEmpty()) {
+                if (ephemeralDateKeys.isEmpty()) {
                     mysqlOperator.healthCheck();
                 } else {
                     updateEphemeralDateTerm();
@@ -148,8 +177,28 @@ public class EphemeralDateManager implements AutoCloseable {
         }
 
         private void updateEphemeralDateTerm() throws SQLException {
-            if (!mysqlOperator.updateEphemeralDataTerm(ephemeralDateIds)) {
-                LOGGER.warn("Update mysql registry ephemeral data: {} term error", ephemeralDateIds);
+            Map<String, String> ephemeralDates;
+            synchronized (pendingEphemeralDates) {
+                ephemeralDates = new HashMap<>(pendingEphemeralDates);
+                pendingEphemeralDates.clear();
+            }
+            try {
+                // the upsert refreshes the term of the put data as well
+                mysqlOperator.batchInsertOrUpdateEphemeralData(ephemeralDates);
+            } catch (SQLException e) {
+                synchronized (pendingEphemeralDates) {
+                    ephemeralDates.forEach((key, value) -> {
+                        if (ephemeralDateKeys.contains(key)) {
+                            pendingEphemeralDates.putIfAbsent(key, value);
+                        }
+                    });
+                }
+                throw e;
+            }
+            List<String> termKeys = new ArrayList<>(ephemeralDateKeys);
+            termKeys.removeAll(ephemeralDates.keySet());
+            if (!termKeys.isEmpty() && !mysqlOperator.updateEphemeralDataTerm(termKeys)) {
+                LOGGER.warn("Update mysql registry ephemeral data: {} term error", termKeys);
             }
         }
 
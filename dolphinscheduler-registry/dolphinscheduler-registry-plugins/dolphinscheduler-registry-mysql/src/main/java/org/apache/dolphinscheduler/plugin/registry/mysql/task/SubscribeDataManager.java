@@ -23,9 +23,12 @@ import org.apache.dolphinscheduler.plugin.registry.mysql.model.MysqlRegistryData
 import org.apache.dolphinscheduler.registry.api.Event;
 import org.apache.dolphinscheduler.registry.api.SubscribeListener;
 
+import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
@@ -37,9 +40,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
-
-import lombok.RequiredArgsConstructor;
-
 /**
  * Used to refresh if the subscribe path has been changed.
  */
@@ -49,7 +49,7 @@ public class SubscribeDataManager implements AutoCloseable {
 
     private final MysqlOperator mysqlOperator;
     private final MysqlRegistryProperties registryProperties;
-    private final Map<String, List<SubscribeListener>> dataSubScribeMap = new ConcurrentHashMap<>();
+    private final SubscribeTrie<SubscribeListener> dataSubscribeTrie = new SubscribeTrie<>();
     private final ScheduledExecutorService dataSubscribeCheckThreadPool;
     private final Map<String, MysqlRegistryData> mysqlRegistryDataMap = new ConcurrentHashMap<>();
 
@@ -63,18 +63,19 @@ public class SubscribeDataManager implements AutoCloseable {
 
     public void start() {
         dataSubscribeCheckThreadPool.scheduleWithFixedDelay(
-                new RegistrySubscribeDataCheckTask(dataSubScribeMap, mysqlOperator, mysqlRegistryDataMap),
+                new RegistrySubscribeDataCheckTask(dataSubscribeTrie, mysqlOperator, mysqlRegistryDataMap,
+                        registryProperties.getTermRefreshInterval().toMillis()),
                 registryProperties.getTermRefreshInterval().toMillis(),
                 registryProperties.getTermRefreshInterval().toMillis(),
                 TimeUnit.MILLISECONDS);
     }
 
     public void addListener(String path, SubscribeListener subscribeListener) {
-        dataSubScribeMap.computeIfAbsent(path, k -> new ArrayList<>()).add(subscribeListener);
+        dataSubscribeTrie.add(path, subscribeListener);
     }
 
     public void removeListener(String path) {
-        dataSubScribeMap.remove(path);
+        dataSubscribeTrie.remove(path);
     }
 
     public String getData(String path) {
@@ -88,68 +89,107 @@ public class SubscribeDataManager implements AutoCloseable {
     @Override
     public void close() {
         dataSubscribeCheckThreadPool.shutdownNow();
-        dataSubScribeMap.clear();
+        dataSubscribeTrie.clear();
     }
 
-    @RequiredArgsConstructor
+    /**
+     * Poll the data modified since the last check, the full data is only queried at the first check
+     * and when some data is deleted, which is found by the count of the data.
+     */
     static class RegistrySubscribeDataCheckTask implements Runnable {
 
-        private final Map<String, List<SubscribeListener>> dataSubScribeMap;
+        private final SubscribeTrie<SubscribeListener> dataSubscribeTrie;
         private final MysqlOperator mysqlOperator;
         private final Map<String, MysqlRegistryData> mysqlRegistryDataMap;
+        /**
+         * the data modified just before the last check may be committed after it, so poll again from a bit earlier
+         */
+        private final long overlapMillis;
+        private Timestamp lastModifyTime;
+
+        RegistrySubscribeDataCheckTask(SubscribeTrie<SubscribeListener> dataSubscribeTrie,
+                                       MysqlOperator mysqlOperator,
+                                       Map<String, MysqlRegistryData> mysqlRegistryDataMap,
+                                       long overlapMillis) {
+            this.dataSubscribeTrie = dataSubscribeTrie;
+            this.mysqlOperator = mysqlOperator;
+            this.mysqlRegistryDataMap = mysqlRegistryDataMap;
+            this.overlapMillis = overlapMillis;
+        }
 
         @Override
         public void run() {
-            // query the full data from database, and update the mysqlRegistryDataMap
             try {
-                Map<String, MysqlRegistryData> currentMysqlDataMap = mysqlOperator.queryAllMysqlRegistryData()
-                        .stream()
-                        .collect(Collectors.toMap(MysqlRegistryData::getKey, Function.identity()));
-                // find the different
-                List<MysqlRegistryData> addedData = new ArrayList<>();
-                List<MysqlRegistryData> deletedData = new ArrayList<>();
-                List<MysqlRegistryData> updatedData = new ArrayList<>();
-                for (Map.Entry<String, MysqlRegistryData> entry : currentMysqlDataMap.entrySet()) {
-                    MysqlRegistryData newData = entry.getValue();
-                    MysqlRegistryData oldData = mysqlRegistryDataMap.get(entry.getKey());
-                    if (oldData == null) {
-                        addedData.add(newData);
-                    } else {
-                        if (!entry.getValue().getLastUpdateTime().equals(oldData.getLastUpdateTime())) {
-                            updatedData.add(newData);
-                        }
-                    }
+                if (lastModifyTime == null) {
+                    refreshAll();
+                    return;
                 }
-                for (Map.Entry<String, MysqlRegistryData> entry : mysqlRegistryDataMap.entrySet()) {
-                    if (!currentMysqlDataMap.containsKey(entry.getKey())) {
-                        deletedData.add(entry.getValue());
+                List<MysqlRegistryData> modifiedData = mysqlOperator.queryMysqlRegistryDataModifiedSince(
+                        new Timestamp(lastModifyTime.getTime() - overlapMillis));
+                for (MysqlRegistryData newData : modifiedData) {
+                    MysqlRegistryData oldData = mysqlRegistryDataMap.put(newData.getKey(), newData);
+                    if (oldData == null) {
+                        triggerListener(newData, Event.Type.ADD);
+                    } else if (!Objects.equals(newData.getLastModifyTime(), oldData.getLastModifyTime())) {
+                        triggerListener(newData, Event.Type.UPDATE);
                     }
+                    updateLastModifyTime(newData);
                 }
-                mysqlRegistryDataMap.clear();
-                mysqlRegistryDataMap.putAll(currentMysqlDataMap);
-                // trigger listener
-                for (Map.Entry<String, List<SubscribeListener>> entry : dataSubScribeMap.entrySet()) {
-                    String subscribeKey = entry.getKey();
-                    List<SubscribeListener> subscribeListeners = entry.getValue();
-                    triggerListener(addedData, subscribeKey, subscribeListeners, Event.Type.ADD);
-                    triggerListener(deletedData, subscribeKey, subscribeListeners, Event.Type.REMOVE);
-                    triggerListener(updatedData, subscribeKey, subscribeListeners, Event.Type.UPDATE);
+                if (mysqlOperator.countMysqlRegistryData() != mysqlRegistryDataMap.size()) {
+                    // some data is deleted or missed
+                    refreshAll();
                 }
             } catch (Exception e) {
-                LOGGER.error("Query data from mysql registry error");
+                LOGGER.error("Query data from mysql registry error", e);
             }
         }
 
-        private void triggerListener(List<MysqlRegistryData> dataList,
-                                     String subscribeKey,
-                                     List<SubscribeListener> subscribeListeners,
-                                     Event.Type type) {
-            for (MysqlRegistryData data : dataList) {
-                if (data.getKey().startsWith(subscribeKey)) {
-                    subscribeListeners.forEach(subscribeListener ->
-                            subscribeListener.notify(new Event(data.getKey(), data.getKey(), data.getData(), type)));
+        // query the full data from database, and update the mysqlRegistryDataMap
+        private void refreshAll() throws SQLException {
+            Map<String, MysqlRegistryData> currentMysqlDataMap = mysqlOperator.queryAllMysqlRegistryData()
+                    .stream()
+                    .collect(Collectors.toMap(MysqlRegistryData::getKey, Function.identity()));
+            // find the different
+            List<MysqlRegistryData> addedData = new ArrayList<>();
+            List<MysqlRegistryData> deletedData = new ArrayList<>();
+            List<MysqlRegistryData> updatedData = new ArrayList<>();
+            for (Map.Entry<String, MysqlRegistryData> entry : currentMysqlDataMap.entrySet()) {
+                MysqlRegistryData newData = entry.getValue();
+                MysqlRegistryData oldData = mysqlRegistryDataMap.get(entry.getKey());
+                if (oldData == null) {
+                    addedData.add(newData);
+                } else if (!Objects.equals(newData.getLastModifyTime(), oldData.getLastModifyTime())) {
+                    updatedData.add(newData);
+                }
+                updateLastModifyTime(newData);
+            }
+            for (Map.Entry<String, MysqlRegistryData> entry : mysqlRegistryDataMap.entrySet()) {
+                if (!currentMysqlDataMap.containsKey(entry.getKey())) {
+                    deletedData.add(entry.getValue());
                 }
             }
+            mysqlRegistryDataMap.putAll(currentMysqlDataMap);
+            mysqlRegistryDataMap.keySet().retainAll(currentMysqlDataMap.keySet());
+            if (lastModifyTime == null) {
+                lastModifyTime = new Timestamp(0L);
+            }
+            // trigger listener
+            addedData.forEach(data -> triggerListener(data, Event.Type.ADD));
+            deletedData.forEach(data -> triggerListener(data, Event.Type.REMOVE));
+            updatedData.forEach(data -> triggerListener(data, Event.Type.UPDATE));
+        }
+
+        private void updateLastModifyTime(MysqlRegistryData data) {
+            if (data.getLastModifyTime() != null
+                    && (lastModifyTime == null || data.getLastModifyTime().getTime() > lastModifyTime.getTime())) {
+                lastModifyTime = new Timestamp(data.getLastModifyTime().getTime());
+            }
+        }
+
+        private void triggerListener(MysqlRegistryData data, Event.Type type) {
+            for (SubscribeListener subscribeListener : dataSubscribeTrie.match(data.getKey())) {
+                subscribeListener.notify(new Event(data.getKey(), data.getKey(), data.getData(), type));
+            }
         }
 
     }
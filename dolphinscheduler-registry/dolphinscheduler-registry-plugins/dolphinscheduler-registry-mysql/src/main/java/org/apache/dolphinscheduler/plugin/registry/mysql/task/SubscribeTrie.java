@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.registry.mysql.task;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prefix trie of the subscribed paths, find the listeners whose path is a prefix of the changed key
+ * in the length of the key, whatever the number of the subscriptions.
+ */
+class SubscribeTrie<V> {
+
+    private final Node<V> root = new Node<>();
+
+    public synchronized void add(String prefix, V value) {
+        Node<V> node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.children.computeIfAbsent(prefix.charAt(i), k -> new Node<>());
+        }
+        node.values.add(value);
+    }
+
+    public synchronized void remove(String prefix) {
+        removeValues(root, prefix, 0);
+    }
+
+    /**
+     * @return the values added with a prefix of the key
+     */
+    public synchronized List<V> match(String key) {
+        List<V> result = new ArrayList<>(root.values);
+        Node<V> node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.children.get(key.charAt(i));
+            if (node == null) {
+                break;
+            }
+            result.addAll(node.values);
+        }
+        return result;
+    }
+
+    public synchronized void clear() {
+        root.values.clear();
+        root.children.clear();
+    }
+
+    // return true if the node can be pruned
+    private boolean removeValues(Node<V> node, String prefix, int index) {
+        if (index == prefix.length()) {
+            node.values.clear();
+            return node.isEmpty();
+        }
+        Node<V> child = node.children.get(prefix.charAt(index));
+        if (child != null && removeValues(child, prefix, index + 1)) {
+            node.children.remove(prefix.charAt(index));
+        }
+        return node.isEmpty();
+    }
+
+    private static final class Node<V> {
+        private final Map<Character, Node<V>> children = new HashMap<>();
+        private final List<V> values = new ArrayList<>();
+
+        private boolean isEmpty() {
+            return values.isEmpty() && children.isEmpty();
+        }
+    }
+}
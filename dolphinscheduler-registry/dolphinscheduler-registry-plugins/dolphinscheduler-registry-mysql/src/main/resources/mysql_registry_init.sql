@@ -25,9 +25,11 @@ CREATE TABLE `t_ds_mysql_registry_data`
     `data`             varchar(200) NOT NULL COMMENT 'data, like zookeeper node value',
     `type`             tinyint(4)   NOT NULL COMMENT '1: ephemeral node, 2: persistent node',
     `last_update_time` timestamp    NULL COMMENT 'last update time',
+    `last_modify_time` timestamp(3) NULL COMMENT 'last time the data is changed',
     `create_time`      timestamp    NULL COMMENT 'create time',
     PRIMARY KEY (`id`),
-    unique (`key`)
+    unique (`key`),
+    KEY `idx_last_modify_time` (`last_modify_time`)
 ) ENGINE = InnoDB
   DEFAULT CHARSET = utf8;
 
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.registry.mysql.task;
+
+import org.apache.dolphinscheduler.plugin.registry.mysql.MysqlOperator;
+import org.apache.dolphinscheduler.plugin.registry.mysql.model.MysqlRegistryData;
+import org.apache.dolphinscheduler.registry.api.Event;
+import org.apache.dolphinscheduler.registry.api.SubscribeListener;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+public class SubscribeDataManagerTest {
+
+    private static final long OVERLAP_MILLIS = 100L;
+
+    private MysqlOperator mysqlOperator;
+
+    private Map<String, MysqlRegistryData> mysqlRegistryDataMap;
+
+    private List<Event> events;
+
+    private SubscribeDataManager.RegistrySubscribeDataCheckTask checkTask;
+
+    @Before
+    public void before() {
+        mysqlOperator = Mockito.mock(MysqlOperator.class);
+        mysqlRegistryDataMap = new ConcurrentHashMap<>();
+        events = new ArrayList<>();
+        SubscribeTrie<SubscribeListener> dataSubscribeTrie = new SubscribeTrie<>();
+        dataSubscribeTrie.add("/nodes", events::add);
+        checkTask = new SubscribeDataManager.RegistrySubscribeDataCheckTask(dataSubscribeTrie, mysqlOperator,
+                mysqlRegistryDataMap, OVERLAP_MILLIS);
+    }
+
+    @Test
+    public void testPollModifiedData() throws SQLException {
+        Mockito.when(mysqlOperator.queryAllMysqlRegistryData())
+                .thenReturn(Collections.singletonList(data("/nodes/master/m1", "1", 1000L)));
+        checkTask.run();
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals(Event.Type.ADD, events.get(0).type());
+
+        // only the data modified since the last check is queried, from a bit earlier
+        Mockito.when(mysqlOperator.queryMysqlRegistryDataModifiedSince(new Timestamp(1000L - OVERLAP_MILLIS)))
+                .thenReturn(Arrays.asList(data("/nodes/master/m1", "2", 2000L), data("/nodes/worker/w1", "1", 2000L)));
+        Mockito.when(mysqlOperator.countMysqlRegistryData()).thenReturn(2L);
+        checkTask.run();
+        Assert.assertEquals(3, events.size());
+        Assert.assertEquals(Event.Type.UPDATE, events.get(1).type());
+        Assert.assertEquals("2", events.get(1).data());
+        Assert.assertEquals(Event.Type.ADD, events.get(2).type());
+        Assert.assertEquals("/nodes/worker/w1", events.get(2).key());
+
+        // the data polled again in the overlap is not notified twice
+        Mockito.when(mysqlOperator.queryMysqlRegistryDataModifiedSince(new Timestamp(2000L - OVERLAP_MILLIS)))
+                .thenReturn(Arrays.asList(data("/nodes/master/m1", "2", 2000L), data("/nodes/worker/w1", "1", 2000L)));
+        checkTask.run();
+        Assert.assertEquals(3, events.size());
+        Mockito.verify(mysqlOperator, Mockito.times(1)).queryAllMysqlRegistryData();
+        Assert.assertEquals("2", mysqlRegistryDataMap.get("/nodes/master/m1").getData());
+    }
+
+    @Test
+    public void testRefreshAllWhenCountChanged() throws SQLException {
+        Mockito.when(mysqlOperator.queryAllMysqlRegistryData())
+                .thenReturn(Arrays.asList(data("/nodes/master/m1", "1", 1000L), data("/nodes/worker/w1", "1", 1000L)))
+                .thenReturn(Collections.singletonList(data("/nodes/master/m1", "1", 1000L)));
+        checkTask.run();
+        Assert.assertEquals(2, events.size());
+
+        // the deleted data is not polled, it is found by the count
+        Mockito.when(mysqlOperator.queryMysqlRegistryDataModifiedSince(Mockito.any(Timestamp.class)))
+                .thenReturn(Collections.emptyList());
+        Mockito.when(mysqlOperator.countMysqlRegistryData()).thenReturn(1L);
+        checkTask.run();
+        Mockito.verify(mysqlOperator, Mockito.times(2)).queryAllMysqlRegistryData();
+        Assert.assertEquals(3, events.size());
+        Assert.assertEquals(Event.Type.REMOVE, events.get(2).type());
+        Assert.assertEquals("/nodes/worker/w1", events.get(2).key());
+        Assert.assertFalse(mysqlRegistryDataMap.containsKey("/nodes/worker/w1"));
+
+        // no full refresh while the count matches
+        checkTask.run();
+        Mockito.verify(mysqlOperator, Mockito.times(2)).queryAllMysqlRegistryData();
+    }
+
+    private MysqlRegistryData data(String key, String value, long lastModifyTime) {
+        return MysqlRegistryData.builder()
+                .key(key)
+                .data(value)
+                .lastModifyTime(new Timestamp(lastModifyTime))
+                .build();
+    }
+}
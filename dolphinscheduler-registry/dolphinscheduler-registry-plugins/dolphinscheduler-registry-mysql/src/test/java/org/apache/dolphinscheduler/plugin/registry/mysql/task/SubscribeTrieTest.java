@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.registry.mysql.task;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SubscribeTrieTest {
+
+    @Test
+    public void testMatch() {
+        SubscribeTrie<String> trie = new SubscribeTrie<>();
+        trie.add("/nodes", "nodes");
+        trie.add("/nodes/master", "master");
+        trie.add("/nodes/worker", "worker");
+        trie.add("/lock", "lock");
+
+        Assert.assertEquals(Arrays.asList("nodes", "master"), trie.match("/nodes/master/127.0.0.1:5678"));
+        Assert.assertEquals(Collections.singletonList("nodes"), trie.match("/nodes"));
+        Assert.assertEquals(Collections.emptyList(), trie.match("/node"));
+        Assert.assertEquals(Collections.emptyList(), trie.match("/other"));
+    }
+
+    @Test
+    public void testRemove() {
+        SubscribeTrie<String> trie = new SubscribeTrie<>();
+        trie.add("/nodes", "nodes");
+        trie.add("/nodes/master", "master");
+        trie.add("/nodes/master", "master2");
+
+        trie.remove("/nodes/master");
+        Assert.assertEquals(Collections.singletonList("nodes"), trie.match("/nodes/master/127.0.0.1:5678"));
+        trie.remove("/nodes");
+        Assert.assertEquals(Collections.emptyList(), trie.match("/nodes/master/127.0.0.1:5678"));
+
+        trie.add("/nodes/worker", "worker");
+        trie.clear();
+        Assert.assertEquals(Collections.emptyList(), trie.match("/nodes/worker/127.0.0.1:1234"));
+    }
+}
@@ -28,6 +28,7 @@ import org.apache.dolphinscheduler.remote.exceptions.RemotingTooMuchRequestExcep
 import org.apache.dolphinscheduler.remote.future.InvokeCallback;
 import org.apache.dolphinscheduler.remote.future.ReleaseSemaphore;
 import org.apache.dolphinscheduler.remote.future.ResponseFuture;
+import org.apache.dolphinscheduler.remote.future.SendCallback;
 import org.apache.dolphinscheduler.remote.handler.NettyClientHandler;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
 import org.apache.dolphinscheduler.remote.utils.CallerThreadExecutePolicy;
@@ -79,7 +80,7 @@ public class NettyRemotingClient {
     /**
      * encoder
      */
-    private final NettyEncoder encoder = new NettyEncoder();
+    private final NettyEncoder encoder;
 
     /**
      * channels
@@ -128,6 +129,7 @@ public class NettyRemotingClient {
      */
     public NettyRemotingClient(final NettyClientConfig clientConfig) {
         this.clientConfig = clientConfig;
+        this.encoder = new NettyEncoder(clientConfig.getCompressionType(), clientConfig.getCompressionThreshold());
         if (Epoll.isAvailable()) {
             this.workerGroup = new EpollEventLoopGroup(clientConfig.getWorkerThreads(), new ThreadFactory() {
                 private final AtomicInteger threadIndex = new AtomicInteger(0);
@@ -244,6 +246,30 @@ public class NettyRemotingClient {
         }
     }
 
+    /**
+     * async send without waiting for the response, the callback is invoked when the command is written to the channel
+     *
+     * @param host host
+     * @param command command
+     * @param sendCallback sendCallback
+     * @throws RemotingException if the channel can not be connected
+     */
+    public void sendAsync(final Host host, final Command command, final SendCallback sendCallback) throws RemotingException {
+        final Channel channel = getChannel(host);
+        if (channel == null) {
+            throw new RemotingException(String.format("connect to : %s fail", host));
+        }
+        channel.writeAndFlush(command).addListener(future -> {
+            if (future.isSuccess()) {
+                logger.debug("send command : {} , to : {} successfully.", command, host.getAddress());
+                sendCallback.onSuccess();
+            } else {
+                logger.error("send command : {} , to : {} failed", command, host.getAddress(), future.cause());
+                sendCallback.onFailure(future.cause());
+            }
+        });
+    }
+
     /**
      * sync send
      *
@@ -0,0 +1,183 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.codec;
+
+import org.apache.dolphinscheduler.remote.command.CommandContext;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.SerializationType;
+
+import java.io.File;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFuture;
+import io.netty.channel.ChannelFutureListener;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.DefaultFileRegion;
+
+/**
+ * write a file to the channel as a sequence of chunk frames, the chunk body is transferred by a file region
+ * without being copied into the heap. The chunks are written while the channel is writable, and the writing
+ * is resumed when a chunk is flushed or the channel becomes writable again, so a slow peer never makes the
+ * whole file buffered in memory. The file is sent up to the length at the beginning, and an empty chunk ends
+ * the stream. The writer is a handler of the channel until the stream is ended, cancelled or the channel is closed.
+ */
+public class ChunkedFileWriter extends ChannelInboundHandlerAdapter implements ChannelFutureListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkedFileWriter.class);
+
+    private static final byte[] CONTEXT = new CommandContext().toBytes();
+
+    private static final String HANDLER_NAME_PREFIX = "chunked-file-writer-";
+
+    private final Channel channel;
+
+    private final CommandType type;
+
+    private final long opaque;
+
+    private final File file;
+
+    private final long length;
+
+    private final int chunkSize;
+
+    /**
+     * the position of the next chunk, it is only accessed in the event loop of the channel
+     */
+    private long position;
+
+    private boolean finished;
+
+    private ChunkedFileWriter(Channel channel, CommandType type, long opaque, File file, int chunkSize) {
+        this.channel = channel;
+        this.type = type;
+        this.opaque = opaque;
+        this.file = file;
+        this.length = file.isFile() ? file.length() : 0;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * write the file to the channel, it returns at once and the chunks are written by the event loop
+     *
+     * @param channel channel
+     * @param type command type of the chunks
+     * @param opaque opaque of the request
+     * @param file file, only the empty chunk is sent if it does not exist
+     * @param chunkSize max bytes of a chunk
+     */
+    public static void write(Channel channel, CommandType type, long opaque, File file, int chunkSize) {
+        ChunkedFileWriter writer = new ChunkedFileWriter(channel, type, opaque, file, chunkSize);
+        channel.eventLoop().execute(writer::start);
+    }
+
+    /**
+     * cancel the writing of a file, the chunks not written yet are not sent and the stream is not ended
+     *
+     * @param channel channel
+     * @param opaque opaque of the request
+     */
+    public static void cancel(Channel channel, long opaque) {
+        channel.eventLoop().execute(() -> {
+            ChannelHandler handler = channel.pipeline().get(HANDLER_NAME_PREFIX + opaque);
+            if (handler instanceof ChunkedFileWriter) {
+                ((ChunkedFileWriter) handler).finish();
+            }
+        });
+    }
+
+    private void start() {
+        if (!channel.isActive()) {
+            finished = true;
+            return;
+        }
+        // the writing is resumed by the writability change if the channel is not writable now
+        channel.pipeline().addFirst(HANDLER_NAME_PREFIX + opaque, this);
+        writeChunks();
+    }
+
+    private void writeChunks() {
+        if (finished) {
+            return;
+        }
+        boolean written = false;
+        while (channel.isWritable() && position < length) {
+            int count = (int) Math.min(chunkSize, length - position);
+            channel.write(header(count));
+            channel.write(new DefaultFileRegion(file, position, count)).addListener(this);
+            position += count;
+            written = true;
+        }
+        if (position >= length) {
+            finish();
+            channel.write(header(0));
+            written = true;
+        }
+        if (written) {
+            channel.flush();
+        }
+    }
+
+    private ByteBuf header(int bodyLength) {
+        ByteBuf header = channel.alloc().buffer(NettyEncoder.FIXED_HEADER_LENGTH + CONTEXT.length);
+        NettyEncoder.writeHeader(header, SerializationType.JSON, type, opaque, CONTEXT, bodyLength);
+        return header;
+    }
+
+    private void finish() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (channel.pipeline().context(this) != null) {
+            channel.pipeline().remove(this);
+        }
+    }
+
+    @Override
+    public void operationComplete(ChannelFuture future) {
+        if (future.isSuccess()) {
+            writeChunks();
+            return;
+        }
+        if (!finished) {
+            finish();
+            logger.error("write file {} to {} failed", file, channel.remoteAddress(), future.cause());
+        }
+    }
+
+    @Override
+    public void channelWritabilityChanged(ChannelHandlerContext ctx) throws Exception {
+        if (ctx.channel().isWritable()) {
+            writeChunks();
+        }
+        super.channelWritabilityChanged(ctx);
+    }
+
+    @Override
+    public void channelInactive(ChannelHandlerContext ctx) throws Exception {
+        finish();
+        super.channelInactive(ctx);
+    }
+}
@@ -19,29 +19,30 @@ package org.apache.dolphinscheduler.remote.codec;
 
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandContext;
-import org.apache.dolphinscheduler.remote.command.CommandHeader;
 import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.CompressionType;
+import org.apache.dolphinscheduler.remote.command.SerializationType;
+import org.apache.dolphinscheduler.remote.utils.ChannelUtils;
 
 import java.util.List;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.ReplayingDecoder;
+import io.netty.handler.codec.ByteToMessageDecoder;
 
 /**
- * netty decoder
+ * netty decoder, a frame is decoded only when it is fully received,
+ * so the body is allocated and copied once no matter how many reads the frame takes
  */
-public class NettyDecoder extends ReplayingDecoder<NettyDecoder.State> {
-    private static final Logger logger = LoggerFactory.getLogger(NettyDecoder.class);
+public class NettyDecoder extends ByteToMessageDecoder {
 
-    public NettyDecoder() {
-        super(State.MAGIC);
-    }
+    /**
+     * magic, version, type and opaque
+     */
+    private static final int CONTEXT_LENGTH_OFFSET = 1 + 1 + 1 + 8;
 
-    private final CommandHeader commandHeader = new CommandHeader();
+    private static final int CONTEXT_OFFSET = CONTEXT_LENGTH_OFFSET + 4;
 
     /**
      * decode
@@ -52,67 +53,48 @@ public class NettyDecoder extends ReplayingDecoder<NettyDecoder.State> {
      */
     @Override
     protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
-        switch (state()) {
-            case MAGIC:
-                checkMagic(in.readByte());
-                checkpoint(State.VERSION);
-                // fallthru
-            case VERSION:
-                checkVersion(in.readByte());
-                checkpoint(State.COMMAND);
-                // fallthru
-            case COMMAND:
-                commandHeader.setType(in.readByte());
-                checkpoint(State.OPAQUE);
-                // fallthru
-            case OPAQUE:
-                commandHeader.setOpaque(in.readLong());
-                checkpoint(State.CONTEXT_LENGTH);
-                // fallthru
-            case CONTEXT_LENGTH:
-                commandHeader.setContextLength(in.readInt());
-                checkpoint(State.CONTEXT);
-                // fallthru
-            case CONTEXT:
-                byte[] context = new byte[commandHeader.getContextLength()];
-                in.readBytes(context);
-                commandHeader.setContext(context);
-                checkpoint(State.BODY_LENGTH);
-                // fallthru
-            case BODY_LENGTH:
-                commandHeader.setBodyLength(in.readInt());
-                checkpoint(State.BODY);
-                // fallthru
-            case BODY:
-                byte[] body = new byte[commandHeader.getBodyLength()];
-                in.readBytes(body);
-                //
-                Command packet = new Command();
-                packet.setType(commandType(commandHeader.getType()));
-                packet.setOpaque(commandHeader.getOpaque());
-                packet.setContext(CommandContext.valueOf(commandHeader.getContext()));
-                packet.setBody(body);
-                out.add(packet);
-                //
-                checkpoint(State.MAGIC);
-                break;
-            default:
-                logger.warn("unknown decoder state {}", state());
+        int readableBytes = in.readableBytes();
+        if (readableBytes < CONTEXT_OFFSET) {
+            return;
         }
-    }
+        int frameIndex = in.readerIndex();
+        checkMagic(in.getByte(frameIndex));
+        SerializationType serializationType = checkVersion(in.getByte(frameIndex + 1));
 
-    /**
-     * get command type
-     *
-     * @param type type
-     */
-    private CommandType commandType(byte type) {
-        for (CommandType ct : CommandType.values()) {
-            if (ct.ordinal() == type) {
-                return ct;
-            }
+        int contextLength = checkLength(in.getInt(frameIndex + CONTEXT_LENGTH_OFFSET));
+        int bodyLengthOffset = CONTEXT_OFFSET + contextLength;
+        if (readableBytes < bodyLengthOffset + 4) {
+            return;
+        }
+        int bodyLength = checkLength(in.getInt(frameIndex + bodyLengthOffset));
+        int frameLength = bodyLengthOffset + 4 + bodyLength;
+        if (readableBytes < frameLength) {
+            return;
+        }
+
+        Command packet = new Command(in.getLong(frameIndex + 3));
+        packet.setType(CommandType.of(in.getByte(frameIndex + 2)));
+        packet.setContext(CommandContext.valueOf(ByteBufUtil.getBytes(in, frameIndex + CONTEXT_OFFSET, contextLength)));
+        packet.setSerializationType(serializationType);
+        if (serializationType == SerializationType.PROTOSTUFF
+                || SerializationType.PROTOSTUFF.name().equals(packet.getContext().get(CommandContext.SERIALIZATION))) {
+            ChannelUtils.setProtostuffSupported(ctx.channel());
+        }
+        CompressionType compression = CompressionType.of(packet.getContext().get(CommandContext.COMPRESSION));
+        if (compression != null) {
+            ChannelUtils.setCompression(ctx.channel(), compression);
+        }
+        CompressionType bodyCompression = CompressionType.of(packet.getContext().get(CommandContext.BODY_COMPRESSION));
+        if (bodyCompression != null) {
+            // the peer has learned the advert of this side, and it can decode what it compresses
+            ChannelUtils.setCompression(ctx.channel(), bodyCompression);
+            ChannelUtils.setCompressionAcknowledged(ctx.channel());
         }
-        return null;
+        byte[] body = new byte[bodyLength];
+        in.getBytes(frameIndex + bodyLengthOffset + 4, body);
+        packet.setBody(decompress(packet.getContext(), body));
+        in.skipBytes(frameLength);
+        out.add(packet);
     }
 
     /**
@@ -127,22 +109,36 @@ public class NettyDecoder extends ReplayingDecoder<NettyDecoder.State> {
     }
 
     /**
-     * check version
+     * check version, the version is the serialization of the body
      */
-    private void checkVersion(byte version) {
-        if (version != Command.VERSION) {
+    private SerializationType checkVersion(byte version) {
+        SerializationType serializationType = SerializationType.of(version);
+        if (serializationType == null) {
             throw new IllegalArgumentException("illegal protocol [version]" + version);
         }
+        return serializationType;
+    }
+
+    /**
+     * decompress the body by the compression recorded in the command context
+     */
+    private byte[] decompress(CommandContext context, byte[] body) {
+        String bodyCompression = context.get(CommandContext.BODY_COMPRESSION);
+        if (bodyCompression == null) {
+            return body;
+        }
+        CompressionType compressionType = CompressionType.of(bodyCompression);
+        if (compressionType == null) {
+            throw new IllegalArgumentException("illegal protocol [compression]" + bodyCompression);
+        }
+        int length = checkLength(Integer.parseInt(context.get(CommandContext.BODY_LENGTH)));
+        return compressionType.decompress(body, length);
     }
 
-    enum State {
-        MAGIC,
-        VERSION,
-        COMMAND,
-        OPAQUE,
-        CONTEXT_LENGTH,
-        CONTEXT,
-        BODY_LENGTH,
-        BODY;
+    private int checkLength(int length) {
+        if (length < 0) {
+            throw new IllegalArgumentException("illegal packet [length]" + length);
+        }
+        return length;
     }
 }
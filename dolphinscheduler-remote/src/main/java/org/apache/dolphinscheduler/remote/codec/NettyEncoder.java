@@ -18,44 +18,137 @@
 package org.apache.dolphinscheduler.remote.codec;
 
 import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandContext;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.CompressionType;
+import org.apache.dolphinscheduler.remote.command.SerializationType;
 import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
+import org.apache.dolphinscheduler.remote.metrics.RemotingMetrics;
+import org.apache.dolphinscheduler.remote.utils.ChannelUtils;
+import org.apache.dolphinscheduler.remote.utils.ProtostuffSerializer;
+
+import java.util.List;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandler.Sharable;
 import io.netty.channel.ChannelHandlerContext;
-import io.netty.handler.codec.MessageToByteEncoder;
+import io.netty.handler.codec.MessageToMessageEncoder;
 
 /**
- * netty encoder
+ * netty encoder, the header is written into a pooled buffer, and the large body is wrapped without copy.
+ * The body object is serialized by protostuff if the peer has advertised it, otherwise by json.
+ * The body not smaller than the compression threshold is compressed if the peer has advertised the compression.
  */
 @Sharable
-public class NettyEncoder extends MessageToByteEncoder<Command> {
+public class NettyEncoder extends MessageToMessageEncoder<Command> {
+
+    /**
+     * magic, version, type, opaque, context length and body length
+     */
+    static final int FIXED_HEADER_LENGTH = 1 + 1 + 1 + 8 + 4 + 4;
+
+    /**
+     * the body smaller than it is copied into the header buffer, it is cheaper than a composite buffer
+     */
+    private static final int COPY_BODY_THRESHOLD = 1024;
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    private final CompressionType compressionType;
+
+    private final int compressionThreshold;
+
+    public NettyEncoder() {
+        this(CompressionType.NONE, Integer.MAX_VALUE);
+    }
+
+    public NettyEncoder(CompressionType compressionType, int compressionThreshold) {
+        this.compressionType = compressionType;
+        this.compressionThreshold = compressionThreshold;
+    }
 
     /**
      * encode
      *
      * @param ctx channel handler context
      * @param msg command
-     * @param out byte buffer
+     * @param out encoded frame
      */
     @Override
-    protected void encode(ChannelHandlerContext ctx, Command msg, ByteBuf out) throws Exception {
+    protected void encode(ChannelHandlerContext ctx, Command msg, List<Object> out) throws Exception {
         if (msg == null) {
             throw new RemotingException("encode msg is null");
         }
-        out.writeByte(Command.MAGIC);
-        out.writeByte(Command.VERSION);
-        out.writeByte(msg.getType().ordinal());
-        out.writeLong(msg.getOpaque());
-        writeContext(msg, out);
-        out.writeInt(msg.getBody().length);
-        out.writeBytes(msg.getBody());
+        Channel channel = ctx.channel();
+        SerializationType serializationType = SerializationType.JSON;
+        byte[] body;
+        if (msg.getBodyObject() != null && ChannelUtils.isProtostuffSupported(channel)) {
+            serializationType = SerializationType.PROTOSTUFF;
+            body = ProtostuffSerializer.serialize(msg.getBodyObject());
+        } else {
+            body = msg.getBody() == null ? EMPTY_BODY : msg.getBody();
+        }
+        // the command may be written to several channels at the same time, so the frame items go into a copy
+        CommandContext frameContext = msg.getContext().copy();
+        if (!ChannelUtils.isProtostuffSupported(channel)) {
+            // let the peer know that the protostuff body can be sent to this side
+            frameContext.put(CommandContext.SERIALIZATION, SerializationType.PROTOSTUFF.name());
+        }
+        if (!ChannelUtils.isCompressionAcknowledged(channel)) {
+            // let the peer know that the compressed body can be sent to this side until the peer sends one,
+            // knowing the compression of the peer does not stop it, or the side sending first would never learn it
+            frameContext.put(CommandContext.COMPRESSION, CompressionType.LZ4.name());
+        }
+        int uncompressedLength = body.length;
+        body = compress(channel, frameContext, body);
+        RemotingMetrics.recordFrameBodySize(uncompressedLength, body.length);
+        byte[] context = frameContext.toBytes();
+        boolean copyBody = body.length < COPY_BODY_THRESHOLD;
+
+        ByteBuf header = ctx.alloc().buffer(FIXED_HEADER_LENGTH + context.length + (copyBody ? body.length : 0));
+        writeHeader(header, serializationType, msg.getType(), msg.getOpaque(), context, body.length);
+        if (copyBody) {
+            header.writeBytes(body);
+            out.add(header);
+            return;
+        }
+        CompositeByteBuf frame = ctx.alloc().compositeBuffer(2);
+        frame.addComponents(true, header, Unpooled.wrappedBuffer(body));
+        out.add(frame);
     }
 
-    private void writeContext(Command msg, ByteBuf out) {
-        byte[] headerBytes = msg.getContext().toBytes();
-        out.writeInt(headerBytes.length);
-        out.writeBytes(headerBytes);
+    /**
+     * compress the body if it is large enough and the peer can decode it,
+     * the compression and the uncompressed length are recorded in the frame context
+     */
+    private byte[] compress(Channel channel, CommandContext context, byte[] body) {
+        if (compressionType != CompressionType.NONE
+                && body.length >= compressionThreshold
+                && compressionType == ChannelUtils.getCompression(channel)) {
+            byte[] compressed = compressionType.compress(body);
+            if (compressed.length < body.length) {
+                context.put(CommandContext.BODY_COMPRESSION, compressionType.name());
+                context.put(CommandContext.BODY_LENGTH, String.valueOf(body.length));
+                return compressed;
+            }
+        }
+        return body;
     }
-}
 
+    /**
+     * write the frame header, the body of the given length is expected to follow it
+     */
+    static void writeHeader(ByteBuf header, SerializationType serializationType, CommandType type,
+                            long opaque, byte[] context, int bodyLength) {
+        header.writeByte(Command.MAGIC);
+        header.writeByte(serializationType.getCode());
+        header.writeByte(type.ordinal());
+        header.writeLong(opaque);
+        header.writeInt(context.length);
+        header.writeBytes(context);
+        header.writeInt(bodyLength);
+    }
+}
@@ -16,6 +16,9 @@
  */
 package org.apache.dolphinscheduler.remote.command;
 
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.remote.utils.ProtostuffSerializer;
+
 import java.io.Serializable;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -58,6 +61,17 @@ public class Command implements Serializable {
      */
     private byte[] body;
 
+    /**
+     * the body object which is serialized when the command is encoded,
+     * so the serialization can be chosen by the peer of the channel
+     */
+    private transient Object bodyObject;
+
+    /**
+     * the serialization of the received body
+     */
+    private SerializationType serializationType = SerializationType.JSON;
+
     public CommandType getType() {
         return type;
     }
@@ -75,9 +89,42 @@ public class Command implements Serializable {
     }
 
     public byte[] getBody() {
+        if (body == null && bodyObject != null) {
+            body = JSONUtils.toJsonByteArray(bodyObject);
+        }
         return body;
     }
 
+    /**
+     * deserialize the body by the serialization it is received with
+     *
+     * @param clazz class
+     * @param <T> body type
+     * @return body
+     */
+    public <T> T getBody(Class<T> clazz) {
+        if (serializationType == SerializationType.PROTOSTUFF) {
+            return ProtostuffSerializer.deserialize(body, clazz);
+        }
+        return JSONUtils.parseObject(getBody(), clazz);
+    }
+
+    public Object getBodyObject() {
+        return bodyObject;
+    }
+
+    public void setBodyObject(Object bodyObject) {
+        this.bodyObject = bodyObject;
+    }
+
+    public SerializationType getSerializationType() {
+        return serializationType;
+    }
+
+    public void setSerializationType(SerializationType serializationType) {
+        this.serializationType = serializationType;
+    }
+
     public void setBody(byte[] body) {
         this.body = body;
     }
@@ -28,6 +28,26 @@ import java.util.Map;
  */
 public class CommandContext implements Serializable {
 
+    /**
+     * the serializations the sender can decode besides json, used to negotiate the serialization of the channel
+     */
+    public static final String SERIALIZATION = "serialization";
+
+    /**
+     * the compressions the sender can decode, used to negotiate the compression of the channel
+     */
+    public static final String COMPRESSION = "compression";
+
+    /**
+     * the compression of the frame body, the body is not compressed if absent
+     */
+    public static final String BODY_COMPRESSION = "bodyCompression";
+
+    /**
+     * the uncompressed length of the frame body, the compressed length is the body length of the frame
+     */
+    public static final String BODY_LENGTH = "bodyLength";
+
     private Map<String, String> items = new LinkedHashMap<>();
 
     public Map<String, String> getItems() {
@@ -46,6 +66,15 @@ public class CommandContext implements Serializable {
         return items.get(key);
     }
 
+    /**
+     * copy the items, the copy can be changed without affecting the commands sharing this context
+     */
+    public CommandContext copy() {
+        CommandContext copy = new CommandContext();
+        copy.setItems(new LinkedHashMap<>(items));
+        return copy;
+    }
+
     public byte[] toBytes() {
         return JSONUtils.toJsonByteArray(this);
     }
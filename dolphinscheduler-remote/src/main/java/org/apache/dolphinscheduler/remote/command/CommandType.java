@@ -158,5 +158,56 @@ public enum CommandType {
     /**
      * task state event request
      */
-    TASK_WAKEUP_EVENT_REQUEST;
+    TASK_WAKEUP_EVENT_REQUEST,
+
+    /**
+     * get log stream request
+     */
+    GET_LOG_STREAM_REQUEST,
+
+    /**
+     * get log stream chunk, the body is the raw log bytes and the empty body ends the stream
+     */
+    GET_LOG_STREAM_CHUNK,
+
+    /**
+     * tail log subscribe request, the appended log is pushed until the subscription is ended
+     */
+    TAIL_LOG_SUBSCRIBE_REQUEST,
+
+    /**
+     * tail log unsubscribe request
+     */
+    TAIL_LOG_UNSUBSCRIBE_REQUEST,
+
+    /**
+     * tail log push, the body is the appended log bytes and the empty body ends the subscription
+     */
+    TAIL_LOG_PUSH,
+
+    /**
+     * task event batch, the running, response and recall commands reported by a worker to the same master
+     */
+    TASK_EVENT_BATCH,
+
+    /**
+     * get log stream cancel request, the log server stops sending the chunks of the stream
+     */
+    GET_LOG_STREAM_CANCEL_REQUEST;
+
+    /**
+     * the command types indexed by ordinal, values() copies the array on every call
+     */
+    private static final CommandType[] COMMAND_TYPES = values();
+
+    /**
+     * get command type by the ordinal written in the frame
+     *
+     * @param type ordinal of the command type
+     * @return command type, null if unknown
+     */
+    public static CommandType of(byte type) {
+        int ordinal = type & 0xFF;
+        return ordinal < COMMAND_TYPES.length ? COMMAND_TYPES[ordinal] : null;
+    }
 }
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.command;
+
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+
+/**
+ * compression of the command body, the compression of a frame is set in the command context
+ */
+public enum CompressionType {
+
+    /**
+     * the body is not compressed
+     */
+    NONE {
+        @Override
+        public byte[] compress(byte[] body) {
+            return body;
+        }
+
+        @Override
+        public byte[] decompress(byte[] body, int length) {
+            return body;
+        }
+    },
+
+    LZ4 {
+        private final LZ4Compressor compressor = LZ4Factory.fastestInstance().fastCompressor();
+
+        private final LZ4FastDecompressor decompressor = LZ4Factory.fastestInstance().fastDecompressor();
+
+        @Override
+        public byte[] compress(byte[] body) {
+            return compressor.compress(body);
+        }
+
+        @Override
+        public byte[] decompress(byte[] body, int length) {
+            return decompressor.decompress(body, length);
+        }
+    };
+
+    /**
+     * compress the body
+     *
+     * @param body body
+     * @return compressed body
+     */
+    public abstract byte[] compress(byte[] body);
+
+    /**
+     * decompress the body
+     *
+     * @param body compressed body
+     * @param length the length of the uncompressed body
+     * @return body
+     */
+    public abstract byte[] decompress(byte[] body, int length);
+
+    /**
+     * get compression type by name
+     *
+     * @param name name
+     * @return compression type, null if unknown
+     */
+    public static CompressionType of(String name) {
+        for (CompressionType compressionType : values()) {
+            if (compressionType.name().equals(name)) {
+                return compressionType;
+            }
+        }
+        return null;
+    }
+}
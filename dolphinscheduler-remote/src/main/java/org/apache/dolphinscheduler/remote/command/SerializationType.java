@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.command;
+
+/**
+ * serialization of the command body, the code is written as the version byte of the frame
+ */
+public enum SerializationType {
+
+    JSON((byte) 0),
+
+    PROTOSTUFF((byte) 1);
+
+    private final byte code;
+
+    SerializationType(byte code) {
+        this.code = code;
+    }
+
+    public byte getCode() {
+        return code;
+    }
+
+    /**
+     * get serialization type by the version byte of the frame
+     *
+     * @param code version byte
+     * @return serialization type, null if unknown
+     */
+    public static SerializationType of(byte code) {
+        for (SerializationType serializationType : values()) {
+            if (serializationType.code == code) {
+                return serializationType;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.command;
+
+import org.apache.dolphinscheduler.common.model.WorkerLoad;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * task event batch command
+ * from worker to master, the events are acked one by one as they are sent alone
+ */
+public class TaskEventBatchCommand implements Serializable {
+
+    /**
+     * running commands
+     */
+    private List<TaskExecuteRunningCommand> runningCommands = new ArrayList<>();
+
+    /**
+     * response commands
+     */
+    private List<TaskExecuteResponseCommand> responseCommands = new ArrayList<>();
+
+    /**
+     * recall commands
+     */
+    private List<TaskRecallCommand> recallCommands = new ArrayList<>();
+
+    /**
+     * load of the worker when the batch is sent
+     */
+    private WorkerLoad workerLoad;
+
+    public List<TaskExecuteRunningCommand> getRunningCommands() {
+        return runningCommands;
+    }
+
+    public void setRunningCommands(List<TaskExecuteRunningCommand> runningCommands) {
+        this.runningCommands = runningCommands;
+    }
+
+    public List<TaskExecuteResponseCommand> getResponseCommands() {
+        return responseCommands;
+    }
+
+    public void setResponseCommands(List<TaskExecuteResponseCommand> responseCommands) {
+        this.responseCommands = responseCommands;
+    }
+
+    public List<TaskRecallCommand> getRecallCommands() {
+        return recallCommands;
+    }
+
+    public void setRecallCommands(List<TaskRecallCommand> recallCommands) {
+        this.recallCommands = recallCommands;
+    }
+
+    public WorkerLoad getWorkerLoad() {
+        return workerLoad;
+    }
+
+    public void setWorkerLoad(WorkerLoad workerLoad) {
+        this.workerLoad = workerLoad;
+    }
+
+    /**
+     * get the number of the events in the batch
+     *
+     * @return event count
+     */
+    public int size() {
+        return sizeOf(runningCommands) + sizeOf(responseCommands) + sizeOf(recallCommands);
+    }
+
+    private static int sizeOf(List<?> commands) {
+        return commands == null ? 0 : commands.size();
+    }
+
+    /**
+     * package request command
+     *
+     * @return command
+     */
+    public Command convert2Command() {
+        Command command = new Command();
+        command.setType(CommandType.TASK_EVENT_BATCH);
+        command.setBodyObject(this);
+        return command;
+    }
+
+    @Override
+    public String toString() {
+        return "TaskEventBatchCommand{"
+                + "runningCommands=" + runningCommands
+                + ", responseCommands=" + responseCommands
+                + ", recallCommands=" + recallCommands
+                + ", workerLoad=" + workerLoad
+                + '}';
+    }
+}
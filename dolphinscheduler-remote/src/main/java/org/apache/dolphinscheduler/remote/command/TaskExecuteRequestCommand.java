@@ -18,20 +18,31 @@
 package org.apache.dolphinscheduler.remote.command;
 
 import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
 
 import java.io.Serializable;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 /**
  *  execute task request command
  */
 public class TaskExecuteRequestCommand implements Serializable {
 
     /**
-     *  task execution context
+     *  task execution context json, it is kept in the json body for compatibility
      */
-    private String taskExecutionContext;
+    private transient String taskExecutionContext;
+
+    /**
+     *  task execution context, it is carried as it is in the protostuff body
+     */
+    private TaskExecutionContext executionContext;
 
     public String getTaskExecutionContext() {
+        if (taskExecutionContext == null && executionContext != null) {
+            taskExecutionContext = JSONUtils.toJsonString(executionContext);
+        }
         return taskExecutionContext;
     }
 
@@ -39,6 +50,18 @@ public class TaskExecuteRequestCommand implements Serializable {
         this.taskExecutionContext = taskExecutionContext;
     }
 
+    @JsonIgnore
+    public TaskExecutionContext getExecutionContext() {
+        if (executionContext == null) {
+            executionContext = JSONUtils.parseObject(taskExecutionContext, TaskExecutionContext.class);
+        }
+        return executionContext;
+    }
+
+    public void setExecutionContext(TaskExecutionContext executionContext) {
+        this.executionContext = executionContext;
+    }
+
     public TaskExecuteRequestCommand() {
     }
 
@@ -46,6 +69,10 @@ public class TaskExecuteRequestCommand implements Serializable {
         this.taskExecutionContext = taskExecutionContext;
     }
 
+    public TaskExecuteRequestCommand(TaskExecutionContext executionContext) {
+        this.executionContext = executionContext;
+    }
+
     /**
      *  package request command
      *
@@ -54,15 +81,14 @@ public class TaskExecuteRequestCommand implements Serializable {
     public Command convert2Command() {
         Command command = new Command();
         command.setType(CommandType.TASK_EXECUTE_REQUEST);
-        byte[] body = JSONUtils.toJsonByteArray(this);
-        command.setBody(body);
+        command.setBodyObject(this);
         return command;
     }
 
     @Override
     public String toString() {
         return "TaskExecuteRequestCommand{"
-                + "taskExecutionContext='" + taskExecutionContext + '\''
+                + "taskExecutionContext='" + (executionContext != null ? executionContext : taskExecutionContext) + '\''
                 + '}';
     }
 }
@@ -17,8 +17,6 @@
 
 package org.apache.dolphinscheduler.remote.command;
 
-import org.apache.dolphinscheduler.common.utils.JSONUtils;
-
 import java.io.Serializable;
 import java.util.Date;
 
@@ -180,8 +178,7 @@ public class TaskExecuteResponseCommand implements Serializable {
     public Command convert2Command() {
         Command command = new Command();
         command.setType(CommandType.TASK_EXECUTE_RESPONSE);
-        byte[] body = JSONUtils.toJsonByteArray(this);
-        command.setBody(body);
+        command.setBodyObject(this);
         return command;
     }
 
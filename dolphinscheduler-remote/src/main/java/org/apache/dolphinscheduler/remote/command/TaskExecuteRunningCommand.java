@@ -17,8 +17,6 @@
 
 package org.apache.dolphinscheduler.remote.command;
 
-import org.apache.dolphinscheduler.common.utils.JSONUtils;
-
 import java.io.Serializable;
 import java.util.Date;
 
@@ -153,8 +151,7 @@ public class TaskExecuteRunningCommand implements Serializable {
     public Command convert2Command() {
         Command command = new Command();
         command.setType(CommandType.TASK_EXECUTE_RUNNING);
-        byte[] body = JSONUtils.toJsonByteArray(this);
-        command.setBody(body);
+        command.setBodyObject(this);
         return command;
     }
 
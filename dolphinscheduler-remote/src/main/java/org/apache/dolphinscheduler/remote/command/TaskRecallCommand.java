@@ -42,6 +42,11 @@ public class TaskRecallCommand implements Serializable {
      */
     private int processInstanceId;
 
+    /**
+     * the reason why the worker does not accept the task
+     */
+    private String reason;
+
     public int getTaskInstanceId() {
         return taskInstanceId;
     }
@@ -66,6 +71,14 @@ public class TaskRecallCommand implements Serializable {
         this.processInstanceId = processInstanceId;
     }
 
+    public String getReason() {
+        return reason;
+    }
+
+    public void setReason(String reason) {
+        this.reason = reason;
+    }
+
     /**
      * package request command
      *
@@ -85,6 +98,7 @@ public class TaskRecallCommand implements Serializable {
             + "taskInstanceId=" + taskInstanceId
             + ", host='" + host + '\''
             + ", processInstanceId=" + processInstanceId
+            + ", reason='" + reason + '\''
             + '}';
     }
 }
@@ -43,6 +43,11 @@ public class RollViewLogRequestCommand implements Serializable {
      */
     private int limit;
 
+    /**
+     *  whether to read the last lines, the skip line number is ignored if it is true
+     */
+    private boolean tail;
+
     public RollViewLogRequestCommand() {
     }
 
@@ -76,6 +81,14 @@ public class RollViewLogRequestCommand implements Serializable {
         this.limit = limit;
     }
 
+    public boolean isTail() {
+        return tail;
+    }
+
+    public void setTail(boolean tail) {
+        this.tail = tail;
+    }
+
     /**
      * package request command
      *
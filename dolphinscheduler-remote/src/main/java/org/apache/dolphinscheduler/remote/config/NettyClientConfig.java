@@ -17,6 +17,7 @@
 
 package org.apache.dolphinscheduler.remote.config;
 
+import org.apache.dolphinscheduler.remote.command.CompressionType;
 import org.apache.dolphinscheduler.remote.utils.Constants;
 
 /**
@@ -54,6 +55,16 @@ public class NettyClientConfig {
      */
     private int connectTimeoutMillis = 3000;
 
+    /**
+      compression of the body sent, it is used only if the peer has advertised it
+     */
+    private CompressionType compressionType = CompressionType.LZ4;
+
+    /**
+      the body smaller than it is not compressed
+     */
+    private int compressionThreshold = 64 * 1024;
+
     public int getWorkerThreads() {
         return workerThreads;
     }
@@ -101,4 +112,20 @@ public class NettyClientConfig {
     public void setConnectTimeoutMillis(int connectTimeoutMillis) {
         this.connectTimeoutMillis = connectTimeoutMillis;
     }
+
+    public CompressionType getCompressionType() {
+        return compressionType;
+    }
+
+    public void setCompressionType(CompressionType compressionType) {
+        this.compressionType = compressionType;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
 }
@@ -16,6 +16,7 @@
  */
 package org.apache.dolphinscheduler.remote.config;
 
+import org.apache.dolphinscheduler.remote.command.CompressionType;
 import org.apache.dolphinscheduler.remote.utils.Constants;
 
 /**
@@ -58,6 +59,16 @@ public class NettyServerConfig {
      */
     private int listenPort = 12346;
 
+    /**
+       compression of the body sent, it is used only if the peer has advertised it
+     */
+    private CompressionType compressionType = CompressionType.LZ4;
+
+    /**
+       the body smaller than it is not compressed
+     */
+    private int compressionThreshold = 64 * 1024;
+
     public int getListenPort() {
         return listenPort;
     }
@@ -113,4 +124,20 @@ public class NettyServerConfig {
     public void setWorkerThread(int workerThread) {
         this.workerThread = workerThread;
     }
+
+    public CompressionType getCompressionType() {
+        return compressionType;
+    }
+
+    public void setCompressionType(CompressionType compressionType) {
+        this.compressionType = compressionType;
+    }
+
+    public int getCompressionThreshold() {
+        return compressionThreshold;
+    }
+
+    public void setCompressionThreshold(int compressionThreshold) {
+        this.compressionThreshold = compressionThreshold;
+    }
 }
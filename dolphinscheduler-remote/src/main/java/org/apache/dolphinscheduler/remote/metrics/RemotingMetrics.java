@@ -0,0 +1,51 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Metrics;
+
+public final class RemotingMetrics {
+
+    private RemotingMetrics() {
+        throw new UnsupportedOperationException("Utility class");
+    }
+
+    /**
+     * Used to measure the body size of the encoded frames before compression.
+     */
+    private static final DistributionSummary FRAME_UNCOMPRESSED_BYTES =
+            DistributionSummary.builder("ds.remote.frame.uncompressed.bytes")
+                    .description("Body size of the encoded frames before compression")
+                    .baseUnit("bytes")
+                    .register(Metrics.globalRegistry);
+
+    /**
+     * Used to measure the body size of the encoded frames sent over the wire.
+     */
+    private static final DistributionSummary FRAME_COMPRESSED_BYTES =
+            DistributionSummary.builder("ds.remote.frame.compressed.bytes")
+                    .description("Body size of the encoded frames after compression, equals to the size before compression if the body is not compressed")
+                    .baseUnit("bytes")
+                    .register(Metrics.globalRegistry);
+
+    public static void recordFrameBodySize(int uncompressedBytes, int compressedBytes) {
+        FRAME_UNCOMPRESSED_BYTES.record(uncompressedBytes);
+        FRAME_COMPRESSED_BYTES.record(compressedBytes);
+    }
+}
@@ -18,6 +18,7 @@
 package org.apache.dolphinscheduler.remote.utils;
 
 import org.apache.dolphinscheduler.common.utils.NetUtils;
+import org.apache.dolphinscheduler.remote.command.CompressionType;
 
 import java.net.InetSocketAddress;
 
@@ -25,6 +26,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import io.netty.channel.Channel;
+import io.netty.util.AttributeKey;
 
 /**
  * channel utils
@@ -33,6 +35,21 @@ public class ChannelUtils {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ChannelUtils.class);
 
+    /**
+     * whether the peer of the channel can decode the protostuff body
+     */
+    private static final AttributeKey<Boolean> PROTOSTUFF_SUPPORTED = AttributeKey.valueOf("protostuffSupported");
+
+    /**
+     * the compression the peer of the channel can decode
+     */
+    private static final AttributeKey<CompressionType> COMPRESSION = AttributeKey.valueOf("compression");
+
+    /**
+     * whether the peer of the channel knows this side can decode the compressed body
+     */
+    private static final AttributeKey<Boolean> COMPRESSION_ACKNOWLEDGED = AttributeKey.valueOf("compressionAcknowledged");
+
     private ChannelUtils() {
         throw new IllegalStateException(ChannelUtils.class.getName());
     }
@@ -73,4 +90,61 @@ public class ChannelUtils {
         return new Host(NetUtils.getHost(socketAddress.getAddress()), socketAddress.getPort());
     }
 
+    /**
+     * whether the peer of the channel can decode the protostuff body
+     *
+     * @param channel channel
+     * @return true if the peer advertised it
+     */
+    public static boolean isProtostuffSupported(Channel channel) {
+        return Boolean.TRUE.equals(channel.attr(PROTOSTUFF_SUPPORTED).get());
+    }
+
+    /**
+     * mark the peer of the channel can decode the protostuff body
+     *
+     * @param channel channel
+     */
+    public static void setProtostuffSupported(Channel channel) {
+        channel.attr(PROTOSTUFF_SUPPORTED).set(Boolean.TRUE);
+    }
+
+    /**
+     * get the compression the peer of the channel can decode
+     *
+     * @param channel channel
+     * @return compression type, null if the peer has not advertised any
+     */
+    public static CompressionType getCompression(Channel channel) {
+        return channel.attr(COMPRESSION).get();
+    }
+
+    /**
+     * set the compression the peer of the channel can decode
+     *
+     * @param channel channel
+     * @param compressionType compression type
+     */
+    public static void setCompression(Channel channel, CompressionType compressionType) {
+        channel.attr(COMPRESSION).set(compressionType);
+    }
+
+    /**
+     * whether the peer of the channel knows this side can decode the compressed body
+     *
+     * @param channel channel
+     * @return true if the peer has sent a compressed body
+     */
+    public static boolean isCompressionAcknowledged(Channel channel) {
+        return Boolean.TRUE.equals(channel.attr(COMPRESSION_ACKNOWLEDGED).get());
+    }
+
+    /**
+     * mark the peer of the channel knows this side can decode the compressed body
+     *
+     * @param channel channel
+     */
+    public static void setCompressionAcknowledged(Channel channel) {
+        channel.attr(COMPRESSION_ACKNOWLEDGED).set(Boolean.TRUE);
+    }
 }
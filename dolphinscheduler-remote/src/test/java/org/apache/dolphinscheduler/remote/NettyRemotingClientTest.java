@@ -21,13 +21,17 @@ import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
 import org.apache.dolphinscheduler.remote.config.NettyServerConfig;
+import org.apache.dolphinscheduler.remote.exceptions.RemotingException;
 import org.apache.dolphinscheduler.remote.future.InvokeCallback;
 import org.apache.dolphinscheduler.remote.future.ResponseFuture;
+import org.apache.dolphinscheduler.remote.future.SendCallback;
 import org.apache.dolphinscheduler.remote.processor.NettyRequestProcessor;
 import org.apache.dolphinscheduler.remote.utils.Host;
 
 import java.io.Serializable;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.junit.Assert;
@@ -111,6 +115,51 @@ public class NettyRemotingClientTest {
         client.close();
     }
 
+    /**
+     *  test send async without response
+     */
+    @Test
+    public void testSendAsyncWithoutResponse() throws InterruptedException {
+        NettyServerConfig serverConfig = new NettyServerConfig();
+
+        NettyRemotingServer server = new NettyRemotingServer(serverConfig);
+        CountDownLatch receivedLatch = new CountDownLatch(1);
+        server.registerProcessor(CommandType.PING, new NettyRequestProcessor() {
+            @Override
+            public void process(Channel channel, Command command) {
+                receivedLatch.countDown();
+            }
+        });
+        server.start();
+        //
+        final NettyClientConfig clientConfig = new NettyClientConfig();
+        NettyRemotingClient client = new NettyRemotingClient(clientConfig);
+        CountDownLatch sentLatch = new CountDownLatch(1);
+        AtomicBoolean success = new AtomicBoolean(false);
+        try {
+            client.sendAsync(new Host("127.0.0.1", serverConfig.getListenPort()), Ping.create(), new SendCallback() {
+                @Override
+                public void onSuccess() {
+                    success.set(true);
+                    sentLatch.countDown();
+                }
+
+                @Override
+                public void onFailure(Throwable cause) {
+                    sentLatch.countDown();
+                }
+            });
+            Assert.assertTrue(sentLatch.await(2, TimeUnit.SECONDS));
+            Assert.assertTrue(success.get());
+            Assert.assertTrue(receivedLatch.await(2, TimeUnit.SECONDS));
+        } catch (RemotingException e) {
+            Assert.fail(e.getMessage());
+        } finally {
+            server.close();
+            client.close();
+        }
+    }
+
     private static class Ping implements Serializable {
 
         /**
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.codec;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.FileRegion;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+public class ChunkedFileWriterTest {
+
+    @Test
+    public void testWriteFile() throws IOException {
+        byte[] content = new byte[600 * 1024];
+        new Random().nextBytes(content);
+        File file = File.createTempFile("chunked-file-writer", ".log");
+        file.deleteOnExit();
+        Files.write(file.toPath(), content);
+
+        EmbeddedChannel serverChannel = new EmbeddedChannel();
+        ChunkedFileWriter.write(serverChannel, CommandType.GET_LOG_STREAM_CHUNK, 1L, file, 256 * 1024);
+        serverChannel.runPendingTasks();
+
+        // deliver the headers and the file regions to the decoder as the network does
+        EmbeddedChannel clientChannel = new EmbeddedChannel(new NettyDecoder());
+        Object msg;
+        while ((msg = serverChannel.readOutbound()) != null) {
+            if (msg instanceof FileRegion) {
+                FileRegion region = (FileRegion) msg;
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                try (WritableByteChannel target = Channels.newChannel(out)) {
+                    while (region.transferred() < region.count()) {
+                        region.transferTo(target, region.transferred());
+                    }
+                }
+                region.release();
+                clientChannel.writeInbound(Unpooled.wrappedBuffer(out.toByteArray()));
+            } else {
+                clientChannel.writeInbound((ByteBuf) msg);
+            }
+        }
+
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        int chunks = 0;
+        Command chunk;
+        while ((chunk = clientChannel.readInbound()) != null) {
+            Assert.assertEquals(CommandType.GET_LOG_STREAM_CHUNK, chunk.getType());
+            Assert.assertEquals(1L, chunk.getOpaque());
+            received.write(chunk.getBody());
+            chunks++;
+            if (chunk.getBody().length == 0) {
+                break;
+            }
+        }
+        // three chunks and the empty chunk which ends the stream
+        Assert.assertEquals(4, chunks);
+        Assert.assertArrayEquals(content, received.toByteArray());
+    }
+
+    @Test
+    public void testResumeOnWritable() throws IOException {
+        File file = File.createTempFile("chunked-file-writer", ".log");
+        file.deleteOnExit();
+        Files.write(file.toPath(), new byte[3 * 1024]);
+
+        EmbeddedChannel serverChannel = new EmbeddedChannel();
+        serverChannel.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+        ChunkedFileWriter.write(serverChannel, CommandType.GET_LOG_STREAM_CHUNK, 1L, file, 1024);
+        serverChannel.runPendingTasks();
+        Assert.assertNull(serverChannel.readOutbound());
+
+        // the writing is resumed without any pending write to complete
+        serverChannel.unsafe().outboundBuffer().setUserDefinedWritability(1, true);
+        serverChannel.runPendingTasks();
+        int regions = 0;
+        Object msg;
+        while ((msg = serverChannel.readOutbound()) != null) {
+            if (msg instanceof FileRegion) {
+                ((FileRegion) msg).release();
+                regions++;
+            } else {
+                ((ByteBuf) msg).release();
+            }
+        }
+        Assert.assertEquals(3, regions);
+        Assert.assertNull(serverChannel.pipeline().get("chunked-file-writer-1"));
+    }
+
+    @Test
+    public void testCancel() throws IOException {
+        File file = File.createTempFile("chunked-file-writer", ".log");
+        file.deleteOnExit();
+        Files.write(file.toPath(), new byte[3 * 1024]);
+
+        EmbeddedChannel serverChannel = new EmbeddedChannel();
+        serverChannel.unsafe().outboundBuffer().setUserDefinedWritability(1, false);
+        ChunkedFileWriter.write(serverChannel, CommandType.GET_LOG_STREAM_CHUNK, 1L, file, 1024);
+        serverChannel.runPendingTasks();
+        ChunkedFileWriter.cancel(serverChannel, 1L);
+        serverChannel.runPendingTasks();
+        Assert.assertNull(serverChannel.pipeline().get("chunked-file-writer-1"));
+
+        serverChannel.unsafe().outboundBuffer().setUserDefinedWritability(1, true);
+        serverChannel.runPendingTasks();
+        Assert.assertNull(serverChannel.readOutbound());
+    }
+
+    @Test
+    public void testWriteAbsentFile() {
+        EmbeddedChannel serverChannel = new EmbeddedChannel();
+        ChunkedFileWriter.write(serverChannel, CommandType.GET_LOG_STREAM_CHUNK, 1L, new File("/absent/file.log"), 1024);
+        serverChannel.runPendingTasks();
+
+        EmbeddedChannel clientChannel = new EmbeddedChannel(new NettyDecoder());
+        clientChannel.writeInbound((ByteBuf) serverChannel.readOutbound());
+        Command chunk = clientChannel.readInbound();
+        Assert.assertEquals(0, chunk.getBody().length);
+        Assert.assertNull(serverChannel.readOutbound());
+    }
+}
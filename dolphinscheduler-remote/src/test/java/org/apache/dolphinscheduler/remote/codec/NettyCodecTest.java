@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.remote.codec;
+
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandContext;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.CompressionType;
+import org.apache.dolphinscheduler.remote.command.SerializationType;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRequestCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRunningAckCommand;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.embedded.EmbeddedChannel;
+
+public class NettyCodecTest {
+
+    @Test
+    public void testSmallBody() {
+        Command decoded = roundTrip(createCommand(100), false);
+        Assert.assertEquals(CommandType.TASK_EXECUTE_REQUEST, decoded.getType());
+        Assert.assertEquals(100, decoded.getBody().length);
+        Assert.assertEquals("value", decoded.getContext().get("key"));
+    }
+
+    @Test
+    public void testLargeBodySplitFrame() {
+        Command command = createCommand(1024 * 1024);
+        Command decoded = roundTrip(command, true);
+        Assert.assertEquals(command.getOpaque(), decoded.getOpaque());
+        Assert.assertArrayEquals(command.getBody(), decoded.getBody());
+    }
+
+    @Test
+    public void testCommandTypeLookup() {
+        for (CommandType commandType : CommandType.values()) {
+            Assert.assertEquals(commandType, CommandType.of((byte) commandType.ordinal()));
+        }
+        Assert.assertNull(CommandType.of((byte) -1));
+    }
+
+    @Test
+    public void testSerializationNegotiation() {
+        EmbeddedChannel masterChannel = new EmbeddedChannel(new NettyEncoder(), new NettyDecoder());
+        EmbeddedChannel workerChannel = new EmbeddedChannel(new NettyEncoder(), new NettyDecoder());
+
+        TaskExecutionContext taskExecutionContext = new TaskExecutionContext();
+        taskExecutionContext.setTaskInstanceId(1);
+        taskExecutionContext.setVarPool("[]");
+        taskExecutionContext.setResources(Collections.singletonMap("a.sh", "tenant"));
+
+        // the peer is unknown, so the first command is json and advertises protostuff
+        Command request = transfer(masterChannel, workerChannel, new TaskExecuteRequestCommand(taskExecutionContext).convert2Command());
+        Assert.assertEquals(SerializationType.JSON, request.getSerializationType());
+        Assert.assertEquals(SerializationType.PROTOSTUFF.name(), request.getContext().get(CommandContext.SERIALIZATION));
+        TaskExecuteRequestCommand requestCommand = request.getBody(TaskExecuteRequestCommand.class);
+        Assert.assertEquals(1, requestCommand.getExecutionContext().getTaskInstanceId());
+
+        // the worker has learned that the master can decode protostuff
+        TaskExecuteRunningAckCommand ackCommand = new TaskExecuteRunningAckCommand(1, 1);
+        Command ack = transfer(workerChannel, masterChannel, ackCommand.convert2Command());
+        Assert.assertEquals(SerializationType.PROTOSTUFF, ack.getSerializationType());
+        Assert.assertEquals(1, ack.getBody(TaskExecuteRunningAckCommand.class).getTaskInstanceId());
+
+        // and the master switches to protostuff once the worker has advertised it too
+        request = transfer(masterChannel, workerChannel, new TaskExecuteRequestCommand(taskExecutionContext).convert2Command());
+        Assert.assertEquals(SerializationType.PROTOSTUFF, request.getSerializationType());
+        TaskExecutionContext decodedContext = request.getBody(TaskExecuteRequestCommand.class).getExecutionContext();
+        Assert.assertEquals("[]", decodedContext.getVarPool());
+        Assert.assertEquals("tenant", decodedContext.getResources().get("a.sh"));
+    }
+
+    @Test
+    public void testCompressionNegotiation() {
+        EmbeddedChannel apiChannel = new EmbeddedChannel(new NettyEncoder(CompressionType.LZ4, 1024), new NettyDecoder());
+        EmbeddedChannel workerChannel = new EmbeddedChannel(new NettyEncoder(CompressionType.LZ4, 1024), new NettyDecoder());
+
+        // the peer is unknown, so the first command is not compressed and advertises the compression
+        Command request = transfer(apiChannel, workerChannel, createCommand(4096));
+        Assert.assertNull(request.getContext().get(CommandContext.BODY_COMPRESSION));
+        Assert.assertEquals(CompressionType.LZ4.name(), request.getContext().get(CommandContext.COMPRESSION));
+
+        Command response = createCommand(1024 * 1024);
+        Assert.assertTrue(workerChannel.writeOutbound(response));
+        ByteBuf frame = workerChannel.readOutbound();
+        Assert.assertTrue(frame.readableBytes() < response.getBody().length);
+        apiChannel.writeInbound(frame);
+        Command decoded = apiChannel.readInbound();
+        Assert.assertEquals(CompressionType.LZ4.name(), decoded.getContext().get(CommandContext.BODY_COMPRESSION));
+        Assert.assertEquals(String.valueOf(response.getBody().length), decoded.getContext().get(CommandContext.BODY_LENGTH));
+        Assert.assertArrayEquals(response.getBody(), decoded.getBody());
+
+        // the body smaller than the threshold is not compressed
+        Command small = transfer(workerChannel, apiChannel, createCommand(100));
+        Assert.assertNull(small.getContext().get(CommandContext.BODY_COMPRESSION));
+        Assert.assertEquals(100, small.getBody().length);
+
+        // the side sending first has learned the compression from the responses
+        Command largeRequest = createCommand(1024 * 1024);
+        Command decodedRequest = transfer(apiChannel, workerChannel, largeRequest);
+        Assert.assertEquals(CompressionType.LZ4.name(), decodedRequest.getContext().get(CommandContext.BODY_COMPRESSION));
+        Assert.assertArrayEquals(largeRequest.getBody(), decodedRequest.getBody());
+
+        // both sides stop advertising once the peer has sent a compressed body
+        Command next = transfer(workerChannel, apiChannel, createCommand(100));
+        Assert.assertNull(next.getContext().get(CommandContext.COMPRESSION));
+        next = transfer(apiChannel, workerChannel, createCommand(100));
+        Assert.assertNull(next.getContext().get(CommandContext.COMPRESSION));
+    }
+
+    @Test
+    public void testCompressionNegotiationWithSmallResponse() {
+        EmbeddedChannel masterChannel = new EmbeddedChannel(new NettyEncoder(CompressionType.LZ4, 1024), new NettyDecoder());
+        EmbeddedChannel workerChannel = new EmbeddedChannel(new NettyEncoder(CompressionType.LZ4, 1024), new NettyDecoder());
+
+        // the responder keeps advertising after it has learned the compression of the initiator
+        transfer(masterChannel, workerChannel, createCommand(100));
+        Command response = transfer(workerChannel, masterChannel, createCommand(100));
+        Assert.assertEquals(CompressionType.LZ4.name(), response.getContext().get(CommandContext.COMPRESSION));
+
+        Command request = createCommand(1024 * 1024);
+        Assert.assertTrue(masterChannel.writeOutbound(request));
+        ByteBuf frame = masterChannel.readOutbound();
+        Assert.assertTrue(frame.readableBytes() < request.getBody().length);
+        workerChannel.writeInbound(frame);
+        Command decoded = workerChannel.readInbound();
+        Assert.assertEquals(CompressionType.LZ4.name(), decoded.getContext().get(CommandContext.BODY_COMPRESSION));
+        Assert.assertArrayEquals(request.getBody(), decoded.getBody());
+    }
+
+    @Test
+    public void testSharedCommandContextNotChanged() {
+        EmbeddedChannel apiChannel = new EmbeddedChannel(new NettyEncoder(CompressionType.LZ4, 1024), new NettyDecoder());
+        EmbeddedChannel workerChannel = new EmbeddedChannel(new NettyEncoder(CompressionType.LZ4, 1024), new NettyDecoder());
+        transfer(apiChannel, workerChannel, createCommand(100));
+
+        // the same command is written to a channel which compresses it and another one which does not
+        Command command = createCommand(1024 * 1024);
+        Command compressed = transfer(workerChannel, apiChannel, command);
+        Command uncompressed = transfer(new EmbeddedChannel(new NettyEncoder()), new EmbeddedChannel(new NettyDecoder()), command);
+        Assert.assertEquals(CompressionType.LZ4.name(), compressed.getContext().get(CommandContext.BODY_COMPRESSION));
+        Assert.assertNull(uncompressed.getContext().get(CommandContext.BODY_COMPRESSION));
+        Assert.assertEquals(Collections.singletonMap("key", "value"), command.getContext().getItems());
+    }
+
+    private Command transfer(EmbeddedChannel from, EmbeddedChannel to, Command command) {
+        Assert.assertTrue(from.writeOutbound(command));
+        ByteBuf frame = from.readOutbound();
+        to.writeInbound(frame);
+        Command decoded = to.readInbound();
+        Assert.assertNotNull(decoded);
+        return decoded;
+    }
+
+    private Command createCommand(int bodyLength) {
+        Command command = new Command();
+        command.setType(CommandType.TASK_EXECUTE_REQUEST);
+        command.getContext().put("key", "value");
+        byte[] body = new byte[bodyLength];
+        Arrays.fill(body, (byte) 'a');
+        command.setBody(body);
+        return command;
+    }
+
+    private Command roundTrip(Command command, boolean split) {
+        EmbeddedChannel encodeChannel = new EmbeddedChannel(new NettyEncoder());
+        Assert.assertTrue(encodeChannel.writeOutbound(command));
+        ByteBuf frame = encodeChannel.readOutbound();
+
+        EmbeddedChannel decodeChannel = new EmbeddedChannel(new NettyDecoder());
+        if (split) {
+            // deliver the frame in small pieces as the network does
+            while (frame.isReadable()) {
+                decodeChannel.writeInbound(frame.readRetainedSlice(Math.min(4096, frame.readableBytes())));
+            }
+            frame.release();
+        } else {
+            decodeChannel.writeInbound(frame);
+        }
+        Command decoded = decodeChannel.readInbound();
+        Assert.assertNotNull(decoded);
+        Assert.assertNull(decodeChannel.readInbound());
+        Assert.assertFalse(decodeChannel.finish());
+        return decoded;
+    }
+}
@@ -17,10 +17,12 @@
 
 package org.apache.dolphinscheduler.server.registry;
 
+import org.apache.dolphinscheduler.common.model.WorkerLoad;
 import org.apache.dolphinscheduler.common.utils.HeartBeat;
 import org.apache.dolphinscheduler.service.registry.RegistryClient;
 
 import java.util.Set;
+import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,7 +36,7 @@ public class HeartBeatTask implements Runnable {
 
     private final Set<String> heartBeatPaths;
     private final RegistryClient registryClient;
-    private int workerWaitingTaskCount;
+    private Supplier<WorkerLoad> workerLoadSupplier;
     private final String serverType;
     private final HeartBeat heartBeat;
 
@@ -58,19 +60,29 @@ public class HeartBeatTask implements Runnable {
                          String serverType,
                          RegistryClient registryClient,
                          int workerThreadCount,
-                         int workerWaitingTaskCount
+                         Supplier<WorkerLoad> workerLoadSupplier
     ) {
         this.heartBeatPaths = heartBeatPaths;
         this.registryClient = registryClient;
-        this.workerWaitingTaskCount = workerWaitingTaskCount;
+        this.workerLoadSupplier = workerLoadSupplier;
         this.serverType = serverType;
         this.heartBeat = new HeartBeat(startupTime, maxCpuloadAvg, reservedMemory, hostWeight, workerThreadCount);
     }
 
     public String getHeartBeatInfo() {
+        updateWorkerLoad();
         return this.heartBeat.encodeHeartBeat();
     }
 
+    /**
+     * update the worker load with the live one, so the heartbeat is not a snapshot of the registration
+     */
+    private void updateWorkerLoad() {
+        if (workerLoadSupplier != null) {
+            heartBeat.updateWorkerLoad(workerLoadSupplier.get());
+        }
+    }
+
     @Override
     public void run() {
         try {
@@ -82,8 +94,7 @@ public class HeartBeatTask implements Runnable {
                 }
             }
 
-            // update waiting task count
-            heartBeat.setWorkerWaitingTaskCount(workerWaitingTaskCount);
+            updateWorkerLoad();
 
             for (String heartBeatPath : heartBeatPaths) {
                 registryClient.persistEphemeral(heartBeatPath, heartBeat.encodeHeartBeat());
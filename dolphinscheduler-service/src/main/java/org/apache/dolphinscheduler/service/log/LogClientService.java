@@ -22,20 +22,34 @@ import org.apache.dolphinscheduler.common.utils.LoggerUtils;
 import org.apache.dolphinscheduler.common.utils.NetUtils;
 import org.apache.dolphinscheduler.remote.NettyRemotingClient;
 import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
 import org.apache.dolphinscheduler.remote.command.log.GetLogBytesRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.GetLogBytesResponseCommand;
+import org.apache.dolphinscheduler.remote.command.log.GetLogStreamCancelRequestCommand;
+import org.apache.dolphinscheduler.remote.command.log.GetLogStreamRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.RemoveTaskLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.RemoveTaskLogResponseCommand;
 import org.apache.dolphinscheduler.remote.command.log.RollViewLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.RollViewLogResponseCommand;
+import org.apache.dolphinscheduler.remote.command.log.TailLogSubscribeRequestCommand;
+import org.apache.dolphinscheduler.remote.command.log.TailLogUnsubscribeRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.ViewLogRequestCommand;
 import org.apache.dolphinscheduler.remote.command.log.ViewLogResponseCommand;
 import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
+import org.apache.dolphinscheduler.remote.future.SendCallback;
 import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.remote.utils.NamedThreadFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import io.netty.channel.Channel;
+
 /**
  * log client
  */
@@ -47,6 +61,33 @@ public class LogClientService implements AutoCloseable {
 
     private final NettyRemotingClient client;
 
+    /**
+     * client of the log streams, its channels are kept while the streams are read,
+     * unlike the channels of the other requests which are closed once the request is answered
+     */
+    private final NettyRemotingClient streamClient;
+
+    /**
+     * the log chunks are received by a single thread, so they are kept in order
+     */
+    private final ExecutorService logChunkExecutor;
+
+    /**
+     * client of the tail log subscriptions, its channels are kept while the subscriptions last,
+     * unlike the channels of the other requests which are closed once the request is answered
+     */
+    private final NettyRemotingClient tailClient;
+
+    /**
+     * the tail log pushes are received by a single thread, so they are kept in order
+     */
+    private final ExecutorService logTailExecutor;
+
+    /**
+     * the tail log pushes are handed to the listeners by these threads, so a slow listener does not delay the others
+     */
+    private final ExecutorService logTailListenerExecutor;
+
     private volatile boolean isRunning;
 
     /**
@@ -61,6 +102,17 @@ public class LogClientService implements AutoCloseable {
         this.clientConfig = new NettyClientConfig();
         this.clientConfig.setWorkerThreads(4);
         this.client = new NettyRemotingClient(clientConfig);
+        NettyClientConfig streamClientConfig = new NettyClientConfig();
+        streamClientConfig.setWorkerThreads(1);
+        this.streamClient = new NettyRemotingClient(streamClientConfig);
+        this.logChunkExecutor = Executors.newSingleThreadExecutor(new NamedThreadFactory("Log-Stream-Chunk-Thread"));
+        this.streamClient.registerProcessor(CommandType.GET_LOG_STREAM_CHUNK, LogInputStream::receive, logChunkExecutor);
+        NettyClientConfig tailClientConfig = new NettyClientConfig();
+        tailClientConfig.setWorkerThreads(1);
+        this.tailClient = new NettyRemotingClient(tailClientConfig);
+        this.logTailExecutor = Executors.newSingleThreadExecutor(new NamedThreadFactory("Log-Tail-Push-Thread"));
+        this.tailClient.registerProcessor(CommandType.TAIL_LOG_PUSH, LogTailSubscription::receive, logTailExecutor);
+        this.logTailListenerExecutor = Executors.newCachedThreadPool(new NamedThreadFactory("Log-Tail-Listener-Thread"));
         this.isRunning = true;
     }
 
@@ -70,6 +122,11 @@ public class LogClientService implements AutoCloseable {
     @Override
     public void close() {
         this.client.close();
+        this.streamClient.close();
+        this.logChunkExecutor.shutdownNow();
+        this.tailClient.close();
+        this.logTailExecutor.shutdownNow();
+        this.logTailListenerExecutor.shutdownNow();
         this.isRunning = false;
         logger.info("logger client closed");
     }
@@ -105,6 +162,36 @@ public class LogClientService implements AutoCloseable {
         return result;
     }
 
+    /**
+     * tail log, read the last lines of the log
+     *
+     * @param host host
+     * @param port port
+     * @param path path
+     * @param limit limit
+     * @return log content
+     */
+    public String tailLog(String host, int port, String path, int limit) {
+        logger.info("tail log, host : {}, port : {}, path {}, limit {}", host, port, path, limit);
+        RollViewLogRequestCommand request = new RollViewLogRequestCommand(path, 0, limit);
+        request.setTail(true);
+        final Host address = new Host(host, port);
+        try {
+            Command command = request.convert2Command();
+            Command response = this.client.sendSync(address, command, LOG_REQUEST_TIMEOUT);
+            if (response != null) {
+                RollViewLogResponseCommand rollReviewLog = JSONUtils.parseObject(
+                        response.getBody(), RollViewLogResponseCommand.class);
+                return rollReviewLog.getMsg();
+            }
+        } catch (Exception e) {
+            logger.error("tail log error", e);
+        } finally {
+            this.client.closeChannel(address);
+        }
+        return "";
+    }
+
     /**
      * view log
      *
@@ -166,6 +253,139 @@ public class LogClientService implements AutoCloseable {
         return new byte[0];
     }
 
+    /**
+     * get log stream, the log is sent by the log server in chunks while the stream is read
+     *
+     * @param host host
+     * @param port port
+     * @param path log path
+     * @return log input stream
+     */
+    public InputStream getLogStream(String host, int port, String path) {
+        logger.info("log stream path {}", path);
+        GetLogStreamRequestCommand request = new GetLogStreamRequestCommand(path);
+        final Host address = new Host(host, port);
+        Command command = request.convert2Command();
+        LogInputStream logStream = new LogInputStream(command.getOpaque(), LOG_REQUEST_TIMEOUT,
+                () -> cancelLogStream(address, command.getOpaque()));
+        try {
+            this.streamClient.sendAsync(address, command, new SendCallback() {
+                @Override
+                public void onSuccess() {
+                    // the chunks are received by LogInputStream
+                }
+
+                @Override
+                public void onFailure(Throwable cause) {
+                    logStream.fail(cause);
+                }
+            });
+            Channel channel = this.streamClient.getChannel(address);
+            if (channel != null) {
+                // the chunks are lost with the connection, fail the stream after the received ones
+                logStream.bind(channel, logChunkExecutor);
+            }
+            return logStream;
+        } catch (Exception e) {
+            logger.error("get log stream error", e);
+            logStream.close();
+        }
+        return new ByteArrayInputStream(new byte[0]);
+    }
+
+    /**
+     * cancel the log stream, the log server stops sending its chunks
+     *
+     * @param address address of the log server
+     * @param streamId opaque of the get log stream request
+     */
+    private void cancelLogStream(Host address, long streamId) {
+        logger.info("cancel log stream, address : {}, streamId {}", address, streamId);
+        GetLogStreamCancelRequestCommand request = new GetLogStreamCancelRequestCommand(streamId);
+        try {
+            this.streamClient.sendAsync(address, request.convert2Command(), new SendCallback() {
+                @Override
+                public void onSuccess() {
+                    // nothing is answered
+                }
+
+                @Override
+                public void onFailure(Throwable cause) {
+                    logger.warn("cancel log stream {} failed", streamId, cause);
+                }
+            });
+        } catch (Exception e) {
+            logger.error("cancel log stream error", e);
+        }
+    }
+
+    /**
+     * subscribe the log, the log appended after now is pushed to the listener until the subscription is closed
+     *
+     * @param host host
+     * @param port port
+     * @param path log path
+     * @param listener listener of the appended log
+     * @return subscription, it is ended already if the log server can not be reached
+     */
+    public LogTailSubscription subscribeLog(String host, int port, String path, LogTailListener listener) {
+        logger.info("subscribe log, host : {}, port : {}, path {}", host, port, path);
+        TailLogSubscribeRequestCommand request = new TailLogSubscribeRequestCommand(path);
+        final Host address = new Host(host, port);
+        Command command = request.convert2Command();
+        LogTailSubscription subscription = new LogTailSubscription(command.getOpaque(), listener,
+                () -> unsubscribeLog(address, path, command.getOpaque()), logTailListenerExecutor);
+        try {
+            this.tailClient.sendAsync(address, command, new SendCallback() {
+                @Override
+                public void onSuccess() {
+                    // the appended log is received by LogTailSubscription
+                }
+
+                @Override
+                public void onFailure(Throwable cause) {
+                    logTailExecutor.execute(subscription::end);
+                }
+            });
+            Channel channel = this.tailClient.getChannel(address);
+            if (channel != null) {
+                // the pushes are lost with the connection, end the subscription after the received ones
+                channel.closeFuture().addListener(future -> logTailExecutor.execute(subscription::end));
+            }
+        } catch (Exception e) {
+            logger.error("subscribe log error", e);
+            subscription.end();
+        }
+        return subscription;
+    }
+
+    /**
+     * unsubscribe the log
+     *
+     * @param address address of the log server
+     * @param path log path
+     * @param subscriptionId opaque of the subscribe request
+     */
+    private void unsubscribeLog(Host address, String path, long subscriptionId) {
+        logger.info("unsubscribe log, address : {}, path {}", address, path);
+        TailLogUnsubscribeRequestCommand request = new TailLogUnsubscribeRequestCommand(path, subscriptionId);
+        try {
+            this.tailClient.sendAsync(address, request.convert2Command(), new SendCallback() {
+                @Override
+                public void onSuccess() {
+                    // nothing is answered
+                }
+
+                @Override
+                public void onFailure(Throwable cause) {
+                    logger.warn("unsubscribe log {} failed", path, cause);
+                }
+            });
+        } catch (Exception e) {
+            logger.error("unsubscribe log error", e);
+        }
+    }
+
     /**
      * remove task log
      *
@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.log;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFutureListener;
+
+/**
+ *  log input stream, it is fed by the log chunks of a log stream request.
+ *  The channel stops reading when the reader falls behind, so the log is never buffered as a whole.
+ *  The channel is shared by the streams from the same log server, it resumes reading only when none of them
+ *  is behind, so one slow reader pauses the others until it catches up or is closed.
+ */
+public class LogInputStream extends InputStream {
+
+    private static final ConcurrentHashMap<Long, LogInputStream> STREAMS = new ConcurrentHashMap<>();
+
+    /**
+     *  the streams which suspend the reading of each channel, guarded by itself
+     */
+    private static final Map<Channel, Set<LogInputStream>> SUSPENDING_STREAMS = new HashMap<>();
+
+    /**
+     *  the channel stops reading when the pending chunks reach it, and resumes when half of them are read
+     */
+    private static final int MAX_PENDING_CHUNKS = 16;
+
+    private static final byte[] END = new byte[0];
+
+    /**
+     *  request unique identification
+     */
+    private final long opaque;
+
+    /**
+     *  max millis to wait for a chunk
+     */
+    private final long timeout;
+
+    /**
+     *  cancel the stream on the log server, it is run if the stream is closed before it is ended
+     */
+    private final Runnable canceller;
+
+    private final BlockingQueue<byte[]> chunks = new LinkedBlockingQueue<>();
+
+    /**
+     *  the channel whose reading is suspended, null if it is reading
+     */
+    private volatile Channel suspendedChannel;
+
+    private volatile Throwable cause;
+
+    /**
+     *  the channel of the stream, the stream fails if it is closed before the stream is ended
+     */
+    private volatile Channel channel;
+
+    private volatile ChannelFutureListener channelCloseListener;
+
+    private byte[] chunk;
+
+    private int index;
+
+    private boolean finished;
+
+    public LogInputStream(long opaque, long timeout) {
+        this(opaque, timeout, () -> {
+        });
+    }
+
+    public LogInputStream(long opaque, long timeout, Runnable canceller) {
+        this.opaque = opaque;
+        this.timeout = timeout;
+        this.canceller = canceller;
+        STREAMS.put(opaque, this);
+    }
+
+    /**
+     *  bind the channel of the stream, the stream fails if the channel is closed before the stream is ended
+     *
+     * @param channel channel
+     * @param receiveExecutor executor receiving the chunks, the chunks received before the close are read first
+     */
+    public void bind(Channel channel, Executor receiveExecutor) {
+        this.channel = channel;
+        this.channelCloseListener = future -> receiveExecutor.execute(
+                () -> fail(new IOException("log stream channel closed")));
+        channel.closeFuture().addListener(channelCloseListener);
+        if (STREAMS.get(opaque) != this) {
+            // the stream is ended already, the listener is not removed by it
+            unbind();
+        }
+    }
+
+    /**
+     *  receive a chunk of the stream, the empty chunk ends the stream
+     *
+     * @param channel channel
+     * @param command chunk command
+     */
+    public static void receive(Channel channel, Command command) {
+        LogInputStream stream = STREAMS.get(command.getOpaque());
+        if (stream == null) {
+            return;
+        }
+        byte[] body = command.getBody();
+        if (body == null || body.length == 0) {
+            if (STREAMS.remove(command.getOpaque(), stream)) {
+                stream.unbind();
+                stream.chunks.offer(END);
+            }
+            return;
+        }
+        stream.chunks.offer(body);
+        if (stream.chunks.size() >= MAX_PENDING_CHUNKS && stream.suspendedChannel == null) {
+            stream.suspend(channel);
+            // the reader may have drained the chunks before it could see the suspended channel
+            if (stream.chunks.size() <= MAX_PENDING_CHUNKS / 2) {
+                stream.resume();
+            }
+        }
+    }
+
+    /**
+     *  fail the stream, the reader gets the cause
+     *
+     * @param cause cause
+     */
+    public void fail(Throwable cause) {
+        if (!STREAMS.remove(opaque, this)) {
+            // the stream is ended already
+            return;
+        }
+        unbind();
+        this.cause = cause;
+        chunks.offer(END);
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!nextChunk()) {
+            return -1;
+        }
+        return chunk[index++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!nextChunk()) {
+            return -1;
+        }
+        int count = Math.min(len, chunk.length - index);
+        System.arraycopy(chunk, index, b, off, count);
+        index += count;
+        return count;
+    }
+
+    @Override
+    public void close() {
+        finished = true;
+        if (STREAMS.remove(opaque, this)) {
+            unbind();
+            canceller.run();
+        }
+        chunks.clear();
+        resume();
+    }
+
+    /**
+     *  make sure there are bytes to read in the current chunk
+     *
+     * @return false if the stream is ended
+     */
+    private boolean nextChunk() throws IOException {
+        if (finished) {
+            return false;
+        }
+        if (chunk != null && index < chunk.length) {
+            return true;
+        }
+        try {
+            chunk = chunks.poll(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("read log stream interrupted", e);
+        }
+        index = 0;
+        if (chunk == null) {
+            close();
+            throw new IOException("read log stream timeout");
+        }
+        if (chunks.size() <= MAX_PENDING_CHUNKS / 2) {
+            resume();
+        }
+        if (chunk == END) {
+            finished = true;
+            if (cause != null) {
+                throw new IOException("read log stream error", cause);
+            }
+            return false;
+        }
+        return true;
+    }
+
+    private void unbind() {
+        Channel boundChannel = channel;
+        ChannelFutureListener listener = channelCloseListener;
+        if (boundChannel != null && listener != null) {
+            boundChannel.closeFuture().removeListener(listener);
+        }
+    }
+
+    private void suspend(Channel channel) {
+        synchronized (SUSPENDING_STREAMS) {
+            suspendedChannel = channel;
+            SUSPENDING_STREAMS.computeIfAbsent(channel, k -> new HashSet<>()).add(this);
+            channel.config().setAutoRead(false);
+        }
+    }
+
+    private void resume() {
+        synchronized (SUSPENDING_STREAMS) {
+            Channel channel = suspendedChannel;
+            if (channel == null) {
+                return;
+            }
+            suspendedChannel = null;
+            Set<LogInputStream> streams = SUSPENDING_STREAMS.get(channel);
+            if (streams != null && streams.remove(this) && streams.isEmpty()) {
+                // no other stream over the channel is behind
+                SUSPENDING_STREAMS.remove(channel);
+                channel.config().setAutoRead(true);
+            }
+        }
+    }
+}
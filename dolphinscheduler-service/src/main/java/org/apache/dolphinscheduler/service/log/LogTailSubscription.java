@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.log;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.netty.channel.Channel;
+
+/**
+ *  tail log subscription, it receives the log pushed with the opaque of the subscribe request until it is closed.
+ *  The pushes are queued and handed to the listener on the listener executor, one at a time and in order,
+ *  so a slow listener delays only its own subscription, and it is ended once too many pushes are queued for it.
+ */
+public class LogTailSubscription implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogTailSubscription.class);
+
+    private static final ConcurrentHashMap<Long, LogTailSubscription> SUBSCRIPTIONS = new ConcurrentHashMap<>();
+
+    /**
+     *  max pushes queued for the listener, the subscription is ended rather than buffering more log for it
+     */
+    static final int MAX_PENDING_PUSHES = 64;
+
+    private static final byte[] END = new byte[0];
+
+    /**
+     *  opaque of the subscribe request
+     */
+    private final long opaque;
+
+    private final LogTailListener listener;
+
+    /**
+     *  tells the log server to stop pushing
+     */
+    private final Runnable unsubscribe;
+
+    private final Executor listenerExecutor;
+
+    private final Queue<byte[]> pendingPushes = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pendingPushCount = new AtomicInteger();
+
+    /**
+     *  the queued pushes are being handed to the listener
+     */
+    private final AtomicBoolean delivering = new AtomicBoolean(false);
+
+    private final AtomicBoolean ended = new AtomicBoolean(false);
+
+    /**
+     *  closed by the listener side, the queued pushes are dropped
+     */
+    private volatile boolean closed;
+
+    public LogTailSubscription(long opaque, LogTailListener listener, Runnable unsubscribe) {
+        this(opaque, listener, unsubscribe, Runnable::run);
+    }
+
+    public LogTailSubscription(long opaque, LogTailListener listener, Runnable unsubscribe, Executor listenerExecutor) {
+        this.opaque = opaque;
+        this.listener = listener;
+        this.unsubscribe = unsubscribe;
+        this.listenerExecutor = listenerExecutor;
+        SUBSCRIPTIONS.put(opaque, this);
+    }
+
+    /**
+     *  receive a push of the subscription, the empty push ends the subscription
+     *
+     * @param channel channel
+     * @param command push command
+     */
+    public static void receive(Channel channel, Command command) {
+        LogTailSubscription subscription = SUBSCRIPTIONS.get(command.getOpaque());
+        if (subscription == null) {
+            return;
+        }
+        byte[] body = command.getBody();
+        if (body == null || body.length == 0) {
+            subscription.end();
+            return;
+        }
+        subscription.push(body);
+    }
+
+    public long getOpaque() {
+        return opaque;
+    }
+
+    public boolean isEnded() {
+        return ended.get();
+    }
+
+    /**
+     *  end the subscription without telling the log server, which has ended it or is not reachable,
+     *  the listener is ended after the queued pushes
+     */
+    public void end() {
+        if (ended.compareAndSet(false, true)) {
+            SUBSCRIPTIONS.remove(opaque);
+            enqueue(END);
+        }
+    }
+
+    /**
+     *  unsubscribe the log
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (ended.compareAndSet(false, true)) {
+            SUBSCRIPTIONS.remove(opaque);
+            unsubscribe.run();
+        }
+    }
+
+    private void push(byte[] bytes) {
+        if (pendingPushCount.get() >= MAX_PENDING_PUSHES) {
+            // the listener can not keep up, end its subscription rather than buffering the log for it
+            logger.warn("listener of the log subscription {} is too slow, end the subscription", opaque);
+            if (ended.compareAndSet(false, true)) {
+                SUBSCRIPTIONS.remove(opaque);
+                unsubscribe.run();
+                enqueue(END);
+            }
+            return;
+        }
+        enqueue(bytes);
+    }
+
+    private void enqueue(byte[] bytes) {
+        pendingPushCount.incrementAndGet();
+        pendingPushes.add(bytes);
+        if (delivering.compareAndSet(false, true)) {
+            listenerExecutor.execute(this::deliver);
+        }
+    }
+
+    private void deliver() {
+        byte[] bytes;
+        while ((bytes = pendingPushes.poll()) != null) {
+            pendingPushCount.decrementAndGet();
+            if (closed) {
+                continue;
+            }
+            if (bytes == END) {
+                listener.onEnd();
+            } else {
+                listener.onLog(bytes);
+            }
+        }
+        delivering.set(false);
+        // a push may be queued after the queue is seen empty and before the flag is cleared
+        if (!pendingPushes.isEmpty() && delivering.compareAndSet(false, true)) {
+            listenerExecutor.execute(this::deliver);
+        }
+    }
+}
@@ -71,6 +71,9 @@ public interface ProcessService {
 
     List<Command> findCommandPageBySlot(int pageSize, int pageNumber, int masterCount, int thisMasterSlot);
 
+    @Transactional
+    List<Command> claimCommandPage(int pageSize, String host, Date expireTime, boolean skipLocked);
+
     boolean verifyIsNeedCreateCommand(Command command);
 
     ProcessInstance findProcessInstanceDetailById(int processId);
@@ -131,6 +134,8 @@ public interface ProcessService {
 
     boolean updateTaskInstance(TaskInstance taskInstance);
 
+    void batchUpdateTaskInstance(List<TaskInstance> taskInstances);
+
     TaskInstance findTaskInstanceById(Integer taskId);
 
     List<TaskInstance> findTaskInstanceByIdList(List<Integer> idList);
@@ -135,6 +135,9 @@ import org.apache.dolphinscheduler.service.task.TaskPluginManager;
 import org.apache.dolphinscheduler.spi.enums.ResourceType;
 
 import org.apache.commons.collections.CollectionUtils;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -200,6 +203,9 @@ public class ProcessServiceImpl implements ProcessService {
     @Autowired
     private TaskInstanceMapper taskInstanceMapper;
 
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
     @Autowired
     private CommandMapper commandMapper;
 
@@ -287,6 +293,11 @@ public class ProcessServiceImpl implements ProcessService {
     @Override
     @Transactional
     public ProcessInstance handleCommand(Logger logger, String host, Command command) {
+        // the claim may expire while the command is queued, lock it so no other master can claim it again
+        if (command.getClaimHost() != null && commandMapper.lockClaimedCommand(command.getId(), host) == null) {
+            logger.info("command {} is handled or claimed by another master, skip it", command.getId());
+            return null;
+        }
         ProcessInstance processInstance = constructProcessInstance(command, host);
         // cannot construct process instance, return null
         if (processInstance == null) {
@@ -375,16 +386,20 @@ public class ProcessServiceImpl implements ProcessService {
     }
 
     /**
-     * save error command, and delete original command
+     * save error command, and delete original command,
+     * nothing is saved if the original command is already deleted, e.g. handled by the previous fetch
      *
      * @param command command
      * @param message message
      */
     @Override
     public void moveToErrorCommand(Command command, String message) {
+        if (this.commandMapper.deleteById(command.getId()) == 0) {
+            logger.warn("command {} is already deleted, skip moving it to error command", command.getId());
+            return;
+        }
         ErrorCommand errorCommand = new ErrorCommand(command, message);
         this.errorCommandMapper.insert(errorCommand);
-        this.commandMapper.deleteById(command.getId());
     }
 
     /**
@@ -447,6 +462,32 @@ public class ProcessServiceImpl implements ProcessService {
         return commandMapper.queryCommandPageBySlot(pageSize, pageNumber * pageSize, masterCount, thisMasterSlot);
     }
 
+    /**
+     * claim the unclaimed or expired commands for the given host, and return the commands claimed by the host
+     *
+     * @param pageSize the max count of commands claimed by the host
+     * @param host master host
+     * @param expireTime the claim before this time is expired and can be claimed again
+     * @param skipLocked skip the commands locked by other masters instead of waiting for them
+     * @return the commands claimed by the host
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public List<Command> claimCommandPage(int pageSize, String host, Date expireTime, boolean skipLocked) {
+        Date claimTime = new Date();
+        // the commands claimed by this host are still handled, keep them from expiring
+        commandMapper.renewCommandClaim(host, claimTime);
+        // the expired commands belong to a dead master, take them first so they can not be starved by new commands
+        List<Integer> commandIds = new ArrayList<>(commandMapper.selectExpiredCommandIdsForUpdate(pageSize, expireTime, skipLocked));
+        if (commandIds.size() < pageSize) {
+            commandIds.addAll(commandMapper.selectUnclaimedCommandIdsForUpdate(pageSize - commandIds.size(), skipLocked));
+        }
+        if (CollectionUtils.isNotEmpty(commandIds)) {
+            commandMapper.claimCommands(commandIds, host, claimTime);
+        }
+        return commandMapper.queryCommandPageByClaimHost(pageSize, host);
+    }
+
     /**
      * check the input command exists in queue list
      *
@@ -1685,6 +1726,28 @@ public class ProcessServiceImpl implements ProcessService {
         return count > 0;
     }
 
+    /**
+     * update task instances in one transaction, the updates are sent to the database as one jdbc batch
+     *
+     * @param taskInstances taskInstances
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public void batchUpdateTaskInstance(List<TaskInstance> taskInstances) {
+        if (taskInstances.size() <= 1) {
+            taskInstances.forEach(this::updateTaskInstance);
+            return;
+        }
+        // the batch session joins the transaction, so the statements are committed by the transaction
+        try (SqlSession sqlSession = sqlSessionFactory.openSession(ExecutorType.BATCH)) {
+            TaskInstanceMapper batchTaskInstanceMapper = sqlSession.getMapper(TaskInstanceMapper.class);
+            for (TaskInstance taskInstance : taskInstances) {
+                batchTaskInstanceMapper.updateById(taskInstance);
+            }
+            sqlSession.flushStatements();
+        }
+    }
+
     /**
      * find task instance by id
      *
@@ -21,34 +21,47 @@ import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.service.exceptions.TaskPriorityQueueException;
 
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashSet;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.PriorityQueue;
-import java.util.Set;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.base.Preconditions;
 
 /**
  * Task instances priority queue implementation
- * All the task instances are in the same process instance.
+ * All the task instances are in the same process instance, so a task instance is identified by its task code.
+ * <p>
+ * It is an indexed binary heap: the position of each task code in the heap is kept,
+ * so contains is O(1), and put and remove are O(log n) without scanning the queue.
+ * The task instances of the same priority are taken in the order they are put.
  */
 public class PeerTaskInstancePriorityQueue implements TaskPriorityQueue<TaskInstance> {
+    private final Comparator<TaskInstance> comparator = new TaskInfoComparator();
+
     /**
-     * queue size
+     * heap of the entries
+     */
+    private Entry[] heap = new Entry[16];
+
+    private int size;
+
+    /**
+     * position of the task code in the heap
      */
-    private static final Integer QUEUE_MAX_SIZE = 3000;
+    private final Map<Long, Integer> positions = new HashMap<>();
 
     /**
-     * queue
+     * sequence of the put, it keeps the order of the task instances of the same priority
      */
-    private final PriorityQueue<TaskInstance> queue = new PriorityQueue<>(QUEUE_MAX_SIZE, new TaskInfoComparator());
-    private final Set<String> taskInstanceIdentifySet = Collections.synchronizedSet(new HashSet<>());
+    private long sequence;
 
     /**
-     * put task instance to priority queue
+     * put task instance to priority queue, the task instance of the same task code is replaced
      *
      * @param taskInstance taskInstance
      * @throws TaskPriorityQueueException
@@ -56,8 +69,13 @@ public class PeerTaskInstancePriorityQueue implements TaskPriorityQueue<TaskInst
     @Override
     public void put(TaskInstance taskInstance) throws TaskPriorityQueueException {
         Preconditions.checkNotNull(taskInstance);
-        queue.add(taskInstance);
-        taskInstanceIdentifySet.add(getTaskInstanceIdentify(taskInstance));
+        remove(taskInstance);
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        heap[size] = new Entry(taskInstance, sequence++);
+        positions.put(taskInstance.getTaskCode(), size);
+        siftUp(size++);
     }
 
     /**
@@ -68,10 +86,11 @@ public class PeerTaskInstancePriorityQueue implements TaskPriorityQueue<TaskInst
      */
     @Override
     public TaskInstance take() throws TaskPriorityQueueException {
-        TaskInstance taskInstance = queue.poll();
-        if (taskInstance != null) {
-            taskInstanceIdentifySet.remove(getTaskInstanceIdentify(taskInstance));
+        if (size == 0) {
+            return null;
         }
+        TaskInstance taskInstance = heap[0].taskInstance;
+        removeAt(0);
         return taskInstance;
     }
 
@@ -98,7 +117,7 @@ public class PeerTaskInstancePriorityQueue implements TaskPriorityQueue<TaskInst
      * @return task instance
      */
     public TaskInstance peek() {
-        return queue.peek();
+        return size == 0 ? null : heap[0].taskInstance;
     }
 
     /**
@@ -108,7 +127,7 @@ public class PeerTaskInstancePriorityQueue implements TaskPriorityQueue<TaskInst
      */
     @Override
     public int size() {
-        return queue.size();
+        return size;
     }
 
     /**
@@ -116,8 +135,9 @@ public class PeerTaskInstancePriorityQueue implements TaskPriorityQueue<TaskInst
      *
      */
     public void clear() {
-        queue.clear();
-        taskInstanceIdentifySet.clear();
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+        positions.clear();
     }
 
     /**
@@ -128,7 +148,28 @@ public class PeerTaskInstancePriorityQueue implements TaskPriorityQueue<TaskInst
      */
     public boolean contains(TaskInstance taskInstance) {
         Preconditions.checkNotNull(taskInstance);
-        return taskInstanceIdentifySet.contains(getTaskInstanceIdentify(taskInstance));
+        return contains(taskInstance.getTaskCode());
+    }
+
+    /**
+     * whether contains the task instance of the task code
+     *
+     * @param taskCode task code
+     * @return true is contains
+     */
+    public boolean contains(long taskCode) {
+        return positions.containsKey(taskCode);
+    }
+
+    /**
+     * get the task instance of the task code
+     *
+     * @param taskCode task code
+     * @return task instance, null if not contained
+     */
+    public TaskInstance get(long taskCode) {
+        Integer position = positions.get(taskCode);
+        return position == null ? null : heap[position].taskInstance;
     }
 
     /**
@@ -139,27 +180,98 @@ public class PeerTaskInstancePriorityQueue implements TaskPriorityQueue<TaskInst
      */
     public boolean remove(TaskInstance taskInstance) {
         Preconditions.checkNotNull(taskInstance);
-        taskInstanceIdentifySet.remove(getTaskInstanceIdentify(taskInstance));
-        return queue.remove(taskInstance);
+        Integer position = positions.get(taskInstance.getTaskCode());
+        if (position == null) {
+            return false;
+        }
+        removeAt(position);
+        return true;
     }
 
     /**
-     * get iterator
+     * get iterator, the task instances are not in priority order
      *
      * @return Iterator
      */
     public Iterator<TaskInstance> iterator() {
-        return queue.iterator();
+        List<TaskInstance> taskInstances = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            taskInstances.add(heap[i].taskInstance);
+        }
+        return taskInstances.iterator();
+    }
+
+    /**
+     * @return the comparator of the priority, the less one is taken first
+     */
+    public Comparator<TaskInstance> comparator() {
+        return comparator;
+    }
+
+    private void removeAt(int position) {
+        positions.remove(heap[position].taskInstance.getTaskCode());
+        size--;
+        if (position == size) {
+            heap[size] = null;
+            return;
+        }
+        heap[position] = heap[size];
+        heap[size] = null;
+        positions.put(heap[position].taskInstance.getTaskCode(), position);
+        siftDown(position);
+        siftUp(position);
+    }
+
+    private void siftUp(int position) {
+        Entry entry = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (compare(entry, heap[parent]) >= 0) {
+                break;
+            }
+            move(heap[parent], position);
+            position = parent;
+        }
+        move(entry, position);
+    }
+
+    private void siftDown(int position) {
+        Entry entry = heap[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && compare(heap[child + 1], heap[child]) < 0) {
+                child++;
+            }
+            if (compare(entry, heap[child]) <= 0) {
+                break;
+            }
+            move(heap[child], position);
+            position = child;
+        }
+        move(entry, position);
     }
 
-    // since the task instance will not contain taskInstanceId until insert into database
-    // So we use processInstanceId + taskCode + version to identify a taskInstance.
-    private String getTaskInstanceIdentify(TaskInstance taskInstance) {
-        return String.join(
-                String.valueOf(taskInstance.getProcessInstanceId()),
-                String.valueOf(taskInstance.getTaskCode()),
-                String.valueOf(taskInstance.getTaskDefinitionVersion())
-                , "-");
+    private void move(Entry entry, int position) {
+        heap[position] = entry;
+        positions.put(entry.taskInstance.getTaskCode(), position);
+    }
+
+    private int compare(Entry o1, Entry o2) {
+        int result = comparator.compare(o1.taskInstance, o2.taskInstance);
+        return result != 0 ? result : Long.compare(o1.sequence, o2.sequence);
+    }
+
+    private static final class Entry {
+
+        private final TaskInstance taskInstance;
+
+        private final long sequence;
+
+        Entry(TaskInstance taskInstance, long sequence) {
+            this.taskInstance = taskInstance;
+            this.sequence = sequence;
+        }
     }
 
     /**
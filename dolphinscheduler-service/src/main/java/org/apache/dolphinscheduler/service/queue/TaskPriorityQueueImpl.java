@@ -17,24 +17,52 @@
 
 package org.apache.dolphinscheduler.service.queue;
 
+import org.apache.dolphinscheduler.common.Constants;
 import org.apache.dolphinscheduler.service.exceptions.TaskPriorityQueueException;
+import org.apache.dolphinscheduler.spi.utils.StringUtils;
 
-import java.util.concurrent.PriorityBlockingQueue;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.springframework.stereotype.Service;
 
 /**
- * A singleton of a task queue implemented using PriorityBlockingQueue
+ * A singleton of a task queue, the tasks are kept in a priority queue per worker group,
+ * and the worker groups are served in round robin, so a busy worker group can not starve the others.
+ * A worker group can be parked when it has no worker, its tasks will not be polled until it is unparked.
  */
 @Service
 public class TaskPriorityQueueImpl implements TaskPriorityQueue<TaskPriority> {
 
     /**
-     * Task queue, this queue is unbounded, this means it will cause OutOfMemoryError.
+     * Task queue of each worker group, the queue is unbounded, this means it will cause OutOfMemoryError.
      * The master will stop to generate the task if memory is too high.
      */
-    private final PriorityBlockingQueue<TaskPriority> queue = new PriorityBlockingQueue<>(3000);
+    private final Map<String, PriorityQueue<TaskPriority>> groupQueues = new HashMap<>();
+
+    /**
+     * the worker groups which have tasks and are not parked, in round robin order
+     */
+    private final Deque<String> readyGroups = new ArrayDeque<>();
+
+    /**
+     * the worker groups which have no worker
+     */
+    private final Set<String> parkedGroups = new HashSet<>();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition notEmpty = lock.newCondition();
+
+    private int size;
 
     /**
      * put task takePriorityInfo
@@ -44,7 +72,19 @@ public class TaskPriorityQueueImpl implements TaskPriorityQueue<TaskPriority> {
      */
     @Override
     public void put(TaskPriority taskPriorityInfo) throws TaskPriorityQueueException {
-        queue.put(taskPriorityInfo);
+        String workerGroup = getWorkerGroup(taskPriorityInfo);
+        lock.lock();
+        try {
+            PriorityQueue<TaskPriority> groupQueue = groupQueues.computeIfAbsent(workerGroup, key -> new PriorityQueue<>());
+            groupQueue.offer(taskPriorityInfo);
+            size++;
+            if (groupQueue.size() == 1 && !parkedGroups.contains(workerGroup)) {
+                readyGroups.offer(workerGroup);
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -55,7 +95,15 @@ public class TaskPriorityQueueImpl implements TaskPriorityQueue<TaskPriority> {
      */
     @Override
     public TaskPriority take() throws TaskPriorityQueueException, InterruptedException {
-        return queue.take();
+        lock.lockInterruptibly();
+        try {
+            while (readyGroups.isEmpty()) {
+                notEmpty.await();
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -69,17 +117,115 @@ public class TaskPriorityQueueImpl implements TaskPriorityQueue<TaskPriority> {
      */
     @Override
     public TaskPriority poll(long timeout, TimeUnit unit) throws TaskPriorityQueueException, InterruptedException {
-        return queue.poll(timeout,unit);
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (readyGroups.isEmpty()) {
+                if (nanos <= 0) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return dequeue();
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
-     * queue size
+     * queue size, the tasks of the parked worker groups included
      *
      * @return size
      * @throws TaskPriorityQueueException
      */
     @Override
     public int size() throws TaskPriorityQueueException {
-        return queue.size();
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stop polling the tasks of the worker group until it is unparked.
+     *
+     * @param workerGroup worker group
+     */
+    public void park(String workerGroup) {
+        workerGroup = getWorkerGroup(workerGroup);
+        lock.lock();
+        try {
+            if (parkedGroups.add(workerGroup)) {
+                readyGroups.remove(workerGroup);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Resume polling the tasks of the worker group.
+     *
+     * @param workerGroup worker group
+     */
+    public void unpark(String workerGroup) {
+        workerGroup = getWorkerGroup(workerGroup);
+        lock.lock();
+        try {
+            if (!parkedGroups.remove(workerGroup)) {
+                return;
+            }
+            PriorityQueue<TaskPriority> groupQueue = groupQueues.get(workerGroup);
+            if (groupQueue != null && !groupQueue.isEmpty()) {
+                readyGroups.offer(workerGroup);
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * get the parked worker groups
+     *
+     * @return parked worker groups
+     */
+    public Set<String> getParkedGroups() {
+        lock.lock();
+        try {
+            return new HashSet<>(parkedGroups);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * poll the head task of the next ready worker group, must be called with the lock held
+     */
+    private TaskPriority dequeue() {
+        String workerGroup = readyGroups.poll();
+        PriorityQueue<TaskPriority> groupQueue = groupQueues.get(workerGroup);
+        TaskPriority taskPriority = groupQueue.poll();
+        size--;
+        if (groupQueue.isEmpty()) {
+            groupQueues.remove(workerGroup);
+        } else {
+            readyGroups.offer(workerGroup);
+        }
+        if (!readyGroups.isEmpty()) {
+            // other consumers may be waiting
+            notEmpty.signal();
+        }
+        return taskPriority;
+    }
+
+    private String getWorkerGroup(TaskPriority taskPriority) {
+        return getWorkerGroup(taskPriority.getGroupName());
+    }
+
+    private String getWorkerGroup(String workerGroup) {
+        return StringUtils.isEmpty(workerGroup) ? Constants.DEFAULT_WORKER_GROUP : workerGroup;
     }
 }
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.log;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import io.netty.channel.embedded.EmbeddedChannel;
+
+public class LogInputStreamTest {
+
+    @Test
+    public void testReadChunks() throws IOException {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        LogInputStream logStream = new LogInputStream(1L, 1000);
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        for (int i = 0; i < 20; i++) {
+            byte[] line = ("line " + i + "\n").getBytes(StandardCharsets.UTF_8);
+            expected.write(line);
+            LogInputStream.receive(channel, chunk(1L, line));
+        }
+        // the channel stops reading while the reader falls behind
+        Assert.assertFalse(channel.config().isAutoRead());
+        LogInputStream.receive(channel, chunk(1L, new byte[0]));
+
+        try (InputStream in = logStream) {
+            Assert.assertArrayEquals(expected.toByteArray(), IOUtils.toByteArray(in));
+        }
+        Assert.assertTrue(channel.config().isAutoRead());
+    }
+
+    @Test
+    public void testConcurrentStreams() throws IOException {
+        // the streams from the same log server share the channel
+        EmbeddedChannel channel = new EmbeddedChannel();
+        LogInputStream fastStream = new LogInputStream(8L, 1000);
+        LogInputStream slowStream = new LogInputStream(9L, 1000);
+        byte[] line = "line\n".getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < 20; i++) {
+            LogInputStream.receive(channel, chunk(8L, line));
+            LogInputStream.receive(channel, chunk(9L, line));
+        }
+        LogInputStream.receive(channel, chunk(8L, new byte[0]));
+        Assert.assertFalse(channel.config().isAutoRead());
+
+        // the channel keeps paused while the slow stream is still behind
+        try (InputStream in = fastStream) {
+            Assert.assertEquals(20 * line.length, IOUtils.toByteArray(in).length);
+        }
+        Assert.assertFalse(channel.config().isAutoRead());
+
+        // and resumes once the slow stream has half of the max pending chunks left
+        byte[] buffer = new byte[line.length];
+        for (int i = 0; i < 11; i++) {
+            Assert.assertEquals(line.length, slowStream.read(buffer, 0, buffer.length));
+        }
+        Assert.assertFalse(channel.config().isAutoRead());
+        Assert.assertEquals(line.length, slowStream.read(buffer, 0, buffer.length));
+        Assert.assertTrue(channel.config().isAutoRead());
+        slowStream.close();
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadFailed() throws IOException {
+        LogInputStream logStream = new LogInputStream(2L, 1000);
+        logStream.fail(new IllegalStateException("connect failed"));
+        logStream.read();
+    }
+
+    @Test(expected = IOException.class)
+    public void testReadTimeout() throws IOException {
+        LogInputStream logStream = new LogInputStream(3L, 10);
+        logStream.read();
+    }
+
+    @Test
+    public void testChannelClosed() throws IOException {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        LogInputStream logStream = new LogInputStream(4L, 1000);
+        logStream.bind(channel, Runnable::run);
+        LogInputStream.receive(channel, chunk(4L, "line\n".getBytes(StandardCharsets.UTF_8)));
+        channel.close();
+
+        // the received chunk is read, and the stream fails instead of ending as if it were complete
+        Assert.assertEquals('l', logStream.read());
+        Assert.assertEquals(4, logStream.read(new byte[8], 0, 8));
+        try {
+            logStream.read();
+            Assert.fail("the stream is truncated by the channel close");
+        } catch (IOException e) {
+            Assert.assertEquals("log stream channel closed", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void testChannelClosedAfterEnd() throws IOException {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        LogInputStream logStream = new LogInputStream(5L, 1000);
+        logStream.bind(channel, Runnable::run);
+        LogInputStream.receive(channel, chunk(5L, new byte[0]));
+        channel.close();
+        Assert.assertEquals(-1, logStream.read());
+    }
+
+    @Test
+    public void testCloseBeforeEnd() {
+        AtomicInteger cancelled = new AtomicInteger();
+        LogInputStream logStream = new LogInputStream(6L, 1000, cancelled::incrementAndGet);
+        logStream.close();
+        Assert.assertEquals(1, cancelled.get());
+
+        LogInputStream endedStream = new LogInputStream(7L, 1000, cancelled::incrementAndGet);
+        LogInputStream.receive(new EmbeddedChannel(), chunk(7L, new byte[0]));
+        endedStream.close();
+        Assert.assertEquals(1, cancelled.get());
+    }
+
+    private Command chunk(long opaque, byte[] body) {
+        Command command = new Command(opaque);
+        command.setType(CommandType.GET_LOG_STREAM_CHUNK);
+        command.setBody(body);
+        return command;
+    }
+}
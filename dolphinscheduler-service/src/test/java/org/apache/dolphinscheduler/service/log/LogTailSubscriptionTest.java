@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.service.log;
+
+import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.remote.command.CommandType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LogTailSubscriptionTest {
+
+    @Test
+    public void testReceive() {
+        List<String> logs = new ArrayList<>();
+        AtomicInteger ends = new AtomicInteger();
+        AtomicInteger unsubscribes = new AtomicInteger();
+        LogTailSubscription subscription = new LogTailSubscription(1L, new LogTailListener() {
+            @Override
+            public void onLog(byte[] bytes) {
+                logs.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void onEnd() {
+                ends.incrementAndGet();
+            }
+        }, unsubscribes::incrementAndGet);
+
+        LogTailSubscription.receive(null, push(1L, "line 1\n"));
+        LogTailSubscription.receive(null, push(2L, "other subscription\n"));
+        LogTailSubscription.receive(null, push(1L, ""));
+        LogTailSubscription.receive(null, push(1L, "line 2\n"));
+        subscription.close();
+
+        Assert.assertEquals(1, logs.size());
+        Assert.assertEquals("line 1\n", logs.get(0));
+        Assert.assertEquals(1, ends.get());
+        // the subscription ended by the log server is not unsubscribed
+        Assert.assertEquals(0, unsubscribes.get());
+        Assert.assertTrue(subscription.isEnded());
+    }
+
+    @Test
+    public void testClose() {
+        AtomicInteger unsubscribes = new AtomicInteger();
+        LogTailSubscription subscription = new LogTailSubscription(3L, new LogTailListener() {
+            @Override
+            public void onLog(byte[] bytes) {
+                Assert.fail("no log is expected after the subscription is closed");
+            }
+
+            @Override
+            public void onEnd() {
+                Assert.fail("the closed subscription is not ended by the log server");
+            }
+        }, unsubscribes::incrementAndGet);
+
+        subscription.close();
+        subscription.close();
+        subscription.end();
+        LogTailSubscription.receive(null, push(3L, "line 1\n"));
+
+        Assert.assertEquals(1, unsubscribes.get());
+    }
+
+    @Test
+    public void testSlowListener() {
+        List<String> logs = new ArrayList<>();
+        AtomicInteger ends = new AtomicInteger();
+        AtomicInteger unsubscribes = new AtomicInteger();
+        // the listener is stuck until the tasks are run
+        List<Runnable> tasks = new ArrayList<>();
+        LogTailSubscription subscription = new LogTailSubscription(4L, new LogTailListener() {
+            @Override
+            public void onLog(byte[] bytes) {
+                logs.add(new String(bytes, StandardCharsets.UTF_8));
+            }
+
+            @Override
+            public void onEnd() {
+                ends.incrementAndGet();
+            }
+        }, unsubscribes::incrementAndGet, tasks::add);
+
+        for (int i = 0; i <= LogTailSubscription.MAX_PENDING_PUSHES; i++) {
+            LogTailSubscription.receive(null, push(4L, "line " + i + "\n"));
+        }
+        Assert.assertTrue(subscription.isEnded());
+        Assert.assertEquals(1, unsubscribes.get());
+
+        tasks.forEach(Runnable::run);
+        Assert.assertEquals(LogTailSubscription.MAX_PENDING_PUSHES, logs.size());
+        Assert.assertEquals("line 0\n", logs.get(0));
+        Assert.assertEquals(1, ends.get());
+    }
+
+    private Command push(long opaque, String log) {
+        Command command = new Command(opaque);
+        command.setType(CommandType.TAIL_LOG_PUSH);
+        command.setBody(log.getBytes(StandardCharsets.UTF_8));
+        return command;
+    }
+}
@@ -35,6 +35,7 @@ import org.apache.dolphinscheduler.dao.entity.DqExecuteResult;
 import org.apache.dolphinscheduler.dao.entity.DqRule;
 import org.apache.dolphinscheduler.dao.entity.DqRuleExecuteSql;
 import org.apache.dolphinscheduler.dao.entity.DqRuleInputEntry;
+import org.apache.dolphinscheduler.dao.entity.ErrorCommand;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinition;
 import org.apache.dolphinscheduler.dao.entity.ProcessDefinitionLog;
 import org.apache.dolphinscheduler.dao.entity.ProcessInstance;
@@ -488,6 +489,22 @@ public class ProcessServiceTest {
         processService.handleCommand(logger, host, command1);
     }
 
+    @Test
+    public void testMoveToErrorCommand() {
+        Command command = new Command();
+        command.setId(1);
+        command.setCommandType(CommandType.START_PROCESS);
+
+        // the command is already deleted by the previous handle
+        Mockito.when(commandMapper.deleteById(1)).thenReturn(0);
+        processService.moveToErrorCommand(command, "error");
+        Mockito.verify(errorCommandMapper, Mockito.never()).insert(any(ErrorCommand.class));
+
+        Mockito.when(commandMapper.deleteById(1)).thenReturn(1);
+        processService.moveToErrorCommand(command, "error");
+        Mockito.verify(errorCommandMapper, Mockito.times(1)).insert(any(ErrorCommand.class));
+    }
+
     @Test
     public void testGetUserById() {
         User user = new User();
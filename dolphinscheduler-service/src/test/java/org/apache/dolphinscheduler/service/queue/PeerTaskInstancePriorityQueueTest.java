@@ -21,6 +21,8 @@ import org.apache.dolphinscheduler.common.enums.Priority;
 import org.apache.dolphinscheduler.dao.entity.TaskInstance;
 import org.apache.dolphinscheduler.service.exceptions.TaskPriorityQueueException;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.Assert;
@@ -28,6 +30,8 @@ import org.junit.Test;
 
 public class PeerTaskInstancePriorityQueueTest {
 
+    private long taskCode;
+
     @Test
     public void put() throws TaskPriorityQueueException {
         PeerTaskInstancePriorityQueue queue = new PeerTaskInstancePriorityQueue();
@@ -111,8 +115,44 @@ public class PeerTaskInstancePriorityQueueTest {
         queue.put(taskInstanceMediumPriority);
         Assert.assertTrue(queue.contains(taskInstanceMediumPriority));
         TaskInstance taskInstance2 = createTaskInstance("medium2", Priority.MEDIUM, 1);
-        taskInstance2.setProcessInstanceId(2);
         Assert.assertFalse(queue.contains(taskInstance2));
+        Assert.assertTrue(queue.contains(taskInstanceMediumPriority.getTaskCode()));
+        Assert.assertSame(taskInstanceMediumPriority, queue.get(taskInstanceMediumPriority.getTaskCode()));
+    }
+
+    @Test
+    public void putSameTaskCode() throws Exception {
+        PeerTaskInstancePriorityQueue queue = new PeerTaskInstancePriorityQueue();
+        TaskInstance taskInstance = createTaskInstance("medium", Priority.MEDIUM, 1);
+        queue.put(taskInstance);
+        TaskInstance retryTaskInstance = createTaskInstance("retry", Priority.MEDIUM, 1);
+        retryTaskInstance.setTaskCode(taskInstance.getTaskCode());
+        queue.put(retryTaskInstance);
+        Assert.assertEquals(1, queue.size());
+        Assert.assertSame(retryTaskInstance, queue.take());
+        Assert.assertNull(queue.take());
+    }
+
+    @Test
+    public void takeInPriorityOrder() throws Exception {
+        PeerTaskInstancePriorityQueue queue = new PeerTaskInstancePriorityQueue();
+        Priority[] priorities = Priority.values();
+        List<TaskInstance> taskInstances = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            TaskInstance taskInstance = createTaskInstance("task" + i, priorities[i % priorities.length], i % 3);
+            taskInstances.add(taskInstance);
+            queue.put(taskInstance);
+        }
+        // remove some from the middle of the heap
+        for (int i = 0; i < 100; i += 7) {
+            Assert.assertTrue(queue.remove(taskInstances.get(i)));
+        }
+        TaskInstance previous = queue.take();
+        while (queue.size() > 0) {
+            TaskInstance taskInstance = queue.take();
+            Assert.assertTrue(queue.comparator().compare(previous, taskInstance) <= 0);
+            previous = taskInstance;
+        }
     }
 
     @Test
@@ -153,6 +193,7 @@ public class PeerTaskInstancePriorityQueueTest {
     private TaskInstance createTaskInstance(String name, Priority priority, int taskGroupPriority) {
         TaskInstance taskInstance = new TaskInstance();
         taskInstance.setName(name);
+        taskInstance.setTaskCode(++taskCode);
         taskInstance.setTaskInstancePriority(priority);
         taskInstance.setTaskGroupPriority(taskGroupPriority);
         return taskInstance;
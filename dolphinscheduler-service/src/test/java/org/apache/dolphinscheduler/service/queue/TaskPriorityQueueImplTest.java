@@ -141,6 +141,37 @@ public class TaskPriorityQueueImplTest {
         Assert.assertTrue(getPriorityQueue().size() == 2);
     }
 
+    @Test
+    public void testRoundRobinWorkerGroups() throws Exception {
+        TaskPriorityQueueImpl queue = new TaskPriorityQueueImpl();
+        queue.put(new TaskPriority(0, 1, 0, 1, 1, "busy"));
+        queue.put(new TaskPriority(0, 1, 0, 2, 1, "busy"));
+        queue.put(new TaskPriority(0, 1, 0, 3, 1, "busy"));
+        queue.put(new TaskPriority(0, 2, 0, 4, 1, "idle"));
+
+        Assert.assertEquals(1, queue.take().getTaskId());
+        Assert.assertEquals(4, queue.take().getTaskId());
+        Assert.assertEquals(2, queue.take().getTaskId());
+        Assert.assertEquals(3, queue.take().getTaskId());
+        Assert.assertEquals(0, queue.size());
+    }
+
+    @Test
+    public void testParkWorkerGroup() throws Exception {
+        TaskPriorityQueueImpl queue = new TaskPriorityQueueImpl();
+        queue.put(new TaskPriority(0, 1, 0, 1, 1, "noWorker"));
+        queue.park("noWorker");
+        queue.put(new TaskPriority(0, 1, 0, 2, 1, "noWorker"));
+        Assert.assertEquals(2, queue.size());
+        Assert.assertNull(queue.poll(10, TimeUnit.MILLISECONDS));
+        Assert.assertTrue(queue.getParkedGroups().contains("noWorker"));
+
+        queue.unpark("noWorker");
+        Assert.assertEquals(1, queue.poll(10, TimeUnit.MILLISECONDS).getTaskId());
+        Assert.assertEquals(2, queue.poll(10, TimeUnit.MILLISECONDS).getTaskId());
+        Assert.assertTrue(queue.getParkedGroups().isEmpty());
+    }
+
     /**
      * get queue
      *
@@ -20,6 +20,9 @@ package org.apache.dolphinscheduler.plugin.task.api;
 import static org.apache.dolphinscheduler.plugin.task.api.TaskConstants.EXIT_CODE_FAILURE;
 import static org.apache.dolphinscheduler.plugin.task.api.TaskConstants.EXIT_CODE_KILL;
 
+import org.apache.dolphinscheduler.plugin.task.api.log.TaskLogPipeline;
+import org.apache.dolphinscheduler.plugin.task.api.log.TaskLogReader;
+import org.apache.dolphinscheduler.plugin.task.api.log.TaskLogSink;
 import org.apache.dolphinscheduler.plugin.task.api.model.TaskResponse;
 import org.apache.dolphinscheduler.plugin.task.api.utils.AbstractCommandExecutorConstants;
 import org.apache.dolphinscheduler.plugin.task.api.utils.OSUtils;
@@ -32,6 +35,7 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.lang.reflect.Field;
 import java.nio.charset.StandardCharsets;
@@ -84,9 +88,18 @@ public abstract class AbstractCommandExecutor {
 
     /**
      * log list
+     *
+     * @deprecated the output is buffered by the task log pipeline, this queue only receives the batches of
+     * the output lines if it is given to the constructor
      */
+    @Deprecated
     protected LinkedBlockingQueue<String> logBuffer;
 
+    /**
+     * log of the task in the task log pipeline
+     */
+    private TaskLogSink logSink;
+
     protected boolean logOutputIsSuccess = false;
 
     /*
@@ -108,8 +121,14 @@ public abstract class AbstractCommandExecutor {
         this.logBuffer = new LinkedBlockingQueue<>();
     }
 
+    /**
+     * @deprecated use {@link #AbstractCommandExecutor(Consumer, TaskExecutionContext, Logger)},
+     * the batches of the output lines are handed to the log buffer by the task log pipeline
+     */
+    @Deprecated
     public AbstractCommandExecutor(LinkedBlockingQueue<String> logBuffer) {
         this.logBuffer = logBuffer;
+        this.logHandler = logBuffer::addAll;
     }
 
     /**
@@ -229,6 +248,11 @@ public abstract class AbstractCommandExecutor {
 
         // if SHELL task exit
         if (status) {
+            // the app ids are found in the log, wait a moment for the last lines of the output
+            if (!logSink.awaitFinished(TaskConstants.DEFAULT_LOG_FLUSH_INTERVAL)) {
+                logger.warn("the output of the process is not written to the log in time, processId: {}", processId);
+            }
+
             // set appIds
             List<String> appIds = getAppIds(taskRequest.getLogPath());
             result.setAppIds(String.join(TaskConstants.COMMA, appIds));
@@ -263,9 +287,6 @@ public abstract class AbstractCommandExecutor {
             return;
         }
 
-        // clear log
-        clear();
-
         int processId = getProcessId(process);
 
         logger.info("cancel process: {}", processId);
@@ -332,69 +353,30 @@ public abstract class AbstractCommandExecutor {
     }
 
     /**
-     * clear
-     */
-    private void clear() {
-
-        LinkedBlockingQueue<String> markerLog = new LinkedBlockingQueue<>(1);
-        markerLog.add(ch.qos.logback.classic.ClassicConstants.FINALIZE_SESSION_MARKER.toString());
-
-        if (!logBuffer.isEmpty()) {
-            // log handle
-            logHandler.accept(logBuffer);
-            logBuffer.clear();
-        }
-        logHandler.accept(markerLog);
-    }
-
-    /**
-     * get the standard output of the process
+     * get the standard output of the process, the lines are written to the task log by the task log pipeline
      *
      * @param process process
      */
     private void parseProcessOutput(Process process) {
         String threadLoggerInfoName = taskRequest.getTaskLogName();
+        logSink = new TaskLogSink(threadLoggerInfoName, logHandler);
+        TaskLogReader logReader = new TaskLogReader(TaskLogPipeline.getInstance(), logSink, line -> {
+            varPool.append(findVarPool(line));
+            varPool.append("$VarPool$");
+        });
         ExecutorService getOutputLogService = newDaemonSingleThreadExecutor(threadLoggerInfoName);
         getOutputLogService.submit(() -> {
-            try (BufferedReader inReader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-                String line;
-                while ((line = inReader.readLine()) != null) {
-                    if (line.startsWith("${setValue(") || line.startsWith("#{setValue(")) {
-                        varPool.append(findVarPool(line));
-                        varPool.append("$VarPool$");
-                    } else {
-                        logBuffer.add(line);
-                        taskResultString = line;
-                    }
-                }
-                logOutputIsSuccess = true;
+            try (InputStream in = process.getInputStream()) {
+                logReader.read(in);
             } catch (Exception e) {
                 logger.error(e.getMessage(), e);
+            } finally {
+                taskResultString = logReader.getLastLine();
                 logOutputIsSuccess = true;
             }
         });
 
         getOutputLogService.shutdown();
-
-        ExecutorService parseProcessOutputExecutorService = newDaemonSingleThreadExecutor(threadLoggerInfoName);
-        parseProcessOutputExecutorService.submit(() -> {
-            try {
-                long lastFlushTime = System.currentTimeMillis();
-                while (logBuffer.size() > 0 || !logOutputIsSuccess) {
-                    if (logBuffer.size() > 0) {
-                        lastFlushTime = flush(lastFlushTime);
-                    } else {
-                        Thread.sleep(TaskConstants.DEFAULT_LOG_FLUSH_INTERVAL);
-                    }
-                }
-            } catch (Exception e) {
-                Thread.currentThread().interrupt();
-                logger.error(e.getMessage(), e);
-            } finally {
-                clear();
-            }
-        });
-        parseProcessOutputExecutorService.shutdown();
     }
 
     /**
@@ -510,27 +492,6 @@ public abstract class AbstractCommandExecutor {
         return processId;
     }
 
-    /**
-     * when log buffer siz or flush time reach condition , then flush
-     *
-     * @param lastFlushTime last flush time
-     * @return last flush time
-     */
-    private long flush(long lastFlushTime) {
-        long now = System.currentTimeMillis();
-
-        /*
-         * when log buffer siz or flush time reach condition , then flush
-         */
-        if (logBuffer.size() >= TaskConstants.DEFAULT_LOG_ROWS_NUM || now - lastFlushTime > TaskConstants.DEFAULT_LOG_FLUSH_INTERVAL) {
-            lastFlushTime = now;
-            logHandler.accept(logBuffer);
-
-            logBuffer.clear();
-        }
-        return lastFlushTime;
-    }
-
     protected abstract String buildCommandFilePath();
 
     protected abstract void createCommandFileIfNotExists(String execCommand, String commandFile) throws IOException;
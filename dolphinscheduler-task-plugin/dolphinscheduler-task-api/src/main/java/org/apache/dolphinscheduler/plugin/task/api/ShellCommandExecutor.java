@@ -60,6 +60,10 @@ public class ShellCommandExecutor extends AbstractCommandExecutor {
         super(logHandler, taskRequest, logger);
     }
 
+    /**
+     * @deprecated use {@link #ShellCommandExecutor(Consumer, TaskExecutionContext, Logger)}
+     */
+    @Deprecated
     public ShellCommandExecutor(LinkedBlockingQueue<String> logBuffer) {
         super(logBuffer);
     }
@@ -249,6 +249,11 @@ public class TaskExecutionContext {
      */
     private Integer memoryMax;
 
+    /**
+     * address of the master running the workflow instance, the task events are reported to it
+     */
+    private String workflowInstanceHost;
+
     public String getTaskLogName() {
         return taskLogName;
     }
@@ -593,6 +598,14 @@ public class TaskExecutionContext {
         this.memoryMax = memoryMax;
     }
 
+    public String getWorkflowInstanceHost() {
+        return workflowInstanceHost;
+    }
+
+    public void setWorkflowInstanceHost(String workflowInstanceHost) {
+        this.workflowInstanceHost = workflowInstanceHost;
+    }
+
     public K8sTaskExecutionContext getK8sTaskExecutionContext() {
         return k8sTaskExecutionContext;
     }
@@ -640,6 +653,7 @@ public class TaskExecutionContext {
                 + ", sqlTaskExecutionContext=" + sqlTaskExecutionContext
                 + ", k8sTaskExecutionContext=" + k8sTaskExecutionContext
                 + ", dataQualityTaskExecutionContext=" + dataQualityTaskExecutionContext
+                + ", workflowInstanceHost='" + workflowInstanceHost + '\''
                 + '}';
     }
 
@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api.log;
+
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskLogOverflowPolicy;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * task log pipeline shared by the tasks of a worker.
+ * The readers of the task outputs publish chunks of lines to a bounded ring buffer,
+ * and a single drain thread batches the lines of each task and hands them to its log handler.
+ */
+public final class TaskLogPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskLogPipeline.class);
+
+    /**
+     * the output of the tasks is decoded by the platform charset
+     */
+    static final Charset CHARSET = Charset.defaultCharset();
+
+    /**
+     * default max chunks in the pipeline
+     */
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    /**
+     * max nanos the drain thread waits for the chunks, a wake-up missed by a reader costs no more than it
+     */
+    private static final long DRAIN_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /**
+     * nanos a reader waits for a free slot when the pipeline is full
+     */
+    private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+
+    private static volatile TaskLogPipeline instance;
+
+    private final TaskLogRingBuffer<Chunk> ringBuffer;
+
+    private final TaskLogOverflowPolicy overflowPolicy;
+
+    private final AtomicLong droppedLines = new AtomicLong();
+
+    private final Thread drainThread;
+
+    private volatile boolean drainWaiting;
+
+    TaskLogPipeline(int capacity, TaskLogOverflowPolicy overflowPolicy) {
+        this.ringBuffer = new TaskLogRingBuffer<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.drainThread = new Thread(this::drain, "Task-Log-Pipeline-Thread");
+        this.drainThread.setDaemon(true);
+        this.drainThread.start();
+    }
+
+    /**
+     * create the pipeline of the worker, it must be called before any task is run
+     *
+     * @param capacity max chunks in the pipeline
+     * @param overflowPolicy what the readers do when the pipeline is full
+     */
+    public static synchronized void init(int capacity, TaskLogOverflowPolicy overflowPolicy) {
+        if (instance != null) {
+            logger.warn("task log pipeline is already created, capacity: {}, overflow policy: {}",
+                    instance.ringBuffer.capacity(), instance.overflowPolicy);
+            return;
+        }
+        instance = new TaskLogPipeline(capacity, overflowPolicy);
+    }
+
+    /**
+     * get the pipeline, it is created with the default settings if it is not created by the worker
+     *
+     * @return task log pipeline
+     */
+    public static TaskLogPipeline getInstance() {
+        TaskLogPipeline pipeline = instance;
+        if (pipeline == null) {
+            synchronized (TaskLogPipeline.class) {
+                if (instance == null) {
+                    instance = new TaskLogPipeline(DEFAULT_CAPACITY, TaskLogOverflowPolicy.BLOCK);
+                }
+                pipeline = instance;
+            }
+        }
+        return pipeline;
+    }
+
+    /**
+     * publish a chunk of lines
+     *
+     * @param sink log of the task
+     * @param bytes lines separated by {@link TaskLogSink#LINE_SEPARATOR}
+     * @param lines number of lines
+     * @return false if the lines are dropped
+     */
+    boolean publish(TaskLogSink sink, byte[] bytes, int lines) {
+        Chunk chunk = new Chunk(sink, bytes);
+        if (ringBuffer.offer(chunk)) {
+            signal();
+            return true;
+        }
+        if (overflowPolicy == TaskLogOverflowPolicy.DROP) {
+            droppedLines.addAndGet(lines);
+            return false;
+        }
+        put(chunk);
+        return true;
+    }
+
+    /**
+     * end the log of the task, it is never dropped
+     *
+     * @param sink log of the task
+     */
+    void finish(TaskLogSink sink) {
+        put(new Chunk(sink, null));
+    }
+
+    public long getDroppedLines() {
+        return droppedLines.get();
+    }
+
+    /**
+     * @return number of the chunks waiting for the drain thread
+     */
+    public int getPendingChunks() {
+        return ringBuffer.size();
+    }
+
+    private void put(Chunk chunk) {
+        while (!ringBuffer.offer(chunk)) {
+            signal();
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+        signal();
+    }
+
+    private void signal() {
+        if (drainWaiting) {
+            LockSupport.unpark(drainThread);
+        }
+    }
+
+    private void drain() {
+        // the sinks whose batch is not handed to the log handler yet
+        List<TaskLogSink> pendingSinks = new ArrayList<>();
+        while (true) {
+            Chunk chunk = ringBuffer.poll();
+            if (chunk == null) {
+                for (TaskLogSink sink : pendingSinks) {
+                    sink.flush();
+                }
+                pendingSinks.clear();
+                drainWaiting = true;
+                if (ringBuffer.isEmpty()) {
+                    LockSupport.parkNanos(this, DRAIN_PARK_NANOS);
+                }
+                drainWaiting = false;
+                continue;
+            }
+            TaskLogSink sink = chunk.sink;
+            try {
+                if (chunk.bytes == null) {
+                    pendingSinks.remove(sink);
+                    sink.finish();
+                    continue;
+                }
+                if (sink.isBatchEmpty()) {
+                    pendingSinks.add(sink);
+                }
+                sink.append(chunk.bytes);
+                if (sink.isBatchFull()) {
+                    sink.flush();
+                    pendingSinks.remove(sink);
+                }
+            } catch (Throwable e) {
+                logger.error("drain task log error", e);
+            }
+        }
+    }
+
+    /**
+     * lines of a task, or the end of the task log when the bytes are null
+     */
+    private static final class Chunk {
+
+        private final TaskLogSink sink;
+
+        private final byte[] bytes;
+
+        Chunk(TaskLogSink sink, byte[] bytes) {
+            this.sink = sink;
+            this.bytes = bytes;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api.log;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * reader of the output of a task, the lines are split in the raw bytes and published to the task log pipeline
+ * in chunks, a chunk for the complete lines of a read, so no object is created for a line.
+ * The lines are split as {@link java.io.BufferedReader#readLine()} does.
+ */
+public class TaskLogReader {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * a longer line is split
+     */
+    private static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    /**
+     * the lines setting the var pool are not logged
+     */
+    private static final byte[][] VAR_POOL_PREFIXES = {
+        "${setValue(".getBytes(StandardCharsets.US_ASCII),
+        "#{setValue(".getBytes(StandardCharsets.US_ASCII)
+    };
+
+    private final TaskLogPipeline pipeline;
+
+    private final TaskLogSink sink;
+
+    private final Consumer<String> varPoolHandler;
+
+    private byte[] buffer = new byte[BUFFER_SIZE];
+
+    private byte[] chunk = new byte[BUFFER_SIZE];
+
+    private int chunkLength;
+
+    private int chunkLines;
+
+    private int lastLineOffset;
+
+    private String lastLine;
+
+    /**
+     * @param pipeline task log pipeline
+     * @param sink log of the task
+     * @param varPoolHandler handler of the lines setting the var pool
+     */
+    public TaskLogReader(TaskLogPipeline pipeline, TaskLogSink sink, Consumer<String> varPoolHandler) {
+        this.pipeline = pipeline;
+        this.sink = sink;
+        this.varPoolHandler = varPoolHandler;
+    }
+
+    /**
+     * read the output until its end, the task log is finished even if the read fails
+     *
+     * @param in output of the task
+     */
+    public void read(InputStream in) throws IOException {
+        int start = 0;
+        int end = 0;
+        boolean skipLineFeed = false;
+        try {
+            while (true) {
+                if (end == buffer.length) {
+                    if (start > 0) {
+                        System.arraycopy(buffer, start, buffer, 0, end - start);
+                        end -= start;
+                        start = 0;
+                    } else if (buffer.length < MAX_LINE_LENGTH) {
+                        buffer = Arrays.copyOf(buffer, buffer.length * 2);
+                    } else {
+                        addLine(0, end);
+                        start = 0;
+                        end = 0;
+                    }
+                }
+                int length = in.read(buffer, end, buffer.length - end);
+                if (length < 0) {
+                    break;
+                }
+                int from = end;
+                end += length;
+                for (int i = from; i < end; i++) {
+                    byte b = buffer[i];
+                    if (skipLineFeed) {
+                        skipLineFeed = false;
+                        if (b == '\n') {
+                            start = i + 1;
+                            continue;
+                        }
+                    }
+                    if (b == '\n' || b == '\r') {
+                        addLine(start, i);
+                        start = i + 1;
+                        skipLineFeed = b == '\r';
+                    }
+                }
+                if (start == end) {
+                    start = 0;
+                    end = 0;
+                }
+                publish();
+            }
+            if (start < end) {
+                addLine(start, end);
+            }
+            publish();
+        } finally {
+            pipeline.finish(sink);
+        }
+    }
+
+    /**
+     * @return the last line logged, null if no line is logged
+     */
+    public String getLastLine() {
+        return lastLine;
+    }
+
+    private void addLine(int from, int to) {
+        int length = to - from;
+        if (isVarPoolLine(from, length)) {
+            varPoolHandler.accept(new String(buffer, from, length, TaskLogPipeline.CHARSET));
+            return;
+        }
+        int separatorLength = chunkLines == 0 ? 0 : TaskLogSink.LINE_SEPARATOR.length;
+        if (chunkLength + separatorLength + length > chunk.length) {
+            chunk = Arrays.copyOf(chunk, Math.max(chunk.length * 2, chunkLength + separatorLength + length));
+        }
+        System.arraycopy(TaskLogSink.LINE_SEPARATOR, 0, chunk, chunkLength, separatorLength);
+        chunkLength += separatorLength;
+        lastLineOffset = chunkLength;
+        System.arraycopy(buffer, from, chunk, chunkLength, length);
+        chunkLength += length;
+        chunkLines++;
+    }
+
+    private boolean isVarPoolLine(int from, int length) {
+        for (byte[] prefix : VAR_POOL_PREFIXES) {
+            if (length >= prefix.length && startsWith(from, prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean startsWith(int from, byte[] prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer[from + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * publish the lines added since the last publish
+     */
+    private void publish() {
+        if (chunkLines == 0) {
+            return;
+        }
+        lastLine = new String(chunk, lastLineOffset, chunkLength - lastLineOffset, TaskLogPipeline.CHARSET);
+        pipeline.publish(sink, Arrays.copyOf(chunk, chunkLength), chunkLines);
+        chunkLength = 0;
+        chunkLines = 0;
+    }
+}
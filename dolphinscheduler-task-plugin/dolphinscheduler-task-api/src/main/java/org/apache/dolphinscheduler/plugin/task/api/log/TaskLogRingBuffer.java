@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api.log;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * bounded lock-free ring buffer of many producers and a single consumer.
+ * A producer claims a slot by a CAS on the tail, and the sequence of the slot tells the consumer it is published.
+ *
+ * @param <E> element type
+ */
+public class TaskLogRingBuffer<E> {
+
+    private final Object[] slots;
+
+    /**
+     * sequence of each slot, the slot at position p is free when its sequence is p and published when it is p + 1
+     */
+    private final AtomicLongArray sequences;
+
+    private final int mask;
+
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * only changed by the consumer
+     */
+    private volatile long head;
+
+    public TaskLogRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new Object[size];
+        this.sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * add the element if the buffer is not full, it is safe for concurrent producers
+     *
+     * @param element element
+     * @return false if the buffer is full
+     */
+    public boolean offer(E element) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = element;
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                // another producer claimed the slot
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * remove the eldest element, it must be called by the single consumer
+     *
+     * @return the eldest element, null if the buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    public E poll() {
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        E element = (E) slots[index];
+        slots[index] = null;
+        sequences.lazySet(index, position + mask + 1);
+        head = position + 1;
+        return element;
+    }
+
+    /**
+     * @return the number of elements, it is approximate while the producers are adding
+     */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api.log;
+
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.ClassicConstants;
+
+/**
+ * the log of a task in the task log pipeline, the lines are batched and handed to the log handler of the task.
+ * Except {@link #awaitFinished(long)}, it is only used by the drain thread of the pipeline.
+ */
+public class TaskLogSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskLogSink.class);
+
+    /**
+     * separator of the lines of a batch, the same as the log handler joins the lines of a log event
+     */
+    static final byte[] LINE_SEPARATOR = {'\n', '\t'};
+
+    /**
+     * the batch is handed to the log handler when it reaches the size, or when the pipeline is drained
+     */
+    static final int MAX_BATCH_SIZE = 64 * 1024;
+
+    /**
+     * the task log is routed by the thread name, so it is the name of the drain thread while the batch is handled
+     */
+    private final String taskLogName;
+
+    private final Consumer<LinkedBlockingQueue<String>> logHandler;
+
+    /**
+     * a batch is handed to the log handler as a single element
+     */
+    private final LinkedBlockingQueue<String> logs = new LinkedBlockingQueue<>();
+
+    private final CountDownLatch finished = new CountDownLatch(1);
+
+    private byte[] batch = new byte[0];
+
+    private int batchLength;
+
+    /**
+     * number of chunks in the batch, a chunk of a single empty line has no bytes
+     */
+    private int batchChunks;
+
+    public TaskLogSink(String taskLogName, Consumer<LinkedBlockingQueue<String>> logHandler) {
+        this.taskLogName = taskLogName;
+        this.logHandler = logHandler;
+    }
+
+    /**
+     * append the lines of a chunk to the batch
+     *
+     * @param bytes lines separated by {@link #LINE_SEPARATOR}
+     */
+    void append(byte[] bytes) {
+        int length = batchChunks == 0 ? bytes.length : batchLength + LINE_SEPARATOR.length + bytes.length;
+        if (length > batch.length) {
+            batch = Arrays.copyOf(batch, Math.max(length, batch.length * 2));
+        }
+        if (batchChunks > 0) {
+            System.arraycopy(LINE_SEPARATOR, 0, batch, batchLength, LINE_SEPARATOR.length);
+            batchLength += LINE_SEPARATOR.length;
+        }
+        System.arraycopy(bytes, 0, batch, batchLength, bytes.length);
+        batchLength += bytes.length;
+        batchChunks++;
+    }
+
+    boolean isBatchFull() {
+        return batchLength >= MAX_BATCH_SIZE;
+    }
+
+    boolean isBatchEmpty() {
+        return batchChunks == 0;
+    }
+
+    /**
+     * hand the batch to the log handler
+     */
+    void flush() {
+        if (batchChunks == 0) {
+            return;
+        }
+        logs.offer(new String(batch, 0, batchLength, TaskLogPipeline.CHARSET));
+        batchLength = 0;
+        batchChunks = 0;
+        handle();
+    }
+
+    /**
+     * hand the batch and the finalize session marker to the log handler, the task log is closed
+     */
+    void finish() {
+        flush();
+        logs.offer(ClassicConstants.FINALIZE_SESSION_MARKER.toString());
+        handle();
+        finished.countDown();
+    }
+
+    /**
+     * wait until the output of the task is read and written to the task log
+     *
+     * @param timeoutMillis max millis to wait
+     * @return false if it is not finished in time
+     */
+    public boolean awaitFinished(long timeoutMillis) throws InterruptedException {
+        return finished.await(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void handle() {
+        Thread thread = Thread.currentThread();
+        String threadName = thread.getName();
+        thread.setName(taskLogName);
+        try {
+            logHandler.accept(logs);
+        } catch (Exception e) {
+            logger.error("handle the log of {} error", taskLogName, e);
+        } finally {
+            logs.clear();
+            thread.setName(threadName);
+        }
+    }
+}
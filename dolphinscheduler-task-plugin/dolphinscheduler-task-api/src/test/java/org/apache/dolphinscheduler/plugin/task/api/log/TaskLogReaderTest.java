@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api.log;
+
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskLogOverflowPolicy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import ch.qos.logback.classic.ClassicConstants;
+
+public class TaskLogReaderTest {
+
+    private static final String FINALIZE = ClassicConstants.FINALIZE_SESSION_MARKER.toString();
+
+    @Test
+    public void testReadLines() throws Exception {
+        TaskLogPipeline pipeline = new TaskLogPipeline(16, TaskLogOverflowPolicy.BLOCK);
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        List<String> threadNames = Collections.synchronizedList(new ArrayList<>());
+        TaskLogSink sink = new TaskLogSink("TaskLogInfo-test", logs -> {
+            threadNames.add(Thread.currentThread().getName());
+            events.add(logs.poll());
+        });
+        List<String> varPool = new ArrayList<>();
+        TaskLogReader reader = new TaskLogReader(pipeline, sink, varPool::add);
+
+        String output = "line 1\r\nline 2\rline 3\n\n${setValue(key=value)}\nline 4";
+        reader.read(new ByteArrayInputStream(output.getBytes(StandardCharsets.UTF_8)));
+        Assert.assertTrue(sink.awaitFinished(10000));
+
+        Assert.assertEquals("line 1\n\tline 2\n\tline 3\n\t\n\tline 4", String.join("\n\t", events.subList(0, events.size() - 1)));
+        Assert.assertEquals(FINALIZE, events.get(events.size() - 1));
+        Assert.assertEquals(Collections.singletonList("${setValue(key=value)}"), varPool);
+        Assert.assertEquals("line 4", reader.getLastLine());
+        // the logs are routed to the task log by the thread name
+        for (String threadName : threadNames) {
+            Assert.assertEquals("TaskLogInfo-test", threadName);
+        }
+    }
+
+    @Test
+    public void testReadInPieces() throws Exception {
+        TaskLogPipeline pipeline = new TaskLogPipeline(16, TaskLogOverflowPolicy.BLOCK);
+        StringBuilder expected = new StringBuilder();
+        StringBuilder output = new StringBuilder();
+        for (int i = 0; i < 5000; i++) {
+            String line = "line " + i + (i % 100 == 0 ? new String(new char[70 * 1024]).replace('\0', 'x') : "");
+            output.append(line).append(i % 2 == 0 ? "\r\n" : "\n");
+            if (line.length() > 64 * 1024) {
+                // the too long line is split
+                expected.append(line, 0, 64 * 1024).append("\n\t").append(line.substring(64 * 1024));
+            } else {
+                expected.append(line);
+            }
+            expected.append("\n\t");
+        }
+        expected.setLength(expected.length() - 2);
+
+        StringBuilder log = new StringBuilder();
+        TaskLogSink sink = new TaskLogSink("TaskLogInfo-test", logs -> {
+            String event = logs.poll();
+            if (!FINALIZE.equals(event)) {
+                if (log.length() > 0) {
+                    log.append("\n\t");
+                }
+                log.append(event);
+            }
+        });
+        TaskLogReader reader = new TaskLogReader(pipeline, sink, line -> Assert.fail());
+        // the output is read by the pieces of a pipe
+        byte[] bytes = output.toString().getBytes(StandardCharsets.UTF_8);
+        InputStream in = new ByteArrayInputStream(bytes) {
+            @Override
+            public synchronized int read(byte[] b, int off, int len) {
+                return super.read(b, off, Math.min(len, 1000));
+            }
+        };
+        reader.read(in);
+        Assert.assertTrue(sink.awaitFinished(10000));
+        Assert.assertEquals(expected.toString(), log.toString());
+    }
+
+    @Test
+    public void testDropWhenFull() throws Exception {
+        TaskLogPipeline pipeline = new TaskLogPipeline(2, TaskLogOverflowPolicy.DROP);
+        CountDownLatch handling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        TaskLogSink blockingSink = new TaskLogSink("TaskLogInfo-blocking", logs -> {
+            handling.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        // the drain thread is blocked by the log handler
+        pipeline.publish(blockingSink, "line".getBytes(StandardCharsets.UTF_8), 1);
+        Assert.assertTrue(handling.await(10, TimeUnit.SECONDS));
+
+        TaskLogSink sink = new TaskLogSink("TaskLogInfo-test", LinkedBlockingQueue::clear);
+        Assert.assertTrue(pipeline.publish(sink, "line 1".getBytes(StandardCharsets.UTF_8), 1));
+        Assert.assertTrue(pipeline.publish(sink, "line 2".getBytes(StandardCharsets.UTF_8), 1));
+        Assert.assertFalse(pipeline.publish(sink, "line 3\n\tline 4".getBytes(StandardCharsets.UTF_8), 2));
+        Assert.assertEquals(2, pipeline.getDroppedLines());
+        Assert.assertEquals(2, pipeline.getPendingChunks());
+
+        release.countDown();
+        pipeline.finish(sink);
+        Assert.assertTrue(sink.awaitFinished(10000));
+    }
+
+    @Test(expected = IOException.class)
+    public void testFinishOnError() throws Exception {
+        TaskLogPipeline pipeline = new TaskLogPipeline(16, TaskLogOverflowPolicy.BLOCK);
+        TaskLogSink sink = new TaskLogSink("TaskLogInfo-test", LinkedBlockingQueue::clear);
+        TaskLogReader reader = new TaskLogReader(pipeline, sink, line -> { });
+        try {
+            reader.read(new InputStream() {
+                @Override
+                public int read() throws IOException {
+                    throw new IOException("stream closed");
+                }
+            });
+        } finally {
+            Assert.assertTrue(sink.awaitFinished(10000));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.plugin.task.api.log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TaskLogRingBufferTest {
+
+    @Test
+    public void testOfferAndPoll() {
+        TaskLogRingBuffer<Integer> ringBuffer = new TaskLogRingBuffer<>(3);
+        Assert.assertEquals(4, ringBuffer.capacity());
+        Assert.assertNull(ringBuffer.poll());
+
+        for (int i = 0; i < 4; i++) {
+            Assert.assertTrue(ringBuffer.offer(i));
+        }
+        // full
+        Assert.assertFalse(ringBuffer.offer(4));
+        Assert.assertEquals(4, ringBuffer.size());
+
+        Assert.assertEquals(Integer.valueOf(0), ringBuffer.poll());
+        Assert.assertTrue(ringBuffer.offer(4));
+        for (int i = 1; i <= 4; i++) {
+            Assert.assertEquals(Integer.valueOf(i), ringBuffer.poll());
+        }
+        Assert.assertTrue(ringBuffer.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        int producers = 4;
+        int elements = 10000;
+        TaskLogRingBuffer<Integer> ringBuffer = new TaskLogRingBuffer<>(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < elements; i++) {
+                    while (!ringBuffer.offer(producer * elements + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+
+        // the elements of a producer are polled in order, and none is lost
+        int[] next = new int[producers];
+        int polled = 0;
+        while (polled < producers * elements) {
+            Integer element = ringBuffer.poll();
+            if (element == null) {
+                Thread.yield();
+                continue;
+            }
+            int producer = element / elements;
+            Assert.assertEquals(next[producer]++, element % elements);
+            polled++;
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        Assert.assertNull(ringBuffer.poll());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.cache;
+
+import org.apache.dolphinscheduler.common.enums.Event;
+
+/**
+ * task event waiting for the ack of the master
+ */
+public class PendingTaskEvent {
+
+    /**
+     * the first resend delay, it is doubled on every resend
+     */
+    static final long MIN_RESEND_INTERVAL = 1000L;
+
+    static final long MAX_RESEND_INTERVAL = 60 * 1000L;
+
+    private final int taskInstanceId;
+
+    private final Event event;
+
+    /**
+     * running, response or recall command
+     */
+    private final Object command;
+
+    /**
+     * address of the master running the workflow instance, used when the dispatch channel is gone
+     */
+    private volatile String masterHost;
+
+    private int sendTimes;
+
+    private long nextSendTime;
+
+    public PendingTaskEvent(int taskInstanceId, Event event, Object command, String masterHost) {
+        this.taskInstanceId = taskInstanceId;
+        this.event = event;
+        this.command = command;
+        this.masterHost = masterHost;
+    }
+
+    public int getTaskInstanceId() {
+        return taskInstanceId;
+    }
+
+    public Event getEvent() {
+        return event;
+    }
+
+    public Object getCommand() {
+        return command;
+    }
+
+    public String getMasterHost() {
+        return masterHost;
+    }
+
+    void setMasterHost(String masterHost) {
+        this.masterHost = masterHost;
+    }
+
+    int getSendTimes() {
+        return sendTimes;
+    }
+
+    long getNextSendTime() {
+        return nextSendTime;
+    }
+
+    boolean isDue(long now) {
+        return nextSendTime <= now;
+    }
+
+    /**
+     * the event is sent now, schedule the resend in case it is not acked
+     */
+    void scheduleResend(long now) {
+        long interval = MIN_RESEND_INTERVAL << Math.min(sendTimes, 6);
+        nextSendTime = now + Math.min(interval, MAX_RESEND_INTERVAL);
+        sendTimes++;
+    }
+
+    /**
+     * send the event as soon as possible, e.g. the master is changed
+     */
+    void resetResend() {
+        sendTimes = 0;
+        nextSendTime = 0L;
+    }
+
+    @Override
+    public String toString() {
+        return "PendingTaskEvent{"
+                + "taskInstanceId=" + taskInstanceId
+                + ", event=" + event
+                + ", masterHost='" + masterHost + '\''
+                + ", sendTimes=" + sendTimes
+                + '}';
+    }
+}
@@ -18,16 +18,29 @@
 package org.apache.dolphinscheduler.server.worker.cache;
 
 import org.apache.dolphinscheduler.common.enums.Event;
-import org.apache.dolphinscheduler.remote.command.Command;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
- * Response Cache : cache worker send master result
+ * Response Cache : cache worker send master result.
+ * The events are kept until the master acks them and resent with an exponential backoff, they are written
+ * to a write-ahead file as well, so the events not acked survive a worker restart.
  */
 public class ResponseCache {
 
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCache.class);
+
     private static final ResponseCache instance = new ResponseCache();
 
     private ResponseCache() {
@@ -37,28 +50,67 @@ public class ResponseCache {
         return instance;
     }
 
-    private final Map<Integer, Command> runningCache = new ConcurrentHashMap<>();
-    private final Map<Integer, Command> responseCache = new ConcurrentHashMap<>();
-    private final Map<Integer,Command> recallCache = new ConcurrentHashMap<>();
+    private final Map<Integer, PendingTaskEvent> runningCache = new ConcurrentHashMap<>();
+    private final Map<Integer, PendingTaskEvent> responseCache = new ConcurrentHashMap<>();
+    private final Map<Integer, PendingTaskEvent> recallCache = new ConcurrentHashMap<>();
+
+    /**
+     * released when there are events to send
+     */
+    private final Semaphore sendSignal = new Semaphore(0);
+
+    /**
+     * write-ahead file, the events are only kept in memory if it is not opened
+     */
+    private ResponseCacheWal wal;
+
+    /**
+     * open the write-ahead file and restore the events not acked before the worker restarts
+     *
+     * @param walPath write-ahead file path
+     */
+    public synchronized void open(Path walPath) throws IOException {
+        ResponseCacheWal responseCacheWal = new ResponseCacheWal(walPath);
+        List<PendingTaskEvent> restoredEvents = responseCacheWal.open();
+        for (PendingTaskEvent event : restoredEvents) {
+            getCache(event.getEvent()).put(event.getTaskInstanceId(), event);
+        }
+        this.wal = responseCacheWal;
+        logger.info("open task event wal {}, restored events: {}", walPath, restoredEvents.size());
+        if (!restoredEvents.isEmpty()) {
+            sendSignal.release();
+        }
+    }
 
     /**
-     * cache response
+     * cache response, it is sent by the report thread
      *
      * @param taskInstanceId taskInstanceId
-     * @param command command
-     * @param event event ACK/RESULT
+     * @param command running, response or recall command
+     * @param event event RUNNING/RESULT/WORKER_REJECT
+     * @param masterHost address of the master running the workflow instance
      */
-    public void cache(Integer taskInstanceId, Command command, Event event) {
+    public synchronized void cache(Integer taskInstanceId, Object command, Event event, String masterHost) {
+        PendingTaskEvent pendingEvent = new PendingTaskEvent(taskInstanceId, event, command, masterHost);
+        getCache(event).put(taskInstanceId, pendingEvent);
+        if (wal != null) {
+            try {
+                wal.appendAdd(pendingEvent);
+            } catch (IOException e) {
+                logger.error("append task event wal error, the event is only kept in memory: {}", pendingEvent, e);
+            }
+        }
+        sendSignal.release();
+    }
+
+    private Map<Integer, PendingTaskEvent> getCache(Event event) {
         switch (event) {
             case RUNNING:
-                runningCache.put(taskInstanceId, command);
-                break;
+                return runningCache;
             case RESULT:
-                responseCache.put(taskInstanceId, command);
-                break;
+                return responseCache;
             case WORKER_REJECT:
-                recallCache.put(taskInstanceId, command);
-                break;
+                return recallCache;
             default:
                 throw new IllegalArgumentException("invalid event type : " + event);
         }
@@ -70,11 +122,7 @@ public class ResponseCache {
      * @param taskInstanceId taskInstanceId
      */
     public void removeRecallCache(Integer taskInstanceId) {
-        recallCache.remove(taskInstanceId);
-    }
-
-    public Map<Integer, Command> getRecallCache() {
-        return recallCache;
+        remove(taskInstanceId, Event.WORKER_REJECT);
     }
 
     /**
@@ -83,7 +131,7 @@ public class ResponseCache {
      * @param taskInstanceId taskInstanceId
      */
     public void removeRunningCache(Integer taskInstanceId) {
-        runningCache.remove(taskInstanceId);
+        remove(taskInstanceId, Event.RUNNING);
     }
 
     /**
@@ -92,24 +140,109 @@ public class ResponseCache {
      * @param taskInstanceId taskInstanceId
      */
     public void removeResponseCache(Integer taskInstanceId) {
-        responseCache.remove(taskInstanceId);
+        remove(taskInstanceId, Event.RESULT);
+    }
+
+    private synchronized void remove(Integer taskInstanceId, Event event) {
+        if (getCache(event).remove(taskInstanceId) == null || wal == null) {
+            return;
+        }
+        try {
+            wal.appendRemove(taskInstanceId, event);
+        } catch (IOException e) {
+            logger.error("append task event wal error, taskInstanceId: {}, event: {}", taskInstanceId, event, e);
+        }
     }
 
     /**
-     * get running cache
+     * the workflow instance of the task is taken over by another master, resend the events to it at once
      *
-     * @return getAckCache
+     * @param taskInstanceId taskInstanceId
+     * @param masterHost address of the new master
+     */
+    public synchronized void changeMasterHost(Integer taskInstanceId, String masterHost) {
+        for (Event event : new Event[] {Event.RUNNING, Event.RESULT, Event.WORKER_REJECT}) {
+            PendingTaskEvent pendingEvent = getCache(event).get(taskInstanceId);
+            if (pendingEvent == null) {
+                continue;
+            }
+            pendingEvent.setMasterHost(masterHost);
+            pendingEvent.resetResend();
+            if (wal != null) {
+                try {
+                    wal.appendAdd(pendingEvent);
+                } catch (IOException e) {
+                    logger.error("append task event wal error: {}", pendingEvent, e);
+                }
+            }
+            sendSignal.release();
+        }
+    }
+
+    /**
+     * wait until there are events to send
+     *
+     * @param timeoutMillis max wait millis
      */
-    public Map<Integer, Command> getRunningCache() {
-        return runningCache;
+    public void awaitEvents(long timeoutMillis) throws InterruptedException {
+        if (sendSignal.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS)) {
+            sendSignal.drainPermits();
+        }
     }
 
     /**
-     * getResponseCache
+     * take the events due to be sent and schedule their resend in case they are not acked
      *
-     * @return getResponseCache
+     * @param now current millis
+     * @return events to send, the running events go first
      */
-    public Map<Integer, Command> getResponseCache() {
-        return responseCache;
+    public synchronized List<PendingTaskEvent> pollDueEvents(long now) {
+        List<PendingTaskEvent> dueEvents = new ArrayList<>();
+        for (Map<Integer, PendingTaskEvent> cache : Arrays.asList(runningCache, responseCache, recallCache)) {
+            for (PendingTaskEvent pendingEvent : cache.values()) {
+                if (pendingEvent.isDue(now)) {
+                    pendingEvent.scheduleResend(now);
+                    dueEvents.add(pendingEvent);
+                }
+            }
+        }
+        return dueEvents;
+    }
+
+    /**
+     * force the cached events to the disk, they must be durable before they are sent
+     */
+    public synchronized void sync() {
+        if (wal == null) {
+            return;
+        }
+        try {
+            wal.sync();
+            if (wal.needRewrite()) {
+                List<PendingTaskEvent> pendingEvents = new ArrayList<>(size());
+                pendingEvents.addAll(runningCache.values());
+                pendingEvents.addAll(responseCache.values());
+                pendingEvents.addAll(recallCache.values());
+                wal.rewrite(pendingEvents);
+            }
+        } catch (IOException e) {
+            logger.error("sync task event wal error", e);
+        }
+    }
+
+    /**
+     * get the number of the events not acked
+     *
+     * @return pending events count
+     */
+    public int size() {
+        return runningCache.size() + responseCache.size() + recallCache.size();
+    }
+
+    public synchronized void close() {
+        if (wal != null) {
+            wal.close();
+            wal = null;
+        }
     }
 }
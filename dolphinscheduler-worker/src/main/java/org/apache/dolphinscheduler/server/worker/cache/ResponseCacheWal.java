@@ -0,0 +1,260 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.cache;
+
+import org.apache.dolphinscheduler.common.enums.Event;
+import org.apache.dolphinscheduler.common.utils.JSONUtils;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRunningCommand;
+import org.apache.dolphinscheduler.remote.command.TaskRecallCommand;
+
+import org.apache.commons.lang3.StringUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * write-ahead file of the response cache.
+ * A cached event is appended as an add record and an acked event as a remove record, the file is replayed
+ * when the worker starts, and it is rewritten with the pending events once the records appended since the last
+ * rewrite outnumber both the threshold and the pending events, so the cost of a rewrite is spread over the appends.
+ * A record is the payload length, the crc32 of the payload and the payload, the torn tail of a crash is dropped.
+ */
+class ResponseCacheWal {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCacheWal.class);
+
+    private static final byte ADD = 1;
+
+    private static final byte REMOVE = 2;
+
+    private static final int RECORD_HEADER_LENGTH = 8;
+
+    /**
+     * the least records appended since the last rewrite before the file is rewritten
+     */
+    static final int REWRITE_THRESHOLD = 4096;
+
+    private final Path path;
+
+    private FileChannel fileChannel;
+
+    /**
+     * records written by the last rewrite
+     */
+    private int rewrittenRecords;
+
+    /**
+     * records appended since the last rewrite
+     */
+    private int appendedRecords;
+
+    /**
+     * there are records not forced to the disk
+     */
+    private boolean dirty;
+
+    ResponseCacheWal(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * replay the file and open it for appending
+     *
+     * @return the events not acked
+     */
+    List<PendingTaskEvent> open() throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Map<String, PendingTaskEvent> events = new LinkedHashMap<>();
+        if (Files.exists(path)) {
+            replay(Files.readAllBytes(path), events);
+        }
+        List<PendingTaskEvent> pendingEvents = new ArrayList<>(events.values());
+        rewrite(pendingEvents);
+        return pendingEvents;
+    }
+
+    private void replay(byte[] bytes, Map<String, PendingTaskEvent> events) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.remaining() >= RECORD_HEADER_LENGTH) {
+            int length = buffer.getInt();
+            long crc = buffer.getInt() & 0xFFFFFFFFL;
+            if (length < 0 || length > buffer.remaining()) {
+                logger.warn("drop the torn tail of the task event wal {}, {} bytes", path, buffer.remaining() + RECORD_HEADER_LENGTH);
+                return;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            if (crc(payload) != crc) {
+                logger.warn("drop the corrupted tail of the task event wal {}, {} bytes", path, buffer.remaining() + length + RECORD_HEADER_LENGTH);
+                return;
+            }
+            DataInputStream input = new DataInputStream(new ByteArrayInputStream(payload));
+            byte op = input.readByte();
+            int taskInstanceId = input.readInt();
+            Event event = Event.valueOf(input.readUTF());
+            if (op == REMOVE) {
+                events.remove(key(taskInstanceId, event));
+                continue;
+            }
+            String masterHost = input.readUTF();
+            byte[] command = new byte[input.readInt()];
+            input.readFully(command);
+            events.put(key(taskInstanceId, event), new PendingTaskEvent(taskInstanceId, event,
+                    JSONUtils.parseObject(command, commandClass(event)), StringUtils.defaultIfEmpty(masterHost, null)));
+        }
+    }
+
+    void appendAdd(PendingTaskEvent event) throws IOException {
+        append(fileChannel, addRecord(event));
+        appendedRecords++;
+        dirty = true;
+    }
+
+    void appendRemove(int taskInstanceId, Event event) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(REMOVE);
+        output.writeInt(taskInstanceId);
+        output.writeUTF(event.name());
+        append(fileChannel, bytes.toByteArray());
+        appendedRecords++;
+        dirty = true;
+    }
+
+    /**
+     * force the appended records to the disk
+     */
+    void sync() throws IOException {
+        if (dirty) {
+            fileChannel.force(false);
+            dirty = false;
+        }
+    }
+
+    boolean needRewrite() {
+        return appendedRecords >= Math.max(REWRITE_THRESHOLD, rewrittenRecords);
+    }
+
+    /**
+     * replace the file with the add records of the pending events
+     *
+     * @param events pending events
+     */
+    void rewrite(Collection<PendingTaskEvent> events) throws IOException {
+        Path tmpPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel tmpChannel = FileChannel.open(tmpPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (PendingTaskEvent event : events) {
+                append(tmpChannel, addRecord(event));
+            }
+            tmpChannel.force(true);
+        }
+        // the new file is opened before it replaces the old one, the channel follows the file when it is moved,
+        // so the old file is kept for appending if either fails
+        FileChannel newChannel = FileChannel.open(tmpPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        try {
+            Files.move(tmpPath, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException | RuntimeException e) {
+            newChannel.close();
+            throw e;
+        }
+        close();
+        fileChannel = newChannel;
+        rewrittenRecords = events.size();
+        appendedRecords = 0;
+        dirty = false;
+    }
+
+    void close() {
+        if (fileChannel == null) {
+            return;
+        }
+        try {
+            fileChannel.close();
+        } catch (IOException e) {
+            logger.warn("close task event wal {} error", path, e);
+        }
+        fileChannel = null;
+    }
+
+    private static byte[] addRecord(PendingTaskEvent event) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream output = new DataOutputStream(bytes);
+        output.writeByte(ADD);
+        output.writeInt(event.getTaskInstanceId());
+        output.writeUTF(event.getEvent().name());
+        output.writeUTF(StringUtils.defaultString(event.getMasterHost()));
+        byte[] command = JSONUtils.toJsonByteArray(event.getCommand());
+        output.writeInt(command.length);
+        output.write(command);
+        return bytes.toByteArray();
+    }
+
+    private static void append(FileChannel channel, byte[] payload) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_LENGTH + payload.length);
+        buffer.putInt(payload.length);
+        buffer.putInt((int) crc(payload));
+        buffer.put(payload);
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static long crc(byte[] payload) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(payload, 0, payload.length);
+        return crc32.getValue();
+    }
+
+    private static String key(int taskInstanceId, Event event) {
+        return event.name() + "_" + taskInstanceId;
+    }
+
+    static Class<?> commandClass(Event event) {
+        switch (event) {
+            case RUNNING:
+                return TaskExecuteRunningCommand.class;
+            case RESULT:
+                return TaskExecuteResponseCommand.class;
+            case WORKER_REJECT:
+                return TaskRecallCommand.class;
+            default:
+                throw new IllegalArgumentException("invalid event type : " + event);
+        }
+    }
+}
@@ -17,6 +17,9 @@
 
 package org.apache.dolphinscheduler.server.worker.config;
 
+import org.apache.dolphinscheduler.plugin.task.api.enums.TaskLogOverflowPolicy;
+import org.apache.dolphinscheduler.plugin.task.api.log.TaskLogPipeline;
+
 import java.util.Set;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
@@ -38,6 +41,8 @@ public class WorkerConfig {
     private Set<String> groups;
     private String alertListenHost;
     private int alertListenPort;
+    private int taskLogBufferSize = TaskLogPipeline.DEFAULT_CAPACITY;
+    private TaskLogOverflowPolicy taskLogOverflowPolicy = TaskLogOverflowPolicy.BLOCK;
 
     public int getListenPort() {
         return listenPort;
@@ -126,4 +131,20 @@ public class WorkerConfig {
     public void setTenantDistributedUser(boolean tenantDistributedUser) {
         this.tenantDistributedUser = tenantDistributedUser;
     }
+
+    public int getTaskLogBufferSize() {
+        return taskLogBufferSize;
+    }
+
+    public void setTaskLogBufferSize(int taskLogBufferSize) {
+        this.taskLogBufferSize = taskLogBufferSize;
+    }
+
+    public TaskLogOverflowPolicy getTaskLogOverflowPolicy() {
+        return taskLogOverflowPolicy;
+    }
+
+    public void setTaskLogOverflowPolicy(TaskLogOverflowPolicy taskLogOverflowPolicy) {
+        this.taskLogOverflowPolicy = taskLogOverflowPolicy;
+    }
 }
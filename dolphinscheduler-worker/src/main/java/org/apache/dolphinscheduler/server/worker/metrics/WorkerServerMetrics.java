@@ -17,11 +17,19 @@
 
 package org.apache.dolphinscheduler.server.worker.metrics;
 
+import org.apache.dolphinscheduler.common.utils.SystemMetricsSampler;
+import org.apache.dolphinscheduler.server.worker.runner.TaskAdmissionResult;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
 import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
 import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 public final class WorkerServerMetrics {
 
@@ -39,6 +47,24 @@ public final class WorkerServerMetrics {
                     .description("full worker submit queues count")
                     .register(Metrics.globalRegistry);
 
+    private static final Timer WORKER_TASK_QUEUE_WAIT_TIMER =
+            Timer.builder("ds.worker.task.queue.wait.time")
+                    .description("Time between a task being ready and being handed to an exec thread")
+                    .publishPercentileHistogram()
+                    .register(Metrics.globalRegistry);
+
+    private static final Map<TaskAdmissionResult, Counter> WORKER_TASK_ADMISSION_COUNTERS = new EnumMap<>(TaskAdmissionResult.class);
+
+    static {
+        for (TaskAdmissionResult result : TaskAdmissionResult.values()) {
+            WORKER_TASK_ADMISSION_COUNTERS.put(result,
+                    Counter.builder("ds.worker.task.admission.count")
+                            .tag("result", result.name().toLowerCase())
+                            .description("task admission decisions count")
+                            .register(Metrics.globalRegistry));
+        }
+    }
+
     public static void incWorkerOverloadCount() {
         WORKER_OVERLOAD_COUNTER.increment();
     }
@@ -47,10 +73,39 @@ public final class WorkerServerMetrics {
         WORKER_SUBMIT_QUEUE_IS_FULL_COUNTER.increment();
     }
 
+    public static void incWorkerTaskAdmissionCount(TaskAdmissionResult result) {
+        WORKER_TASK_ADMISSION_COUNTERS.get(result).increment();
+    }
+
+    public static void recordWorkerTaskQueueWaitTime(long milliseconds) {
+        WORKER_TASK_QUEUE_WAIT_TIMER.record(milliseconds, TimeUnit.MILLISECONDS);
+    }
+
     public static void registerWorkerRunningTaskGauge(Supplier<Number> supplier) {
         Gauge.builder("ds.task.running", supplier)
                 .description("number of running tasks on workers")
                 .register(Metrics.globalRegistry);
 
     }
+
+    public static void registerTaskLogPipelineMetrics(Supplier<Number> pendingChunks, Supplier<Number> droppedLines) {
+        Gauge.builder("ds.worker.task.log.pending", pendingChunks)
+                .description("number of task log chunks waiting to be written")
+                .register(Metrics.globalRegistry);
+        FunctionCounter.builder("ds.worker.task.log.dropped", droppedLines, supplier -> supplier.get().doubleValue())
+                .description("number of task log lines dropped since the task log pipeline is full")
+                .register(Metrics.globalRegistry);
+    }
+
+    public static void registerWorkerSystemMetricsGauges() {
+        Gauge.builder("ds.worker.cpu.usage", () -> SystemMetricsSampler.getSnapshot().getCpuUsage())
+                .description("smoothed cpu usage of the worker host")
+                .register(Metrics.globalRegistry);
+        Gauge.builder("ds.worker.memory.usage", () -> SystemMetricsSampler.getSnapshot().getMemoryUsage())
+                .description("smoothed memory usage of the worker host")
+                .register(Metrics.globalRegistry);
+        Gauge.builder("ds.worker.load.average", () -> SystemMetricsSampler.getSnapshot().getLoadAverage())
+                .description("smoothed load average of the worker host")
+                .register(Metrics.globalRegistry);
+    }
 }
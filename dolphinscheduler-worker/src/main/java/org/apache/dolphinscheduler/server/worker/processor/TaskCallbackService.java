@@ -20,22 +20,33 @@ package org.apache.dolphinscheduler.server.worker.processor;
 import static org.apache.dolphinscheduler.common.Constants.SLEEP_TIME_MILLIS;
 
 import org.apache.dolphinscheduler.common.enums.Event;
+import org.apache.dolphinscheduler.common.model.WorkerLoad;
 import org.apache.dolphinscheduler.plugin.task.api.TaskConstants;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
 import org.apache.dolphinscheduler.remote.NettyRemotingClient;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
+import org.apache.dolphinscheduler.remote.command.TaskEventBatchCommand;
 import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
 import org.apache.dolphinscheduler.remote.command.TaskExecuteRunningCommand;
 import org.apache.dolphinscheduler.remote.command.TaskKillResponseCommand;
 import org.apache.dolphinscheduler.remote.command.TaskRecallCommand;
 import org.apache.dolphinscheduler.remote.config.NettyClientConfig;
 import org.apache.dolphinscheduler.remote.processor.NettyRemoteChannel;
+import org.apache.dolphinscheduler.remote.utils.Host;
+import org.apache.dolphinscheduler.server.worker.cache.PendingTaskEvent;
 import org.apache.dolphinscheduler.server.worker.cache.ResponseCache;
 
+import org.apache.commons.lang3.StringUtils;
+
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
+import javax.annotation.PostConstruct;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -61,6 +72,9 @@ public class TaskCallbackService {
     @Autowired
     private TaskExecuteResponseAckProcessor taskExecuteResponseAckProcessor;
 
+    @Autowired
+    private TaskRecallAckProcessor taskRecallAckProcessor;
+
     /**
      * remote channels
      */
@@ -74,8 +88,16 @@ public class TaskCallbackService {
     public TaskCallbackService() {
         final NettyClientConfig clientConfig = new NettyClientConfig();
         this.nettyRemotingClient = new NettyRemotingClient(clientConfig);
+    }
+
+    /**
+     * the events sent to the master directly are acked on the channel of this client
+     */
+    @PostConstruct
+    public void init() {
         this.nettyRemotingClient.registerProcessor(CommandType.TASK_EXECUTE_RUNNING_ACK, taskExecuteRunningProcessor);
         this.nettyRemotingClient.registerProcessor(CommandType.TASK_EXECUTE_RESPONSE_ACK, taskExecuteResponseAckProcessor);
+        this.nettyRemotingClient.registerProcessor(CommandType.TASK_RECALL_ACK, taskRecallAckProcessor);
     }
 
     /**
@@ -168,6 +190,63 @@ public class TaskCallbackService {
         }
     }
 
+    /**
+     * send the task events in batches, one batch per master channel.
+     * The event is sent on the channel the task is dispatched on, and to the master running the workflow instance
+     * if the channel is gone, e.g. the events are restored after the worker restarts.
+     *
+     * @param events task events
+     * @param workerLoad worker load, sent with the batches so the masters get it between heartbeats
+     */
+    public void sendTaskEvents(List<PendingTaskEvent> events, WorkerLoad workerLoad) {
+        Map<Channel, TaskEventBatchCommand> batches = new HashMap<>();
+        for (PendingTaskEvent event : events) {
+            Channel channel = getEventChannel(event);
+            if (channel == null) {
+                logger.warn("Remote channel of taskInstanceId is null: {}, resend the event later: {}", event.getTaskInstanceId(), event);
+                continue;
+            }
+            TaskEventBatchCommand batch = batches.computeIfAbsent(channel, key -> {
+                TaskEventBatchCommand taskEventBatchCommand = new TaskEventBatchCommand();
+                taskEventBatchCommand.setWorkerLoad(workerLoad);
+                return taskEventBatchCommand;
+            });
+            switch (event.getEvent()) {
+                case RUNNING:
+                    batch.getRunningCommands().add((TaskExecuteRunningCommand) event.getCommand());
+                    break;
+                case RESULT:
+                    batch.getResponseCommands().add((TaskExecuteResponseCommand) event.getCommand());
+                    break;
+                case WORKER_REJECT:
+                    batch.getRecallCommands().add((TaskRecallCommand) event.getCommand());
+                    break;
+                default:
+                    throw new IllegalArgumentException("invalid event type : " + event.getEvent());
+            }
+        }
+        for (Map.Entry<Channel, TaskEventBatchCommand> batch : batches.entrySet()) {
+            logger.debug("send task event batch, size: {}, channel: {}", batch.getValue().size(), batch.getKey());
+            batch.getKey().writeAndFlush(batch.getValue().convert2Command());
+        }
+    }
+
+    private Channel getEventChannel(PendingTaskEvent event) {
+        NettyRemoteChannel nettyRemoteChannel = getRemoteChannel(event.getTaskInstanceId());
+        if (nettyRemoteChannel != null) {
+            return nettyRemoteChannel.getChannel();
+        }
+        if (StringUtils.isEmpty(event.getMasterHost())) {
+            return null;
+        }
+        try {
+            return nettyRemotingClient.getChannel(Host.of(event.getMasterHost()));
+        } catch (Exception e) {
+            logger.warn("connect to master {} error", event.getMasterHost(), e);
+            return null;
+        }
+    }
+
     /**
      * build task execute running command
      *
@@ -234,14 +313,12 @@ public class TaskCallbackService {
     }
 
     /**
-     * send task execute running command
+     * send task execute running command, it is sent by the report thread until it is acked
      * todo unified callback command
      */
     public void sendTaskExecuteRunningCommand(TaskExecutionContext taskExecutionContext) {
         TaskExecuteRunningCommand command = buildTaskExecuteRunningCommand(taskExecutionContext);
-        // add response cache
-        ResponseCache.get().cache(taskExecutionContext.getTaskInstanceId(), command.convert2Command(), Event.RUNNING);
-        send(taskExecutionContext.getTaskInstanceId(), command.convert2Command());
+        ResponseCache.get().cache(taskExecutionContext.getTaskInstanceId(), command, Event.RUNNING, taskExecutionContext.getWorkflowInstanceHost());
     }
 
     /**
@@ -254,14 +331,12 @@ public class TaskCallbackService {
     }
 
     /**
-     * send task execute response command
+     * send task execute response command, it is sent by the report thread until it is acked
      * todo unified callback command
      */
     public void sendTaskExecuteResponseCommand(TaskExecutionContext taskExecutionContext) {
         TaskExecuteResponseCommand command = buildTaskExecuteResponseCommand(taskExecutionContext);
-        // add response cache
-        ResponseCache.get().cache(taskExecutionContext.getTaskInstanceId(), command.convert2Command(), Event.RESULT);
-        send(taskExecutionContext.getTaskInstanceId(), command.convert2Command());
+        ResponseCache.get().cache(taskExecutionContext.getTaskInstanceId(), command, Event.RESULT, taskExecutionContext.getWorkflowInstanceHost());
     }
 
     public void sendTaskKillResponseCommand(TaskExecutionContext taskExecutionContext) {
@@ -270,11 +345,15 @@ public class TaskCallbackService {
     }
 
     /**
-     * send task execute response command
+     * send task recall command, the task is dispatched to another worker by the master,
+     * it is sent by the report thread until it is acked
+     *
+     * @param taskExecutionContext task execution context
+     * @param reason the reason why the task is not accepted
      */
-    public void sendRecallCommand(TaskExecutionContext taskExecutionContext) {
+    public void sendRecallCommand(TaskExecutionContext taskExecutionContext, String reason) {
         TaskRecallCommand taskRecallCommand = buildRecallCommand(taskExecutionContext);
-        ResponseCache.get().cache(taskExecutionContext.getTaskInstanceId(), taskRecallCommand.convert2Command(), Event.WORKER_REJECT);
-        send(taskExecutionContext.getTaskInstanceId(), taskRecallCommand.convert2Command());
+        taskRecallCommand.setReason(reason);
+        ResponseCache.get().cache(taskExecutionContext.getTaskInstanceId(), taskRecallCommand, Event.WORKER_REJECT, taskExecutionContext.getWorkflowInstanceHost());
     }
 }
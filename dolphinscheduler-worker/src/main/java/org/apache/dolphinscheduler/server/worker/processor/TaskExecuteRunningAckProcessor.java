@@ -17,7 +17,6 @@
 
 package org.apache.dolphinscheduler.server.worker.processor;
 
-import org.apache.dolphinscheduler.common.utils.JSONUtils;
 import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
 import org.apache.dolphinscheduler.remote.command.Command;
 import org.apache.dolphinscheduler.remote.command.CommandType;
@@ -46,8 +45,7 @@ public class TaskExecuteRunningAckProcessor implements NettyRequestProcessor {
         Preconditions.checkArgument(CommandType.TASK_EXECUTE_RUNNING_ACK == command.getType(),
                 String.format("invalid command type : %s", command.getType()));
 
-        TaskExecuteRunningAckCommand runningAckCommand = JSONUtils.parseObject(
-                command.getBody(), TaskExecuteRunningAckCommand.class);
+        TaskExecuteRunningAckCommand runningAckCommand = command.getBody(TaskExecuteRunningAckCommand.class);
 
         if (runningAckCommand == null) {
             logger.error("task execute running ack command is null");
@@ -107,7 +107,7 @@ public class WorkerRegistryClient {
                 Constants.WORKER_TYPE,
                 registryClient,
                 workerConfig.getExecThreads(),
-                workerManagerThread.getThreadPoolQueueSize()
+                workerManagerThread::getWorkerLoad
         );
 
         for (String workerZKPath : workerZkPaths) {
@@ -18,12 +18,16 @@
 package org.apache.dolphinscheduler.server.worker.runner;
 
 import org.apache.dolphinscheduler.common.thread.Stopper;
-import org.apache.dolphinscheduler.common.thread.ThreadUtils;
-import org.apache.dolphinscheduler.remote.command.Command;
+import org.apache.dolphinscheduler.common.utils.FileUtils;
+import org.apache.dolphinscheduler.server.worker.cache.PendingTaskEvent;
 import org.apache.dolphinscheduler.server.worker.cache.ResponseCache;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.processor.TaskCallbackService;
 
-import java.util.Map;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,7 +35,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
 /**
- * Retry Report Task Status Thread
+ * Report Task Status Thread, sends the cached task events in batches and resends them until they are acked
  */
 @Component
 public class RetryReportTaskStatusThread implements Runnable {
@@ -39,60 +43,62 @@ public class RetryReportTaskStatusThread implements Runnable {
     private final Logger logger = LoggerFactory.getLogger(RetryReportTaskStatusThread.class);
 
     /**
-     * every 5 minutes
+     * max millis waiting for new events, the events due to be resent are checked in between
      */
-    private static long RETRY_REPORT_TASK_STATUS_INTERVAL = 5 * 60 * 1000L;
+    private static final long REPORT_TASK_STATUS_INTERVAL = 100L;
 
     @Autowired
     private TaskCallbackService taskCallbackService;
 
+    @Autowired
+    private WorkerConfig workerConfig;
+
+    @Autowired
+    private WorkerManagerThread workerManagerThread;
+
     public void start() {
+        try {
+            ResponseCache.get().open(getWalPath());
+        } catch (IOException e) {
+            logger.error("open task event wal error, the task events not acked will be lost if the worker restarts", e);
+        }
         Thread thread = new Thread(this, "RetryReportTaskStatusThread");
         thread.setDaemon(true);
         thread.start();
     }
 
     /**
-     * retry ack/response
+     * the listen port is a part of the name, so the workers sharing the data dir do not share the file
+     */
+    private Path getWalPath() {
+        return Paths.get(FileUtils.DATA_BASEDIR, "worker", String.format("task-event-%d.wal", workerConfig.getListenPort()));
+    }
+
+    /**
+     * report running/response/recall
      */
     @Override
     public void run() {
         ResponseCache instance = ResponseCache.get();
 
         while (Stopper.isRunning()) {
-
-            // sleep 5 minutes
-            ThreadUtils.sleep(RETRY_REPORT_TASK_STATUS_INTERVAL);
-
             try {
-                if (!instance.getRunningCache().isEmpty()) {
-                    Map<Integer, Command> runningCache = instance.getRunningCache();
-                    for (Map.Entry<Integer, Command> entry : runningCache.entrySet()) {
-                        Integer taskInstanceId = entry.getKey();
-                        Command runningCommand = entry.getValue();
-                        taskCallbackService.send(taskInstanceId, runningCommand);
-                    }
-                }
-
-                if (!instance.getResponseCache().isEmpty()) {
-                    Map<Integer, Command> responseCache = instance.getResponseCache();
-                    for (Map.Entry<Integer, Command> entry : responseCache.entrySet()) {
-                        Integer taskInstanceId = entry.getKey();
-                        Command responseCommand = entry.getValue();
-                        taskCallbackService.send(taskInstanceId, responseCommand);
-                    }
-                }
-                if (!instance.getRecallCache().isEmpty()) {
-                    Map<Integer, Command> recallCache = instance.getRecallCache();
-                    for (Map.Entry<Integer, Command> entry : recallCache.entrySet()) {
-                        Integer taskInstanceId = entry.getKey();
-                        Command responseCommand = entry.getValue();
-                        taskCallbackService.send(taskInstanceId, responseCommand);
-                    }
+                instance.awaitEvents(REPORT_TASK_STATUS_INTERVAL);
+                List<PendingTaskEvent> events = instance.pollDueEvents(System.currentTimeMillis());
+                if (events.isEmpty()) {
+                    continue;
                 }
+                // the events are durable before they are sent
+                instance.sync();
+                taskCallbackService.sendTaskEvents(events, workerManagerThread.getWorkerLoad());
+            } catch (InterruptedException e) {
+                logger.warn("report task status thread is interrupted");
+                Thread.currentThread().interrupt();
+                break;
             } catch (Exception e) {
-                logger.warn("retry report task status error", e);
+                logger.warn("report task status error", e);
             }
         }
+        instance.close();
     }
 }
@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.runner;
+
+/**
+ * result of admitting a task to the worker, a task not accepted is recalled with the description as the reason
+ */
+public enum TaskAdmissionResult {
+
+    ACCEPTED("accepted"),
+    REJECTED_FULL("the worker has no free slot for waiting tasks"),
+    REJECTED_STOPPING("the worker is stopping");
+
+    private final String description;
+
+    TaskAdmissionResult(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public boolean isAccepted() {
+        return this == ACCEPTED;
+    }
+}
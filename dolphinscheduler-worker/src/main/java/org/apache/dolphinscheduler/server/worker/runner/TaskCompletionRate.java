@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.runner;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * task completion rate, an exponentially decaying count of the finished tasks,
+ * the count decays by e every time window, so it is the recent tasks finished per second
+ */
+class TaskCompletionRate {
+
+    /**
+     * time window of the rate
+     */
+    static final long WINDOW_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private double count;
+
+    private long lastTime;
+
+    TaskCompletionRate(long now) {
+        this.lastTime = now;
+    }
+
+    /**
+     * mark a task finished
+     */
+    synchronized void mark(long now) {
+        count = decay(now) + 1;
+        lastTime = now;
+    }
+
+    /**
+     * get the rate
+     *
+     * @return tasks finished per second
+     */
+    synchronized double getRate(long now) {
+        return decay(now) * TimeUnit.SECONDS.toMillis(1) / WINDOW_MILLIS;
+    }
+
+    private double decay(long now) {
+        long elapsed = Math.max(now - lastTime, 0L);
+        return count * Math.exp(-(double) elapsed / WINDOW_MILLIS);
+    }
+}
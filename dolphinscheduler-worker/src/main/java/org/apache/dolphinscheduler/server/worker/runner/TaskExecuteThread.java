@@ -85,8 +85,21 @@ public class TaskExecuteThread implements Runnable, Delayed {
         this.storageOperate = storageOperate;
     }
 
+    public long getReadyTime() {
+        return readyTime;
+    }
+
+    public void setReadyTime(long readyTime) {
+        this.readyTime = readyTime;
+    }
+
     private StorageOperate storageOperate;
 
+    /**
+     * the time the task is admitted or its delay ends, the time waiting for an exec thread is counted from it
+     */
+    private long readyTime;
+
     /**
      * abstract task
      */
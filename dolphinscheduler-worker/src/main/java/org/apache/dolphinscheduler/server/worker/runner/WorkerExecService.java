@@ -21,6 +21,7 @@ import org.apache.dolphinscheduler.server.worker.metrics.WorkerServerMetrics;
 
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 
 import org.slf4j.Logger;
@@ -57,13 +58,26 @@ public class WorkerExecService {
         WorkerServerMetrics.registerWorkerRunningTaskGauge(taskExecuteThreadMap::size);
     }
 
-    public void submit(TaskExecuteThread taskExecuteThread) {
+    /**
+     * submit the task to the executor
+     *
+     * @param taskExecuteThread task
+     * @param finishCallback called when the task finishes, whatever the result
+     */
+    public void submit(TaskExecuteThread taskExecuteThread, Runnable finishCallback) {
         taskExecuteThreadMap.put(taskExecuteThread.getTaskExecutionContext().getTaskInstanceId(), taskExecuteThread);
-        ListenableFuture future = this.listeningExecutorService.submit(taskExecuteThread);
+        ListenableFuture future;
+        try {
+            future = this.listeningExecutorService.submit(taskExecuteThread);
+        } catch (RejectedExecutionException e) {
+            taskExecuteThreadMap.remove(taskExecuteThread.getTaskExecutionContext().getTaskInstanceId());
+            throw e;
+        }
         FutureCallback futureCallback = new FutureCallback() {
             @Override
             public void onSuccess(Object o) {
                 taskExecuteThreadMap.remove(taskExecuteThread.getTaskExecutionContext().getTaskInstanceId());
+                finishCallback.run();
             }
 
             @Override
@@ -71,6 +85,7 @@ public class WorkerExecService {
                 logger.error("task execute failed, processInstanceId:{}, taskInstanceId:{}", taskExecuteThread.getTaskExecutionContext().getProcessInstanceId()
                     , taskExecuteThread.getTaskExecutionContext().getTaskInstanceId(), throwable);
                 taskExecuteThreadMap.remove(taskExecuteThread.getTaskExecutionContext().getTaskInstanceId());
+                finishCallback.run();
             }
         };
         Futures.addCallback(future, futureCallback, this.listeningExecutorService);
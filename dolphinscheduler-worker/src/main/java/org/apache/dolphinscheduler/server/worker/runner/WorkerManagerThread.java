@@ -17,10 +17,11 @@
 
 package org.apache.dolphinscheduler.server.worker.runner;
 
-import org.apache.dolphinscheduler.common.Constants;
+import org.apache.dolphinscheduler.common.model.WorkerLoad;
 import org.apache.dolphinscheduler.common.storage.StorageOperate;
 import org.apache.dolphinscheduler.common.thread.Stopper;
 import org.apache.dolphinscheduler.common.thread.ThreadUtils;
+import org.apache.dolphinscheduler.common.utils.NetUtils;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
 import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContextCacheManager;
 import org.apache.dolphinscheduler.plugin.task.api.enums.ExecutionStatus;
@@ -28,9 +29,13 @@ import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.metrics.WorkerServerMetrics;
 import org.apache.dolphinscheduler.server.worker.processor.TaskCallbackService;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -64,15 +69,32 @@ public class WorkerManagerThread implements Runnable {
     @Autowired
     private TaskCallbackService taskCallbackService;
 
-    private volatile int workerExecThreads;
+    /**
+     * limit the tasks admitted but not finished, they are the running tasks and as many waiting ones
+     */
+    private final Semaphore admissionPermits;
+
+    /**
+     * limit the tasks handed to the executor, so a task is only handed over when a thread is free
+     */
+    private final Semaphore execPermits;
 
     /**
      * running task
      */
     private final ConcurrentHashMap<Integer, TaskExecuteThread> taskExecuteThreadMap = new ConcurrentHashMap<>();
 
+    private final TaskCompletionRate taskCompletionRate = new TaskCompletionRate(System.currentTimeMillis());
+
+    private final int execThreads;
+
+    private final int listenPort;
+
     public WorkerManagerThread(WorkerConfig workerConfig) {
-        workerExecThreads = workerConfig.getExecThreads();
+        this.execThreads = workerConfig.getExecThreads();
+        this.listenPort = workerConfig.getListenPort();
+        this.admissionPermits = new Semaphore(workerConfig.getExecThreads() * 2);
+        this.execPermits = new Semaphore(workerConfig.getExecThreads());
         this.waitSubmitQueue = new DelayQueue<>();
         workerExecService = new WorkerExecService(
             ThreadUtils.newDaemonFixedThreadExecutor("Worker-Execute-Thread", workerConfig.getExecThreads()),
@@ -93,6 +115,17 @@ public class WorkerManagerThread implements Runnable {
         return waitSubmitQueue.size();
     }
 
+    /**
+     * get the live load of the worker
+     *
+     * @return worker load
+     */
+    public WorkerLoad getWorkerLoad() {
+        long now = System.currentTimeMillis();
+        double rate = BigDecimal.valueOf(taskCompletionRate.getRate(now)).setScale(4, RoundingMode.HALF_UP).doubleValue();
+        return new WorkerLoad(NetUtils.getAddr(listenPort), taskExecuteThreadMap.size(), waitSubmitQueue.size(), execThreads, rate, now);
+    }
+
     /**
      * get thread pool queue size
      *
@@ -109,7 +142,8 @@ public class WorkerManagerThread implements Runnable {
     public void killTaskBeforeExecuteByInstanceId(Integer taskInstanceId) {
         waitSubmitQueue.stream()
                           .filter(taskExecuteThread -> taskExecuteThread.getTaskExecutionContext().getTaskInstanceId() == taskInstanceId)
-                          .forEach(waitSubmitQueue::remove);
+                          .filter(waitSubmitQueue::remove)
+                          .forEach(taskExecuteThread -> admissionPermits.release());
         sendTaskKillResponse(taskInstanceId);
     }
 
@@ -126,21 +160,27 @@ public class WorkerManagerThread implements Runnable {
     }
 
     /**
-     * submit task
+     * submit task, the task is rejected at once if it can not be admitted, so the caller is never blocked
      *
      * @param taskExecuteThread taskExecuteThread
-     * @return submit result
+     * @return admission result
      */
-    public boolean offer(TaskExecuteThread taskExecuteThread) {
-        if (waitSubmitQueue.size() > workerExecThreads) {
+    public TaskAdmissionResult offer(TaskExecuteThread taskExecuteThread) {
+        TaskAdmissionResult result;
+        if (!Stopper.isRunning()) {
+            result = TaskAdmissionResult.REJECTED_STOPPING;
+        } else if (!admissionPermits.tryAcquire()) {
             WorkerServerMetrics.incWorkerSubmitQueueIsFullCount();
-            // if waitSubmitQueue is full, it will wait 1s, then try add
-            ThreadUtils.sleep(Constants.SLEEP_TIME_MILLIS);
-            if (waitSubmitQueue.size() > workerExecThreads) {
-                return false;
-            }
+            result = TaskAdmissionResult.REJECTED_FULL;
+        } else {
+            // the delay of a delay task is not counted as waiting
+            long delay = Math.max(taskExecuteThread.getDelay(TimeUnit.MILLISECONDS), 0L);
+            taskExecuteThread.setReadyTime(System.currentTimeMillis() + delay);
+            waitSubmitQueue.offer(taskExecuteThread);
+            result = TaskAdmissionResult.ACCEPTED;
         }
-        return waitSubmitQueue.offer(taskExecuteThread);
+        WorkerServerMetrics.incWorkerTaskAdmissionCount(result);
+        return result;
     }
 
     public void start() {
@@ -155,20 +195,46 @@ public class WorkerManagerThread implements Runnable {
         TaskExecuteThread taskExecuteThread;
         while (Stopper.isRunning()) {
             try {
-                if (this.getThreadPoolQueueSize() <= workerExecThreads) {
-                    taskExecuteThread = waitSubmitQueue.take();
-                    taskExecuteThread.setStorageOperate(storageOperate);
-                    workerExecService.submit(taskExecuteThread);
-                } else {
+                if (!execPermits.tryAcquire()) {
                     WorkerServerMetrics.incWorkerOverloadCount();
-                    logger.info("Exec queue is full, waiting submit queue {}, waiting exec queue size {}",
-                            this.getWaitSubmitQueueSize(), this.getThreadPoolQueueSize());
-                    ThreadUtils.sleep(Constants.SLEEP_TIME_MILLIS);
+                    logger.info("All exec threads are busy, waiting submit queue size {}", this.getWaitSubmitQueueSize());
+                    // woken up as soon as a running task finishes
+                    execPermits.acquire();
+                }
+                try {
+                    taskExecuteThread = waitSubmitQueue.take();
+                } catch (InterruptedException e) {
+                    execPermits.release();
+                    throw e;
                 }
+                submit(taskExecuteThread);
+            } catch (InterruptedException e) {
+                logger.warn("Worker execute manager thread is interrupted");
+                Thread.currentThread().interrupt();
+                break;
             } catch (Exception e) {
                 logger.error("An unexpected interrupt is happened, "
                     + "the exception will be ignored and this thread will continue to run", e);
             }
         }
     }
+
+    /**
+     * hand the task to the executor, the permits are released when the task finishes
+     */
+    private void submit(TaskExecuteThread taskExecuteThread) {
+        WorkerServerMetrics.recordWorkerTaskQueueWaitTime(Math.max(System.currentTimeMillis() - taskExecuteThread.getReadyTime(), 0L));
+        taskExecuteThread.setStorageOperate(storageOperate);
+        try {
+            workerExecService.submit(taskExecuteThread, () -> {
+                taskCompletionRate.mark(System.currentTimeMillis());
+                execPermits.release();
+                admissionPermits.release();
+            });
+        } catch (RuntimeException e) {
+            execPermits.release();
+            admissionPermits.release();
+            throw e;
+        }
+    }
 }
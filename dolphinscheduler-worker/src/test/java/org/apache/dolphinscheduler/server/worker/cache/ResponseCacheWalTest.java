@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.cache;
+
+import org.apache.dolphinscheduler.common.enums.Event;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteResponseCommand;
+import org.apache.dolphinscheduler.remote.command.TaskExecuteRunningCommand;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ResponseCacheWalTest {
+
+    private Path dir;
+
+    private Path path;
+
+    @Before
+    public void before() throws IOException {
+        dir = Files.createTempDirectory("task-event-wal");
+        path = dir.resolve("task-event.wal");
+    }
+
+    @After
+    public void after() throws IOException {
+        Files.deleteIfExists(path);
+        Files.deleteIfExists(dir);
+    }
+
+    @Test
+    public void testReplay() throws IOException {
+        ResponseCacheWal wal = new ResponseCacheWal(path);
+        Assert.assertTrue(wal.open().isEmpty());
+        wal.appendAdd(new PendingTaskEvent(1, Event.RUNNING, runningCommand(1), "127.0.0.1:5678"));
+        wal.appendAdd(new PendingTaskEvent(1, Event.RESULT, responseCommand(1), "127.0.0.1:5678"));
+        wal.appendAdd(new PendingTaskEvent(2, Event.RUNNING, runningCommand(2), null));
+        wal.appendRemove(1, Event.RUNNING);
+        wal.sync();
+        wal.close();
+
+        List<PendingTaskEvent> events = new ResponseCacheWal(path).open();
+        Assert.assertEquals(2, events.size());
+        Assert.assertEquals(1, events.get(0).getTaskInstanceId());
+        Assert.assertEquals(Event.RESULT, events.get(0).getEvent());
+        Assert.assertEquals("127.0.0.1:5678", events.get(0).getMasterHost());
+        Assert.assertEquals("/tmp/1", ((TaskExecuteResponseCommand) events.get(0).getCommand()).getVarPool());
+        Assert.assertEquals(2, events.get(1).getTaskInstanceId());
+        Assert.assertNull(events.get(1).getMasterHost());
+        Assert.assertEquals(2, ((TaskExecuteRunningCommand) events.get(1).getCommand()).getTaskInstanceId());
+    }
+
+    @Test
+    public void testDropTornTail() throws IOException {
+        ResponseCacheWal wal = new ResponseCacheWal(path);
+        wal.open();
+        wal.appendAdd(new PendingTaskEvent(1, Event.RESULT, responseCommand(1), null));
+        wal.appendAdd(new PendingTaskEvent(2, Event.RESULT, responseCommand(2), null));
+        wal.close();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        wal = new ResponseCacheWal(path);
+        List<PendingTaskEvent> events = wal.open();
+        Assert.assertEquals(1, events.size());
+        Assert.assertEquals(1, events.get(0).getTaskInstanceId());
+        // the torn tail is dropped by the rewrite, the records appended later are replayed
+        wal.appendAdd(new PendingTaskEvent(3, Event.RESULT, responseCommand(3), null));
+        wal.close();
+        Assert.assertEquals(2, new ResponseCacheWal(path).open().size());
+    }
+
+    @Test
+    public void testNeedRewrite() throws IOException {
+        ResponseCacheWal wal = new ResponseCacheWal(path);
+        wal.open();
+        List<PendingTaskEvent> events = new ArrayList<>();
+        for (int i = 0; i < ResponseCacheWal.REWRITE_THRESHOLD + 1; i++) {
+            events.add(new PendingTaskEvent(i, Event.RUNNING, runningCommand(i), null));
+        }
+        wal.rewrite(events);
+        // the pending events are not counted, the file is rewritten after as many records are appended
+        Assert.assertFalse(wal.needRewrite());
+        for (int i = 0; i < ResponseCacheWal.REWRITE_THRESHOLD; i++) {
+            wal.appendRemove(i, Event.RUNNING);
+        }
+        Assert.assertFalse(wal.needRewrite());
+        wal.appendRemove(ResponseCacheWal.REWRITE_THRESHOLD, Event.RUNNING);
+        Assert.assertTrue(wal.needRewrite());
+
+        wal.rewrite(Collections.emptyList());
+        Assert.assertFalse(wal.needRewrite());
+        wal.close();
+    }
+
+    @Test
+    public void testRewriteFailed() throws IOException {
+        ResponseCacheWal wal = new ResponseCacheWal(path);
+        wal.open();
+        // the file can not be replaced by a non empty directory
+        Files.delete(path);
+        Path child = Files.createFile(Files.createDirectory(path).resolve("child"));
+        try {
+            wal.rewrite(Collections.emptyList());
+            Assert.fail("the file can not be replaced");
+        } catch (IOException e) {
+            // the old file is kept for appending
+        } finally {
+            Files.delete(child);
+            Files.delete(path);
+            Files.deleteIfExists(path.resolveSibling(path.getFileName() + ".tmp"));
+        }
+        wal.appendAdd(new PendingTaskEvent(1, Event.RUNNING, runningCommand(1), null));
+        wal.sync();
+        wal.close();
+    }
+
+    @Test
+    public void testResendBackoff() {
+        PendingTaskEvent event = new PendingTaskEvent(1, Event.RESULT, responseCommand(1), null);
+        Assert.assertTrue(event.isDue(0L));
+        event.scheduleResend(0L);
+        Assert.assertEquals(PendingTaskEvent.MIN_RESEND_INTERVAL, event.getNextSendTime());
+        event.scheduleResend(0L);
+        Assert.assertEquals(PendingTaskEvent.MIN_RESEND_INTERVAL * 2, event.getNextSendTime());
+        for (int i = 0; i < 10; i++) {
+            event.scheduleResend(0L);
+        }
+        Assert.assertEquals(PendingTaskEvent.MAX_RESEND_INTERVAL, event.getNextSendTime());
+        event.resetResend();
+        Assert.assertTrue(event.isDue(0L));
+    }
+
+    private TaskExecuteRunningCommand runningCommand(int taskInstanceId) {
+        TaskExecuteRunningCommand command = new TaskExecuteRunningCommand();
+        command.setTaskInstanceId(taskInstanceId);
+        return command;
+    }
+
+    private TaskExecuteResponseCommand responseCommand(int taskInstanceId) {
+        TaskExecuteResponseCommand command = new TaskExecuteResponseCommand();
+        command.setTaskInstanceId(taskInstanceId);
+        command.setVarPool("/tmp/" + taskInstanceId);
+        return command;
+    }
+}
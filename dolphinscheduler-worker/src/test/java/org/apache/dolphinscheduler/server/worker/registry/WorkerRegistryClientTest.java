@@ -20,6 +20,7 @@ package org.apache.dolphinscheduler.server.worker.registry;
 import static org.mockito.BDDMockito.given;
 
 import org.apache.dolphinscheduler.common.enums.NodeType;
+import org.apache.dolphinscheduler.common.model.WorkerLoad;
 import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
 import org.apache.dolphinscheduler.server.worker.runner.WorkerManagerThread;
 import org.apache.dolphinscheduler.service.registry.RegistryClient;
@@ -87,7 +88,7 @@ public class WorkerRegistryClientTest {
     public void testRegistry() {
         workerRegistryClient.initWorkRegistry();
     
-        given(workerManagerThread.getThreadPoolQueueSize()).willReturn(1);
+        given(workerManagerThread.getWorkerLoad()).willReturn(new WorkerLoad("127.0.0.1:1234", 1, 1, 1, 0, System.currentTimeMillis()));
     
         given(registryClient.checkNodeExists(Mockito.anyString(), Mockito.any(NodeType.class))).willReturn(true);
     
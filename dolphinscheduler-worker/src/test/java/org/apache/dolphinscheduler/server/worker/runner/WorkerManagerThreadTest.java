@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.dolphinscheduler.server.worker.runner;
+
+import org.apache.dolphinscheduler.plugin.task.api.TaskExecutionContext;
+import org.apache.dolphinscheduler.server.worker.config.WorkerConfig;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class WorkerManagerThreadTest {
+
+    private WorkerManagerThread workerManagerThread;
+
+    @Before
+    public void before() {
+        WorkerConfig workerConfig = new WorkerConfig();
+        workerConfig.setExecThreads(1);
+        workerManagerThread = new WorkerManagerThread(workerConfig);
+    }
+
+    @Test
+    public void testOfferRejectedWhenFull() {
+        Assert.assertEquals(TaskAdmissionResult.ACCEPTED, workerManagerThread.offer(newTaskExecuteThread(1)));
+        Assert.assertEquals(TaskAdmissionResult.ACCEPTED, workerManagerThread.offer(newTaskExecuteThread(2)));
+        Assert.assertEquals(TaskAdmissionResult.REJECTED_FULL, workerManagerThread.offer(newTaskExecuteThread(3)));
+        Assert.assertEquals(2, workerManagerThread.getWaitSubmitQueueSize());
+    }
+
+    @Test
+    public void testKilledTaskReleasesPermit() {
+        Assert.assertEquals(TaskAdmissionResult.ACCEPTED, workerManagerThread.offer(newTaskExecuteThread(1)));
+        Assert.assertEquals(TaskAdmissionResult.ACCEPTED, workerManagerThread.offer(newTaskExecuteThread(2)));
+        workerManagerThread.killTaskBeforeExecuteByInstanceId(1);
+        Assert.assertEquals(1, workerManagerThread.getWaitSubmitQueueSize());
+        Assert.assertEquals(TaskAdmissionResult.ACCEPTED, workerManagerThread.offer(newTaskExecuteThread(3)));
+    }
+
+    private TaskExecuteThread newTaskExecuteThread(int taskInstanceId) {
+        TaskExecutionContext taskExecutionContext = new TaskExecutionContext();
+        taskExecutionContext.setTaskInstanceId(taskInstanceId);
+        return new TaskExecuteThread(taskExecutionContext, null, null);
+    }
+}